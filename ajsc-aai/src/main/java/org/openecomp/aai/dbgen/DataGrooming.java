@@ -29,13 +29,23 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -57,13 +67,16 @@ import com.thinkaurelius.titan.core.TitanFactory;
 import com.thinkaurelius.titan.core.TitanGraph;
 import com.thinkaurelius.titan.core.TitanTransaction;
 import com.thinkaurelius.titan.core.TitanVertex;
+import com.thinkaurelius.titan.core.attribute.Contain;
 
 
 public class DataGrooming {
 
 	private static final String FROMAPPID = "AAI-DB";
 	private static final String TRANSID = UUID.randomUUID().toString();
-	private static int dupeGrpsDeleted = 0;
+	private static final AtomicInteger dupeGrpsDeleted = new AtomicInteger();
+	
+	private static final int PHANTOM_CHECK_BATCH = 500;
 
 	private static AAILogger aaiLogger;
 
@@ -94,6 +107,8 @@ public class DataGrooming {
 		
 		int maxRecordsToFix = AAIConstants.AAI_GROOMING_DEFAULT_MAX_FIX;
 		int sleepMinutes = AAIConstants.AAI_GROOMING_DEFAULT_SLEEP_MINUTES;
+		int threads = AAIConstants.AAI_GROOMING_DEFAULT_THREADS;
+		int shardSize = AAIConstants.AAI_GROOMING_DEFAULT_SHARD_SIZE;
 		try {
 			String maxFixStr = AAIConfig.get("aai.grooming.default.max.fix");
 			if( maxFixStr != null &&  !maxFixStr.equals("") ){
@@ -103,6 +118,14 @@ public class DataGrooming {
 			if( sleepStr != null &&  !sleepStr.equals("") ){
 				sleepMinutes = Integer.parseInt(sleepStr);
 			}
+			String threadsStr = AAIConfig.get(AAIConstants.AAI_GROOMING_THREADS);
+			if( threadsStr != null &&  !threadsStr.equals("") ){
+				threads = Integer.parseInt(threadsStr);
+			}
+			String shardSizeStr = AAIConfig.get(AAIConstants.AAI_GROOMING_SHARD_SIZE);
+			if( shardSizeStr != null &&  !shardSizeStr.equals("") ){
+				shardSize = Integer.parseInt(shardSizeStr);
+			}
 		}
 		catch ( Exception e ){
 			// Don't worry, we'll just use the defaults that we got from AAIConstants
@@ -110,7 +133,7 @@ public class DataGrooming {
 		}
 		
 		String prevFileName = "";
-		dupeGrpsDeleted = 0;
+		dupeGrpsDeleted.set(0);
 		SimpleDateFormat d = new SimpleDateFormat("yyyyMMddHHmm");
 		d.setTimeZone(TimeZone.getTimeZone("GMT"));
 		String dteStr = d.format(new Date()).toString();
@@ -170,6 +193,22 @@ public class DataGrooming {
 										+ nextArg + "]");
 						System.exit(0);
 					}
+				} else if (thisArg.equals("-threads")) {
+					i++;
+					if (i >= args.length) {
+						System.out
+								.println("No value passed with -threads option.");
+						System.exit(0);
+					}
+					String nextArg = args[i];
+					try {
+						threads = Integer.parseInt(nextArg);
+					} catch (Exception e) {
+						System.out
+								.println("Bad value passed with -threads option: ["
+										+ nextArg + "]");
+						System.exit(0);
+					}
 				} else if (thisArg.equals("-f")) {
 					i++;
 					if (i >= args.length) {
@@ -182,11 +221,17 @@ public class DataGrooming {
 							.println(" Unrecognized argument passed to DataGrooming: ["
 									+ thisArg + "]. ");
 					System.out
-							.println(" Valid values are: -f -autoFix -maxFix -edgesOnly -dupeFixOn -donFixOrphans -sleepMinutes");
+							.println(" Valid values are: -f -autoFix -maxFix -edgesOnly -dupeFixOn -donFixOrphans -sleepMinutes -threads");
 					System.exit(0);
 				}
 			}
 		}
+		if (threads < 1) {
+			threads = 1;
+		}
+		if (shardSize < 1) {
+			shardSize = AAIConstants.AAI_GROOMING_DEFAULT_SHARD_SIZE;
+		}
 		
 
 		IngestModelMoxyOxm moxyMod = new IngestModelMoxyOxm();
@@ -232,7 +277,7 @@ public class DataGrooming {
 				Boolean finalShutdownFlag = true;
 				doTheGrooming(prevFileName, edgesOnlyFlag, dontFixOrphansFlag,
 						maxRecordsToFix, groomOutFileName, ver, singleCommits,
-						dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag);
+						dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag, threads, shardSize);
 			} else if (doAutoFix) {
 				// They want us to run the processing twice -- first to look for
 				// delete candidates, then after
@@ -246,7 +291,7 @@ public class DataGrooming {
 				Boolean finalShutdownFlag = false;
 				int fixCandCount = doTheGrooming("", edgesOnlyFlag,
 						dontFixOrphansFlag, maxRecordsToFix, groomOutFileName,
-						ver, singleCommits, dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag);
+						ver, singleCommits, dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag, threads, shardSize);
 				if (fixCandCount == 0) {
 					System.out
 							.println(" No fix-Candidates were found by the first pass, so no second/fix-pass is needed. ");
@@ -277,7 +322,7 @@ public class DataGrooming {
 					doTheGrooming(groomOutFileName, edgesOnlyFlag,
 							dontFixOrphansFlag, maxRecordsToFix,
 							secondGroomOutFileName, ver, singleCommits,
-							dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag);
+							dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag, threads, shardSize);
 				}
 			} else {
 				// Do the grooming - plain vanilla (no fix-it-file, no
@@ -286,7 +331,7 @@ public class DataGrooming {
 				System.out.println(" Call doTheGrooming() ");
 				doTheGrooming("", edgesOnlyFlag, dontFixOrphansFlag,
 						maxRecordsToFix, groomOutFileName, ver, singleCommits,
-						dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag );
+						dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, finalShutdownFlag, threads, shardSize );
 			}
 		} catch (Exception ex) {
 			System.out.print("Threw a regular Exception:\n");
@@ -313,6 +358,8 @@ public class DataGrooming {
 	 * @param ghost2CheckOff the ghost 2 check off
 	 * @param ghost2FixOn the ghost 2 fix on
 	 * @param finalShutdownFlag the final shutdown flag
+	 * @param threads the number of worker threads
+	 * @param shardSize the number of vertices in each id range handed to a worker
 	 * @return the int
 	 */
 	private static int doTheGrooming(String fileNameForFixing,
@@ -320,7 +367,8 @@ public class DataGrooming {
 			int maxRecordsToFix, String groomOutFileName, String version,
 			Boolean singleCommits, 
 			Boolean dupeCheckOff, Boolean dupeFixOn,
-			Boolean ghost2CheckOff, Boolean ghost2FixOn, Boolean finalShutdownFlag) {
+			Boolean ghost2CheckOff, Boolean ghost2FixOn, Boolean finalShutdownFlag,
+			int threads, int shardSize) {
 
 		System.out.println(" Entering doTheGrooming \n");
 
@@ -336,6 +384,7 @@ public class DataGrooming {
 		ArrayList<String> deleteCandidateList = new ArrayList<String>();
 		TitanTransaction g = null;
 		TitanTransaction g2 = null;
+		ArrayList<GroomWorker> workers = new ArrayList<GroomWorker>();
 		try {
 			AAIConfig.init(TRANSID, FROMAPPID);
 			String targetDir = AAIConstants.AAI_HOME + AAIConstants.AAI_FILESEP
@@ -393,263 +442,35 @@ public class DataGrooming {
 			}
 			System.out.println(" Got the graph object. ");
 			
-			g = graph.newTransaction();
+			// Each worker thread gets its own transaction - the first one is also used by this thread
+			// for the full vertex scan and anything that can't be handed out to the pool.
+			for (int i = 0; i < threads; i++) {
+				workers.add(new GroomWorker(graph));
+			}
+			GroomWorker mainWorker = workers.get(0);
+			g = mainWorker.tx;
 			if (g == null) {
 				String emsg = "null graphTransaction object in DataGrooming\n";
 				throw new AAIException("AAI_6101", emsg);
 			}
 
 			
-			ArrayList<String> errArr = new ArrayList<String>();
-			int totalNodeCount = 0;
-			HashMap<String, String> misMatchedHash = new HashMap<String, String>();
-			HashMap<String, TitanVertex> orphanNodeHash = new HashMap<String, TitanVertex>();
-			HashMap<String, TitanVertex> missingDepNodeHash = new HashMap<String, TitanVertex>();
-			HashMap<String, Edge> oneArmedEdgeHash = new HashMap<String, Edge>();
-			HashMap<String, String> emptyVertexHash = new HashMap<String, String>();
-			HashMap<String, TitanVertex> ghostNodeHash = new HashMap<String, TitanVertex>();
-			ArrayList<String> dupeGroups = new ArrayList<String>();
-
+			final ArrayList<String> fixList = deleteCandidateList;
 
 			DbMaps dbMaps = IngestModelMoxyOxm.dbMapsContainer.get(AAIConfig.get(AAIConstants.AAI_DEFAULT_API_VERSION_PROP));
 			
 			Iterator<String> nodeMapKPropsIterator = dbMaps.NodeKeyProps.keySet().iterator();
 			String ntList = "";
-
-			System.out.println("  Starting DataGrooming Processing ");
-
-			if (edgesOnlyFlag) {
-				System.out.println(" NOTE >> Skipping Node processing as requested.  Will only process Edges. << ");
-			} 
-			else {
-				while (nodeMapKPropsIterator.hasNext()) {
-					String nType = nodeMapKPropsIterator.next();
-					int thisNtCount = 0;
-					int thisNtDeleteCount = 0;
-					String infoMsg = " >  Look at : [" + nType + "] ...";
-					aaiLogger.debug(logline, infoMsg);
-					System.out.println(infoMsg);
+			ArrayList<String> nodeTypes = new ArrayList<String>();
+			while (nodeMapKPropsIterator.hasNext()) {
+				String nType = nodeMapKPropsIterator.next();
+				if (!edgesOnlyFlag) {
 					ntList = ntList + "," + nType;
+				}
+				nodeTypes.add(nType);
+			}
 
-					// Get a collection of the names of the key properties for this nodeType to use later
-					Collection<String> keyProps = DbMeth.getNodeKeyPropNames(TRANSID, FROMAPPID, nType, version);
-					// Get the types of nodes that this nodetype depends on for uniqueness (if any)
-					ArrayList <String> depNodeTypes = DbMeth.getDepNodeTypes(TRANSID, FROMAPPID, nType, version);
-					
-					// Loop through all the nodes of this Node type
-					int lastShownForNt = 0;
-					ArrayList <TitanVertex> tmpList = new ArrayList <TitanVertex> ();
-					Iterable <?> verts =  g.query().has("aai-node-type",nType).vertices(); 
-					Iterator<?> iterv = verts.iterator();
-					while (iterv.hasNext()) {
-						// We put the nodes into an ArrayList because the graph.query iterator can time out
-						tmpList.add((TitanVertex)iterv.next());
-					}
-					
-					Iterator <?> iter = tmpList.iterator();
-					while (iter.hasNext()) {
-						try {
-							thisNtCount++;
-							if( thisNtCount == lastShownForNt + 250 ){
-								lastShownForNt = thisNtCount;
-								System.out.println("count for " + nType + " so far = " + thisNtCount );
-							}
-							totalNodeCount++;
-							TitanVertex thisVtx = (TitanVertex) iter.next();
-							String thisVid = thisVtx.id().toString();
-							ArrayList <TitanVertex> secondGetList = new ArrayList <TitanVertex> ();
-							// -----------------------------------------------------------------------
-							// For each vertex of this nodeType, we want to:
-							//		a) make sure that it can be retrieved using it's AAI defined key
-							//   	b) make sure that it is not a duplicate
-							// -----------------------------------------------------------------------
-							
-							// For this instance of this nodeType, get the key properties 
-							HashMap<String, Object> propHashWithKeys = new HashMap<String, Object>();
-							Iterator<String> keyPropI = keyProps.iterator();
-							while (keyPropI.hasNext()) {
-								String propName = keyPropI.next();
-								String propVal = "";
-								Object obj = thisVtx.<Object>property(propName).orElse(null);
-								if (obj != null) {
-									propVal = obj.toString();
-								}
-								propHashWithKeys.put(propName, propVal);
-							}
-							try {
-								// If this node is dependent on another for uniqueness, then do the query from that parent node
-								// Note - all of our nodes that are dependent on others for uniqueness are 
-								// 		"children" of that node.
-								boolean depNodeOk = true;
-								if( depNodeTypes.isEmpty() ){
-									// This kind of node is not dependent on any other.
-									// Make sure we can get it back using it's key properties and that we only get one.
-									secondGetList = getNodeJustUsingKeyParams( TRANSID, FROMAPPID, g, nType, 
-											propHashWithKeys, version );
-								} 
-								else {
-									// This kind of node is dependent on another for uniqueness.  
-									// Start at it's parent (the dependent vertex) and make sure we can get it
-									// back using it's key properties and that we only get one.
-									Iterable <?> verts2 = thisVtx.query().direction(Direction.IN).has("isParent",true).vertices();
-									Iterator <?> vertI2 = verts2.iterator();
-									TitanVertex parentVtx = null;
-									int pCount = 0;
-									while( vertI2 != null && vertI2.hasNext() ){
-										parentVtx = (TitanVertex) vertI2.next();
-										pCount++;
-									}
-									if( pCount <= 0 ){
-										// It's Missing it's dependent/parent node 
-										depNodeOk = false;
-										boolean zeroEdges = false;
-										try {
-											Iterator<Edge> tmpEdgeIter = thisVtx.edges(Direction.BOTH);
-											int edgeCount = 0;
-											while( tmpEdgeIter.hasNext() ){
-												edgeCount++;
-												tmpEdgeIter.next();
-											}
-											if( edgeCount == 0 ){  
-												zeroEdges = true;
-											}
-										} catch (Exception ex) {
-											String msg = "WARNING from inside the for-each-vid-loop orphan-edges-check ";
-											logline.add(msg, ex.getMessage());
-											System.out.println(msg + ex.getMessage() + ex.toString());
-										}
-										
-										if (deleteCandidateList.contains(thisVid)) {
-											boolean okFlag = true;
-											try {
-												thisVtx.remove();
-												deleteCount++;
-												thisNtDeleteCount++;
-											} catch (Exception e) {
-												okFlag = false;
-												String msg = "ERROR trying to delete missing-dep-node VID = " + thisVid;
-												logline.add(msg, e.getMessage());
-												System.out.println(msg);
-											}
-											if (okFlag) {
-												logline.add( "DELETED missing-dep-node VID:", thisVid);
-												System.out.println(" DELETED missing-dep-node VID = " + thisVid);
-											}
-										} else {
-											// We count nodes missing their depNodes two ways - the first if it has
-											//    at least some edges, and the second if it has zero edges.  Either
-											//    way, they are effectively orphaned.
-											// NOTE - Only nodes that have dependent nodes are ever considered "orphaned".
-											if( zeroEdges ){
-												missingDepNodeHash.put(thisVid,	thisVtx);
-											}
-											else {
-												orphanNodeHash.put(thisVid, thisVtx);
-											}
-										}
-									}
-									else if ( pCount > 1 ){
-										// Not sure how this could happen?  Should we do something here?
-										depNodeOk = false;
-									}
-									else {
-										// We found the parent - so use it to do the second-look.
-										// NOTE --- We're just going to do the same check from the other direction - because
-										//  there could be duplicates or the pointer going the other way could be broken
-										ArrayList <TitanVertex> tmpListSec = new ArrayList <TitanVertex> ();
-										tmpListSec = DbMeth.getConnectedChildren(TRANSID, FROMAPPID, g, parentVtx, nType ) ;
-										Iterator<TitanVertex> vIter = tmpListSec.iterator();
-										while (vIter.hasNext()) {
-											TitanVertex tmpV = vIter.next();
-											if( vertexHasTheseKeys(tmpV, propHashWithKeys) ){
-												secondGetList.add(tmpV);
-											}
-										}
-									}
-								}
-								
-								if( depNodeOk && (secondGetList == null || secondGetList.size() == 0) ){
-									// We could not get the node back using it's own key info. 
-									// So, it's a PHANTOM
-									if (deleteCandidateList.contains(thisVid)) {
-										boolean okFlag = true;
-										try {
-											thisVtx.remove();
-											deleteCount++;
-											thisNtDeleteCount++;
-										} catch (Exception e) {
-											okFlag = false;
-											String msg = "ERROR trying to delete phantom VID = " + thisVid;
-											logline.add(msg, e.getMessage());
-											System.out.println(msg);
-										}
-										if (okFlag) {
-											logline.add("DELETED VID:", thisVid);
-											System.out.println(" DELETED VID = " + thisVid);
-										}
-									} else {
-										ghostNodeHash.put(thisVid, thisVtx);
-									}
-								}
-								else if( (secondGetList.size() > 1) && depNodeOk && !dupeCheckOff ){
-									// Found some DUPLICATES - need to process them
-									System.out.print(" - now check Dupes for this guy - ");
-									ArrayList<String> tmpDupeGroups = checkAndProcessDupes(
-												TRANSID, FROMAPPID, g, version,
-												nType, secondGetList, dupeFixOn,
-												deleteCandidateList, singleCommits,	dupeGroups, dbMaps);
-									Iterator<String> dIter = tmpDupeGroups.iterator();
-									while (dIter.hasNext()) {
-										// Add in any newly found dupes to our running list
-										String tmpGrp = dIter.next();
-										System.out.println("Found set of dupes: [" + tmpGrp + "]");
-										dupeGroups.add(tmpGrp);
-									}
-								}
-							} 
-							catch (AAIException e1) {
-								String msg = " For nodeType = " + nType + " Caught this exception: "
-										+ e1.getErrorObject().toString();
-								System.out.println(msg);
-								errArr.add(msg);
-							}
-							catch (Exception e2) {
-								String msg = " For nodeType = " + nType
-										+ " Caught this exception: "
-										+ e2.toString();
-								System.out.println(msg);
-								errArr.add(msg);
-							}
-						}// try block to enclose looping of a single vertex
-						catch (Exception exx) {
-							String msg = "WARNING from inside the while-verts-loop ";
-							logline.add(msg, exx.getMessage());
-							System.out.println(msg + exx.getMessage()
-									+ exx.toString());
-						}
-						
-					} // while loop for each record of a nodeType
-					
-					if ( (thisNtDeleteCount > 0) && singleCommits ) {
-						g.commit();
-						g = AAIGraph.getInstance().getGraph().newTransaction();
-						
-					}
-					thisNtDeleteCount = 0;
-					System.out.println( " Processed " + thisNtCount + " records for [" + nType + "], " + totalNodeCount + " total overall. " );
-					
-				}// While-loop for each node type
-			}// end of check to make sure we weren't only supposed to do edges
-
-		
-			// --------------------------------------------------------------------------------------
-			// Now, we're going to look for one-armed-edges. Ie. an edge that
-			// should have
-			// been deleted (because a vertex on one side was deleted) but
-			// somehow was not deleted.
-			// So the one end of it points to a vertexId -- but that vertex is
-			// empty.
-			// --------------------------------------------------------------------------------------
+			System.out.println("  Starting DataGrooming Processing using " + threads + " thread(s) ");
 
 			// To do some strange checking - we need a second graph object
 			System.out.println("    ---- DEBUG --- about to open a SECOND graph (takes a little while)--------\n");
@@ -661,342 +482,35 @@ public class DataGrooming {
 			} else {
 				System.out.println("Got the graph2 object... \n");
 			}
-			g2 = graph2.newTransaction();
-			if (g2 == null) {
-				String emsg = "null graphTransaction2 object in DataGrooming\n";
-				throw new AAIException("AAI_6101", emsg);
-			}
 			
-			ArrayList<Vertex> vertList = new ArrayList<Vertex>();
-			Iterable vIt3 = g.query().vertices();
-			Iterator<Vertex> vItor3 = vIt3.iterator();
-			// Gotta hold these in a List - or else HBase times out as you cycle
-			// through these
-			while (vItor3.hasNext()) {
-				Vertex v = vItor3.next();
-				vertList.add(v);
+			GroomingResults results = groom(workers, graph2, dbMaps, nodeTypes, fixList, version, edgesOnlyFlag, 
+					singleCommits, dupeCheckOff, dupeFixOn, ghost2CheckOff, ghost2FixOn, shardSize, logline);
+			Map<String, String> misMatchedHash = results.misMatchedHash;
+			Map<String, TitanVertex> orphanNodeHash = results.orphanNodeHash;
+			Map<String, TitanVertex> missingDepNodeHash = results.missingDepNodeHash;
+			Map<String, Edge> oneArmedEdgeHash = results.oneArmedEdgeHash;
+			Map<String, String> emptyVertexHash = results.emptyVertexHash;
+			Map<String, TitanVertex> ghostNodeHash = results.ghostNodeHash;
+			List<String> errArr = results.errArr;
+			List<String> dupeGroups = results.dupeGroups;
+			g = mainWorker.tx;
+			g2 = mainWorker.tx2;
+			long nodePhaseMsec = results.nodePhaseMsec;
+			long edgePhaseMsec = results.edgePhaseMsec;
+
+			long reportStart = System.currentTimeMillis();
+			int totalNodeCount = results.totalNodeCount.get();
+			String commitNote = "";
+			if (!singleCommits && results.deleteCount.get() + dupeGrpsDeleted.get() > 0) {
+				System.out.println("About to do the commit for "
+						+ (results.deleteCount.get() + dupeGrpsDeleted.get()) + " removes. ");
+				commitNote = commitWorkers(workers, logline);
+				g = mainWorker.tx;
 			}
-			int counter = 0;
-			int lastShown = 0;
-			Iterator<Vertex> vItor2 = vertList.iterator();
-			System.out.println(" Checking for bad edges  --- ");
-
-			while (vItor2.hasNext()) {
-				Vertex v = null;
-				try {
-					try {
-						v = vItor2.next();
-					} catch (Exception vex) {
-						String msg = ">>> WARNING trying to get next vertex on the vItor2 ";
-						logline.add(msg, vex.getMessage());
-						System.out.println(msg + vex.getMessage());
-						continue;
-					}
-
-					counter++;
-					String thisVertId = "";
-					try {
-						thisVertId = v.id().toString();
-					} catch (Exception ev) {
-						String msg = "WARNING when doing getId() on a vertex from our vertex list.  ";
-						logline.add(msg, ev.getMessage());
-						System.out.println(msg);
-						continue;
-					}
-					if (ghostNodeHash.containsKey(thisVertId)) {
-						// This is a phantom node, so don't try to use it
-						System.out
-								.println(" >> Skipping edge check for edges from vertexId = "
-										+ thisVertId
-										+ ", since that guy is a Phantom Node");
-						continue;
-					}
-					if (counter == lastShown + 250) {
-						lastShown = counter;
-						System.out.println("... Checking edges for vertex # "
-								+ counter);
-					}
-					Iterator<Edge> eItor = v.edges(Direction.BOTH);
-					while (eItor.hasNext()) {
-						Edge e = null;
-						Vertex vIn = null;
-						Vertex vOut = null;
-						try {
-							e = eItor.next();
-						} catch (Exception iex) {
-							String msg = ">>> WARNING trying to get next edge on the eItor ";
-							logline.add(msg, iex.getMessage());
-							System.out.println(msg + iex.getMessage());
-							continue;
-						}
-
-						try {
-							vIn = e.inVertex();
-						} catch (Exception err) {
-							String msg = ">>> WARNING trying to get edge's In-vertex ";
-							logline.add(msg, err.getMessage());
-							System.out.println(msg + err.getMessage());
-						}
-						String vNtI = "";
-						String vIdI = "";
-						TitanVertex ghost2 = null;
-						
-						Boolean keysMissing = true;
-						Boolean cantGetUsingVid = false;
-						if (vIn != null) {
-							try {
-								Object ob = vIn.<Object>property("aai-node-type").orElse(null);
-								if (ob != null) {
-									vNtI = ob.toString();
-									keysMissing = anyKeyFieldsMissing(vNtI, vIn);
-								}
-								ob = vIn.id();
-								long vIdLong = 0L;
-								if (ob != null) {
-									vIdI = ob.toString();
-									vIdLong = Long.parseLong(vIdI);
-								}
-								
-								if( ! ghost2CheckOff ){
-									TitanVertex connectedVert = g2.getVertex(vIdLong);
-									if( connectedVert == null ) {
-										System.out.println( "GHOST2 -- got NULL when doing getVertex for vid = " + vIdLong);
-										cantGetUsingVid = true;
-										
-										// If we can NOT get this ghost with the SECOND graph-object, 
-										// it is still a ghost since even though we can get data about it using the FIRST graph 
-										// object.  
-										try {
-											 ghost2 = g.getVertex(vIdLong);
-										}
-										catch( Exception ex){
-											System.out.println( "GHOST2 --  Could not get the ghost info for a bad edge for vtxId = " + vIdLong);
-										}
-										if( ghost2 != null ){
-											ghostNodeHash.put(vIdI, ghost2);
-										}
-									}
-								}// end of the ghost2 checking
-							} 
-							catch (Exception err) {
-								String msg = ">>> WARNING trying to get edge's In-vertex props ";
-								logline.add(msg, err.getMessage());
-								System.out.println(msg + err.getMessage());
-							}
-						}
-						if (keysMissing || vIn == null || vNtI.equals("")
-								|| cantGetUsingVid) {
-							// this is a bad edge because it points to a vertex
-							// that isn't there anymore or is corrupted
-							String thisEid = e.id().toString();
-							if (deleteCandidateList.contains(thisEid) || deleteCandidateList.contains(vIdI)) {
-								boolean okFlag = true;
-								if (!vIdI.equals("")) {
-									// try to get rid of the corrupted vertex
-									try {
-										if( (ghost2 != null) && ghost2FixOn ){
-											ghost2.remove();
-										}
-										else {
-											vIn.remove();
-										}
-										if (singleCommits) {
-											g.commit();
-											g = AAIGraph.getInstance().getGraph().newTransaction();
-										}
-										deleteCount++;
-									} catch (Exception e1) {
-										okFlag = false;
-										String msg = "WARNING when trying to delete bad-edge-connected VERTEX VID = "
-												+ vIdI;
-										logline.add(msg, e1.getMessage());
-										System.out.println(msg);
-									}
-									if (okFlag) {
-										logline.add(
-												"DELETED vertex on a bad edge = ",
-												vIdI);
-										System.out
-												.println(" DELETED vertex from bad edge = "
-														+ vIdI);
-									}
-								} else {
-									// remove the edge if we couldn't get the
-									// vertex
-									try {
-										e.remove();
-										if (singleCommits) {
-											g.commit();
-											g = AAIGraph.getInstance().getGraph().newTransaction();
-										}
-										deleteCount++;
-									} catch (Exception ex) {
-										// NOTE - often, the exception is just
-										// that this edge has already been
-										// removed
-										okFlag = false;
-										String msg = "WARNING when trying to delete edge = "
-												+ thisEid;
-										logline.add(msg, ex.getMessage());
-										System.out.println(msg);
-									}
-									if (okFlag) {
-										logline.add("DELETED edge = ", thisEid);
-										System.out.println(" DELETED edge = "
-												+ thisEid);
-									}
-								}
-							} else {
-								oneArmedEdgeHash.put(thisEid, e);
-								if ((vIn != null) && (vIn.id() != null)) {
-									emptyVertexHash.put(thisEid, vIn.id()
-											.toString());
-								}
-							}
-						}
-
-						try {
-							vOut = e.outVertex();
-						} catch (Exception err) {
-							String msg = ">>> WARNING trying to get edge's Out-vertex ";
-							logline.add(msg, err.getMessage());
-							System.out.println(msg + err.getMessage());
-						}
-						String vNtO = "";
-						String vIdO = "";
-						ghost2 = null;
-						keysMissing = true;
-						cantGetUsingVid = false;
-						if (vOut != null) {
-							try {
-								Object ob = vOut.<Object>property("aai-node-type").orElse(null);
-								if (ob != null) {
-									vNtO = ob.toString();
-									keysMissing = anyKeyFieldsMissing(vNtO,
-											vOut);
-								}
-								ob = vOut.id();
-								long vIdLong = 0L;
-								if (ob != null) {
-									vIdO = ob.toString();
-									vIdLong = Long.parseLong(vIdO);
-								}
-								
-								if( ! ghost2CheckOff ){
-									TitanVertex connectedVert = g2.getVertex(vIdLong);
-									if( connectedVert == null ) {
-										cantGetUsingVid = true;
-										System.out.println( "GHOST2 -- got NULL when doing getVertex for vid = " + vIdLong);
-										// If we can get this ghost with the other graph-object, then get it -- it's still a ghost
-										try {
-											 ghost2 = g.getVertex(vIdLong);
-										}
-										catch( Exception ex){
-											System.out.println( "GHOST2 -- Could not get the ghost info for a bad edge for vtxId = " + vIdLong);
-										}
-										if( ghost2 != null ){
-											ghostNodeHash.put(vIdO, ghost2);
-										}
-									}
-								}
-							} catch (Exception err) {
-								String msg = ">>> WARNING trying to get edge's Out-vertex props ";
-								logline.add(msg, err.getMessage());
-								System.out.println(msg + err.getMessage());
-							}
-						}
-						if (keysMissing || vOut == null || vNtO.equals("")
-								|| cantGetUsingVid) {
-							// this is a bad edge because it points to a vertex
-							// that isn't there anymore
-							String thisEid = e.id().toString();
-							if (deleteCandidateList.contains(thisEid) || deleteCandidateList.contains(vIdO)) {
-								boolean okFlag = true;
-								if (!vIdO.equals("")) {
-									// try to get rid of the corrupted vertex
-									try {
-										if( (ghost2 != null) && ghost2FixOn ){
-											ghost2.remove();
-										}
-										else {
-											vOut.remove();
-										}
-										if (singleCommits) {
-											g.commit();
-											g = AAIGraph.getInstance().getGraph().newTransaction();
-										}
-										deleteCount++;
-									} catch (Exception e1) {
-										okFlag = false;
-										String msg = "WARNING when trying to delete bad-edge-connected VID = "
-												+ vIdO;
-										logline.add(msg, e1.getMessage());
-										System.out.println(msg);
-									}
-									if (okFlag) {
-										logline.add(
-												"DELETED vertex on a bad edge = ",
-												vIdO);
-										System.out
-												.println(" DELETED vertex from bad edge = "
-														+ vIdO);
-									}
-								} else {
-									// remove the edge if we couldn't get the
-									// vertex
-									try {
-										e.remove();
-										if (singleCommits) {
-											g.commit();
-											g = AAIGraph.getInstance().getGraph().newTransaction();
-
-										}
-										deleteCount++;
-									} catch (Exception ex) {
-										// NOTE - often, the exception is just
-										// that this edge has already been
-										// removed
-										okFlag = false;
-										String msg = "WARNING when trying to delete edge = "
-												+ thisEid;
-										logline.add(msg, ex.getMessage());
-										System.out.println(msg);
-									}
-									if (okFlag) {
-										logline.add("DELETED edge = ", thisEid);
-										System.out.println(" DELETED edge = "
-												+ thisEid);
-									}
-								}
-							} else {
-								oneArmedEdgeHash.put(thisEid, e);
-								if ((vOut != null) && (vOut.id() != null)) {
-									emptyVertexHash.put(thisEid, vOut.id()
-											.toString());
-								}
-							}
-						}
-					}// End of while-edges-loop
-				} catch (Exception exx) {
-					String msg = "WARNING from in the while-verts-loop ";
-					logline.add(msg, exx.getMessage());
-					System.out.println(msg);
-				}
-			}// End of while-vertices-loop
-
-			deleteCount = deleteCount + dupeGrpsDeleted;
-			if (!singleCommits && deleteCount > 0) {
-				try {
-					System.out.println("About to do the commit for "
-							+ deleteCount + " removes. ");
-					g.commit();
-					System.out.println("Commit was successful ");
-				} catch (Exception excom) {
-					String msg = " >>>> ERROR <<<<   Could not commit changes. ";
-					logline.add(msg, excom.getMessage());
-					System.out.println(msg);
-					deleteCount = 0;
-				}
+			// Only the deletes that were actually committed are reported
+			deleteCount = 0;
+			for (GroomWorker worker : workers) {
+				deleteCount = deleteCount + worker.committedDeletes;
 			}
 
 			int ghostNodeCount = ghostNodeHash.size();
@@ -1005,7 +519,9 @@ public class DataGrooming {
 			int oneArmedEdgeCount = oneArmedEdgeHash.size();
 			int dupeCount = dupeGroups.size();
 
-			deleteCount = deleteCount + dupeGrpsDeleted;
+			if (commitNote.isEmpty()) {
+				deleteCount = deleteCount + dupeGrpsDeleted.get();
+			}
 
 			bw.write("\n\n ============ Summary ==============\n");
 			bw.write("Ran these nodeTypes: " + ntList + "\n\n");
@@ -1016,6 +532,9 @@ public class DataGrooming {
 			}
 			bw.write("Deleted this many delete candidates =  " + deleteCount
 					+ "\n");
+			if (!commitNote.isEmpty()) {
+				bw.write(commitNote + "\n");
+			}
 			bw.write("Total number of nodes looked at =  " + totalNodeCount
 					+ "\n");
 			bw.write("Ghost Nodes identified = " + ghostNodeCount + "\n");
@@ -1245,108 +764,1092 @@ public class DataGrooming {
 				bw.write("MixedMsg = " + msg + "\n");
 			}
 
-			bw.write("\n ------------- Got these errors while processing: \n");
-			Iterator<String> errIter = errArr.iterator();
-			while (errIter.hasNext()) {
-				String line = (String) errIter.next();
-				bw.write(line + "\n");
+			bw.write("\n ------------- Got these errors while processing: \n");
+			Iterator<String> errIter = errArr.iterator();
+			while (errIter.hasNext()) {
+				String line = (String) errIter.next();
+				bw.write(line + "\n");
+			}
+
+			bw.close();
+			long reportMsec = System.currentTimeMillis() - reportStart;
+
+			System.out.println(" Phase timings (msec) using " + threads + " thread(s): node checks = " 
+					+ nodePhaseMsec + ", edge checks = " + edgePhaseMsec + ", report = " + reportMsec);
+			logline.add("nodePhaseMsec", nodePhaseMsec);
+			logline.add("edgePhaseMsec", edgePhaseMsec);
+			logline.add("reportMsec", reportMsec);
+
+			System.out
+					.println("\n ------------- Done doing all the checks ------------ ");
+			System.out.println("Output will be written to "
+					+ fullOutputFileName);
+
+			if (cleanupCandidateCount > 0) {
+				// Technically, this is not an error -- but we're throwing this
+				// error so that hopefully a
+				// monitoring system will pick it up and do something with it.
+				String emsg = "See file: [" + fullOutputFileName
+						+ "] and investigate delete candidates. ";
+				throw new AAIException("AAI_6123", emsg);
+			}
+
+			aaiLogger.info(logline, true, "0");
+		} catch (AAIException e) {
+			System.out.print("Threw a AAIException: \n");
+			System.out.println(e.getErrorObject().toString());
+			aaiLogger.error(e.getErrorObject(), logline, e);
+			aaiLogger.info(logline, false, e.getErrorObject().getErrorCodeString());
+		} catch (Exception ex) {
+			System.out.print("Threw a regular Exception:\n");
+			System.out.println(ex.getMessage());
+			aaiLogger.error(
+					ErrorLogHelper.getErrorObject("AAI_6128", ex.getMessage()
+							+ ", resolve and rerun dataGrooming"), logline, ex);
+			aaiLogger.info(logline, false, "AAI_6128");
+		} finally {
+			// The other workers' transactions - the main one is taken care of below
+			for (int i = 1; i < workers.size(); i++) {
+				workers.get(i).rollback();
+			}
+			if (g != null) {
+				// Any changes that worked correctly should have already done
+				// their commits.
+				g.rollback();
+				graph.close();
+			}
+
+			if (bw != null) {
+				try {
+					bw.close();
+				} catch (IOException iox) {
+					String emsg = "Got an IOException trying to close bufferedWriter() \n";
+					logline.add("emsg", emsg);
+				}
+			}
+			
+			if (g != null) {
+				// Any changes that worked correctly should have already done
+				// their commits.
+				try {
+					g.rollback();
+				} catch (Exception ex) {
+					// Don't throw anything because Titan sometimes is just saying that the graph is already closed
+					System.out.println("WARNING from final graphTransaction.rollback(): " + ex.getMessage() );
+				}
+			}
+			
+			if (g2 != null) {
+				// Any changes that worked correctly should have already done
+				// their commits.
+				try {
+					g2.rollback();
+				} catch (Exception ex) {
+					// Don't throw anything because Titan sometimes is just saying that the graph is already closed
+					System.out.println("WARNING from final graphTransaction2.rollback(): " + ex.getMessage() );
+				}
+			}
+				
+			if( finalShutdownFlag ){
+				try {
+					if( graph != null && graph.isOpen() ){
+						graph.tx().close();
+						graph.close();
+					}
+				} catch (Exception ex) {
+					// Don't throw anything because Titan sometimes is just saying that the graph is already closed{
+					System.out.println("WARNING from final graph.shutdown(): " + ex.getMessage() );
+				}
+				
+				try {
+					if( graph2 != null && graph2.isOpen() ){
+						graph2.tx().close();
+						graph2.close();
+					}
+				} catch (Exception ex) {
+					// Don't throw anything because Titan sometimes is just saying that the graph is already closed{
+					System.out.println("WARNING from final graph2.shutdown(): " + ex.getMessage() );
+				}
+			}
+				
+		}
+
+		return cleanupCandidateCount;
+
+	}// end of doTheGrooming()
+	
+	/**
+	 * Runs the node checks and then the edge checks, sharded across the workers, and
+	 * collects what they found. Nothing is committed here unless singleCommits is set.
+	 *
+	 * @param workers the workers, the first one is also used by this thread
+	 * @param graph2 the second graph, used to look for ghost vertices
+	 * @param dbMaps the db maps
+	 * @param nodeTypes the node types to check
+	 * @param fixList the delete candidates from an earlier run
+	 * @param version the version
+	 * @param edgesOnlyFlag the edges only flag
+	 * @param singleCommits the single commits
+	 * @param dupeCheckOff the dupe check off
+	 * @param dupeFixOn the dupe fix on
+	 * @param ghost2CheckOff the ghost 2 check off
+	 * @param ghost2FixOn the ghost 2 fix on
+	 * @param shardSize the number of vertices in each id range handed to a worker
+	 * @param logline the logline
+	 * @return the grooming results
+	 * @throws Exception the exception
+	 */
+	static GroomingResults groom(List<GroomWorker> workers, TitanGraph graph2, DbMaps dbMaps, 
+			List<String> nodeTypes, ArrayList<String> fixList, String version, Boolean edgesOnlyFlag, 
+			Boolean singleCommits, Boolean dupeCheckOff, Boolean dupeFixOn,
+			Boolean ghost2CheckOff, Boolean ghost2FixOn, int shardSize, LogLine logline) throws Exception {
+		
+		if (aaiLogger == null) {
+			aaiLogger = new AAILogger(DataGrooming.class.getName());
+		}
+		GroomingResults results = new GroomingResults();
+		GroomWorker mainWorker = workers.get(0);
+		
+		long nodePhaseStart = System.currentTimeMillis();
+		if (edgesOnlyFlag) {
+			System.out.println(" NOTE >> Skipping Node processing as requested.  Will only process Edges. << ");
+		} 
+		else {
+			runSharded(workers, nodeTypes, (worker, nType) -> groomNodeType(worker, nType, 
+					version, fixList, singleCommits, dupeCheckOff, dupeFixOn, dbMaps, results, logline));
+		}// end of check to make sure we weren't only supposed to do edges
+		results.nodePhaseMsec = System.currentTimeMillis() - nodePhaseStart;
+
+		// --------------------------------------------------------------------------------------
+		// Now, we're going to look for one-armed-edges. Ie. an edge that
+		// should have
+		// been deleted (because a vertex on one side was deleted) but
+		// somehow was not deleted.
+		// So the one end of it points to a vertexId -- but that vertex is
+		// empty.
+		// --------------------------------------------------------------------------------------
+
+		long edgePhaseStart = System.currentTimeMillis();
+		for (GroomWorker worker : workers) {
+			worker.tx2 = graph2.newTransaction();
+			if (worker.tx2 == null) {
+				String emsg = "null graphTransaction2 object in DataGrooming\n";
+				throw new AAIException("AAI_6101", emsg);
+			}
+		}
+		
+		HashMap<Long, Vertex> vertMap = new HashMap<Long, Vertex>();
+		Iterable vIt3 = mainWorker.tx.query().vertices();
+		Iterator<Vertex> vItor3 = vIt3.iterator();
+		// Gotta hold these in a List - or else HBase times out as you cycle
+		// through these
+		while (vItor3.hasNext()) {
+			Vertex v = vItor3.next();
+			vertMap.put((Long) v.id(), v);
+		}
+		ArrayList<Long> vertIds = new ArrayList<Long>(vertMap.keySet());
+		Collections.sort(vertIds);
+		ArrayList<List<Long>> idRanges = new ArrayList<List<Long>>();
+		for (int i = 0; i < vertIds.size(); i += shardSize) {
+			idRanges.add(vertIds.subList(i, Math.min(i + shardSize, vertIds.size())));
+		}
+		System.out.println(" Checking for bad edges  --- ");
+
+		List<Long> unreachableIds = Collections.synchronizedList(new ArrayList<Long>());
+		runSharded(workers, idRanges, (worker, idRange) -> unreachableIds.addAll(checkEdgesForRange(worker, 
+				idRange, fixList, singleCommits, ghost2CheckOff, ghost2FixOn, results, logline)));
+
+		// Vertices that the workers could not re-fetch by id are still checked using the 
+		// vertex objects from the original scan.
+		for (Long vid : unreachableIds) {
+			checkEdgesForVertex(mainWorker, vertMap.get(vid), fixList, singleCommits, 
+					ghost2CheckOff, ghost2FixOn, results, logline);
+		}
+		results.edgePhaseMsec = System.currentTimeMillis() - edgePhaseStart;
+		
+		return results;
+	}// End of groom()
+	
+	/**
+	 * Commits the workers' transactions one at a time. If a commit fails, that worker and
+	 * the ones after it are rolled back, so the deletes that were committed are exactly
+	 * those of the workers before it.
+	 *
+	 * @param workers the workers
+	 * @param logline the logline
+	 * @return "" if every worker committed, otherwise a note saying which shards were applied
+	 */
+	static String commitWorkers(List<GroomWorker> workers, LogLine logline) {
+		for (int i = 0; i < workers.size(); i++) {
+			try {
+				workers.get(i).commitAndRenew();
+			} catch (Exception excom) {
+				String msg = " >>>> ERROR <<<<   Could not commit changes. ";
+				logAdd(logline, msg, excom.getMessage());
+				System.out.println(msg);
+				StringBuilder note = new StringBuilder();
+				note.append("Commit failed for worker ").append(i).append(" of ").append(workers.size())
+					.append(", its changes and those of the workers after it were rolled back. ");
+				for (int j = i; j < workers.size(); j++) {
+					workers.get(j).discard();
+				}
+				if (i == 0) {
+					note.append("No shards were applied.");
+				} else {
+					note.append("Applied shards:");
+					for (int j = 0; j < i; j++) {
+						note.append(" ").append(workers.get(j).shardsDone);
+					}
+				}
+				System.out.println(note);
+				return note.toString();
+			}
+		}
+		System.out.println("Commit was successful ");
+		
+		return "";
+	}
+	
+	/**
+	 * Groom node type.
+	 *
+	 * @param worker the worker
+	 * @param nType the node type
+	 * @param version the version
+	 * @param deleteCandidateList the delete candidate list
+	 * @param singleCommits the single commits
+	 * @param dupeCheckOff the dupe check off
+	 * @param dupeFixOn the dupe fix on
+	 * @param dbMaps the db maps
+	 * @param results the results
+	 * @param logline the logline
+	 * @throws AAIException the AAI exception
+	 */
+	private static void groomNodeType(GroomWorker worker, String nType, String version,
+			ArrayList<String> deleteCandidateList, Boolean singleCommits,
+			Boolean dupeCheckOff, Boolean dupeFixOn, DbMaps dbMaps,
+			GroomingResults results, LogLine logline) throws AAIException {
+
+		TitanTransaction g = worker.tx;
+		// Dupe groups can only be found within a single nodeType, so each nodeType keeps its own list
+		ArrayList<String> dupeGroups = new ArrayList<String>();
+		int thisNtCount = 0;
+		int thisNtDeleteCount = 0;
+		String infoMsg = " >  Look at : [" + nType + "] ...";
+		aaiLogger.debug(logline, infoMsg);
+		System.out.println(infoMsg);
+		// Get a collection of the names of the key properties for this nodeType to use later
+		Collection<String> keyProps = DbMeth.getNodeKeyPropNames(TRANSID, FROMAPPID, nType, version);
+		// Get the types of nodes that this nodetype depends on for uniqueness (if any)
+		ArrayList <String> depNodeTypes = DbMeth.getDepNodeTypes(TRANSID, FROMAPPID, nType, version);
+		
+		// Loop through all the nodes of this Node type
+		int lastShownForNt = 0;
+		ArrayList <TitanVertex> tmpList = new ArrayList <TitanVertex> ();
+		Iterable <?> verts =  g.query().has("aai-node-type",nType).vertices(); 
+		Iterator<?> iterv = verts.iterator();
+		while (iterv.hasNext()) {
+			// We put the nodes into an ArrayList because the graph.query iterator can time out
+			tmpList.add((TitanVertex)iterv.next());
+		}
+		// Duplicates are found by grouping on key data as we go, rather than by looking each vertex up again
+		KeySignatureIndex sigIndex = new KeySignatureIndex(tmpList.size());
+		// Nodes that do not depend on a parent are looked up by their keys a batch at a time
+		LinkedHashMap<TitanVertex, HashMap<String, Object>> phantomCheckBatch = new LinkedHashMap<TitanVertex, HashMap<String, Object>>();
+		
+		Iterator <?> iter = tmpList.iterator();
+		while (iter.hasNext()) {
+			try {
+				thisNtCount++;
+				if( thisNtCount == lastShownForNt + 250 ){
+					lastShownForNt = thisNtCount;
+					System.out.println("count for " + nType + " so far = " + thisNtCount );
+				}
+				results.totalNodeCount.incrementAndGet();
+				TitanVertex thisVtx = (TitanVertex) iter.next();
+				String thisVid = thisVtx.id().toString();
+				ArrayList <TitanVertex> secondGetList = new ArrayList <TitanVertex> ();
+				// -----------------------------------------------------------------------
+				// For each vertex of this nodeType, we want to:
+				//		a) make sure that it can be retrieved using it's AAI defined key
+				//   	b) make sure that it is not a duplicate
+				// -----------------------------------------------------------------------
+				
+				// For this instance of this nodeType, get the key properties 
+				HashMap<String, Object> propHashWithKeys = new HashMap<String, Object>();
+				Iterator<String> keyPropI = keyProps.iterator();
+				while (keyPropI.hasNext()) {
+					String propName = keyPropI.next();
+					String propVal = "";
+					Object obj = thisVtx.<Object>property(propName).orElse(null);
+					if (obj != null) {
+						propVal = obj.toString();
+					}
+					propHashWithKeys.put(propName, propVal);
+				}
+				try {
+					// If this node is dependent on another for uniqueness, then do the query from that parent node
+					// Note - all of our nodes that are dependent on others for uniqueness are 
+					// 		"children" of that node.
+					boolean depNodeOk = true;
+					String parentVid = "";
+					if( depNodeTypes.isEmpty() ){
+						// This kind of node is not dependent on any other.
+						// Make sure we can get it back using it's key properties - done for a batch of nodes at once.
+						phantomCheckBatch.put(thisVtx, propHashWithKeys);
+						if (phantomCheckBatch.size() >= PHANTOM_CHECK_BATCH) {
+							thisNtDeleteCount += checkPhantomBatch(worker, nType, keyProps, phantomCheckBatch, 
+									deleteCandidateList, dupeCheckOff, sigIndex, results, logline);
+						}
+						continue;
+					} 
+					else {
+						// This kind of node is dependent on another for uniqueness.  
+						// Start at it's parent (the dependent vertex) and make sure we can get it
+						// back using it's key properties and that we only get one.
+						Iterable <?> verts2 = thisVtx.query().direction(Direction.IN).has("isParent",true).vertices();
+						Iterator <?> vertI2 = verts2.iterator();
+						TitanVertex parentVtx = null;
+						int pCount = 0;
+						while( vertI2 != null && vertI2.hasNext() ){
+							parentVtx = (TitanVertex) vertI2.next();
+							pCount++;
+						}
+						if( pCount <= 0 ){
+							// It's Missing it's dependent/parent node 
+							depNodeOk = false;
+							boolean zeroEdges = false;
+							try {
+								Iterator<Edge> tmpEdgeIter = thisVtx.edges(Direction.BOTH);
+								int edgeCount = 0;
+								while( tmpEdgeIter.hasNext() ){
+									edgeCount++;
+									tmpEdgeIter.next();
+								}
+								if( edgeCount == 0 ){  
+									zeroEdges = true;
+								}
+							} catch (Exception ex) {
+								String msg = "WARNING from inside the for-each-vid-loop orphan-edges-check ";
+								logAdd(logline, msg, ex.getMessage());
+								System.out.println(msg + ex.getMessage() + ex.toString());
+							}
+							
+							if (deleteCandidateList.contains(thisVid)) {
+								boolean okFlag = true;
+								try {
+									thisVtx.remove();
+									worker.recordDelete(results);
+									thisNtDeleteCount++;
+								} catch (Exception e) {
+									okFlag = false;
+									String msg = "ERROR trying to delete missing-dep-node VID = " + thisVid;
+									logAdd(logline, msg, e.getMessage());
+									System.out.println(msg);
+								}
+								if (okFlag) {
+									logAdd(logline,  "DELETED missing-dep-node VID:", thisVid);
+									System.out.println(" DELETED missing-dep-node VID = " + thisVid);
+								}
+							} else {
+								// We count nodes missing their depNodes two ways - the first if it has
+								//    at least some edges, and the second if it has zero edges.  Either
+								//    way, they are effectively orphaned.
+								// NOTE - Only nodes that have dependent nodes are ever considered "orphaned".
+								if( zeroEdges ){
+									results.missingDepNodeHash.put(thisVid,	thisVtx);
+								}
+								else {
+									results.orphanNodeHash.put(thisVid, thisVtx);
+								}
+							}
+						}
+						else if ( pCount > 1 ){
+							// Not sure how this could happen?  Should we do something here?
+							depNodeOk = false;
+						}
+						else {
+							parentVid = parentVtx.id().toString();
+							// We found the parent - so use it to do the second-look.
+							// NOTE --- We're just going to do the same check from the other direction - because
+							//  there could be duplicates or the pointer going the other way could be broken
+							ArrayList <TitanVertex> tmpListSec = new ArrayList <TitanVertex> ();
+							tmpListSec = DbMeth.getConnectedChildren(TRANSID, FROMAPPID, g, parentVtx, nType ) ;
+							Iterator<TitanVertex> vIter = tmpListSec.iterator();
+							while (vIter.hasNext()) {
+								TitanVertex tmpV = vIter.next();
+								if( vertexHasTheseKeys(tmpV, propHashWithKeys) ){
+									secondGetList.add(tmpV);
+								}
+							}
+						}
+					}
+					
+					if( depNodeOk && (secondGetList == null || secondGetList.size() == 0) ){
+						// We could not get the node back using it's own key info. 
+						// So, it's a PHANTOM
+						if (handlePhantom(worker, thisVtx, deleteCandidateList, results, logline)) {
+							thisNtDeleteCount++;
+						}
+					}
+					else if( depNodeOk && !dupeCheckOff ){
+						// Remember its key data - any DUPLICATES get processed once we've seen the whole nodeType
+						sigIndex.add(keySignature(parentVid, keyProps, propHashWithKeys), Long.parseLong(thisVid));
+					}
+				} 
+				catch (AAIException e1) {
+					String msg = " For nodeType = " + nType + " Caught this exception: "
+							+ e1.getErrorObject().toString();
+					System.out.println(msg);
+					results.errArr.add(msg);
+				}
+				catch (Exception e2) {
+					String msg = " For nodeType = " + nType
+							+ " Caught this exception: "
+							+ e2.toString();
+					System.out.println(msg);
+					results.errArr.add(msg);
+				}
+			}// try block to enclose looping of a single vertex
+			catch (Exception exx) {
+				String msg = "WARNING from inside the while-verts-loop ";
+				logAdd(logline, msg, exx.getMessage());
+				System.out.println(msg + exx.getMessage()
+						+ exx.toString());
+			}
+			
+		} // while loop for each record of a nodeType
+		
+		if (!phantomCheckBatch.isEmpty()) {
+			thisNtDeleteCount += checkPhantomBatch(worker, nType, keyProps, phantomCheckBatch, 
+					deleteCandidateList, dupeCheckOff, sigIndex, results, logline);
+		}
+		
+		if( !dupeCheckOff ){
+			processDupeGroups(g, version, nType, sigIndex.getDuplicateGroups(), keyProps, 
+					!depNodeTypes.isEmpty(), dupeFixOn, deleteCandidateList, singleCommits, dupeGroups, dbMaps);
+		}
+		
+		if ( (thisNtDeleteCount > 0) && singleCommits ) {
+			worker.commitAndRenew();
+		}
+		results.dupeGroups.addAll(dupeGroups);
+		System.out.println( " Processed " + thisNtCount + " records for [" + nType + "], " + results.totalNodeCount.get() + " total overall. " );
+		
+	}// End of groomNodeType()
+	
+	/**
+	 * Check phantom batch.
+	 *
+	 * @param worker the worker
+	 * @param nType the node type
+	 * @param keyProps the key props
+	 * @param batch the vertices still to be checked, with their key data
+	 * @param deleteCandidateList the delete candidate list
+	 * @param dupeCheckOff the dupe check off
+	 * @param sigIndex the key signature index for this nodeType
+	 * @param results the results
+	 * @param logline the logline
+	 * @return the number of phantoms deleted
+	 */
+	private static int checkPhantomBatch(GroomWorker worker, String nType, Collection<String> keyProps,
+			LinkedHashMap<TitanVertex, HashMap<String, Object>> batch, ArrayList<String> deleteCandidateList,
+			Boolean dupeCheckOff, KeySignatureIndex sigIndex, GroomingResults results, LogLine logline) {
+		
+		if (keyProps.isEmpty()) {
+			String msg = " NO key properties defined for nodeType = [" + nType + "], so " + batch.size() + " nodes could not be checked. ";
+			System.out.println(msg);
+			results.errArr.add(msg);
+			batch.clear();
+			return 0;
+		}
+		
+		// One query on the first key gets back every node that shares key data with a node in the batch. 
+		// Anything whose key data is not among them could not be found using its own keys.
+		String firstKey = keyProps.iterator().next();
+		HashSet<Object> firstKeyVals = new HashSet<Object>();
+		for (HashMap<String, Object> propHashWithKeys : batch.values()) {
+			firstKeyVals.add(propHashWithKeys.get(firstKey));
+		}
+		HashSet<String> foundSigs = new HashSet<String>();
+		try {
+			Iterator<?> vertI = worker.tx.query().has(firstKey, Contain.IN, firstKeyVals).has("aai-node-type", nType).vertices().iterator();
+			while (vertI.hasNext()) {
+				TitanVertex tmpV = (TitanVertex) vertI.next();
+				HashMap<String, Object> propHashWithKeys = new HashMap<String, Object>();
+				for (String propName : keyProps) {
+					Object obj = tmpV.<Object>property(propName).orElse(null);
+					propHashWithKeys.put(propName, obj == null ? "" : obj.toString());
+				}
+				foundSigs.add(keySignature("", keyProps, propHashWithKeys));
+			}
+		} catch (Exception e) {
+			// Don't call a whole batch phantoms because the lookup failed
+			String msg = " For nodeType = " + nType + " could not look up " + batch.size() + " nodes by their keys: " + e.toString();
+			System.out.println(msg);
+			results.errArr.add(msg);
+			batch.clear();
+			return 0;
+		}
+		
+		int deleted = 0;
+		for (Map.Entry<TitanVertex, HashMap<String, Object>> entry : batch.entrySet()) {
+			TitanVertex thisVtx = entry.getKey();
+			String sig = keySignature("", keyProps, entry.getValue());
+			if (!foundSigs.contains(sig)) {
+				// We could not get the node back using it's own key info. 
+				// So, it's a PHANTOM
+				if (handlePhantom(worker, thisVtx, deleteCandidateList, results, logline)) {
+					deleted++;
+				}
+			}
+			else if (!dupeCheckOff) {
+				// Remember its key data - any DUPLICATES get processed once we've seen the whole nodeType
+				sigIndex.add(sig, Long.parseLong(thisVtx.id().toString()));
+			}
+		}
+		batch.clear();
+		
+		return deleted;
+	}
+	
+	/**
+	 * Handle phantom.
+	 *
+	 * @param worker the worker
+	 * @param thisVtx the phantom vertex
+	 * @param deleteCandidateList the delete candidate list
+	 * @param results the results
+	 * @param logline the logline
+	 * @return true if the phantom was deleted
+	 */
+	private static boolean handlePhantom(GroomWorker worker, TitanVertex thisVtx, ArrayList<String> deleteCandidateList,
+			GroomingResults results, LogLine logline) {
+		
+		String thisVid = thisVtx.id().toString();
+		if (!deleteCandidateList.contains(thisVid)) {
+			results.ghostNodeHash.put(thisVid, thisVtx);
+			return false;
+		}
+		try {
+			thisVtx.remove();
+			worker.recordDelete(results);
+		} catch (Exception e) {
+			String msg = "ERROR trying to delete phantom VID = " + thisVid;
+			logAdd(logline, msg, e.getMessage());
+			System.out.println(msg);
+			return false;
+		}
+		logAdd(logline, "DELETED VID:", thisVid);
+		System.out.println(" DELETED VID = " + thisVid);
+		
+		return true;
+	}
+	
+	/**
+	 * Process dupe groups.
+	 *
+	 * @param g the g
+	 * @param version the version
+	 * @param nType the n type
+	 * @param candidateGroups the groups of vids that share a key signature hash
+	 * @param keyProps the key props
+	 * @param hasDepNodes true if this nodeType depends on a parent for uniqueness
+	 * @param dupeFixOn the dupe fix on
+	 * @param deleteCandidateList the delete candidate list
+	 * @param singleCommits the single commits
+	 * @param dupeGroups the dupe groups found so far for this nodeType
+	 * @param dbMaps the db maps
+	 */
+	private static void processDupeGroups(TitanTransaction g, String version, String nType,
+			List<long[]> candidateGroups, Collection<String> keyProps, boolean hasDepNodes, 
+			Boolean dupeFixOn, ArrayList<String> deleteCandidateList, Boolean singleCommits,
+			ArrayList<String> dupeGroups, DbMaps dbMaps) {
+		
+		// Get all the vertices up front - resolving a group can swap out the transaction when using singleCommits
+		ArrayList<ArrayList<TitanVertex>> dupeVertLists = new ArrayList<ArrayList<TitanVertex>>();
+		for (long[] vids : candidateGroups) {
+			// The index only compares hashes, so split the group on the real key data
+			LinkedHashMap<String, ArrayList<TitanVertex>> bySignature = new LinkedHashMap<String, ArrayList<TitanVertex>>();
+			for (long vid : vids) {
+				try {
+					TitanVertex vtx = g.getVertex(vid);
+					if (vtx == null) {
+						continue;
+					}
+					String parentVid = "";
+					if (hasDepNodes) {
+						Iterator<?> parentI = vtx.query().direction(Direction.IN).has("isParent", true).vertices().iterator();
+						if (parentI.hasNext()) {
+							parentVid = ((TitanVertex) parentI.next()).id().toString();
+						}
+					}
+					HashMap<String, Object> propHashWithKeys = new HashMap<String, Object>();
+					for (String propName : keyProps) {
+						Object obj = vtx.<Object>property(propName).orElse(null);
+						propHashWithKeys.put(propName, obj == null ? "" : obj.toString());
+					}
+					String sig = keySignature(parentVid, keyProps, propHashWithKeys);
+					if (!bySignature.containsKey(sig)) {
+						bySignature.put(sig, new ArrayList<TitanVertex>());
+					}
+					bySignature.get(sig).add(vtx);
+				} catch (Exception e) {
+					System.out.println(" >>> Could not re-read possible duplicate VID = " + vid + ", " + e.getMessage());
+				}
+			}
+			for (ArrayList<TitanVertex> vertList : bySignature.values()) {
+				if (vertList.size() > 1) {
+					dupeVertLists.add(vertList);
+				}
+			}
+		}
+		
+		for (ArrayList<TitanVertex> vertList : dupeVertLists) {
+			// Found some DUPLICATES - need to process them
+			System.out.print(" - now check Dupes for [" + nType + "] - ");
+			ArrayList<String> tmpDupeGroups = checkAndProcessDupes(
+						TRANSID, FROMAPPID, g, version,
+						nType, vertList, dupeFixOn,
+						deleteCandidateList, singleCommits,	dupeGroups, dbMaps);
+			Iterator<String> dIter = tmpDupeGroups.iterator();
+			while (dIter.hasNext()) {
+				// Add in any newly found dupes to our running list
+				String tmpGrp = dIter.next();
+				System.out.println("Found set of dupes: [" + tmpGrp + "]");
+				dupeGroups.add(tmpGrp);
+			}
+		}
+		
+	}// End of processDupeGroups()
+	
+	/**
+	 * Builds the key signature for a vertex - its key property values plus, for nodeTypes that 
+	 * depend on a parent for uniqueness, the parent's vid.
+	 *
+	 * @param parentVid the parent vid (or "" if there is none)
+	 * @param keyProps the key props
+	 * @param propHashWithKeys the key property values
+	 * @return the key signature
+	 */
+	private static String keySignature(String parentVid, Collection<String> keyProps, HashMap<String, Object> propHashWithKeys) {
+		StringBuilder sb = new StringBuilder(parentVid);
+		for (String propName : keyProps) {
+			sb.append('\0').append(propName).append('=').append(propHashWithKeys.get(propName));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Check edges for range.
+	 *
+	 * @param worker the worker
+	 * @param idRange the vertex ids to check
+	 * @param deleteCandidateList the delete candidate list
+	 * @param singleCommits the single commits
+	 * @param ghost2CheckOff the ghost 2 check off
+	 * @param ghost2FixOn the ghost 2 fix on
+	 * @param results the results
+	 * @param logline the logline
+	 * @return the ids that could not be retrieved using this worker's transaction
+	 */
+	private static List<Long> checkEdgesForRange(GroomWorker worker, List<Long> idRange,
+			ArrayList<String> deleteCandidateList, Boolean singleCommits,
+			Boolean ghost2CheckOff, Boolean ghost2FixOn,
+			GroomingResults results, LogLine logline) {
+
+		HashSet<Long> notFound = new HashSet<Long>(idRange);
+		ArrayList<Vertex> vertList = new ArrayList<Vertex>();
+		try {
+			Iterator<Vertex> vItor = worker.tx.vertices(idRange.toArray());
+			// Hold these in a List since the transaction can get swapped out (singleCommits) as we go
+			while (vItor.hasNext()) {
+				Vertex v = vItor.next();
+				notFound.remove(v.id());
+				vertList.add(v);
 			}
+		} catch (Exception ex) {
+			String msg = ">>> WARNING trying to get vertices for an id range ";
+			logAdd(logline, msg, ex.getMessage());
+			System.out.println(msg + ex.getMessage());
+			vertList.clear();
+			notFound.addAll(idRange);
+		}
+		for (Vertex v : vertList) {
+			checkEdgesForVertex(worker, v, deleteCandidateList, singleCommits,
+					ghost2CheckOff, ghost2FixOn, results, logline);
+		}
+		return new ArrayList<Long>(notFound);
+		
+	}// End of checkEdgesForRange()
+	
+	/**
+	 * Check edges for vertex.
+	 *
+	 * @param worker the worker
+	 * @param v the vertex
+	 * @param deleteCandidateList the delete candidate list
+	 * @param singleCommits the single commits
+	 * @param ghost2CheckOff the ghost 2 check off
+	 * @param ghost2FixOn the ghost 2 fix on
+	 * @param results the results
+	 * @param logline the logline
+	 */
+	private static void checkEdgesForVertex(GroomWorker worker, Vertex v,
+			ArrayList<String> deleteCandidateList, Boolean singleCommits,
+			Boolean ghost2CheckOff, Boolean ghost2FixOn,
+			GroomingResults results, LogLine logline) {
 
-			bw.close();
-
-			System.out
-					.println("\n ------------- Done doing all the checks ------------ ");
-			System.out.println("Output will be written to "
-					+ fullOutputFileName);
-
-			if (cleanupCandidateCount > 0) {
-				// Technically, this is not an error -- but we're throwing this
-				// error so that hopefully a
-				// monitoring system will pick it up and do something with it.
-				String emsg = "See file: [" + fullOutputFileName
-						+ "] and investigate delete candidates. ";
-				throw new AAIException("AAI_6123", emsg);
+		TitanTransaction g = worker.tx;
+		TitanTransaction g2 = worker.tx2;
+		try {
+			int counter = results.edgeCheckCount.incrementAndGet();
+			String thisVertId = "";
+			try {
+				thisVertId = v.id().toString();
+			} catch (Exception ev) {
+				String msg = "WARNING when doing getId() on a vertex from our vertex list.  ";
+				logAdd(logline, msg, ev.getMessage());
+				System.out.println(msg);
+				return;
 			}
-
-			aaiLogger.info(logline, true, "0");
-		} catch (AAIException e) {
-			System.out.print("Threw a AAIException: \n");
-			System.out.println(e.getErrorObject().toString());
-			aaiLogger.error(e.getErrorObject(), logline, e);
-			aaiLogger.info(logline, false, e.getErrorObject().getErrorCodeString());
-		} catch (Exception ex) {
-			System.out.print("Threw a regular Exception:\n");
-			System.out.println(ex.getMessage());
-			aaiLogger.error(
-					ErrorLogHelper.getErrorObject("AAI_6128", ex.getMessage()
-							+ ", resolve and rerun dataGrooming"), logline, ex);
-			aaiLogger.info(logline, false, "AAI_6128");
-		} finally {
-			if (g != null) {
-				// Any changes that worked correctly should have already done
-				// their commits.
-				g.rollback();
-				graph.close();
+			if (results.ghostNodeHash.containsKey(thisVertId)) {
+				// This is a phantom node, so don't try to use it
+				System.out
+						.println(" >> Skipping edge check for edges from vertexId = "
+								+ thisVertId
+								+ ", since that guy is a Phantom Node");
+				return;
 			}
-
-			if (bw != null) {
-				try {
-					bw.close();
-				} catch (IOException iox) {
-					String emsg = "Got an IOException trying to close bufferedWriter() \n";
-					logline.add("emsg", emsg);
-				}
+			if (counter % 250 == 0) {
+				System.out.println("... Checking edges for vertex # "
+						+ counter);
 			}
-			
-			if (g != null) {
-				// Any changes that worked correctly should have already done
-				// their commits.
+			Iterator<Edge> eItor = v.edges(Direction.BOTH);
+			while (eItor.hasNext()) {
+				Edge e = null;
+				Vertex vIn = null;
+				Vertex vOut = null;
 				try {
-					g.rollback();
-				} catch (Exception ex) {
-					// Don't throw anything because Titan sometimes is just saying that the graph is already closed
-					System.out.println("WARNING from final graphTransaction.rollback(): " + ex.getMessage() );
+					e = eItor.next();
+				} catch (Exception iex) {
+					String msg = ">>> WARNING trying to get next edge on the eItor ";
+					logAdd(logline, msg, iex.getMessage());
+					System.out.println(msg + iex.getMessage());
+					continue;
 				}
-			}
-			
-			if (g2 != null) {
-				// Any changes that worked correctly should have already done
-				// their commits.
+
 				try {
-					g2.rollback();
-				} catch (Exception ex) {
-					// Don't throw anything because Titan sometimes is just saying that the graph is already closed
-					System.out.println("WARNING from final graphTransaction2.rollback(): " + ex.getMessage() );
+					vIn = e.inVertex();
+				} catch (Exception err) {
+					String msg = ">>> WARNING trying to get edge's In-vertex ";
+					logAdd(logline, msg, err.getMessage());
+					System.out.println(msg + err.getMessage());
 				}
-			}
+				String vNtI = "";
+				String vIdI = "";
+				TitanVertex ghost2 = null;
 				
-			if( finalShutdownFlag ){
-				try {
-					if( graph != null && graph.isOpen() ){
-						graph.tx().close();
-						graph.close();
+				Boolean keysMissing = true;
+				Boolean cantGetUsingVid = false;
+				if (vIn != null) {
+					try {
+						Object ob = vIn.<Object>property("aai-node-type").orElse(null);
+						if (ob != null) {
+							vNtI = ob.toString();
+							keysMissing = anyKeyFieldsMissing(vNtI, vIn);
+						}
+						ob = vIn.id();
+						long vIdLong = 0L;
+						if (ob != null) {
+							vIdI = ob.toString();
+							vIdLong = Long.parseLong(vIdI);
+						}
+						
+						if( ! ghost2CheckOff ){
+							TitanVertex connectedVert = g2.getVertex(vIdLong);
+							if( connectedVert == null ) {
+								System.out.println( "GHOST2 -- got NULL when doing getVertex for vid = " + vIdLong);
+								cantGetUsingVid = true;
+								
+								// If we can NOT get this ghost with the SECOND graph-object, 
+								// it is still a ghost since even though we can get data about it using the FIRST graph 
+								// object.  
+								try {
+									 ghost2 = g.getVertex(vIdLong);
+								}
+								catch( Exception ex){
+									System.out.println( "GHOST2 --  Could not get the ghost info for a bad edge for vtxId = " + vIdLong);
+								}
+								if( ghost2 != null ){
+									results.ghostNodeHash.put(vIdI, ghost2);
+								}
+							}
+						}// end of the ghost2 checking
+					} 
+					catch (Exception err) {
+						String msg = ">>> WARNING trying to get edge's In-vertex props ";
+						logAdd(logline, msg, err.getMessage());
+						System.out.println(msg + err.getMessage());
 					}
-				} catch (Exception ex) {
-					// Don't throw anything because Titan sometimes is just saying that the graph is already closed{
-					System.out.println("WARNING from final graph.shutdown(): " + ex.getMessage() );
 				}
-				
+				if (keysMissing || vIn == null || vNtI.equals("")
+						|| cantGetUsingVid) {
+					// this is a bad edge because it points to a vertex
+					// that isn't there anymore or is corrupted
+					String thisEid = e.id().toString();
+					if (deleteCandidateList.contains(thisEid) || deleteCandidateList.contains(vIdI)) {
+						boolean okFlag = true;
+						if (!vIdI.equals("")) {
+							// try to get rid of the corrupted vertex
+							try {
+								if( (ghost2 != null) && ghost2FixOn ){
+									ghost2.remove();
+								}
+								else {
+									vIn.remove();
+								}
+								worker.recordDelete(results);
+								if (singleCommits) {
+									g = worker.commitAndRenew();
+								}
+							} catch (Exception e1) {
+								okFlag = false;
+								String msg = "WARNING when trying to delete bad-edge-connected VERTEX VID = "
+										+ vIdI;
+								logAdd(logline, msg, e1.getMessage());
+								System.out.println(msg);
+							}
+							if (okFlag) {
+								logAdd(logline, 
+										"DELETED vertex on a bad edge = ",
+										vIdI);
+								System.out
+										.println(" DELETED vertex from bad edge = "
+												+ vIdI);
+							}
+						} else {
+							// remove the edge if we couldn't get the
+							// vertex
+							try {
+								e.remove();
+								worker.recordDelete(results);
+								if (singleCommits) {
+									g = worker.commitAndRenew();
+								}
+							} catch (Exception ex) {
+								// NOTE - often, the exception is just
+								// that this edge has already been
+								// removed
+								okFlag = false;
+								String msg = "WARNING when trying to delete edge = "
+										+ thisEid;
+								logAdd(logline, msg, ex.getMessage());
+								System.out.println(msg);
+							}
+							if (okFlag) {
+								logAdd(logline, "DELETED edge = ", thisEid);
+								System.out.println(" DELETED edge = "
+										+ thisEid);
+							}
+						}
+					} else {
+						results.oneArmedEdgeHash.put(thisEid, e);
+						if ((vIn != null) && (vIn.id() != null)) {
+							results.emptyVertexHash.put(thisEid, vIn.id()
+									.toString());
+						}
+					}
+				}
+
 				try {
-					if( graph2 != null && graph2.isOpen() ){
-						graph2.tx().close();
-						graph2.close();
+					vOut = e.outVertex();
+				} catch (Exception err) {
+					String msg = ">>> WARNING trying to get edge's Out-vertex ";
+					logAdd(logline, msg, err.getMessage());
+					System.out.println(msg + err.getMessage());
+				}
+				String vNtO = "";
+				String vIdO = "";
+				ghost2 = null;
+				keysMissing = true;
+				cantGetUsingVid = false;
+				if (vOut != null) {
+					try {
+						Object ob = vOut.<Object>property("aai-node-type").orElse(null);
+						if (ob != null) {
+							vNtO = ob.toString();
+							keysMissing = anyKeyFieldsMissing(vNtO,
+									vOut);
+						}
+						ob = vOut.id();
+						long vIdLong = 0L;
+						if (ob != null) {
+							vIdO = ob.toString();
+							vIdLong = Long.parseLong(vIdO);
+						}
+						
+						if( ! ghost2CheckOff ){
+							TitanVertex connectedVert = g2.getVertex(vIdLong);
+							if( connectedVert == null ) {
+								cantGetUsingVid = true;
+								System.out.println( "GHOST2 -- got NULL when doing getVertex for vid = " + vIdLong);
+								// If we can get this ghost with the other graph-object, then get it -- it's still a ghost
+								try {
+									 ghost2 = g.getVertex(vIdLong);
+								}
+								catch( Exception ex){
+									System.out.println( "GHOST2 -- Could not get the ghost info for a bad edge for vtxId = " + vIdLong);
+								}
+								if( ghost2 != null ){
+									results.ghostNodeHash.put(vIdO, ghost2);
+								}
+							}
+						}
+					} catch (Exception err) {
+						String msg = ">>> WARNING trying to get edge's Out-vertex props ";
+						logAdd(logline, msg, err.getMessage());
+						System.out.println(msg + err.getMessage());
+					}
+				}
+				if (keysMissing || vOut == null || vNtO.equals("")
+						|| cantGetUsingVid) {
+					// this is a bad edge because it points to a vertex
+					// that isn't there anymore
+					String thisEid = e.id().toString();
+					if (deleteCandidateList.contains(thisEid) || deleteCandidateList.contains(vIdO)) {
+						boolean okFlag = true;
+						if (!vIdO.equals("")) {
+							// try to get rid of the corrupted vertex
+							try {
+								if( (ghost2 != null) && ghost2FixOn ){
+									ghost2.remove();
+								}
+								else {
+									vOut.remove();
+								}
+								worker.recordDelete(results);
+								if (singleCommits) {
+									g = worker.commitAndRenew();
+								}
+							} catch (Exception e1) {
+								okFlag = false;
+								String msg = "WARNING when trying to delete bad-edge-connected VID = "
+										+ vIdO;
+								logAdd(logline, msg, e1.getMessage());
+								System.out.println(msg);
+							}
+							if (okFlag) {
+								logAdd(logline, 
+										"DELETED vertex on a bad edge = ",
+										vIdO);
+								System.out
+										.println(" DELETED vertex from bad edge = "
+												+ vIdO);
+							}
+						} else {
+							// remove the edge if we couldn't get the
+							// vertex
+							try {
+								e.remove();
+								worker.recordDelete(results);
+								if (singleCommits) {
+									g = worker.commitAndRenew();
+								}
+							} catch (Exception ex) {
+								// NOTE - often, the exception is just
+								// that this edge has already been
+								// removed
+								okFlag = false;
+								String msg = "WARNING when trying to delete edge = "
+										+ thisEid;
+								logAdd(logline, msg, ex.getMessage());
+								System.out.println(msg);
+							}
+							if (okFlag) {
+								logAdd(logline, "DELETED edge = ", thisEid);
+								System.out.println(" DELETED edge = "
+										+ thisEid);
+							}
+						}
+					} else {
+						results.oneArmedEdgeHash.put(thisEid, e);
+						if ((vOut != null) && (vOut.id() != null)) {
+							results.emptyVertexHash.put(thisEid, vOut.id()
+									.toString());
+						}
 					}
-				} catch (Exception ex) {
-					// Don't throw anything because Titan sometimes is just saying that the graph is already closed{
-					System.out.println("WARNING from final graph2.shutdown(): " + ex.getMessage() );
 				}
+			}// End of while-edges-loop
+		} catch (Exception exx) {
+			String msg = "WARNING from in the while-verts-loop ";
+			logAdd(logline, msg, exx.getMessage());
+			System.out.println(msg);
+		}
+		
+	}// End of checkEdgesForVertex()
+	
+	/**
+	 * Hands the shards out to one thread per worker until they are all processed.
+	 *
+	 * @param <T> the shard type
+	 * @param workers the workers
+	 * @param shards the shards
+	 * @param task the task to run for each shard
+	 * @throws Exception the exception
+	 */
+	private static <T> void runSharded(List<GroomWorker> workers, Collection<T> shards, 
+			ShardTask<T> task) throws Exception {
+		
+		ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<T>(shards);
+		ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (GroomWorker worker : workers) {
+				futures.add(pool.submit(() -> {
+					T shard;
+					while ((shard = queue.poll()) != null) {
+						task.process(worker, shard);
+						worker.shardsDone.add(describeShard(shard));
+					}
+					return null;
+				}));
 			}
-				
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdownNow();
 		}
-
-		return cleanupCandidateCount;
-
-	}// end of doTheGrooming()
+	}
+	
+	/**
+	 * Describes a shard for the summary - a node type, or the first and last id of an id range.
+	 *
+	 * @param shard the shard
+	 * @return the description
+	 */
+	private static String describeShard(Object shard) {
+		if (shard instanceof List && !((List<?>)shard).isEmpty()) {
+			List<?> range = (List<?>)shard;
+			return "ids " + range.get(0) + "-" + range.get(range.size() - 1);
+		}
+		return String.valueOf(shard);
+	}
+	
+	/**
+	 * Adds to the logline - which is shared by all of the grooming threads.
+	 *
+	 * @param logline the logline
+	 * @param name the name
+	 * @param value the value
+	 */
+	private static void logAdd(LogLine logline, String name, String value) {
+		synchronized (logline) {
+			logline.add(name, value);
+		}
+	}
+	
 	
 	
 	/**
@@ -1836,7 +2339,7 @@ public class DataGrooming {
 									deleteCandidateList, singleCommits);
 						}
 						if (didRemove) {
-							dupeGrpsDeleted++;
+							dupeGrpsDeleted.incrementAndGet();
 						} else {
 							// keep them on our list
 							returnList.add(dupesStr);
@@ -1890,7 +2393,7 @@ public class DataGrooming {
 											deleteCandidateList, singleCommits);
 								}
 								if (didRemove) {
-									dupeGrpsDeleted++;
+									dupeGrpsDeleted.incrementAndGet();
 								} else {
 									// keep them on our list
 									returnList.add(dupesStr);
@@ -2181,4 +2684,140 @@ public class DataGrooming {
 	
 	
 	
+	
+	/**
+	 * The work done by a worker thread for one shard.
+	 *
+	 * @param <T> the shard type
+	 */
+	private interface ShardTask<T> {
+		
+		/**
+		 * Process.
+		 *
+		 * @param worker the worker
+		 * @param shard the shard
+		 * @throws Exception the exception
+		 */
+		void process(GroomWorker worker, T shard) throws Exception;
+	}
+	
+	/**
+	 * The transactions used by a single grooming thread.
+	 */
+	static class GroomWorker {
+		
+		private final TitanGraph graph;
+		
+		private TitanTransaction tx;
+		
+		private TitanTransaction tx2 = null;
+		
+		/* deletes made in the current transaction, and in the ones already committed */
+		private int pendingDeletes = 0;
+		
+		private int committedDeletes = 0;
+		
+		private final List<String> shardsDone = Collections.synchronizedList(new ArrayList<String>());
+		
+		/**
+		 * Instantiates a new groom worker.
+		 *
+		 * @param graph the graph
+		 */
+		GroomWorker(TitanGraph graph) {
+			this.graph = graph;
+			this.tx = graph.newTransaction();
+		}
+		
+		/**
+		 * Commits this worker's changes and starts a new transaction.
+		 *
+		 * @return the new transaction
+		 */
+		TitanTransaction commitAndRenew() {
+			tx.commit();
+			committedDeletes = committedDeletes + pendingDeletes;
+			pendingDeletes = 0;
+			tx = graph.newTransaction();
+			return tx;
+		}
+		
+		/**
+		 * Counts a delete made in the current transaction.
+		 *
+		 * @param results the results
+		 */
+		void recordDelete(GroomingResults results) {
+			pendingDeletes++;
+			results.deleteCount.incrementAndGet();
+		}
+		
+		/**
+		 * Rolls back whatever has not been committed, forgets its deletes and starts a new transaction.
+		 */
+		void discard() {
+			rollback();
+			pendingDeletes = 0;
+			tx = graph.newTransaction();
+		}
+		
+		/**
+		 * Gets the number of deletes committed so far.
+		 *
+		 * @return the committed deletes
+		 */
+		int getCommittedDeletes() {
+			return committedDeletes;
+		}
+		
+		/**
+		 * Rolls back whatever has not been committed.
+		 */
+		void rollback() {
+			for (TitanTransaction t : new TitanTransaction[] { tx, tx2 }) {
+				try {
+					if (t != null && t.isOpen()) {
+						t.rollback();
+					}
+				} catch (Exception ex) {
+					// Don't throw anything because Titan sometimes is just saying that the graph is already closed
+					System.out.println("WARNING from worker graphTransaction.rollback(): " + ex.getMessage() );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The findings of a grooming run, filled in concurrently by the worker threads.
+	 */
+	static class GroomingResults {
+		
+		final Map<String, String> misMatchedHash = new ConcurrentHashMap<String, String>();
+		
+		final Map<String, TitanVertex> orphanNodeHash = new ConcurrentHashMap<String, TitanVertex>();
+		
+		final Map<String, TitanVertex> missingDepNodeHash = new ConcurrentHashMap<String, TitanVertex>();
+		
+		final Map<String, Edge> oneArmedEdgeHash = new ConcurrentHashMap<String, Edge>();
+		
+		final Map<String, String> emptyVertexHash = new ConcurrentHashMap<String, String>();
+		
+		final Map<String, TitanVertex> ghostNodeHash = new ConcurrentHashMap<String, TitanVertex>();
+		
+		final List<String> errArr = Collections.synchronizedList(new ArrayList<String>());
+		
+		final List<String> dupeGroups = Collections.synchronizedList(new ArrayList<String>());
+		
+		final AtomicInteger totalNodeCount = new AtomicInteger();
+		
+		final AtomicInteger deleteCount = new AtomicInteger();
+		
+		final AtomicInteger edgeCheckCount = new AtomicInteger();
+		
+		long nodePhaseMsec = 0;
+		
+		long edgePhaseMsec = 0;
+	}
+	
 }
@@ -125,6 +125,24 @@ public class DataSnapshot {
 	 			System.out.println("A little after taking the snapshot, we see: " + vCount + " vertices in the db.");
 	 			************/
 	        }
+	    	else if( command.equals("PARALLEL_TAKE_SNAPSHOT") ){
+	    		// ------------------------------------------------------------------
+	    		// Same as JUST_TAKE_SNAPSHOT, but written in parallel as gzipped
+	    		// GraphSON chunks listed in a manifest
+	    		// ------------------------------------------------------------------
+	    		SimpleDateFormat d = new SimpleDateFormat("yyyyMMddHHmm");
+				d.setTimeZone(TimeZone.getTimeZone("GMT"));
+				String dteStr = d.format(new Date()).toString();
+				String snapshotName = "dataSnapshot.out." + dteStr;
+				int threads = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_DATASNAPSHOT_THREADS, "8"));
+				int chunkSize = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_DATASNAPSHOT_CHUNK_SIZE, "50000"));
+				
+				SnapshotExporter exporter = new SnapshotExporter(graph, threads, chunkSize, System.out);
+				SnapshotManifest manifest = exporter.export(new File(targetDir), snapshotName);
+				
+				System.out.println("Snapshot of " + manifest.getVertexCount() + " vertices written to " 
+						+ targetDir + AAIConstants.AAI_FILESEP + snapshotName + ".manifest" );
+	    	}
 	    	else if( command.equals("CLEAR_ENTIRE_DATABASE") ){
 	    		// ------------------------------------------------------------------
 	    		// They are calling this to clear the db before re-loading it later
@@ -217,6 +235,30 @@ public class DataSnapshot {
 	 			}
 	 			System.out.println("A little after repopulating from an old snapshot, we see: " + vCount + " vertices in the db.");
 	 		}
+	    	else if( command.equals("PARALLEL_RELOAD_DATA") ){
+	    		// -------------------------------------------------------------------
+	    		// They want to restore the database from a chunked snapshot, the
+	    		// file name passed in is the manifest of that snapshot
+	    		// -------------------------------------------------------------------
+	    		if( oldSnapshotFileName.equals("") ){
+	    			String emsg = "No manifest file name passed to DataSnapshot when PARALLEL_RELOAD_DATA used.";
+		          	System.out.println( emsg );
+		          	System.exit(1);
+		        }
+	    		File f = new File(targetDir + AAIConstants.AAI_FILESEP + oldSnapshotFileName);
+	    		if( ! f.canRead() ){
+	    			String emsg = "Snapshot manifest " + f.getPath() + " could not be read.";
+		          	System.out.println( emsg );
+		          	System.exit(1);
+	    		}
+	    		int threads = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_DATASNAPSHOT_THREADS, "8"));
+	    		int batchSize = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_DATASNAPSHOT_RELOAD_BATCH_SIZE, "1000"));
+	    		
+	            System.out.println("We will load data IN from the snapshot = " + f.getPath() );
+	            SnapshotLoader loader = new SnapshotLoader(graph, threads, batchSize, System.out);
+	            loader.load(f);
+	            System.out.println("Completed reloading data.");
+	 		}
 	    	else {
 	    		String emsg = "Bad command passed to DataSnapshot: [" + command + "]";
 		        System.out.println( emsg );
@@ -0,0 +1,159 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Finds the vertices of one node type that share the same key data in a single pass.
+ * 
+ * Each key signature is reduced to a 64 bit hash and kept, along with the vertex id, in 
+ * primitive arrays - so the cost per vertex is two longs rather than a String and a couple
+ * of boxed objects.  Only hashes that show up more than once are copied out into groups.
+ * Since a hash can (very rarely) collide, callers should confirm a group against the real
+ * key data before treating it as a set of duplicates.
+ */
+public class KeySignatureIndex {
+
+	private static final HashFunction HASH = Hashing.murmur3_128();
+	
+	private long[] hashes;
+	
+	private long[] vids;
+	
+	private boolean[] used;
+	
+	private int size = 0;
+	
+	private final Map<Long, long[]> groups = new LinkedHashMap<>();
+	
+	/**
+	 * Instantiates a new key signature index.
+	 *
+	 * @param expectedSize the number of vertices we expect to add
+	 */
+	public KeySignatureIndex(int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		this.allocate(capacity);
+	}
+	
+	/**
+	 * Adds a vertex under its key signature.
+	 *
+	 * @param signature the key signature
+	 * @param vid the vertex id
+	 */
+	public void add(String signature, long vid) {
+		long hash = HASH.hashString(signature, StandardCharsets.UTF_8).asLong();
+		int slot = this.find(hash);
+		if (used[slot]) {
+			long[] group = groups.get(hash);
+			if (group == null) {
+				group = new long[] { vids[slot], vid };
+			} else {
+				group = Arrays.copyOf(group, group.length + 1);
+				group[group.length - 1] = vid;
+			}
+			groups.put(hash, group);
+			return;
+		}
+		used[slot] = true;
+		hashes[slot] = hash;
+		vids[slot] = vid;
+		size++;
+		if (size * 2 > hashes.length) {
+			this.grow();
+		}
+	}
+	
+	/**
+	 * Gets the number of distinct signatures seen.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets the groups of vertex ids that share a signature, in the order the groups were first seen.
+	 *
+	 * @return the duplicate groups
+	 */
+	public List<long[]> getDuplicateGroups() {
+		return new ArrayList<>(groups.values());
+	}
+	
+	/**
+	 * Finds the slot holding the hash, or the empty slot where it belongs.
+	 *
+	 * @param hash the hash
+	 * @return the slot
+	 */
+	private int find(long hash) {
+		int mask = hashes.length - 1;
+		int slot = (int) (hash ^ (hash >>> 32)) & mask;
+		while (used[slot] && hashes[slot] != hash) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	/**
+	 * Doubles the table.
+	 */
+	private void grow() {
+		long[] oldHashes = hashes;
+		long[] oldVids = vids;
+		boolean[] oldUsed = used;
+		this.allocate(oldHashes.length * 2);
+		for (int i = 0; i < oldHashes.length; i++) {
+			if (oldUsed[i]) {
+				int slot = this.find(oldHashes[i]);
+				used[slot] = true;
+				hashes[slot] = oldHashes[i];
+				vids[slot] = oldVids[i];
+			}
+		}
+	}
+	
+	/**
+	 * Allocate.
+	 *
+	 * @param capacity the capacity
+	 */
+	private void allocate(int capacity) {
+		hashes = new long[capacity];
+		vids = new long[capacity];
+		used = new boolean[capacity];
+	}
+}
@@ -0,0 +1,232 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.TitanTransaction;
+
+/**
+ * Writes a snapshot of the graph as gzipped GraphSON chunks, one vertex per line.
+ * 
+ * Vertex ids are streamed once and spilled to disk in runs of chunkSize ids, so only
+ * the chunks being written are ever held in memory. Each run is exported by a worker
+ * in its own read transaction, and the manifest is written last, once every chunk made
+ * it to disk.
+ * 
+ * Because the chunks are read in separate transactions the snapshot is not a point in
+ * time view of a graph that is being written to. The manifest says so, and the loader
+ * skips edges to vertices that did not make it into any chunk.
+ */
+public class SnapshotExporter {
+
+	private static final long REPORT_INTERVAL_SECONDS = 30;
+	
+	private final TitanGraph graph;
+	private final int threads;
+	private final int chunkSize;
+	private final PrintStream progress;
+	private final AtomicLong listed = new AtomicLong();
+	private final AtomicLong exported = new AtomicLong();
+	private final AtomicInteger chunksListed = new AtomicInteger();
+	private final AtomicInteger chunksDone = new AtomicInteger();
+	
+	/**
+	 * Instantiates a new snapshot exporter.
+	 *
+	 * @param graph the graph
+	 * @param threads the number of chunks written at the same time
+	 * @param chunkSize the number of vertices per chunk
+	 * @param progress where progress is reported
+	 */
+	public SnapshotExporter(TitanGraph graph, int threads, int chunkSize, PrintStream progress) {
+		this.graph = graph;
+		this.threads = Math.max(1, threads);
+		this.chunkSize = Math.max(1, chunkSize);
+		this.progress = progress;
+	}
+	
+	/**
+	 * Exports the graph.
+	 *
+	 * @param targetDir the target dir
+	 * @param snapshotName the snapshot name, used as prefix of every file written
+	 * @return the snapshot manifest
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException the interrupted exception
+	 */
+	public SnapshotManifest export(File targetDir, String snapshotName) throws IOException, InterruptedException {
+		final long start = System.currentTimeMillis();
+		progress.println("Exporting " + snapshotName + " in chunks of " + chunkSize + " vertices using " + threads + " threads");
+		
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+		reporter.scheduleAtFixedRate(() -> this.report(start), 
+				REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+		SnapshotManifest manifest = new SnapshotManifest();
+		manifest.setPointInTime(false);
+		List<Future<Long>> futures = new ArrayList<>();
+		List<String> fileNames = new ArrayList<>();
+		TitanTransaction tx = graph.newTransaction();
+		Writer spill = null;
+		File spillFile = null;
+		try {
+			Iterator<Object> ids = tx.traversal().V().id();
+			int inChunk = 0;
+			while (ids.hasNext()) {
+				if (spill == null) {
+					spillFile = new File(targetDir, String.format("%s.chunk-%04d.ids", snapshotName, fileNames.size()));
+					spill = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile), StandardCharsets.UTF_8));
+				}
+				spill.write(ids.next() + "\n");
+				listed.incrementAndGet();
+				if (++inChunk == chunkSize) {
+					spill.close();
+					spill = null;
+					inChunk = 0;
+					this.submit(pool, futures, fileNames, targetDir, snapshotName, spillFile);
+				}
+			}
+			if (spill != null) {
+				spill.close();
+				spill = null;
+				this.submit(pool, futures, fileNames, targetDir, snapshotName, spillFile);
+			}
+			tx.rollback();
+			for (int i = 0; i < futures.size(); i++) {
+				manifest.addChunk(fileNames.get(i), futures.get(i).get());
+			}
+		} catch (ExecutionException e) {
+			throw new IOException("Snapshot chunk failed, no manifest written", e.getCause());
+		} finally {
+			if (spill != null) {
+				spill.close();
+			}
+			if (tx.isOpen()) {
+				tx.rollback();
+			}
+			pool.shutdownNow();
+			reporter.shutdownNow();
+		}
+		manifest.write(new File(targetDir, snapshotName + ".manifest"));
+		this.report(start);
+		
+		return manifest;
+	}
+	
+	/**
+	 * Hands a spilled run of ids to the pool as the next chunk.
+	 *
+	 * @param pool the pool
+	 * @param futures the futures of the chunks so far
+	 * @param fileNames the file names of the chunks so far
+	 * @param targetDir the target dir
+	 * @param snapshotName the snapshot name
+	 * @param spillFile the file holding the ids of the chunk
+	 */
+	private void submit(ExecutorService pool, List<Future<Long>> futures, List<String> fileNames, 
+			File targetDir, String snapshotName, File spillFile) {
+		final String fileName = String.format("%s.chunk-%04d.graphson.gz", snapshotName, fileNames.size());
+		fileNames.add(fileName);
+		chunksListed.incrementAndGet();
+		futures.add(pool.submit(() -> {
+			List<Object> range = new ArrayList<>(chunkSize);
+			for (String id : Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8)) {
+				range.add(Long.valueOf(id));
+			}
+			long count = this.writeChunk(new File(targetDir, fileName), range);
+			Files.delete(spillFile.toPath());
+			return count;
+		}));
+	}
+	
+	/**
+	 * Writes one chunk.
+	 *
+	 * @param file the file
+	 * @param ids the vertex ids in this chunk
+	 * @return the number of vertices written, vertices deleted since the ids were read are skipped
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private long writeChunk(File file, List<Object> ids) throws IOException {
+		GraphSONWriter writer = graph.io(IoCore.graphson()).writer().create();
+		TitanTransaction tx = graph.newTransaction();
+		long count = 0;
+		try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			Iterator<Vertex> vertices = tx.vertices(ids.toArray());
+			while (vertices.hasNext()) {
+				line.reset();
+				writer.writeVertex(line, vertices.next(), Direction.BOTH);
+				line.writeTo(out);
+				out.write('\n');
+				count++;
+				exported.incrementAndGet();
+			}
+		} finally {
+			tx.rollback();
+		}
+		chunksDone.incrementAndGet();
+		
+		return count;
+	}
+	
+	/**
+	 * Reports progress and throughput, against the vertices listed so far.
+	 *
+	 * @param start the start
+	 */
+	private void report(long start) {
+		long elapsed = Math.max(1, System.currentTimeMillis() - start);
+		long done = exported.get();
+		progress.println(String.format("Exported %d of %d vertices, %d of %d chunks, %.1f vertices/sec, %d sec elapsed", 
+				done, listed.get(), chunksDone.get(), chunksListed.get(), done * 1000.0 / elapsed, elapsed / 1000));
+	}
+}
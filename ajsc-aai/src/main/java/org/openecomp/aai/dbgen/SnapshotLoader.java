@@ -0,0 +1,542 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkaurelius.titan.core.TitanGraph;
+import com.thinkaurelius.titan.core.TitanTransaction;
+
+/**
+ * Loads a chunked snapshot written by SnapshotExporter back into a graph.
+ * 
+ * All chunks are loaded in parallel in two passes. The vertex pass creates every
+ * vertex and maps its snapshot id to the id it got in this graph. The edge pass then
+ * adds each vertex's out edges between the mapped ids. Workers commit every batchSize
+ * vertices or edges.
+ * 
+ * Progress is kept in a directory next to the manifest, so a reload that died part
+ * way can be started again and picks up after the last commit of each chunk:
+ * <ul>
+ *   <li>chunk-N.idmap - the snapshot id to new id pairs of each batch, written before
+ *   the batch is committed and followed by a commit line once it is</li>
+ *   <li>chunk-N.edges - the number of lines whose edges are committed, followed while
+ *   a batch is being committed by the last line of that batch</li>
+ * </ul>
+ * On resume the ids of committed batches are taken as they are. A batch with no commit
+ * line is kept only if its vertices are in the graph. Edges of lines in a batch that
+ * was being committed are only added if the graph doesn't already have an edge with
+ * the same label between the same vertices. So a crash on either side of a commit
+ * neither loses nor duplicates vertices or edges.
+ * 
+ * Chunks are exported in separate transactions, so a snapshot of a live graph can hold
+ * edges to vertices that were deleted before their chunk was read. Those edges are
+ * skipped and counted rather than failing the reload.
+ */
+public class SnapshotLoader {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final String COMMITTED = "#committed";
+	
+	private final TitanGraph graph;
+	private final int threads;
+	private final int batchSize;
+	private final PrintStream progress;
+	private final Map<String, Object> idMap = new ConcurrentHashMap<>();
+	private final AtomicLong verticesLoaded = new AtomicLong();
+	private final AtomicLong edgesLoaded = new AtomicLong();
+	private final AtomicLong edgesSkipped = new AtomicLong();
+	
+	/**
+	 * Instantiates a new snapshot loader.
+	 *
+	 * @param graph the graph
+	 * @param threads the number of chunks loaded at the same time
+	 * @param batchSize the number of vertices or edges per commit
+	 * @param progress where progress is reported
+	 */
+	public SnapshotLoader(TitanGraph graph, int threads, int batchSize, PrintStream progress) {
+		this.graph = graph;
+		this.threads = Math.max(1, threads);
+		this.batchSize = Math.max(1, batchSize);
+		this.progress = progress;
+	}
+	
+	/**
+	 * Loads the snapshot described by a manifest.
+	 *
+	 * @param manifestFile the manifest file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException the interrupted exception
+	 */
+	public void load(File manifestFile) throws IOException, InterruptedException {
+		SnapshotManifest manifest = SnapshotManifest.read(manifestFile);
+		File dir = manifestFile.getAbsoluteFile().getParentFile();
+		String name = manifestFile.getName();
+		File stateDir = new File(dir, name.substring(0, name.length() - ".manifest".length()) + ".reload");
+		stateDir.mkdirs();
+		List<String> chunks = manifest.getChunkFiles();
+		if (!manifest.isPointInTime()) {
+			progress.println("Snapshot is not a point in time view, edges to vertices missing from it will be skipped");
+		}
+		
+		for (int i = 0; i < chunks.size(); i++) {
+			this.readIdMap(this.idMapFile(stateDir, i));
+		}
+		if (!idMap.isEmpty()) {
+			progress.println("Resuming reload, " + idMap.size() + " vertices were already loaded");
+		}
+		
+		long start = System.currentTimeMillis();
+		this.runPass(chunks.size(), chunk -> this.loadVertices(new File(dir, chunks.get(chunk)), this.idMapFile(stateDir, chunk)));
+		long vertexMillis = Math.max(1, System.currentTimeMillis() - start);
+		progress.println(String.format("Vertex pass: %d vertices in %d sec, %.1f vertices/sec", 
+				verticesLoaded.get(), vertexMillis / 1000, verticesLoaded.get() * 1000.0 / vertexMillis));
+		
+		start = System.currentTimeMillis();
+		this.runPass(chunks.size(), chunk -> this.loadEdges(new File(dir, chunks.get(chunk)), new File(stateDir, "chunk-" + chunk + ".edges")));
+		long edgeMillis = Math.max(1, System.currentTimeMillis() - start);
+		progress.println(String.format("Edge pass: %d edges in %d sec, %.1f edges/sec", 
+				edgesLoaded.get(), edgeMillis / 1000, edgesLoaded.get() * 1000.0 / edgeMillis));
+		if (edgesSkipped.get() > 0) {
+			progress.println("Skipped " + edgesSkipped.get() + " edges to vertices that are not in the snapshot");
+		}
+	}
+	
+	/**
+	 * Gets the number of vertices created by this loader.
+	 *
+	 * @return the vertices loaded
+	 */
+	public long getVerticesLoaded() {
+		return verticesLoaded.get();
+	}
+	
+	/**
+	 * Gets the number of edges created by this loader.
+	 *
+	 * @return the edges loaded
+	 */
+	public long getEdgesLoaded() {
+		return edgesLoaded.get();
+	}
+	
+	/**
+	 * Gets the number of edges skipped because the vertex they point at is not in the snapshot.
+	 *
+	 * @return the edges skipped
+	 */
+	public long getEdgesSkipped() {
+		return edgesSkipped.get();
+	}
+	
+	/**
+	 * Work done on one chunk.
+	 */
+	private interface ChunkTask {
+		
+		/**
+		 * Loads one chunk.
+		 *
+		 * @param chunk the chunk number
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		void load(int chunk) throws IOException;
+	}
+	
+	/**
+	 * Runs one pass over every chunk and waits for it to finish.
+	 *
+	 * @param chunks the chunks
+	 * @param task the task
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException the interrupted exception
+	 */
+	private void runPass(int chunks, ChunkTask task) throws IOException, InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < chunks; i++) {
+				final int chunk = i;
+				futures.add(pool.submit(() -> {
+					task.load(chunk);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IOException("Reload of a snapshot chunk failed, run it again to resume", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Creates the vertices of one chunk.
+	 *
+	 * @param chunkFile the chunk file
+	 * @param idMapFile the id map file of the chunk
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void loadVertices(File chunkFile, File idMapFile) throws IOException {
+		List<String> oldIds = new ArrayList<>();
+		List<Vertex> created = new ArrayList<>();
+		TitanTransaction tx = graph.newTransaction();
+		try (BufferedReader reader = this.open(chunkFile);
+			Writer idMapWriter = new OutputStreamWriter(new FileOutputStream(idMapFile, true), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				JsonNode json = mapper.readTree(line);
+				String oldId = json.get("id").asText();
+				if (idMap.containsKey(oldId)) {
+					continue;
+				}
+				oldIds.add(oldId);
+				created.add(this.addVertex(tx, json));
+				if (created.size() == batchSize) {
+					this.commitBatch(tx, oldIds, created, idMapWriter);
+					tx = graph.newTransaction();
+				}
+			}
+			this.commitBatch(tx, oldIds, created, idMapWriter);
+		} finally {
+			if (tx.isOpen()) {
+				tx.rollback();
+			}
+		}
+	}
+	
+	/**
+	 * Creates one vertex with its properties.
+	 *
+	 * @param tx the tx
+	 * @param json the GraphSON vertex
+	 * @return the vertex
+	 */
+	private Vertex addVertex(TitanTransaction tx, JsonNode json) {
+		String label = json.has("label") ? json.get("label").asText() : Vertex.DEFAULT_LABEL;
+		Vertex v = Vertex.DEFAULT_LABEL.equals(label) ? tx.addVertex() : tx.addVertex(T.label, label);
+		Iterator<Map.Entry<String, JsonNode>> properties = json.path("properties").fields();
+		while (properties.hasNext()) {
+			Map.Entry<String, JsonNode> property = properties.next();
+			JsonNode values = property.getValue();
+			if (values.size() == 1) {
+				v.property(property.getKey(), this.toValue(values.get(0).get("value")));
+			} else {
+				for (JsonNode value : values) {
+					v.property(VertexProperty.Cardinality.set, property.getKey(), this.toValue(value.get("value")));
+				}
+			}
+		}
+		return v;
+	}
+	
+	/**
+	 * Writes the ids of a batch to the id map, commits it, marks it committed and clears
+	 * the batch. Titan gives a vertex its id when it is added, so the ids are known
+	 * before the commit.
+	 *
+	 * @param tx the tx
+	 * @param oldIds the snapshot ids
+	 * @param created the vertices created for them
+	 * @param idMapWriter the id map writer
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void commitBatch(TitanTransaction tx, List<String> oldIds, List<Vertex> created, Writer idMapWriter) throws IOException {
+		List<Object> newIds = new ArrayList<>(created.size());
+		for (int i = 0; i < oldIds.size(); i++) {
+			Object newId = created.get(i).id();
+			newIds.add(newId);
+			idMapWriter.write(oldIds.get(i) + "\t" + newId + "\n");
+		}
+		idMapWriter.flush();
+		tx.commit();
+		if (!oldIds.isEmpty()) {
+			idMapWriter.write(COMMITTED + "\n");
+			idMapWriter.flush();
+		}
+		for (int i = 0; i < oldIds.size(); i++) {
+			idMap.put(oldIds.get(i), newIds.get(i));
+		}
+		verticesLoaded.addAndGet(oldIds.size());
+		oldIds.clear();
+		created.clear();
+	}
+	
+	/**
+	 * Creates the out edges of the vertices of one chunk.
+	 *
+	 * @param chunkFile the chunk file
+	 * @param doneFile the file holding how many lines are already done
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void loadEdges(File chunkFile, File doneFile) throws IOException {
+		long done = 0;
+		long uncertain = 0;
+		if (doneFile.exists()) {
+			String[] marks = new String(Files.readAllBytes(doneFile.toPath()), StandardCharsets.UTF_8).trim().split("\t");
+			done = Long.parseLong(marks[0]);
+			if (marks.length > 1) {
+				uncertain = Long.parseLong(marks[1]);
+			}
+		}
+		long lineNumber = 0;
+		int pending = 0;
+		TitanTransaction tx = graph.newTransaction();
+		try (BufferedReader reader = this.open(chunkFile)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (lineNumber <= done) {
+					continue;
+				}
+				JsonNode json = mapper.readTree(line);
+				Vertex out = null;
+				Iterator<Map.Entry<String, JsonNode>> labels = json.path("outE").fields();
+				while (labels.hasNext()) {
+					Map.Entry<String, JsonNode> label = labels.next();
+					for (JsonNode edge : label.getValue()) {
+						Object inId = idMap.get(edge.get("inV").asText());
+						if (inId == null) {
+							edgesSkipped.incrementAndGet();
+							continue;
+						}
+						if (out == null) {
+							out = tx.vertices(this.newId(json.get("id"))).next();
+						}
+						Vertex in = tx.vertices(inId).next();
+						if (lineNumber > uncertain || !this.hasEdge(out, in, label.getKey())) {
+							this.addEdge(out, in, label.getKey(), edge.path("properties"));
+						}
+						pending++;
+					}
+				}
+				if (pending >= batchSize) {
+					this.recordPending(doneFile, done, lineNumber);
+					tx.commit();
+					this.recordDone(doneFile, lineNumber, pending);
+					done = lineNumber;
+					pending = 0;
+					tx = graph.newTransaction();
+				}
+			}
+			this.recordPending(doneFile, done, lineNumber);
+			tx.commit();
+			this.recordDone(doneFile, lineNumber, pending);
+		} finally {
+			if (tx.isOpen()) {
+				tx.rollback();
+			}
+		}
+	}
+	
+	/**
+	 * Adds one edge with its properties.
+	 *
+	 * @param out the out vertex
+	 * @param in the in vertex
+	 * @param label the label
+	 * @param properties the GraphSON edge properties
+	 */
+	private void addEdge(Vertex out, Vertex in, String label, JsonNode properties) {
+		List<Object> keyValues = new ArrayList<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			keyValues.add(field.getKey());
+			keyValues.add(this.toValue(field.getValue()));
+		}
+		out.addEdge(label, in, keyValues.toArray());
+	}
+	
+	/**
+	 * Checks whether the graph already has an edge with the label between the vertices.
+	 *
+	 * @param out the out vertex
+	 * @param in the in vertex
+	 * @param label the label
+	 * @return true, if there is one
+	 */
+	private boolean hasEdge(Vertex out, Vertex in, String label) {
+		Iterator<Edge> edges = out.edges(Direction.OUT, label);
+		while (edges.hasNext()) {
+			if (edges.next().inVertex().id().equals(in.id())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Records the last line of a batch of edges that is about to be committed, next to
+	 * the lines already done. If the commit goes through and the loader dies before
+	 * recordDone, a resume knows those edges may already be in the graph.
+	 *
+	 * @param doneFile the done file
+	 * @param done the lines already done
+	 * @param lineNumber the last line of the batch
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void recordPending(File doneFile, long done, long lineNumber) throws IOException {
+		Files.write(doneFile.toPath(), (done + "\t" + lineNumber).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Records how many lines of a chunk have their edges committed.
+	 *
+	 * @param doneFile the done file
+	 * @param lineNumber the last committed line
+	 * @param edges the edges committed with it
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void recordDone(File doneFile, long lineNumber, int edges) throws IOException {
+		Files.write(doneFile.toPath(), Long.toString(lineNumber).getBytes(StandardCharsets.UTF_8));
+		edgesLoaded.addAndGet(edges);
+	}
+	
+	/**
+	 * Gets the id a snapshot vertex got in this graph.
+	 *
+	 * @param oldId the snapshot id
+	 * @return the new id
+	 * @throws IOException if the vertex was not loaded
+	 */
+	private Object newId(JsonNode oldId) throws IOException {
+		Object newId = idMap.get(oldId.asText());
+		if (newId == null) {
+			throw new IOException("Vertex " + oldId.asText() + " of this chunk was not loaded");
+		}
+		return newId;
+	}
+	
+	/**
+	 * Converts a GraphSON value to the java type it was written from.
+	 *
+	 * @param value the value
+	 * @return the object
+	 */
+	private Object toValue(JsonNode value) {
+		if (value.isBoolean()) {
+			return value.booleanValue();
+		} else if (value.isInt()) {
+			return value.intValue();
+		} else if (value.isIntegralNumber()) {
+			return value.longValue();
+		} else if (value.isNumber()) {
+			return value.doubleValue();
+		} else {
+			return value.asText();
+		}
+	}
+	
+	/**
+	 * Reads the id map of a chunk left by an earlier run. The last batch may have been
+	 * written without being committed, so if it has no commit line its ids are only kept
+	 * when its vertices are in the graph. Otherwise it is cut from the file, and its
+	 * vertices are created again.
+	 *
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void readIdMap(File file) throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		Map<String, Object> batch = new LinkedHashMap<>();
+		int committedLines = 0;
+		for (int i = 0; i < lines.size(); i++) {
+			if (COMMITTED.equals(lines.get(i))) {
+				idMap.putAll(batch);
+				batch.clear();
+				committedLines = i + 1;
+			} else {
+				String[] ids = lines.get(i).split("\t");
+				if (ids.length == 2) {
+					batch.put(ids[0], Long.valueOf(ids[1]));
+				}
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		if (graph.vertices(batch.values().iterator().next()).hasNext()) {
+			idMap.putAll(batch);
+		} else {
+			Files.write(file.toPath(), lines.subList(0, committedLines), StandardCharsets.UTF_8);
+		}
+		graph.tx().rollback();
+	}
+	
+	/**
+	 * Gets the id map file of a chunk.
+	 *
+	 * @param stateDir the state dir
+	 * @param chunk the chunk
+	 * @return the file
+	 */
+	private File idMapFile(File stateDir, int chunk) {
+		return new File(stateDir, "chunk-" + chunk + ".idmap");
+	}
+	
+	/**
+	 * Opens a chunk file.
+	 *
+	 * @param file the file
+	 * @return the buffered reader
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private BufferedReader open(File file) throws IOException {
+		return new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8));
+	}
+}
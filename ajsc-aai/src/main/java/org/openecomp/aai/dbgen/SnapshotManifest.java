@@ -0,0 +1,163 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Lists the chunk files of a chunked snapshot and how many vertices each one holds.
+ * 
+ * Written next to the chunks as a properties file once every chunk is complete, so a
+ * snapshot without a manifest is an unfinished one. It also records whether the chunks
+ * are one point in time view of the graph; when they are not, edges may point at
+ * vertices that are in no chunk.
+ */
+public class SnapshotManifest {
+
+	public static final String FORMAT = "graphson-lines-gzip";
+	private static final String FORMAT_KEY = "snapshot.format";
+	private static final String CHUNK_COUNT_KEY = "snapshot.chunk.count";
+	private static final String VERTEX_COUNT_KEY = "snapshot.vertex.count";
+	private static final String POINT_IN_TIME_KEY = "snapshot.pointintime";
+	private static final String CHUNK_FILE_KEY = "snapshot.chunk.%d.file";
+	private static final String CHUNK_VERTICES_KEY = "snapshot.chunk.%d.vertices";
+	
+	private final List<String> chunkFiles = new ArrayList<>();
+	private final List<Long> chunkVertexCounts = new ArrayList<>();
+	private boolean pointInTime = false;
+	
+	/**
+	 * Adds a chunk.
+	 *
+	 * @param fileName the chunk file name, relative to the manifest
+	 * @param vertexCount the vertex count
+	 */
+	public void addChunk(String fileName, long vertexCount) {
+		chunkFiles.add(fileName);
+		chunkVertexCounts.add(vertexCount);
+	}
+	
+	/**
+	 * Gets the chunk files.
+	 *
+	 * @return the chunk files
+	 */
+	public List<String> getChunkFiles() {
+		return Collections.unmodifiableList(chunkFiles);
+	}
+	
+	/**
+	 * Gets the vertex count of one chunk.
+	 *
+	 * @param chunk the chunk number
+	 * @return the vertex count
+	 */
+	public long getChunkVertexCount(int chunk) {
+		return chunkVertexCounts.get(chunk);
+	}
+	
+	/**
+	 * Checks if the chunks are one point in time view of the graph.
+	 *
+	 * @return true, if they are
+	 */
+	public boolean isPointInTime() {
+		return pointInTime;
+	}
+	
+	/**
+	 * Sets whether the chunks are one point in time view of the graph.
+	 *
+	 * @param pointInTime the new point in time
+	 */
+	public void setPointInTime(boolean pointInTime) {
+		this.pointInTime = pointInTime;
+	}
+	
+	/**
+	 * Gets the vertex count.
+	 *
+	 * @return the total vertex count
+	 */
+	public long getVertexCount() {
+		long total = 0;
+		for (Long count : chunkVertexCounts) {
+			total += count;
+		}
+		return total;
+	}
+	
+	/**
+	 * Writes the manifest.
+	 *
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void write(File file) throws IOException {
+		Properties props = new Properties();
+		props.setProperty(FORMAT_KEY, FORMAT);
+		props.setProperty(CHUNK_COUNT_KEY, Integer.toString(chunkFiles.size()));
+		props.setProperty(VERTEX_COUNT_KEY, Long.toString(this.getVertexCount()));
+		props.setProperty(POINT_IN_TIME_KEY, Boolean.toString(pointInTime));
+		for (int i = 0; i < chunkFiles.size(); i++) {
+			props.setProperty(String.format(CHUNK_FILE_KEY, i), chunkFiles.get(i));
+			props.setProperty(String.format(CHUNK_VERTICES_KEY, i), Long.toString(chunkVertexCounts.get(i)));
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			props.store(out, "AAI chunked data snapshot");
+		}
+	}
+	
+	/**
+	 * Reads a manifest.
+	 *
+	 * @param file the file
+	 * @return the snapshot manifest
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static SnapshotManifest read(File file) throws IOException {
+		Properties props = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			props.load(in);
+		}
+		if (!FORMAT.equals(props.getProperty(FORMAT_KEY))) {
+			throw new IOException("Unsupported snapshot format in " + file + ": " + props.getProperty(FORMAT_KEY));
+		}
+		SnapshotManifest manifest = new SnapshotManifest();
+		manifest.setPointInTime(Boolean.parseBoolean(props.getProperty(POINT_IN_TIME_KEY, "false")));
+		int chunks = Integer.parseInt(props.getProperty(CHUNK_COUNT_KEY));
+		for (int i = 0; i < chunks; i++) {
+			manifest.addChunk(props.getProperty(String.format(CHUNK_FILE_KEY, i)),
+					Long.parseLong(props.getProperty(String.format(CHUNK_VERTICES_KEY, i))));
+		}
+		
+		return manifest;
+	}
+}
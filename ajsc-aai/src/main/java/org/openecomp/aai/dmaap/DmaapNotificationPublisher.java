@@ -0,0 +1,87 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openecomp.aai.util.AAIConstants;
+
+import com.att.nsa.mr.client.MRPublisher.message;
+
+/**
+ * Publishes notification batches to DMaaP through a batching publisher of its own,
+ * created the first time there is something to send. The pipeline gives each lane its
+ * own instance, so lanes don't wait on each other.
+ */
+public class DmaapNotificationPublisher implements NotificationPublisher {
+
+	private final String propertyFile;
+	private AAIDmaapPublisher adp = null;
+	
+	/**
+	 * Instantiates a new DMaaP notification publisher using aaiEventDMaaPPublisher.properties.
+	 */
+	public DmaapNotificationPublisher() {
+		this(AAIConstants.AAI_HOME_ETC_APP_PROPERTIES + "/aaiEventDMaaPPublisher.properties");
+	}
+	
+	/**
+	 * Instantiates a new DMaaP notification publisher.
+	 *
+	 * @param propertyFile the publisher property file
+	 */
+	public DmaapNotificationPublisher(String propertyFile) {
+		this.propertyFile = propertyFile;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void publish(String partition, List<String> messages) throws IOException {
+		if (adp == null) {
+			adp = new AAIDmaapPublisher(propertyFile);
+		}
+		List<message> batch = new ArrayList<>(messages.size());
+		for (String msg : messages) {
+			batch.add(new message(partition, msg));
+		}
+		adp.getMRBatchingPublisher().send(batch);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (adp != null) {
+			try {
+				adp.getMRBatchingPublisher().close(60, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			adp = null;
+		}
+	}
+}
@@ -0,0 +1,489 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.eclipse.persistence.dynamic.DynamicEntity;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.LogLine;
+import org.openecomp.aai.util.AAIConfig;
+import org.openecomp.aai.util.AAIConstants;
+
+/**
+ * Publishes notification events off the request thread.
+ * 
+ * Events are split across a fixed number of lanes by their entity-link, so all the events
+ * for one entity go through the same lane and are published in the order they were
+ * submitted. Each lane is a bounded queue with its own thread, which takes events off the
+ * queue until the batch is full or the first event has lingered long enough, serializes
+ * the whole batch with one marshaller and hands it to the lane's publisher. Lanes with
+ * their own publisher publish in parallel. Submitting never blocks: when a lane is full
+ * the event is rejected and counted.
+ */
+public class NotificationPipeline {
+
+	private static final String COMPONENT = "aaidmaap";
+	private static AAILogger aaiLogger = new AAILogger(NotificationPipeline.class.getName());
+	
+	private final Lane[] lanes;
+	private final int batchSize;
+	private final long lingerMillis;
+	private volatile boolean running = true;
+	
+	private final AtomicLong submittedCount = new AtomicLong();
+	private final AtomicLong publishedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong totalPublishMillis = new AtomicLong();
+	private volatile int lastBatchSize = 0;
+	private volatile int maxBatchSize = 0;
+	private volatile int maxQueueDepth = 0;
+	private volatile long maxPublishMillis = 0;
+	
+	private static class Helper {
+		private static final NotificationPipeline INSTANCE = createFromConfig();
+	}
+	
+	/**
+	 * Gets the single instance of NotificationPipeline, publishing to DMaaP.
+	 *
+	 * @return single instance of NotificationPipeline
+	 */
+	public static NotificationPipeline getInstance() {
+		return Helper.INSTANCE;
+	}
+	
+	/**
+	 * Instantiates a new notification pipeline whose lanes all share one publisher, and
+	 * starts a thread per lane.
+	 *
+	 * @param publisher the publisher
+	 * @param laneCount the number of lanes
+	 * @param capacity the number of events that can be waiting, across all lanes
+	 * @param batchSize the most events published in one batch
+	 * @param lingerMillis the longest an event waits for its batch to fill
+	 */
+	public NotificationPipeline(NotificationPublisher publisher, int laneCount, int capacity, int batchSize, long lingerMillis) {
+		this(() -> publisher, laneCount, capacity, batchSize, lingerMillis);
+	}
+	
+	/**
+	 * Instantiates a new notification pipeline, and starts a thread per lane with a
+	 * publisher of its own from the supplier.
+	 *
+	 * @param publishers the supplier of the lanes' publishers
+	 * @param laneCount the number of lanes
+	 * @param capacity the number of events that can be waiting, across all lanes
+	 * @param batchSize the most events published in one batch
+	 * @param lingerMillis the longest an event waits for its batch to fill
+	 */
+	public NotificationPipeline(Supplier<NotificationPublisher> publishers, int laneCount, int capacity, int batchSize, long lingerMillis) {
+		this.batchSize = Math.max(1, batchSize);
+		this.lingerMillis = Math.max(1, lingerMillis);
+		this.lanes = new Lane[Math.max(1, laneCount)];
+		int laneCapacity = Math.max(1, capacity / lanes.length);
+		for (int i = 0; i < lanes.length; i++) {
+			lanes[i] = new Lane(i, laneCapacity, publishers.get());
+		}
+	}
+	
+	/**
+	 * Builds the pipeline from aaiconfig.properties.
+	 *
+	 * @return the notification pipeline
+	 */
+	private static NotificationPipeline createFromConfig() {
+		int laneCount = AAIConstants.AAI_NOTIFICATION_DEFAULT_LANES;
+		int capacity = AAIConstants.AAI_NOTIFICATION_DEFAULT_QUEUE_CAPACITY;
+		int batchSize = AAIConstants.AAI_NOTIFICATION_DEFAULT_BATCH_SIZE;
+		long linger = AAIConstants.AAI_NOTIFICATION_DEFAULT_LINGER_MS;
+		try {
+			laneCount = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_NOTIFICATION_LANES, Integer.toString(laneCount)));
+			capacity = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_NOTIFICATION_QUEUE_CAPACITY, Integer.toString(capacity)));
+			batchSize = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_NOTIFICATION_BATCH_SIZE, Integer.toString(batchSize)));
+			linger = Long.parseLong(AAIConfig.get(AAIConstants.AAI_NOTIFICATION_LINGER_MS, Long.toString(linger)));
+		} catch (NumberFormatException e) {
+			// Don't worry, we'll just use the defaults that we got from AAIConstants
+		}
+		
+		return new NotificationPipeline(DmaapNotificationPublisher::new, laneCount, capacity, batchSize, linger);
+	}
+	
+	/**
+	 * Queues a notification event for publishing.
+	 *
+	 * @param event the notification-event entity, with its event header set
+	 * @param context the jaxb context of the event's version
+	 * @return true if the event was queued, false if it was rejected because its lane is full
+	 */
+	public boolean submit(DynamicEntity event, DynamicJAXBContext context) {
+		submittedCount.incrementAndGet();
+		String entityLink = "";
+		Object header = event.get("eventHeader");
+		if (header instanceof DynamicEntity && ((DynamicEntity)header).get("entityLink") != null) {
+			entityLink = ((DynamicEntity)header).get("entityLink").toString();
+		}
+		Object partition = event.get("cambriaPartition");
+		Lane lane = lanes[(entityLink.hashCode() & Integer.MAX_VALUE) % lanes.length];
+		if (running && lane.queue.offer(new PendingEvent(event, context, partition != null ? partition.toString() : AAIConstants.UEB_PUB_PARTITION_AAI))) {
+			int depth = lane.queue.size();
+			if (depth > maxQueueDepth) {
+				maxQueueDepth = depth;
+			}
+			return true;
+		}
+		rejectedCount.incrementAndGet();
+		
+		return false;
+	}
+	
+	/**
+	 * Stops accepting events, publishes whatever is still queued and closes the publishers.
+	 *
+	 * @param timeoutMillis how long to wait for the lanes to drain
+	 */
+	public void shutdown(long timeoutMillis) {
+		running = false;
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		for (Lane lane : lanes) {
+			try {
+				lane.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		Set<NotificationPublisher> publishers = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Lane lane : lanes) {
+			publishers.add(lane.publisher);
+		}
+		for (NotificationPublisher publisher : publishers) {
+			try {
+				publisher.close();
+			} catch (IOException e) {
+				LogLine logline = new LogLine();
+				logline.init(COMPONENT, "shutdown", "aaiInternal", "shutdown()");
+				aaiLogger.debug(logline, "NotificationPipeline: close: Exception=" + e.toString());
+			}
+		}
+	}
+	
+	/**
+	 * An event waiting to be published.
+	 */
+	private static final class PendingEvent {
+		
+		private final DynamicEntity event;
+		private final DynamicJAXBContext context;
+		private final String partition;
+		
+		/**
+		 * Instantiates a new pending event.
+		 *
+		 * @param event the event
+		 * @param context the context
+		 * @param partition the partition
+		 */
+		private PendingEvent(DynamicEntity event, DynamicJAXBContext context, String partition) {
+			this.event = event;
+			this.context = context;
+			this.partition = partition;
+		}
+	}
+	
+	/**
+	 * One queue and the thread that publishes from it.
+	 */
+	private final class Lane {
+		
+		private final BlockingQueue<PendingEvent> queue;
+		private final NotificationPublisher publisher;
+		private final Thread thread;
+		
+		/* only touched by the lane's thread */
+		private final Map<DynamicJAXBContext, Marshaller> marshallers = new IdentityHashMap<>();
+		private final StringWriter buffer = new StringWriter(4096);
+		
+		/**
+		 * Instantiates a new lane and starts its thread.
+		 *
+		 * @param index the index
+		 * @param capacity the capacity
+		 * @param publisher the publisher
+		 */
+		private Lane(int index, int capacity, NotificationPublisher publisher) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			this.publisher = publisher;
+			this.thread = new Thread(this::run, "aai-notification-" + index);
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+		
+		/**
+		 * The lane's thread. Blocks for the first event of a batch, then keeps adding events
+		 * until the batch is full or the first event has lingered long enough.
+		 */
+		private void run() {
+			List<PendingEvent> batch = new ArrayList<>(batchSize);
+			while (running || !queue.isEmpty()) {
+				try {
+					PendingEvent first = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+					if (first == null) {
+						continue;
+					}
+					batch.add(first);
+					long deadline = System.currentTimeMillis() + lingerMillis;
+					while (batch.size() < batchSize) {
+						if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+							continue;
+						}
+						long wait = deadline - System.currentTimeMillis();
+						if (wait <= 0) {
+							break;
+						}
+						PendingEvent next = queue.poll(wait, TimeUnit.MILLISECONDS);
+						if (next == null) {
+							break;
+						}
+						batch.add(next);
+					}
+				} catch (InterruptedException e) {
+					running = false;
+				}
+				if (!batch.isEmpty()) {
+					publish(batch);
+					batch.clear();
+				}
+			}
+		}
+		
+		/**
+		 * Serializes a batch and publishes it, a run of events at a time for each partition.
+		 *
+		 * @param batch the batch
+		 */
+		private void publish(List<PendingEvent> batch) {
+			long start = System.currentTimeMillis();
+			int published = 0;
+			int i = 0;
+			while (i < batch.size()) {
+				String partition = batch.get(i).partition;
+				List<String> messages = new ArrayList<>(batch.size() - i);
+				while (i < batch.size() && partition.equals(batch.get(i).partition)) {
+					String json = serialize(batch.get(i));
+					if (json != null) {
+						messages.add(json);
+					}
+					i++;
+				}
+				if (messages.isEmpty()) {
+					continue;
+				}
+				try {
+					publisher.publish(partition, messages);
+					published += messages.size();
+				} catch (IOException | RuntimeException e) {
+					failedCount.addAndGet(messages.size());
+					LogLine logline = new LogLine();
+					logline.init(COMPONENT, "publish", "aaiInternal", "publish()");
+					aaiLogger.debug(logline, "NotificationPipeline: publish of " + messages.size() + " events failed: Exception=" + e.toString());
+				}
+			}
+			long elapsed = System.currentTimeMillis() - start;
+			publishedCount.addAndGet(published);
+			batchCount.incrementAndGet();
+			totalPublishMillis.addAndGet(elapsed);
+			lastBatchSize = batch.size();
+			maxBatchSize = Math.max(maxBatchSize, batch.size());
+			maxPublishMillis = Math.max(maxPublishMillis, elapsed);
+		}
+		
+		/**
+		 * Serializes one event to JSON with the lane's marshaller for its version.
+		 *
+		 * @param pending the pending event
+		 * @return the JSON, or null if the event could not be serialized
+		 */
+		private String serialize(PendingEvent pending) {
+			try {
+				Marshaller marshaller = marshallers.get(pending.context);
+				if (marshaller == null) {
+					marshaller = pending.context.createMarshaller();
+					marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, "application/json");
+					marshaller.setProperty(MarshallerProperties.JSON_INCLUDE_ROOT, false);
+					marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+					marshallers.put(pending.context, marshaller);
+				}
+				buffer.getBuffer().setLength(0);
+				marshaller.marshal(pending.event, buffer);
+				return buffer.toString();
+			} catch (JAXBException e) {
+				failedCount.incrementAndGet();
+				LogLine logline = new LogLine();
+				logline.init(COMPONENT, "serialize", "aaiInternal", "serialize()");
+				aaiLogger.debug(logline, "NotificationPipeline: could not serialize event: Exception=" + e.toString());
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of events waiting, across all lanes.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (Lane lane : lanes) {
+			depth += lane.queue.size();
+		}
+		
+		return depth;
+	}
+	
+	/**
+	 * Gets the deepest any one lane has been.
+	 *
+	 * @return the max queue depth
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+	
+	/**
+	 * Gets the number of lanes.
+	 *
+	 * @return the lane count
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+	
+	/**
+	 * Gets the number of events submitted.
+	 *
+	 * @return the submitted count
+	 */
+	public long getSubmittedCount() {
+		return submittedCount.get();
+	}
+	
+	/**
+	 * Gets the number of events published.
+	 *
+	 * @return the published count
+	 */
+	public long getPublishedCount() {
+		return publishedCount.get();
+	}
+	
+	/**
+	 * Gets the number of events turned away because their lane was full.
+	 *
+	 * @return the rejected count
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+	
+	/**
+	 * Gets the number of events that could not be serialized or published.
+	 *
+	 * @return the failed count
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * Gets the number of batches published.
+	 *
+	 * @return the batch count
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+	
+	/**
+	 * Gets the size of the last batch.
+	 *
+	 * @return the last batch size
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+	
+	/**
+	 * Gets the size of the largest batch.
+	 *
+	 * @return the max batch size
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+	
+	/**
+	 * Gets the average batch size.
+	 *
+	 * @return the average batch size
+	 */
+	public double getAverageBatchSize() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double)(publishedCount.get() + failedCount.get()) / batches;
+	}
+	
+	/**
+	 * Gets the longest a batch took to serialize and publish.
+	 *
+	 * @return the max publish millis
+	 */
+	public long getMaxPublishMillis() {
+		return maxPublishMillis;
+	}
+	
+	/**
+	 * Gets the average time a batch took to serialize and publish.
+	 *
+	 * @return the average publish millis
+	 */
+	public double getAveragePublishMillis() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double)totalPublishMillis.get() / batches;
+	}
+}
@@ -0,0 +1,49 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the NotificationPipeline sends its batches of serialized events.
+ * 
+ * With more than one lane batches are published from more than one thread at once,
+ * so implementations have to be thread safe.
+ */
+public interface NotificationPublisher {
+
+	/**
+	 * Publishes a batch of events, in order.
+	 *
+	 * @param partition the partition the events belong to
+	 * @param messages the JSON of each event
+	 * @throws IOException Signals that the batch could not be published.
+	 */
+	void publish(String partition, List<String> messages) throws IOException;
+	
+	/**
+	 * Sends anything still buffered and releases the connection.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	void close() throws IOException;
+}
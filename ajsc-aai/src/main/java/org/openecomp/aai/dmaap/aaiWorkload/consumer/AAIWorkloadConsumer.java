@@ -54,6 +54,8 @@ public class AAIWorkloadConsumer {
 	private String dmaapConusmerId = "";
 
 	private MRConsumer aaiWorkloadConsumer;
+	
+	private AAIWorkloadWorkerPool workerPool;
 
 	public AAIWorkloadConsumer() throws Exception {
 
@@ -77,7 +79,8 @@ public class AAIWorkloadConsumer {
 		processPropertyFiles();
 
 		this.aaiWorkloadConsumer = MRClientFactory.createConsumer(this.aaiWorkloadConsumerPropertiesFile);
-		aaiLogger.debug(logline, "Initalization completed.");
+		this.workerPool = createWorkerPool();
+		aaiLogger.debug(logline, "Initalization completed with " + this.workerPool.getWorkerCount() + " workers.");
 
 	}
 
@@ -155,25 +158,70 @@ public class AAIWorkloadConsumer {
 
 	}
 
+	/**
+	 * Builds the worker pool from aaiconfig.properties. Each message gets its own event processor.
+	 *
+	 * @return the worker pool
+	 */
+	private AAIWorkloadWorkerPool createWorkerPool() {
+		int workers = AAIConstants.AAI_WORKLOAD_DEFAULT_WORKERS;
+		int maxInFlight = AAIConstants.AAI_WORKLOAD_DEFAULT_MAX_IN_FLIGHT;
+		try {
+			workers = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_WORKLOAD_WORKERS, Integer.toString(workers)));
+			maxInFlight = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_WORKLOAD_MAX_IN_FLIGHT, Integer.toString(maxInFlight)));
+		} catch (NumberFormatException e) {
+			// Don't worry, we'll just use the defaults that we got from AAIConstants
+		}
+		
+		return new AAIWorkloadWorkerPool(eventMessage -> {
+			String transId = UUID.randomUUID().toString();
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, transId, fromAppId, "process");
+			aaiLogger.debug(logline, "Processing new dmaap message from the aaiWorkload topic: " + eventMessage);
+			AAIWorkloadEventProcessor awep = new AAIWorkloadEventProcessor(this.aaiWorkloadPublisherPropertiesFile, this.aaiWorkloadStatusPublisherPropertiesFile, transId);
+			return awep.process(eventMessage).getValue0();
+		}, workers, maxInFlight);
+	}
+	
+	/**
+	 * Lets the workers finish the messages already fetched, then closes the consumer.
+	 */
+	private void stop() {
+		this.workerPool.shutdown(AAIConstants.AAI_WORKLOAD_SHUTDOWN_WAIT_MS);
+		this.aaiWorkloadConsumer.close();
+	}
+	
+	/**
+	 * Gets the worker pool, for its metrics.
+	 *
+	 * @return the worker pool
+	 */
+	public AAIWorkloadWorkerPool getWorkerPool() {
+		return this.workerPool;
+	}
+
 	public void startProcessing() throws Exception {
 
 		LogLine logline = new LogLine();
 		logline.init(COMPONENT, "N/A", fromAppId, "startProcessing");
 
 		int fetchFailCounter = 0;
-		AAIWorkloadEventProcessor awep = null;
 //		com.att.aft.dme2.api.util.configuration.DME2LoggingConfig.getInstance().initializeDME2Logger().setLevel(Level.SEVERE);
 		while (AAIConfig.get("aai.dmaap.workload.enableEventProcessing").equals("true")) {
 
 			try {
 				if (System.getProperty("org.openecomp.aai.serverStarted") != null && System.getProperty("org.openecomp.aai.serverStarted").equals("true")) {
 					Iterable<String> eventMessages = aaiWorkloadConsumer.fetch();
+					int fetched = 0;
+					// dispatch only waits when the workers are full, so the next fetch overlaps this batch
 					for (String eventMessage : eventMessages) {
-						String transId = UUID.randomUUID().toString();
-						aaiLogger.debug(logline, "Processing new dmaap message from the aaiWorkload topic." + transId);
-						aaiLogger.debug(logline, "Processing new dmaap message from the aaiWorkload topic: " + eventMessage);
-						awep = new AAIWorkloadEventProcessor(this.aaiWorkloadPublisherPropertiesFile, this.aaiWorkloadStatusPublisherPropertiesFile, transId);
-						awep.process(eventMessage);
+						this.workerPool.dispatch(eventMessage);
+						fetched++;
+					}
+					if (fetched > 0) {
+						aaiLogger.debug(logline, "Dispatched " + fetched + " messages. in flight=" + workerPool.getInFlightCount() 
+								+ " processed=" + workerPool.getProcessedCount() + " failed=" + workerPool.getFailedCount() 
+								+ " throughput/s=" + workerPool.getThroughputPerSecond() + " avg lag ms=" + workerPool.getAverageLagMillis());
 					}
 					fetchFailCounter = 0;
 				}
@@ -183,7 +231,7 @@ public class AAIWorkloadConsumer {
 				} else {
 					ErrorObject errorObject = ErrorLogHelper.getErrorObject("AAI_4000", "Exiting due to dmaap consumer client throwing dme2 error.");
 					aaiLogger.error(errorObject, logline, e);
-					this.aaiWorkloadConsumer.close();
+					stop();
 					throw e;
 				}
 			} catch (IOException e) {
@@ -191,17 +239,17 @@ public class AAIWorkloadConsumer {
 				if (fetchFailCounter > 10) {
 					ErrorObject errorObject = ErrorLogHelper.getErrorObject("AAI_4000", "Exiting due to fetch throwing io exception. More than 10 times.");
 					aaiLogger.error(errorObject, logline, e);
-					this.aaiWorkloadConsumer.close();
+					stop();
 					throw e;
 				}
 			} catch (Exception e) {
 				ErrorObject errorObject = ErrorLogHelper.getErrorObject("AAI_4000", "Exiting due to unknown exception.");
 				aaiLogger.error(errorObject, logline, e);
-				this.aaiWorkloadConsumer.close();
+				stop();
 				throw e;
 			}
 		}
-		this.aaiWorkloadConsumer.close();
+		stop();
 	}
 
 }
@@ -0,0 +1,381 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap.aaiWorkload.consumer;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Processes aaiWorkload messages on a fixed set of worker threads.
+ * 
+ * Each message is given to a worker picked from the top level object it targets, and each
+ * worker handles its messages one at a time in the order they arrived, so updates to an
+ * object and its children are applied in order while updates to different objects run
+ * side by side. Dispatch
+ * only blocks once the configured number of messages are in flight, which lets the
+ * consumer fetch the next batch while the workers are still busy with the last one.
+ */
+public class AAIWorkloadWorkerPool {
+
+	private static final Task STOP = new Task(null, 0);
+	
+	private static final Pattern VERSION = Pattern.compile("v\\d+");
+	
+	private final Function<String, AAIWorkloadEventStatus> handler;
+	private final Worker[] workers;
+	private final Semaphore inFlight;
+	private final int maxInFlight;
+	private final AtomicInteger nextUnkeyed = new AtomicInteger();
+	private final long startTime = System.currentTimeMillis();
+	
+	private final AtomicLong dispatchedCount = new AtomicLong();
+	private final AtomicLong processedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong totalLagMillis = new AtomicLong();
+	private final AtomicLong totalProcessMillis = new AtomicLong();
+	private volatile long maxLagMillis = 0;
+	private volatile long maxProcessMillis = 0;
+	
+	/**
+	 * A message waiting for its worker.
+	 */
+	private static final class Task {
+		
+		private final String message;
+		private final long dispatchTime;
+		
+		/**
+		 * Instantiates a new task.
+		 *
+		 * @param message the message
+		 * @param dispatchTime the dispatch time
+		 */
+		private Task(String message, long dispatchTime) {
+			this.message = message;
+			this.dispatchTime = dispatchTime;
+		}
+	}
+	
+	/**
+	 * Instantiates a new worker pool and starts its threads.
+	 *
+	 * @param handler processes one message and says how it went
+	 * @param workerCount the number of workers
+	 * @param maxInFlight the most messages dispatched but not yet processed
+	 */
+	public AAIWorkloadWorkerPool(Function<String, AAIWorkloadEventStatus> handler, int workerCount, int maxInFlight) {
+		this.handler = handler;
+		this.maxInFlight = Math.max(1, maxInFlight);
+		this.inFlight = new Semaphore(this.maxInFlight);
+		this.workers = new Worker[Math.max(1, workerCount)];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new Worker(i);
+		}
+	}
+	
+	/**
+	 * Hands a message to the worker for the entity it targets. Blocks while the pool
+	 * already has as many messages in flight as it allows.
+	 *
+	 * @param message the message
+	 * @throws InterruptedException the interrupted exception
+	 */
+	public void dispatch(String message) throws InterruptedException {
+		inFlight.acquire();
+		dispatchedCount.incrementAndGet();
+		String key = partitionKey(message);
+		int index;
+		if (key == null) {
+			//nothing to keep in order with, spread it around
+			index = (nextUnkeyed.getAndIncrement() & Integer.MAX_VALUE) % workers.length;
+		} else {
+			index = (key.hashCode() & Integer.MAX_VALUE) % workers.length;
+		}
+		workers[index].queue.add(new Task(message, System.currentTimeMillis()));
+	}
+	
+	/**
+	 * Lets the workers finish what has been dispatched, then stops them.
+	 *
+	 * @param timeoutMillis how long to wait for the workers
+	 */
+	public void shutdown(long timeoutMillis) {
+		for (Worker worker : workers) {
+			worker.queue.add(STOP);
+		}
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		for (Worker worker : workers) {
+			try {
+				worker.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Waits until everything dispatched so far has been processed.
+	 *
+	 * @param timeoutMillis the timeout
+	 * @return true, if the pool went idle in time
+	 * @throws InterruptedException the interrupted exception
+	 */
+	public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+		if (inFlight.tryAcquire(maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS)) {
+			inFlight.release(maxInFlight);
+			return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Works out which top level object a message targets, from the entity-link in its header
+	 * if it has one, otherwise the uri of the first operation in its body.
+	 *
+	 * @param message the message
+	 * @return the key, or null if the message doesn't say
+	 */
+	static String partitionKey(String message) {
+		try {
+			JSONObject event = new JSONObject(message);
+			JSONObject header = event.optJSONObject("event-header");
+			if (header != null && !header.optString("entity-link").isEmpty()) {
+				return topLevelKey(header.optString("entity-link"));
+			}
+			JSONObject body = event.optJSONObject("event-body");
+			JSONArray transactions = body != null ? body.optJSONArray("transactions") : null;
+			if (transactions != null && transactions.length() > 0) {
+				JSONObject transaction = transactions.optJSONObject(0);
+				if (transaction != null) {
+					for (String operation : new String[]{"put", "patch", "delete"}) {
+						JSONArray items = transaction.optJSONArray(operation);
+						if (items != null && items.length() > 0 && items.optJSONObject(0) != null 
+								&& !items.optJSONObject(0).optString("uri").isEmpty()) {
+							return topLevelKey(items.optJSONObject(0).optString("uri"));
+						}
+					}
+				}
+			}
+		} catch (JSONException e) {
+			//the processor reports messages it can't read
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Cuts a uri down to its top level object: the namespace, the container, the type and
+	 * the first key after the version.  A child shares the key of the object it sits under.
+	 *
+	 * @param uri the uri or link
+	 * @return the key
+	 */
+	static String topLevelKey(String uri) {
+		String path = uri;
+		int query = path.indexOf('?');
+		if (query >= 0) {
+			path = path.substring(0, query);
+		}
+		int scheme = path.indexOf("://");
+		if (scheme >= 0) {
+			int slash = path.indexOf('/', scheme + 3);
+			path = slash >= 0 ? path.substring(slash) : "";
+		}
+		String[] segments = path.split("/");
+		int start = 0;
+		//the version, if there is one, comes within the first few segments as in /aai/v8/
+		for (int i = 0; i < Math.min(3, segments.length); i++) {
+			if (VERSION.matcher(segments[i]).matches()) {
+				start = i + 1;
+				break;
+			}
+		}
+		StringBuilder key = new StringBuilder();
+		int taken = 0;
+		for (int i = start; i < segments.length && taken < 4; i++) {
+			if (!segments[i].isEmpty()) {
+				key.append('/').append(segments[i]);
+				taken++;
+			}
+		}
+		
+		return key.length() > 0 ? key.toString() : uri;
+	}
+	
+	/**
+	 * A thread that processes its messages one after another.
+	 */
+	private final class Worker {
+		
+		private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+		private final Thread thread;
+		
+		/**
+		 * Instantiates a new worker and starts its thread.
+		 *
+		 * @param index the index
+		 */
+		private Worker(int index) {
+			this.thread = new Thread(this::run, "aai-workload-worker-" + index);
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+		
+		/**
+		 * The worker's thread.
+		 */
+		private void run() {
+			while (true) {
+				Task task;
+				try {
+					task = queue.take();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (task == STOP) {
+					return;
+				}
+				long start = System.currentTimeMillis();
+				long lag = start - task.dispatchTime;
+				try {
+					AAIWorkloadEventStatus status = handler.apply(task.message);
+					if (status != AAIWorkloadEventStatus.SUCCESS && status != AAIWorkloadEventStatus.REPUBLISHED) {
+						failedCount.incrementAndGet();
+					}
+				} catch (RuntimeException e) {
+					failedCount.incrementAndGet();
+				} finally {
+					long elapsed = System.currentTimeMillis() - start;
+					processedCount.incrementAndGet();
+					totalLagMillis.addAndGet(lag);
+					totalProcessMillis.addAndGet(elapsed);
+					maxLagMillis = Math.max(maxLagMillis, lag);
+					maxProcessMillis = Math.max(maxProcessMillis, elapsed);
+					inFlight.release();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of workers.
+	 *
+	 * @return the worker count
+	 */
+	public int getWorkerCount() {
+		return workers.length;
+	}
+	
+	/**
+	 * Gets the number of messages dispatched but not yet processed.
+	 *
+	 * @return the in flight count
+	 */
+	public int getInFlightCount() {
+		return maxInFlight - inFlight.availablePermits();
+	}
+	
+	/**
+	 * Gets the number of messages dispatched.
+	 *
+	 * @return the dispatched count
+	 */
+	public long getDispatchedCount() {
+		return dispatchedCount.get();
+	}
+	
+	/**
+	 * Gets the number of messages processed, whatever the outcome.
+	 *
+	 * @return the processed count
+	 */
+	public long getProcessedCount() {
+		return processedCount.get();
+	}
+	
+	/**
+	 * Gets the number of messages that were not applied or republished.
+	 *
+	 * @return the failed count
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * Gets the number of messages processed per second since the pool started.
+	 *
+	 * @return the throughput
+	 */
+	public double getThroughputPerSecond() {
+		long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+		return processedCount.get() * 1000.0 / elapsed;
+	}
+	
+	/**
+	 * Gets the average time a message waited for its worker.
+	 *
+	 * @return the average lag millis
+	 */
+	public double getAverageLagMillis() {
+		long processed = processedCount.get();
+		return processed == 0 ? 0 : (double)totalLagMillis.get() / processed;
+	}
+	
+	/**
+	 * Gets the longest a message waited for its worker.
+	 *
+	 * @return the max lag millis
+	 */
+	public long getMaxLagMillis() {
+		return maxLagMillis;
+	}
+	
+	/**
+	 * Gets the average time taken to process a message.
+	 *
+	 * @return the average process millis
+	 */
+	public double getAverageProcessMillis() {
+		long processed = processedCount.get();
+		return processed == 0 ? 0 : (double)totalProcessMillis.get() / processed;
+	}
+	
+	/**
+	 * Gets the longest time taken to process a message.
+	 *
+	 * @return the max process millis
+	 */
+	public long getMaxProcessMillis() {
+		return maxProcessMillis;
+	}
+}
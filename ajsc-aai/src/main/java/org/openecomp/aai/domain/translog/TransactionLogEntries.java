@@ -108,12 +108,14 @@ import javax.xml.bind.annotation.XmlType;
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "", propOrder = {
-    "transactionLogEntries"
+    "transactionLogEntries",
+    "continuationToken"
 })
 @XmlRootElement(name = "transaction-log-entries", namespace = "http://org.openecomp.aai.inventory")
 public class TransactionLogEntries {
 
     protected List<TransactionLogEntry> transactionLogEntries;
+    protected String continuationToken;
    
     /**
      * Gets the transaction log entries.
@@ -127,5 +129,23 @@ public class TransactionLogEntries {
         return this.transactionLogEntries;
     }
 
+    /**
+     * Gets the token that fetches the next page, null on the last page.
+     *
+     * @return the continuation token
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Sets the continuation token.
+     *
+     * @param value the new continuation token
+     */
+    public void setContinuationToken(String value) {
+        this.continuationToken = value;
+    }
+
 
 }
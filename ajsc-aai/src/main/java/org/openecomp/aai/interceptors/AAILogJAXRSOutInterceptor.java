@@ -38,23 +38,20 @@ import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.io.CachedOutputStreamCallback;
 import org.apache.cxf.jaxrs.interceptor.JAXRSOutInterceptor;
 import org.apache.cxf.message.Message;
-import org.apache.hadoop.hbase.HBaseConfiguration;
-import org.apache.hadoop.hbase.client.HConnection;
-import org.apache.hadoop.hbase.client.HConnectionManager;
-import org.apache.hadoop.hbase.client.HTableInterface;
-import org.apache.hadoop.hbase.client.Put;
-import org.apache.hadoop.hbase.util.Bytes;
 //import org.apache.log4j.MDC;
 import org.eclipse.persistence.dynamic.DynamicEntity;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
 import org.openecomp.aai.dmaap.AAIDmaapEventJMSProducer;
+import org.openecomp.aai.dmaap.NotificationPipeline;
 import org.openecomp.aai.domain.notificationEvent.NotificationEvent;
+import org.openecomp.aai.domain.translog.TransactionLogEntry;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.logging.AAILogger;
 import org.openecomp.aai.logging.ErrorLogHelper;
 import org.openecomp.aai.logging.LogLine;
 import org.openecomp.aai.util.AAIConfig;
 import org.openecomp.aai.util.AAIConstants;
+import org.openecomp.aai.util.AAITxnLog;
 import org.openecomp.aai.util.PojoUtils;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,9 +63,6 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 	protected final String COMPONENT = "aairest";
 	protected final String CAMEL_REQUEST = "CamelHttpUrl";
 
-	private HConnection hConnection = null;
-	private org.apache.hadoop.conf.Configuration config = null;
-
 	@Autowired
 	private ApplicationContext appContext;
 	private AAIDmaapEventJMSProducer springJmsProducer;
@@ -97,35 +91,14 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 			return;
 		}
 
-		if (message.getExchange().containsKey("AAI_LOGGING_HBASE_ENABLED") && hConnection == null) {
-			try {
-				config = HBaseConfiguration.create();
-
-				if (config == null) {
-					aaiLogger.debug(logline, "AAITxnLog: Default Constructor: can't create HBase configuration");
-					return;
-				}
-
-				config.set(AAIConstants.ZOOKEEPER_ZNODE_PARENT,
-						AAIConfig.get(AAIConstants.HBASE_ZOOKEEPER_ZNODE_PARENT));
-				config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM,
-						AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM));
-				config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT,
-						AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT));
-
-				hConnection = HConnectionManager.createConnection(config);
-			} catch (Exception e) {
-				aaiLogger.debug(logline, "Cannot establish connection to hbase", e);
-				return;
-			}
-		}
-
 //		if (this.springJmsProducer == null) {
 //			this.springJmsProducer = (AAIDmaapEventJMSProducer) this.appContext.getBean("messageProducer");
 //		}
-		// we only want to register the callback if there is good reason for it.
+		// we only want to register the callback if there is good reason for it:
+		// logging, or notification events to publish once the response is out.
 		if (message.getExchange().containsKey("AAI_LOGGING_HBASE_ENABLED")
-				|| message.getExchange().containsKey("AAI_LOGGING_TRACE_ENABLED")) {
+				|| message.getExchange().containsKey("AAI_LOGGING_TRACE_ENABLED")
+				|| message.getExchange().containsKey("NOTIFICATION_EVENT_TYPE")) {
 
 			// FINEGRAINaaiLogger.debug(logline, "Registering callback for
 			// logging");
@@ -163,6 +136,9 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 					&& !message.getExchange().containsKey("AAI_LOGGING_TRACE_ENABLED")) {
 				// FINEGRAINaaiLogger.debug(logline, "Skipping the callback
 				// interceptor, logging disabled");
+				// notification events are still published on success
+				publishNotificationEventsOnSuccess(message);
+				message.setContent(OutputStream.class, origStream);
 				return;
 			}
 
@@ -318,6 +294,10 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 					}
 				}
 
+				// notification events are published on success whether or not the
+				// transaction is logged to HBASE
+				publishNotificationEventsOnSuccess(message);
+
 				// we only log to HBASE if it's enabled in the config props file
 				// TODO: pretty print XML/JSON. we might need to get the payload
 				// and envelope seperately
@@ -389,6 +369,41 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 		}
 	}
 
+	/**
+	 * Publishes the request's dynamic notification events if the response was a success.
+	 *
+	 * @param message the message
+	 */
+	private void publishNotificationEventsOnSuccess(Message message) {
+		Integer responseCode = (Integer) message.getExchange().getOutMessage().get(Message.RESPONSE_CODE);
+		if (responseCode == null) {
+			responseCode = 200;
+		}
+		if (responseCode >= 200 && responseCode <= 299
+				&& "dynamic".equals(message.getExchange().get("NOTIFICATION_EVENT_TYPE"))) {
+			publishNotificationEvents(message,
+					(DynamicJAXBContext) message.getExchange().get("NOTIFICATION_JAXB_CONTEXT"));
+		}
+	}
+	
+	/**
+	 * Hands the notification events the request raised to the notification pipeline.
+	 * The pipeline publishes them in the background, in order per entity.
+	 *
+	 * @param message the message
+	 * @param notificationJaxbContext the notification jaxb context
+	 */
+	private void publishNotificationEvents(Message message, DynamicJAXBContext notificationJaxbContext) {
+		@SuppressWarnings("unchecked")
+		List<DynamicEntity> events = (List<DynamicEntity>) message.getExchange().get("NOTIFICATION_EVENTS");
+		if (events != null) {
+			NotificationPipeline pipeline = NotificationPipeline.getInstance();
+			for (DynamicEntity event : events) {
+				pipeline.submit(event, notificationJaxbContext);
+			}
+		}
+	}
+
 	protected String genDate(AAILogger aaiLogger, LogLine logline) {
 		Date date = new Date();
 		DateFormat formatter = null;
@@ -510,29 +525,22 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 		}
 
 		try {
-			HTableInterface table = hConnection.getTable(AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
-
-			Put p = new Put(Bytes.toBytes(htid));
-
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("tid"), Bytes.toBytes(tid));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("status"), Bytes.toBytes(status));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("rqstDate"), Bytes.toBytes(rqstTm));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("respDate"), Bytes.toBytes(respTm));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("sourceId"), Bytes.toBytes(srcId));
-
-			p.add(Bytes.toBytes("resource"), Bytes.toBytes("resourceId"), Bytes.toBytes(rsrcId));
-			p.add(Bytes.toBytes("resource"), Bytes.toBytes("resourceType"), Bytes.toBytes(rsrcType));
-
-			p.add(Bytes.toBytes("payload"), Bytes.toBytes("rqstBuf"), Bytes.toBytes(rqstBuf));
-			p.add(Bytes.toBytes("payload"), Bytes.toBytes("respBuf"), Bytes.toBytes(respBuf));
+			TransactionLogEntry entry = new TransactionLogEntry();
+			entry.setTransactionLogEntryId(tid);
+			entry.setStatus(status);
+			entry.setRqstDate(rqstTm);
+			entry.setRespDate(respTm);
+			entry.setSourceId(srcId);
+			entry.setResourceId(rsrcId);
+			entry.setResourceType(rsrcType);
+			entry.setRqstBuf(rqstBuf);
+			entry.setrespBuf(respBuf);
 
 			/*
-			 * Once you've adorned your Put instance with all the updates you
-			 * want to make, to commit it do the following
+			 * the hbase store batches puts on a shared table handle so
+			 * latency stays off the response
 			 */
-			table.put(p);
-			table.flushCommits();
-			table.close();
+			AAITxnLog.getStore().put(htid, entry);
 
 			return htid;
 		} catch (Exception e) {
@@ -606,29 +614,22 @@ public class AAILogJAXRSOutInterceptor extends JAXRSOutInterceptor {
 		}
 
 		try {
-			HTableInterface table = hConnection.getTable(AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
-
-			Put p = new Put(Bytes.toBytes(htid));
-
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("tid"), Bytes.toBytes(tid));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("status"), Bytes.toBytes(status));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("rqstDate"), Bytes.toBytes(rqstTm));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("respDate"), Bytes.toBytes(respTm));
-			p.add(Bytes.toBytes("transaction"), Bytes.toBytes("sourceId"), Bytes.toBytes(srcId));
-
-			p.add(Bytes.toBytes("resource"), Bytes.toBytes("resourceId"), Bytes.toBytes(rsrcId));
-			p.add(Bytes.toBytes("resource"), Bytes.toBytes("resourceType"), Bytes.toBytes(rsrcType));
-
-			p.add(Bytes.toBytes("payload"), Bytes.toBytes("rqstBuf"), Bytes.toBytes(rqstBuf));
-			p.add(Bytes.toBytes("payload"), Bytes.toBytes("respBuf"), Bytes.toBytes(respBuf));
+			TransactionLogEntry entry = new TransactionLogEntry();
+			entry.setTransactionLogEntryId(tid);
+			entry.setStatus(status);
+			entry.setRqstDate(rqstTm);
+			entry.setRespDate(respTm);
+			entry.setSourceId(srcId);
+			entry.setResourceId(rsrcId);
+			entry.setResourceType(rsrcType);
+			entry.setRqstBuf(rqstBuf);
+			entry.setrespBuf(respBuf);
 
 			/*
-			 * Once you've adorned your Put instance with all the updates you
-			 * want to make, to commit it do the following
+			 * the hbase store batches puts on a shared table handle so
+			 * latency stays off the response
 			 */
-			table.put(p);
-			table.flushCommits();
-			table.close();
+			AAITxnLog.getStore().put(htid, entry);
 
 			return htid;
 		} catch (Exception e) {
@@ -243,6 +243,25 @@ public abstract class Introspector implements Cloneable {
 		return result;
 		
 	}
+	
+	/**
+	 * 
+	 * @return an introspector around a new, empty object of the same type as this one
+	 */
+	public Introspector newEmptyInstance() {
+		
+		return this.newIntrospectorFor(loader.objectFromName(this.getName()));
+	}
+	
+	/**
+	 * 
+	 * @param obj an object of the same type as the one this introspector wraps
+	 * @return an introspector around obj
+	 */
+	public Introspector newIntrospectorFor(Object obj) {
+		
+		return IntrospectorFactory.newInstance(this.getModelType(), obj, llBuilder);
+	}
 	/**
 	 * Is this type not a Java String or primitive
 	 * @param name
@@ -0,0 +1,359 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.dynamic.DynamicEntity;
+import org.eclipse.persistence.dynamic.DynamicType;
+
+import com.google.common.base.CaseFormat;
+
+/**
+ * Copies objects from one version of the schema to another without going through JSON.
+ * 
+ * The first time a pair of types is converted a plan is worked out from the OXM metadata
+ * ModelInjestor loaded: properties the target doesn't have are dropped, a target property
+ * that declares a <code>renamedFrom</code> xml-property is filled from the old name, and
+ * complex and list values are converted recursively.  Plans are cached, so every conversion
+ * after that is a walk over the dynamic entities.
+ */
+public final class IntrospectorConverter {
+
+	private static final String RENAMED_FROM = "renamedFrom";
+	
+	private final ModelInjestor injestor = ModelInjestor.getInstance();
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, TypePlan>> plans = new ConcurrentHashMap<>();
+	
+	private static class Helper {
+		private static final IntrospectorConverter INSTANCE = new IntrospectorConverter();
+	}
+	
+	/**
+	 * Gets the single instance of IntrospectorConverter.
+	 *
+	 * @return single instance of IntrospectorConverter
+	 */
+	public static IntrospectorConverter getInstance() {
+		return Helper.INSTANCE;
+	}
+	
+	/**
+	 * Instantiates a new introspector converter.
+	 */
+	private IntrospectorConverter() {
+		
+	}
+	
+	/**
+	 * Converts an object to the same type in the version of the target loader.
+	 *
+	 * @param obj the obj
+	 * @param targetLoader the target loader
+	 * @return the converted object, or null if the target version doesn't have the type
+	 */
+	public Introspector convert(Introspector obj, Loader targetLoader) {
+		return convert(obj, obj.getName(), targetLoader);
+	}
+	
+	/**
+	 * Converts an object to the named type in the version of the target loader.
+	 *
+	 * @param obj the obj
+	 * @param targetName the name of the target type
+	 * @param targetLoader the target loader
+	 * @return the converted object, or null if the target version doesn't have the type
+	 */
+	public Introspector convert(Introspector obj, String targetName, Loader targetLoader) {
+		if (!ModelType.MOXY.equals(obj.getModelType()) || !ModelType.MOXY.equals(targetLoader.getModelType())) {
+			//only the dynamic entities have metadata to plan with
+			return targetLoader.unmarshal(targetName, obj.marshal(false));
+		}
+		Object target = targetLoader.objectFromName(targetName);
+		if (target == null) {
+			return null;
+		}
+		DynamicEntity source = (DynamicEntity)obj.getUnderlyingObject();
+		getPlan(source.getClass(), target.getClass()).apply(source, (DynamicEntity)target);
+		
+		return IntrospectorFactory.newInstance(ModelType.MOXY, target, targetLoader.getLogLineBuilder());
+	}
+	
+	/**
+	 * Gets the plan for a pair of types, working it out if this is the first time it's needed.
+	 *
+	 * @param sourceClass the source class
+	 * @param targetClass the target class
+	 * @return the plan
+	 */
+	private TypePlan getPlan(Class<?> sourceClass, Class<?> targetClass) {
+		ConcurrentMap<Class<?>, TypePlan> byTarget = plans.get(sourceClass);
+		if (byTarget == null) {
+			plans.putIfAbsent(sourceClass, new ConcurrentHashMap<Class<?>, TypePlan>());
+			byTarget = plans.get(sourceClass);
+		}
+		TypePlan plan = byTarget.get(targetClass);
+		if (plan == null) {
+			plan = new TypePlan(injestor.getTypeMetadata(sourceClass.getName()), injestor.getTypeMetadata(targetClass.getName()));
+			TypePlan existing = byTarget.putIfAbsent(targetClass, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		
+		return plan;
+	}
+	
+	/**
+	 * How each kind of property value is carried across.
+	 */
+	private enum Kind {
+		VALUE, VALUE_LIST, ENTITY, ENTITY_LIST
+	}
+	
+	/**
+	 * The conversion of one type to another.
+	 */
+	private final class TypePlan {
+		
+		private final Class<?> sourceClass;
+		private final DynamicType targetType;
+		private final PropertyPlan[] properties;
+		
+		/**
+		 * Instantiates a new type plan.
+		 *
+		 * @param source the source metadata
+		 * @param target the target metadata
+		 */
+		private TypePlan(MoxyTypeMetadata source, MoxyTypeMetadata target) {
+			this.sourceClass = source.getDynamicType().getJavaClass();
+			this.targetType = target.getDynamicType();
+			DynamicType sourceType = source.getDynamicType();
+			ClassDescriptor sourceDescriptor = source.getDescriptor();
+			ClassDescriptor targetDescriptor = target.getDescriptor();
+			List<PropertyPlan> planned = new ArrayList<>();
+			for (String targetName : targetType.getPropertiesNames()) {
+				String sourceName = findSourceName(sourceType, targetDescriptor, targetName);
+				if (sourceName == null) {
+					continue;
+				}
+				Kind sourceKind = kindOf(sourceType, sourceDescriptor, sourceName);
+				Kind targetKind = kindOf(targetType, targetDescriptor, targetName);
+				if (sourceKind != targetKind || !sameValueType(sourceType, sourceDescriptor, sourceName, targetType, targetDescriptor, targetName, targetKind)) {
+					//the shape changed between versions, JSON wouldn't have carried it either
+					continue;
+				}
+				Class<?> targetClass = null;
+				if (targetKind == Kind.ENTITY) {
+					targetClass = MoxyTypeMetadata.resolveClass(targetType, targetDescriptor, targetName);
+				} else if (targetKind == Kind.ENTITY_LIST) {
+					targetClass = MoxyTypeMetadata.resolveGenericClass(targetType, targetDescriptor, targetName);
+				}
+				planned.add(new PropertyPlan(sourceName, targetName, targetKind, targetClass));
+			}
+			this.properties = planned.toArray(new PropertyPlan[planned.size()]);
+		}
+		
+		/**
+		 * Creates a new target entity and fills it from the source.
+		 *
+		 * @param source the source
+		 * @return the target entity
+		 */
+		private DynamicEntity convert(DynamicEntity source) {
+			DynamicEntity target = targetType.newDynamicEntity();
+			apply(source, target);
+			
+			return target;
+		}
+		
+		/**
+		 * Fills the target from the source.
+		 *
+		 * @param source the source
+		 * @param target the target
+		 */
+		private void apply(DynamicEntity source, DynamicEntity target) {
+			for (PropertyPlan property : properties) {
+				Object value = source.get(property.sourceName);
+				if (value != null) {
+					target.set(property.targetName, property.convert(value));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The conversion of one property.
+	 */
+	private final class PropertyPlan {
+		
+		private final String sourceName;
+		private final String targetName;
+		private final Kind kind;
+		private final Class<?> targetClass;
+		private volatile TypePlan nested = null;
+		
+		/**
+		 * Instantiates a new property plan.
+		 *
+		 * @param sourceName the lower camel source name
+		 * @param targetName the lower camel target name
+		 * @param kind the kind
+		 * @param targetClass the class of the target value, or of its elements for lists
+		 */
+		private PropertyPlan(String sourceName, String targetName, Kind kind, Class<?> targetClass) {
+			this.sourceName = sourceName;
+			this.targetName = targetName;
+			this.kind = kind;
+			this.targetClass = targetClass;
+		}
+		
+		/**
+		 * Converts a value of the property.
+		 *
+		 * @param value the value
+		 * @return the converted value
+		 */
+		private Object convert(Object value) {
+			Object result = value;
+			if (kind == Kind.VALUE_LIST) {
+				result = new ArrayList<Object>((List<?>)value);
+			} else if (kind == Kind.ENTITY) {
+				result = convertEntity(value);
+			} else if (kind == Kind.ENTITY_LIST) {
+				List<?> values = (List<?>)value;
+				List<Object> converted = new ArrayList<>(values.size());
+				for (Object item : values) {
+					converted.add(convertEntity(item));
+				}
+				result = converted;
+			}
+			
+			return result;
+		}
+		
+		/**
+		 * Converts a single nested entity.
+		 *
+		 * @param value the value
+		 * @return the converted entity
+		 */
+		private Object convertEntity(Object value) {
+			if (!(value instanceof DynamicEntity) || targetClass == null) {
+				return value;
+			}
+			TypePlan plan = nested;
+			if (plan == null || plan.sourceClass != value.getClass()) {
+				plan = getPlan(value.getClass(), targetClass);
+				nested = plan;
+			}
+			
+			return plan.convert((DynamicEntity)value);
+		}
+	}
+	
+	/**
+	 * Finds the source property that feeds a target property.
+	 *
+	 * @param sourceType the source type
+	 * @param targetDescriptor the target descriptor
+	 * @param targetName the lower camel target name
+	 * @return the lower camel source name, or null if the source has nothing for it
+	 */
+	private static String findSourceName(DynamicType sourceType, ClassDescriptor targetDescriptor, String targetName) {
+		if (sourceType.containsProperty(targetName)) {
+			return targetName;
+		}
+		Map<String, String> metadata = MoxyTypeMetadata.mappingProperties(targetDescriptor, targetName);
+		if (metadata != null) {
+			Object renamedFrom = metadata.get(RENAMED_FROM);
+			if (renamedFrom != null) {
+				for (String oldName : renamedFrom.toString().split(",")) {
+					String camel = CaseFormat.LOWER_HYPHEN.to(CaseFormat.LOWER_CAMEL, oldName.trim());
+					if (sourceType.containsProperty(camel)) {
+						return camel;
+					}
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Works out how a property's values have to be carried across.
+	 *
+	 * @param type the type
+	 * @param cd the class descriptor
+	 * @param name the lower camel property name
+	 * @return the kind
+	 */
+	private static Kind kindOf(DynamicType type, ClassDescriptor cd, String name) {
+		Class<?> clazz = MoxyTypeMetadata.resolveClass(type, cd, name);
+		Kind result = Kind.VALUE;
+		if (clazz != null && List.class.isAssignableFrom(clazz)) {
+			Class<?> generic = MoxyTypeMetadata.resolveGenericClass(type, cd, name);
+			if (generic != null && DynamicEntity.class.isAssignableFrom(generic)) {
+				result = Kind.ENTITY_LIST;
+			} else {
+				result = Kind.VALUE_LIST;
+			}
+		} else if (clazz != null && DynamicEntity.class.isAssignableFrom(clazz)) {
+			result = Kind.ENTITY;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Checks that simple values can be copied as they are.
+	 *
+	 * @param sourceType the source type
+	 * @param sourceCd the source class descriptor
+	 * @param sourceName the lower camel source name
+	 * @param targetType the target type
+	 * @param targetCd the target class descriptor
+	 * @param targetName the lower camel target name
+	 * @param kind the kind of both properties
+	 * @return true, if the values are entities or of the same simple type
+	 */
+	private static boolean sameValueType(DynamicType sourceType, ClassDescriptor sourceCd, String sourceName, 
+			DynamicType targetType, ClassDescriptor targetCd, String targetName, Kind kind) {
+		Class<?> sourceClass = null;
+		Class<?> targetClass = null;
+		if (kind == Kind.VALUE) {
+			sourceClass = MoxyTypeMetadata.resolveClass(sourceType, sourceCd, sourceName);
+			targetClass = MoxyTypeMetadata.resolveClass(targetType, targetCd, targetName);
+		} else if (kind == Kind.VALUE_LIST) {
+			sourceClass = MoxyTypeMetadata.resolveGenericClass(sourceType, sourceCd, sourceName);
+			targetClass = MoxyTypeMetadata.resolveGenericClass(targetType, targetCd, targetName);
+		}
+		
+		return sourceClass == targetClass || (sourceClass != null && targetClass != null && targetClass.isAssignableFrom(sourceClass));
+	}
+}
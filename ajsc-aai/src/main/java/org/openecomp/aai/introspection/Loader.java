@@ -75,6 +75,14 @@ public abstract class Loader {
 	 */
 	public abstract Introspector unmarshal(String type, String json, MediaType mediaType);
 	
+	/**
+	 * Gets a loader that shares this loader's model but logs with another log line builder.
+	 *
+	 * @param llBuilder the ll builder
+	 * @return the loader
+	 */
+	public abstract Loader withLogLineBuilder(LogLineBuilder llBuilder);
+	
 	/**
 	 * Unmarshal.
 	 *
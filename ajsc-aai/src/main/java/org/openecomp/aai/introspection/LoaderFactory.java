@@ -20,10 +20,15 @@
 
 package org.openecomp.aai.introspection;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.openecomp.aai.logging.LogLineBuilder;
 
 public class LoaderFactory {
 
+	private static final Map<ModelType, Map<Version, Loader>> sharedLoaders = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new Loader object.
 	 *
@@ -43,4 +48,37 @@ public class LoaderFactory {
 		return null;
 		
 	}
+	
+	/**
+	 * Gets the shared loader for a model type and version.
+	 * 
+	 * Loaders only hold a reference to the version's context so one instance
+	 * is built lazily and reused instead of creating one per request. The shared
+	 * loader logs with a default log line builder; anything that logs for a request
+	 * should use {@link #getLoader(ModelType, Version, LogLineBuilder)} instead.
+	 *
+	 * @param type the type
+	 * @param version the version
+	 * @return the loader
+	 */
+	public static Loader getSharedLoader(ModelType type, Version version) {
+		
+		Map<Version, Loader> loaders = sharedLoaders.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
+		
+		return loaders.computeIfAbsent(version, v -> createLoaderForVersion(type, v, new LogLineBuilder()));
+	}
+	
+	/**
+	 * Gets a loader for a model type and version that logs with the caller's log line builder.
+	 * 
+	 * The model is taken from the shared loader so this is as cheap as wrapping it.
+	 *
+	 * @param type the type
+	 * @param version the version
+	 * @param llBuilder the ll builder
+	 * @return the loader
+	 */
+	public static Loader getLoader(ModelType type, Version version, LogLineBuilder llBuilder) {
+		return getSharedLoader(type, version).withLogLineBuilder(llBuilder);
+	}
 }
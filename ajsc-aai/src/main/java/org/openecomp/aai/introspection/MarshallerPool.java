@@ -0,0 +1,131 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
+import org.openecomp.aai.rest.MediaType;
+
+/**
+ * Keeps one pre-configured marshaller and unmarshaller per thread and media type
+ * for a version's jaxb context.
+ * 
+ * Marshallers and unmarshallers are not thread safe, so instead of creating and
+ * configuring a new one for every call each thread keeps its own. Properties that
+ * change from call to call (formatting, include root) are still set by the caller.
+ */
+public class MarshallerPool {
+
+	private final DynamicJAXBContext jaxbContext;
+	private final Map<MediaType, ThreadLocal<Marshaller>> marshallers = new EnumMap<>(MediaType.class);
+	private final Map<MediaType, ThreadLocal<Unmarshaller>> unmarshallers = new EnumMap<>(MediaType.class);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	
+	/**
+	 * Instantiates a new marshaller pool.
+	 *
+	 * @param jaxbContext the jaxb context
+	 */
+	public MarshallerPool(DynamicJAXBContext jaxbContext) {
+		this.jaxbContext = jaxbContext;
+		for (MediaType type : MediaType.values()) {
+			marshallers.put(type, new ThreadLocal<Marshaller>());
+			unmarshallers.put(type, new ThreadLocal<Unmarshaller>());
+		}
+	}
+	
+	/**
+	 * Gets the marshaller for the media type, creating it on first use by this thread.
+	 *
+	 * @param mediaType the media type
+	 * @return the marshaller
+	 * @throws JAXBException the JAXB exception
+	 */
+	public Marshaller getMarshaller(MediaType mediaType) throws JAXBException {
+		ThreadLocal<Marshaller> local = marshallers.get(mediaType);
+		Marshaller marshaller = local.get();
+		if (marshaller == null) {
+			misses.incrementAndGet();
+			marshaller = jaxbContext.createMarshaller();
+			if (mediaType.equals(MediaType.APPLICATION_JSON_TYPE)) {
+				marshaller.setProperty(org.eclipse.persistence.jaxb.MarshallerProperties.MEDIA_TYPE, "application/json");
+			}
+			local.set(marshaller);
+		} else {
+			hits.incrementAndGet();
+		}
+		
+		return marshaller;
+	}
+	
+	/**
+	 * Gets the unmarshaller for the media type, creating it on first use by this thread.
+	 *
+	 * @param mediaType the media type
+	 * @return the unmarshaller
+	 * @throws JAXBException the JAXB exception
+	 */
+	public Unmarshaller getUnmarshaller(MediaType mediaType) throws JAXBException {
+		ThreadLocal<Unmarshaller> local = unmarshallers.get(mediaType);
+		Unmarshaller unmarshaller = local.get();
+		if (unmarshaller == null) {
+			misses.incrementAndGet();
+			unmarshaller = jaxbContext.createUnmarshaller();
+			if (mediaType.equals(MediaType.APPLICATION_JSON_TYPE)) {
+				unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
+				unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+				unmarshaller.setProperty(UnmarshallerProperties.JSON_WRAPPER_AS_ARRAY_NAME, true);
+			}
+			local.set(unmarshaller);
+		} else {
+			hits.incrementAndGet();
+		}
+		
+		return unmarshaller;
+	}
+	
+	/**
+	 * Gets the number of requests served by an existing instance.
+	 *
+	 * @return the hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+	
+	/**
+	 * Gets the number of requests that had to create a new instance.
+	 *
+	 * @return the misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+}
@@ -24,22 +24,31 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.bind.JAXBException;
 
 import org.eclipse.persistence.dynamic.DynamicType;
+import org.eclipse.persistence.internal.oxm.mappings.Descriptor;
 import org.eclipse.persistence.jaxb.JAXBContextProperties;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContextFactory;
+import org.openecomp.aai.parsers.uri.URIPathTrie;
 import org.openecomp.aai.util.AAIConstants;
 
 public class ModelInjestor {
 	
 	private Map<Version, DynamicJAXBContext> versionContextMap = new HashMap<>();
+	private Map<Version, MarshallerPool> versionPoolMap = new HashMap<>();
+	private Map<String, MoxyTypeMetadata> typeMetadataMap = new ConcurrentHashMap<>();
+	private Map<Version, URIPathTrie> versionTrieMap = new HashMap<>();
+	private static final Pattern VERSION_PATTERN = Pattern.compile("\\.(v\\d+)\\.");
 	
 	
 	/**
@@ -62,7 +71,7 @@ public class ModelInjestor {
 	 *
 	 * @return single instance of ModelInjestor
 	 */
-	public synchronized static ModelInjestor getInstance() {
+	public static ModelInjestor getInstance() {
 		return Helper.INSTANCE;
 	}
 	
@@ -93,6 +102,22 @@ public class ModelInjestor {
 		properties.put(JAXBContextProperties.OXM_METADATA_SOURCE, iStream);
 		final DynamicJAXBContext jaxbContext = DynamicJAXBContextFactory.createContextFromOXM(this.getClass().getClassLoader(), properties);
 		versionContextMap.put(version, jaxbContext);
+		versionPoolMap.put(version, new MarshallerPool(jaxbContext));
+		List<MoxyTypeMetadata> versionMetadata = new ArrayList<>();
+		for (Descriptor descriptor : jaxbContext.getXMLContext().getDescriptors()) {
+			String className = descriptor.getJavaClass().getName();
+			DynamicType type = jaxbContext.getDynamicType(className);
+			if (type != null) {
+				try {
+					MoxyTypeMetadata metadata = new MoxyTypeMetadata(version, type);
+					typeMetadataMap.put(className, metadata);
+					versionMetadata.add(metadata);
+				} catch (RuntimeException e) {
+					//leave it to getTypeMetadata to try again when the type is actually used
+				}
+			}
+		}
+		versionTrieMap.put(version, URIPathTrie.build(version, versionMetadata));
 		
 	}
 	
@@ -103,8 +128,7 @@ public class ModelInjestor {
 	 * @return the version from class name
 	 */
 	public Version getVersionFromClassName (String classname) {
-		Pattern p = Pattern.compile("\\.(v\\d+)\\.");
-		Matcher m = p.matcher(classname);
+		Matcher m = VERSION_PATTERN.matcher(classname);
 		String version = "v2";
 		if (m.find()) {
 			version = m.group(1);
@@ -147,6 +171,42 @@ public class ModelInjestor {
 		return result;
 	}
 	
+	/**
+	 * Gets the marshaller pool for version.
+	 *
+	 * @param version the version
+	 * @return the marshaller pool for version
+	 */
+	public MarshallerPool getMarshallerPool(Version version) {
+		return versionPoolMap.get(version);
+	}
+	
+	/**
+	 * Gets the valid URI paths for a version.
+	 *
+	 * @param version the version
+	 * @return the URI path trie
+	 */
+	public URIPathTrie getURIPathTrie(Version version) {
+		return versionTrieMap.get(version);
+	}
+	
+	/**
+	 * Gets the precompiled schema information for a dynamic class.
+	 *
+	 * @param classname the classname
+	 * @return the type metadata
+	 */
+	public MoxyTypeMetadata getTypeMetadata(String classname) {
+		MoxyTypeMetadata result = typeMetadataMap.get(classname);
+		if (result == null) {
+			result = new MoxyTypeMetadata(this.getVersionFromClassName(classname), this.getDynamicTypeForClassName(classname));
+			typeMetadataMap.putIfAbsent(classname, result);
+		}
+		
+		return result;
+	}
+	
 	/**
 	 * Gets the dynamic type for class name.
 	 *
@@ -27,7 +27,6 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.persistence.dynamic.DynamicEntity;
-import org.eclipse.persistence.jaxb.UnmarshallerProperties;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.logging.AAILogger;
@@ -41,7 +40,7 @@ import com.google.common.base.CaseFormat;
 public class MoxyLoader extends Loader {
 
 	private DynamicJAXBContext jaxbContext = null;
-	private Unmarshaller unmarshaller = null;
+	private MarshallerPool marshallerPool = null;
 	private final String className = MoxyLoader.class.getSimpleName();
 	private AAILogger aaiLogger = new AAILogger(MoxyLoader.class.getName());
 	
@@ -55,6 +54,26 @@ public class MoxyLoader extends Loader {
 		super(version, ModelType.MOXY, llBuilder);
 		process(version);
 	}
+	
+	/**
+	 * Instantiates a new moxy loader sharing the context of another one.
+	 *
+	 * @param shared the loader whose context is used
+	 * @param llBuilder the ll builder
+	 */
+	private MoxyLoader(MoxyLoader shared, LogLineBuilder llBuilder) {
+		super(shared.getVersion(), ModelType.MOXY, llBuilder);
+		this.jaxbContext = shared.jaxbContext;
+		this.marshallerPool = shared.marshallerPool;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Loader withLogLineBuilder(LogLineBuilder llBuilder) {
+		return new MoxyLoader(this, llBuilder);
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -102,7 +121,8 @@ public class MoxyLoader extends Loader {
 	protected void process(Version version) {
 		ModelInjestor injestor = ModelInjestor.getInstance();
 		jaxbContext = injestor.getContextForVersion(version);
-		
+		marshallerPool = injestor.getMarshallerPool(version);
+
 	}
 
 	/**
@@ -115,12 +135,7 @@ public class MoxyLoader extends Loader {
 		Introspector result = null;
 		Object clazz = this.objectFromName(type);
 		 try {
-			unmarshaller = jaxbContext.createUnmarshaller();
-			if (mediaType.equals(MediaType.APPLICATION_JSON_TYPE)) {
-		        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
-		        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
-				unmarshaller.setProperty(UnmarshallerProperties.JSON_WRAPPER_AS_ARRAY_NAME, true);
-			}
+			Unmarshaller unmarshaller = marshallerPool.getUnmarshaller(mediaType);
 			
 			entity = (DynamicEntity)unmarshaller.unmarshal(new StreamSource(new StringReader(json)), clazz.getClass()).getValue();
 			result = IntrospectorFactory.newInstance(ModelType.MOXY, entity, llBuilder);
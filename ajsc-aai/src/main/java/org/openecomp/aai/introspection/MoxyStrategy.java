@@ -37,13 +37,7 @@ import javax.xml.transform.stream.StreamSource;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.dynamic.DynamicEntity;
 import org.eclipse.persistence.dynamic.DynamicType;
-import org.eclipse.persistence.exceptions.DynamicException;
-import org.eclipse.persistence.jaxb.UnmarshallerProperties;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
-import org.eclipse.persistence.mappings.DatabaseMapping;
-import org.eclipse.persistence.oxm.XMLField;
-import org.eclipse.persistence.oxm.mappings.XMLCompositeCollectionMapping;
-import org.eclipse.persistence.oxm.mappings.XMLCompositeDirectCollectionMapping;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.logging.AAILogger;
 import org.openecomp.aai.logging.LogLine;
@@ -52,7 +46,6 @@ import org.openecomp.aai.rest.MediaType;
 import org.openecomp.aai.workarounds.NamingExceptions;
 import org.springframework.web.util.UriUtils;
 
-import com.google.common.base.CaseFormat;
 import com.google.common.base.Joiner;
 
 public class MoxyStrategy extends Introspector {
@@ -61,34 +54,71 @@ public class MoxyStrategy extends Introspector {
 	private DynamicType internalType = null;
 	private DynamicJAXBContext jaxbContext = null;
 	private ClassDescriptor cd = null;
-	private Marshaller marshaller = null;
-	private Unmarshaller unmarshaller = null;
+	private MarshallerPool marshallerPool = null;
 	private Version version = null;
+	private MoxyTypeMetadata metadata = null;
+	private static final AAILogger LOGGER = new AAILogger(MoxyStrategy.class.getName());
 	
 	protected MoxyStrategy(Object obj, LogLineBuilder llBuilder) {
 		super(obj, llBuilder);
-		/* must look up the correct jaxbcontext for this object */
+		/* everything about the type was worked out when the models were loaded - just look it up */
 		className = MoxyStrategy.class.getSimpleName();
-		aaiLogger = new AAILogger(MoxyStrategy.class.getName());
+		aaiLogger = LOGGER;
 		internalObject = (DynamicEntity)obj;
 		ModelInjestor injestor = ModelInjestor.getInstance();
-		version = injestor.getVersionFromClassName(internalObject.getClass().getName());
+		metadata = injestor.getTypeMetadata(internalObject.getClass().getName());
+		version = metadata.getVersion();
 		jaxbContext = injestor.getContextForVersion(version);
-		super.loader = LoaderFactory.createLoaderForVersion(getModelType(), version, llBuilder);
-		String simpleName = internalObject.getClass().getName();
-		internalType = jaxbContext.getDynamicType(simpleName);
-		cd = internalType.getDescriptor();
-		try {
-			marshaller = jaxbContext.createMarshaller();
-			unmarshaller = jaxbContext.createUnmarshaller();
-		} catch (JAXBException e) {
-
+		super.loader = LoaderFactory.getLoader(getModelType(), version, llBuilder);
+		internalType = metadata.getDynamicType();
+		cd = metadata.getDescriptor();
+		marshallerPool = injestor.getMarshallerPool(version);
+	}
+	
+	/**
+	 * Wraps another object of the prototype's type, taking everything about the type from the prototype.
+	 *
+	 * @param prototype the prototype
+	 * @param obj the obj
+	 */
+	private MoxyStrategy(MoxyStrategy prototype, DynamicEntity obj) {
+		super(obj, prototype.llBuilder);
+		className = prototype.className;
+		aaiLogger = LOGGER;
+		internalObject = obj;
+		metadata = prototype.metadata;
+		version = prototype.version;
+		jaxbContext = prototype.jaxbContext;
+		super.loader = prototype.loader;
+		internalType = prototype.internalType;
+		cd = prototype.cd;
+		marshallerPool = prototype.marshallerPool;
+	}
+	
+	@Override
+	public Introspector newEmptyInstance() {
+		return new MoxyStrategy(this, internalType.newDynamicEntity());
+	}
+	
+	@Override
+	public Introspector newIntrospectorFor(Object obj) {
+		if (obj != null && obj.getClass().equals(internalObject.getClass())) {
+			return new MoxyStrategy(this, (DynamicEntity)obj);
 		}
-
+		
+		return super.newIntrospectorFor(obj);
+	}
+	
+	@Override
+	protected String convertPropertyName (String name) {
+		return metadata.toCamel(name);
 	}
 	
 	@Override
 	public boolean hasProperty(String name) {
+		if (metadata.getPropertyInfo(name) != null) {
+			return true;
+		}
 		String convertedName = convertPropertyName(name);
 
 		return internalType.containsProperty(convertedName);	
@@ -107,50 +137,28 @@ public class MoxyStrategy extends Introspector {
 
 	@Override
 	public List<String> getProperties() {
-		List<String> result = new ArrayList<>();
-		for (String s : internalType.getPropertiesNames()) {
-			result.add(CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_HYPHEN, s));
-
-		}
-		return result;
+		return new ArrayList<>(metadata.getProperties());
 	}
 
 	@Override
 	public List<String> getRequiredProperties() {
-		List<String> result = new ArrayList<>();
-		for (DatabaseMapping dm : cd.getMappings()) {
-			if (dm.getField() instanceof XMLField) { 
-				XMLField x = (XMLField)dm.getField();
-				if (x != null) { 
-					if (x.isRequired()) {
-						result.add(this.removeXPathDescriptor(x.getName()));
-					}
-				}
-			}
-		}
-		return result;
+		return new ArrayList<>(metadata.getRequiredProperties());
 	}
 
 	@Override
 	public List<String> getKeys() {
-		List<String> result = new ArrayList<>();
-		
-		for (String name : internalType.getDescriptor().getPrimaryKeyFieldNames()) {
-			result.add(this.removeXPathDescriptor(name));
-		}
-		return result;
+		return new ArrayList<>(metadata.getKeys());
 	}
 	
 	@Override
 	public Map<String, String> getPropertyMetadata(String prop) {
-		String propName = this.convertPropertyName(prop);
-		DatabaseMapping mapping = cd.getMappingForAttributeName(propName);
-		Map<String, String> result = null;
-		if (mapping != null) {
-			result = mapping.getProperties();
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(prop);
+		if (info != null) {
+			return info.getMetadata();
 		}
+		String propName = this.convertPropertyName(prop);
 		
-		return result;
+		return MoxyTypeMetadata.mappingProperties(cd, propName);
 	}
 
 	@Override
@@ -162,46 +170,77 @@ public class MoxyStrategy extends Introspector {
 
 	@Override
 	public Class<?> getClass(String name) {
-		name = convertPropertyName(name);
-		Class<?> resultClass = null;
-		try {
-			if (internalType.getPropertyType(name) == null) {
-				if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
-					resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
-	
-				} else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
-					resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
-				} else {
-					ClassDescriptor referenceDiscriptor = cd.getMappingForAttributeName(name).getReferenceDescriptor();
-					if (referenceDiscriptor != null) {
-						resultClass = referenceDiscriptor.getJavaClass();
-					} else {
-						resultClass = Object.class;
-					}
-				}
-			} else {
-				resultClass = internalType.getPropertyType(name);
-			}
-		} catch (DynamicException e) {
-			//property doesn't exist
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.getClazz();
 		}
-		return resultClass;
+		
+		return MoxyTypeMetadata.resolveClass(internalType, cd, convertPropertyName(name));
 	}
 
 	@Override
 	public Class<?> getGenericTypeClass(String name) {
-		name = convertPropertyName(name);
-		Class<?> resultClass = null;
-		if (internalType.getPropertyType(name) == null) {
-			if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
-				resultClass = cd.getMappingForAttributeName(name).getFields().get(0).getType();
-
-			} else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
-				resultClass = cd.getMappingForAttributeName(name).getReferenceDescriptor().getJavaClass();
-			}
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.getGenericClass();
+		}
+		
+		return MoxyTypeMetadata.resolveGenericClass(internalType, cd, convertPropertyName(name));
+	}
+	
+	@Override
+	public String getType(String name) {
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.getType();
+		}
+		
+		return super.getType(name);
+	}
+	
+	@Override
+	public String getGenericType(String name) {
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.getGenericType();
+		}
+		
+		return super.getGenericType(name);
+	}
+	
+	@Override
+	public boolean isComplexType(String name) {
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.isComplexType();
+		}
+		
+		return super.isComplexType(name);
+	}
+	
+	@Override
+	public boolean isComplexGenericType(String name) {
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.isComplexGenericType();
 		}
 		
-		return resultClass;
+		return super.isComplexGenericType(name);
+	}
+	
+	@Override
+	public boolean isListType(String name) {
+		MoxyTypeMetadata.PropertyInfo info = metadata.getPropertyInfo(name);
+		if (info != null) {
+			return info.isListType();
+		}
+		
+		return super.isListType(name);
+	}
+	
+	@Override
+	public boolean isContainer() {
+		return metadata.isContainer();
 	}
 
 	@Override
@@ -212,27 +251,13 @@ public class MoxyStrategy extends Introspector {
 	@Override
 	public String getChildName() {
 		
-		String className = internalObject.getClass().getSimpleName();
-		String lowerHyphen = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, className);
-		
-		if (this.isContainer()) {
-			lowerHyphen = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN,this.getGenericTypeClass(this.getProperties().get(0)).getSimpleName());
-		}
-		
-		return lowerHyphen;
+		return metadata.getChildName();
 	}
 	
 	@Override
 	public String getName() {
-		String className = internalObject.getClass().getSimpleName();
-		String lowerHyphen = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, className);
-		/*
-		if (this.isContainer()) {
-			lowerHyphen = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN,this.getGenericTypeClass(this.getProperties().get(0)).getSimpleName());
-		}*/
-		
 
-		return lowerHyphen;
+		return metadata.getName();
 	}
 	
 	@Override
@@ -296,8 +321,8 @@ public class MoxyStrategy extends Introspector {
 	public String marshal(MarshallerProperties properties) {
 		StringWriter result = new StringWriter();
         try {
+        	Marshaller marshaller = marshallerPool.getMarshaller(properties.getMediaType());
         	if (properties.getMediaType().equals(MediaType.APPLICATION_JSON_TYPE)) {
-				marshaller.setProperty(org.eclipse.persistence.jaxb.MarshallerProperties.MEDIA_TYPE, "application/json");
 		        marshaller.setProperty(org.eclipse.persistence.jaxb.MarshallerProperties.JSON_INCLUDE_ROOT, properties.getIncludeRoot());
 		        marshaller.setProperty(org.eclipse.persistence.jaxb.MarshallerProperties.JSON_WRAPPER_AS_ARRAY_NAME, properties.getWrapperAsArrayName());
         	}
@@ -314,11 +339,7 @@ public class MoxyStrategy extends Introspector {
 	public Object clone() {
 		Object result = null;
 		 try {
-				unmarshaller = jaxbContext.createUnmarshaller();
-
-		        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
-		        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
-				unmarshaller.setProperty(UnmarshallerProperties.JSON_WRAPPER_AS_ARRAY_NAME, true);
+				Unmarshaller unmarshaller = marshallerPool.getUnmarshaller(MediaType.APPLICATION_JSON_TYPE);
 				
 				result = unmarshaller.unmarshal(new StreamSource(new StringReader(this.marshal(true))), this.internalObject.getClass()).getValue();
 			 } catch (JAXBException e) {
@@ -333,11 +354,6 @@ public class MoxyStrategy extends Introspector {
 		return ModelType.MOXY;
 	}
 	
-	private String removeXPathDescriptor(String name) {
-		
-		return name.replaceAll("/text\\(\\)", "");
-	}
-
 	@Override
 	public String getMetadata(String name) {
 		String result = "";
@@ -0,0 +1,371 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.dynamic.DynamicType;
+import org.eclipse.persistence.exceptions.DynamicException;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.oxm.XMLField;
+import org.eclipse.persistence.oxm.mappings.XMLCompositeCollectionMapping;
+import org.eclipse.persistence.oxm.mappings.XMLCompositeDirectCollectionMapping;
+
+import com.google.common.base.CaseFormat;
+
+/**
+ * Everything MoxyStrategy needs to know about one type in one version of the schema.
+ * 
+ * It is worked out once, when ModelInjestor loads the models, and shared by every
+ * introspector that wraps an object of the type - so none of the descriptor lookups
+ * or name conversions are repeated per object.  Instances are immutable.
+ */
+public final class MoxyTypeMetadata {
+
+	private final Version version;
+	private final DynamicType type;
+	private final ClassDescriptor descriptor;
+	private final String name;
+	private final String childName;
+	private final boolean container;
+	private final List<String> properties;
+	private final List<String> requiredProperties;
+	private final List<String> keys;
+	private final Map<String, String> camelNames;
+	private final Map<String, PropertyInfo> propertyInfo;
+	
+	/**
+	 * What we know about a single property.
+	 */
+	static final class PropertyInfo {
+		
+		private final Class<?> clazz;
+		private final String type;
+		private final Class<?> genericClass;
+		private final String genericType;
+		private final Map<String, String> metadata;
+		
+		/**
+		 * Instantiates a new property info.
+		 *
+		 * @param clazz the clazz
+		 * @param genericClass the generic class
+		 * @param metadata the metadata
+		 */
+		private PropertyInfo(Class<?> clazz, Class<?> genericClass, Map<String, String> metadata) {
+			this.clazz = clazz;
+			this.genericClass = genericClass;
+			this.metadata = metadata;
+			String typeName = "";
+			if (clazz != null) {
+				typeName = clazz.getName();
+				if (typeName.equals("java.util.ArrayList")) {
+					typeName = "java.util.List";
+				}
+			}
+			this.type = typeName;
+			this.genericType = genericClass != null ? genericClass.getName() : "";
+		}
+		
+		Class<?> getClazz() {
+			return clazz;
+		}
+		
+		String getType() {
+			return type;
+		}
+		
+		Class<?> getGenericClass() {
+			return genericClass;
+		}
+		
+		String getGenericType() {
+			return genericType;
+		}
+		
+		Map<String, String> getMetadata() {
+			return metadata;
+		}
+		
+		boolean isComplexType() {
+			return type.contains("aai");
+		}
+		
+		boolean isListType() {
+			return type.contains("java.util.List");
+		}
+		
+		boolean isComplexGenericType() {
+			return genericType.contains("aai");
+		}
+	}
+	
+	/**
+	 * Instantiates a new moxy type metadata.
+	 *
+	 * @param version the version
+	 * @param type the type
+	 */
+	public MoxyTypeMetadata(Version version, DynamicType type) {
+		this.version = version;
+		this.type = type;
+		this.descriptor = type.getDescriptor();
+		
+		List<String> props = new ArrayList<>();
+		Map<String, String> names = new HashMap<>();
+		Map<String, PropertyInfo> info = new HashMap<>();
+		for (String camel : type.getPropertiesNames()) {
+			String hyphen = CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_HYPHEN, camel);
+			props.add(hyphen);
+			String converted = toCamel(hyphen);
+			names.put(hyphen, converted);
+			if (converted.equals(camel)) {
+				// names that don't survive the round trip can't be looked up by their hyphenated form anyway
+				info.put(hyphen, new PropertyInfo(resolveClass(type, descriptor, camel), 
+						resolveGenericClass(type, descriptor, camel), mappingProperties(descriptor, camel)));
+			}
+		}
+		this.properties = Collections.unmodifiableList(props);
+		this.camelNames = names;
+		this.propertyInfo = info;
+		
+		List<String> required = new ArrayList<>();
+		for (DatabaseMapping dm : descriptor.getMappings()) {
+			if (dm.getField() instanceof XMLField) { 
+				XMLField x = (XMLField)dm.getField();
+				if (x.isRequired()) {
+					required.add(removeXPathDescriptor(x.getName()));
+				}
+			}
+		}
+		this.requiredProperties = Collections.unmodifiableList(required);
+		
+		List<String> keyNames = new ArrayList<>();
+		for (String keyName : descriptor.getPrimaryKeyFieldNames()) {
+			keyNames.add(removeXPathDescriptor(keyName));
+		}
+		this.keys = Collections.unmodifiableList(keyNames);
+		
+		this.name = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, type.getJavaClass().getSimpleName());
+		PropertyInfo first = props.isEmpty() ? null : info.get(props.get(0));
+		this.container = props.size() == 1 && first != null && first.isListType();
+		if (this.container && first.getGenericClass() != null) {
+			this.childName = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, first.getGenericClass().getSimpleName());
+		} else {
+			this.childName = this.name;
+		}
+	}
+	
+	/**
+	 * Gets the version.
+	 *
+	 * @return the version
+	 */
+	public Version getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the dynamic type.
+	 *
+	 * @return the dynamic type
+	 */
+	public DynamicType getDynamicType() {
+		return type;
+	}
+	
+	/**
+	 * Gets the descriptor.
+	 *
+	 * @return the descriptor
+	 */
+	public ClassDescriptor getDescriptor() {
+		return descriptor;
+	}
+	
+	/**
+	 * Gets the lower hyphen name of the type.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the child name.
+	 *
+	 * @return the child name
+	 */
+	public String getChildName() {
+		return childName;
+	}
+	
+	/**
+	 * Checks if the type is a container.
+	 *
+	 * @return true, if is container
+	 */
+	public boolean isContainer() {
+		return container;
+	}
+	
+	/**
+	 * Gets the properties, in schema order.
+	 *
+	 * @return the properties
+	 */
+	public List<String> getProperties() {
+		return properties;
+	}
+	
+	/**
+	 * Gets the required properties.
+	 *
+	 * @return the required properties
+	 */
+	public List<String> getRequiredProperties() {
+		return requiredProperties;
+	}
+	
+	/**
+	 * Gets the keys.
+	 *
+	 * @return the keys
+	 */
+	public List<String> getKeys() {
+		return keys;
+	}
+	
+	/**
+	 * Converts a lower hyphen property name to the lower camel name used by the dynamic entity.
+	 *
+	 * @param hyphen the hyphenated name
+	 * @return the camel name
+	 */
+	public String toCamel(String hyphen) {
+		String result = camelNames.get(hyphen);
+		if (result == null) {
+			result = CaseFormat.LOWER_HYPHEN.to(CaseFormat.LOWER_CAMEL, hyphen);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the property info.
+	 *
+	 * @param hyphen the hyphenated property name
+	 * @return the property info, or null if it isn't a (known) property of this type
+	 */
+	PropertyInfo getPropertyInfo(String hyphen) {
+		return propertyInfo.get(hyphen);
+	}
+	
+	/**
+	 * Works out the class of a property from the descriptor.
+	 *
+	 * @param type the type
+	 * @param cd the class descriptor
+	 * @param name the lower camel property name
+	 * @return the class, or null if there is no such property
+	 */
+	static Class<?> resolveClass(DynamicType type, ClassDescriptor cd, String name) {
+		Class<?> resultClass = null;
+		try {
+			if (type.getPropertyType(name) == null) {
+				if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
+					resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
+	
+				} else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
+					resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
+				} else {
+					ClassDescriptor referenceDiscriptor = cd.getMappingForAttributeName(name).getReferenceDescriptor();
+					if (referenceDiscriptor != null) {
+						resultClass = referenceDiscriptor.getJavaClass();
+					} else {
+						resultClass = Object.class;
+					}
+				}
+			} else {
+				resultClass = type.getPropertyType(name);
+			}
+		} catch (DynamicException e) {
+			//property doesn't exist
+		}
+		return resultClass;
+	}
+	
+	/**
+	 * Works out the generic type of a list property from the descriptor.
+	 *
+	 * @param type the type
+	 * @param cd the class descriptor
+	 * @param name the lower camel property name
+	 * @return the generic class, or null if the property isn't a list
+	 */
+	static Class<?> resolveGenericClass(DynamicType type, ClassDescriptor cd, String name) {
+		Class<?> resultClass = null;
+		if (type.getPropertyType(name) == null) {
+			if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
+				resultClass = cd.getMappingForAttributeName(name).getFields().get(0).getType();
+
+			} else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
+				resultClass = cd.getMappingForAttributeName(name).getReferenceDescriptor().getJavaClass();
+			}
+		}
+		
+		return resultClass;
+	}
+	
+	/**
+	 * Gets the metadata properties of a property's mapping.
+	 *
+	 * @param cd the class descriptor
+	 * @param name the lower camel property name
+	 * @return the metadata, or null if there is no mapping
+	 */
+	static Map<String, String> mappingProperties(ClassDescriptor cd, String name) {
+		DatabaseMapping mapping = cd.getMappingForAttributeName(name);
+		Map<String, String> result = null;
+		if (mapping != null) {
+			result = mapping.getProperties();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Removes the xpath descriptor.
+	 *
+	 * @param name the name
+	 * @return the string
+	 */
+	static String removeXPathDescriptor(String name) {
+		
+		return name.replaceAll("/text\\(\\)", "");
+	}
+}
@@ -41,7 +41,6 @@ import com.google.common.base.CaseFormat;
 public class PojoLoader extends Loader {
 
 	protected JAXBContext context;
-	private Unmarshaller unmarshaller = null;
 	private String POJO_CLASSPATH = "org.openecomp.aai.domain.yang";
 	private final String className = PojoLoader.class.getSimpleName();
 	private AAILogger aaiLogger = new AAILogger(PojoLoader.class.getName());
@@ -59,6 +58,17 @@ public class PojoLoader extends Loader {
 		
 		
 		
+	}
+	
+	private PojoLoader(PojoLoader shared, LogLineBuilder llBuilder) {
+		super(shared.getVersion(), ModelType.POJO, llBuilder);
+		this.context = shared.context;
+		this.POJO_CLASSPATH = shared.POJO_CLASSPATH;
+	}
+	
+	@Override
+	public Loader withLogLineBuilder(LogLineBuilder llBuilder) {
+		return new PojoLoader(this, llBuilder);
 	}
 
 	@Override
@@ -108,7 +118,7 @@ public class PojoLoader extends Loader {
 		Object obj = null;
 		Object clazz = this.objectFromName(type);
 		 try {
-			unmarshaller = context.createUnmarshaller();
+			Unmarshaller unmarshaller = context.createUnmarshaller();
 			if (mediaType.equals(MediaType.APPLICATION_JSON_TYPE)) {
 		        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
 		        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
@@ -35,11 +35,16 @@ import com.att.eelf.configuration.EELFManager;
 
 /**
  * This class provides Logger methods for the AAI application
+ * 
+ * Lines are stamped with the class that created the logger, not the class that
+ * wrote them. See LogLine for what that means for shared loggers.
  */
 @SuppressWarnings("rawtypes")
 public class AAILogger {
 
 	public EELFLogger logger;
+	
+	private final String callingClass;
 
 	// private boolean mdcInitialized = false;
 
@@ -51,13 +56,20 @@ public class AAILogger {
 	public AAILogger(String name) {
 		// if ( !mdcInitialized ) { address problem where host/ip not in most
 		// logfile entries
-		MDC.put("ERROR_CODE", "");
-		MDC.put("ERROR_TEXT", "");
+		// only write the MDC when it changes, every put copies the thread's map
+		if (!"".equals(MDC.get("ERROR_CODE"))) {
+			MDC.put("ERROR_CODE", "");
+		}
+		if (!"".equals(MDC.get("ERROR_TEXT"))) {
+			MDC.put("ERROR_TEXT", "");
+		}
 		if (MDC.get("hostaddress") == null) {
 			mdcSetUp();
 			// mdcInitialized = true;
 		}
 		this.logger = EELFManager.getInstance().getLogger(name);
+		// found once here rather than per line, so a shared logger stamps the class that created it
+		this.callingClass = LogLine.findCallingClass();
 	}
 
 	/**
@@ -73,25 +85,39 @@ public class AAILogger {
 	 * Mdc set up.
 	 */
 	private void mdcSetUp() {
-		InetAddress ip;
-		String hostname;
-
-		MDC.put("hostname", "");
-		MDC.put("hostaddress", "");
+		MDC.put("hostname", Host.INSTANCE.name);
+		MDC.put("hostaddress", Host.INSTANCE.address);
+	}
 	
-		try {
-			ip = InetAddress.getLocalHost();
-			if (ip != null) {
-				hostname = ip.getCanonicalHostName();
-				if (hostname != null)
-					MDC.put("hostname", hostname);
-				MDC.put("hostaddress", ip.getHostAddress());
-			}
-			// System.out.println("MDC setup " + MDC.get("hostname"));
-		} catch (UnknownHostException e) {
+	/**
+	 * The local host, looked up once rather than on every thread that logs.
+	 */
+	private static final class Host {
+		
+		private static final Host INSTANCE = new Host();
+		
+		private String name = "";
+		private String address = "";
+		
+		/**
+		 * Instantiates a new host.
+		 */
+		private Host() {
+			InetAddress ip;
+			String hostname;
+			try {
+				ip = InetAddress.getLocalHost();
+				if (ip != null) {
+					hostname = ip.getCanonicalHostName();
+					if (hostname != null)
+						name = hostname;
+					address = ip.getHostAddress();
+				}
+			} catch (UnknownHostException e) {
 
-			e.printStackTrace();
+				e.printStackTrace();
 
+			}
 		}
 	}
 
@@ -125,7 +151,7 @@ public class AAILogger {
 		if (isDebugEnabled()) {
 			logline.setLevel("DEBUG");
 			logline.setUserContributed(text);
-			String msg = logline.getLine(false).replaceAll("\\n", "^");// make it
+			String msg = logline.getLine(false, callingClass).replace('\n', '^');// make it
 																	// more
 																	// readable
 																	// by
@@ -149,7 +175,7 @@ public class AAILogger {
 		if (isDebugEnabled()) {
 			logline.setLevel("DEBUG");
 			logline.add("db", text);
-			String msg = logline.getLine(false).replaceAll("\\n", "^");// make it
+			String msg = logline.getLine(false, callingClass).replace('\n', '^');// make it
 																	// more
 																	// readable
 																	// by
@@ -173,7 +199,7 @@ public class AAILogger {
 	public void audit(LogLine logline) {
 		if (isInfoEnabled()) {
 			logline.setLevel("INFO");
-			String msg = logline.getLine(true);
+			String msg = logline.getLine(true, callingClass);
 			logger.info(msg);
 		}
 	}
@@ -232,7 +258,7 @@ public class AAILogger {
 					logline.add("info", nestedT.getStackTrace().toString());
 				}
 			}
-			String msg = logline.finish(success);
+			String msg = logline.finish(success, callingClass);
 			logger.info(msg);
 		}
 	}
@@ -293,11 +319,11 @@ public class AAILogger {
 
 
 		if (errorSeverity.equalsIgnoreCase("WARN"))
-			warn(logline.getLine(false));
+			warn(logline.getLine(false, callingClass));
 		else if (errorSeverity.equalsIgnoreCase("ERROR"))
-			error(logline.getLine(false));
+			error(logline.getLine(false, callingClass));
 		else if (errorSeverity.equalsIgnoreCase("FATAL"))
-			fatal(logline.getLine(false));
+			fatal(logline.getLine(false, callingClass));
 		// logNestedException(Level.DEBUG, errorMessage, t);
 	}
 
@@ -20,9 +20,9 @@
 
 package org.openecomp.aai.logging;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.TimeZone;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
 import org.slf4j.MDC;
 /**
@@ -31,10 +31,22 @@ import org.slf4j.MDC;
  * Note that the name-value pairs are assembled in the order they are inserted.. Init sets up the tr, fr and co values 
  * so that they can be used consistently via start() for debug and error logs. finish() adds the ss and tt so they
  * can be provided for each INFO record.
+ *
+ * The class name on a line written through an AAILogger is the class that created that logger. It is looked up
+ * once when the logger is built, not on every line. A logger that is handed to other classes, or shared through
+ * a static field, stamps every line with the class that created it, not the class that wrote the line. Classes
+ * that need their own name on the line should create their own AAILogger.
  */
 
 public class LogLine {
 
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ").withZone(ZoneOffset.UTC);
+	
+	private static final int MAX_BUFFER_SIZE = 16384;
+	
+	/* lines are rendered into a per thread buffer rather than built up from fragments */
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
 	private long startTime = 0;
 	private long endTime = 0;
 	
@@ -107,7 +119,7 @@ public class LogLine {
 	public void add(String name, String value) {
 		String uc = getUserContributed();
 		if (value != null) {
-			uc += ":" + name + "=" + value.replaceAll("\\|", "^").trim();
+			uc += ":" + name + "=" + value.replace('|', '^').trim();
 		} else { 
 			uc += ":" + name + "=" + value;
 		}
@@ -169,96 +181,108 @@ public class LogLine {
 	 * @return the line
 	 */
 	protected String getLine(boolean audit) {
+		return getLine(audit, findCallingClass());
+	}
+	
+	/**
+	 *  Return the log line based on what we have so far.
+	 *
+	 * @param audit the audit
+	 * @param className the simple name of the class doing the logging
+	 * @return the line
+	 */
+	protected String getLine(boolean audit, String className) {
 	
 	// MDC is setup when AAILogger is setup
 	String hostName = (String)MDC.get("hostname")== null ? "" : (String)MDC.get("hostname");
 	String hostAddress = (String)MDC.get("hostaddress") == null ? "" :  (String)MDC.get("hostaddress");
-	//String className = (String)MDC.get("classname") == null ? "" :  (String)MDC.get("classname");
-	String className = "";
-	
-	Exception ex = new Exception();
-	StackTraceElement[] stackTraceArray = ex.getStackTrace();
-	
-	//Find the class in the stack trace that calls the AAILogger.
-	for (int i =0; i < stackTraceArray.length; i++ ){
-		String fullClassName = stackTraceArray[i].getClassName();
-		if (fullClassName.contains("AAILogger")){
-			int aaiLoggerIndex = i;
-			String nextClassInStackTrace = stackTraceArray[i+1].getClassName();
-			if (nextClassInStackTrace.contains("AAILogger")){
-				fullClassName = stackTraceArray[i+2].getClassName();
-			} else {
-				fullClassName = nextClassInStackTrace;
-			}
-			className = fullClassName.substring(fullClassName.lastIndexOf('.') + 1 );
-			break;
-		}
-	}
-	
-//	if (ex.getStackTrace().length > 3) { // 3rd in stack shd be aaiLogger so we need the 4th
-//			String fullClassName = ex.getStackTrace()[3].getClassName();
-//			if (!fullClassName.contains("aai"))
-//				fullClassName = ex.getStackTrace()[2].getClassName();
-//			className = fullClassName.substring(fullClassName.lastIndexOf('.') + 1 );
-//	}	
-	
-		// this will format it 
-	SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
-	dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-	
-	Date startDate = new Date(startTime);
-	String startTimeStr = dateFormat.format(startDate);	
-	
-	Date endDate = new Date(endTime);
-	String endTimeStr = dateFormat.format(endDate);	
 	
+	long lineEndTime = endTime;
 	String timeTaken = this.getTt();
 	
 	if (!ll.equals("INFO")) //if this is debug or error, use the now time
 	{
 		// "endtime" will now be equal to when the log is written (nowtime )	
-		long nowTime = System.currentTimeMillis();
-		timeTaken = String.valueOf(nowTime - startTime); //tt is "time taken" or "elapsed time"
-		Date nowDate = new Date (nowTime);
-		endTimeStr = dateFormat.format(nowDate);	
+		lineEndTime = System.currentTimeMillis();
+		timeTaken = String.valueOf(lineEndTime - startTime); //tt is "time taken" or "elapsed time"
+	}
 	
+	StringBuilder line = BUFFER.get();
+	line.setLength(0);
+	
+	TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(startTime), line); // start timestamp 
+	line.append('|');
+	TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(lineEndTime), line); // end timestamp
+	line.append('|').append(this.getTr())			// RequestId              					=> transId
+		.append('|')								// serviceInstanceId      					=> NA
+		.append('|')								// threadId               					=> NA 
+		.append('|')								// physical server name   					=> NA
+		.append('|').append(this.getMe())			// serviceName method       					=> operation
+		.append('|').append(this.getFr());			// partnerName from                           => fromAppId  
+	if (!audit) {
+		line.append('|').append(this.getTo())		// TargetEntity                               => toAppID
+			.append('|');							//TargetServiceName							=> NA 
+	}
+	line.append('|').append(this.getSs())			//StatusCode/success							=> NA 
+		.append('|').append(this.getEc())			//Response Code, is our error code			=> NA 
+		.append('|').append(this.getEt())			// Response Description, is our error text 	=> NA 
+		.append('|')								// instanceUUID          					=> NA
+		.append('|').append(this.getLevel())		// category               					=> loglevel 
+		.append('|')								// severity               					=> NA
+		.append('|').append(hostAddress)			// Server IP address      					=> hostAddress 
+		.append('|').append(timeTaken)				// Timer                  					=> tt
+		.append('|').append(hostName)				// Server                 					=> hostName 
+		.append('|')								// IP Address 								=> NA 
+		.append('|').append(className)				// className              					=> className
+		.append('|')								//Unused 									=> NA 
+		.append('|');								//ProcessKey									=> NA 
+	if (!audit) {
+		line.append('|');							//TargetVirtualEntity 						=> NA 
+	}
+	line.append('|')								//CustomField1 								=> NA 
+		.append('|')								//CustomField2 								=> NA 
+		.append('|')								//CustomField3 								=> NA 
+		.append('|')								//CustomField4 								=> NA 
+		.append("|co=").append(this.getCo())		// DetailMessage component                    => component		
+		.append(':').append(this.getUserContributed()).append('|');
+	
+	String result = line.toString();
+	if (line.capacity() > MAX_BUFFER_SIZE) {
+		//don't hang on to the memory from the odd huge line
+		BUFFER.remove();
 	}
-							
-		
-	return    startTimeStr  				 				+ // start timestamp 
-				"|"  + endTimeStr  			 				+ // end timestamp
-				"|"  + this.getTr()          				+ // RequestId              					=> transId
-				"|"                          				+ // serviceInstanceId      					=> NA
-				"|"                          				+ // threadId               					=> NA 
-				"|"                          				+ // physical server name   					=> NA
-				"|" + this.getMe()           				+ // serviceName method       					=> operation
-				"|" + this.getFr()            	            + // partnerName from                           => fromAppId  
-				(audit ? "" :"|" + this.getTo())    	    + // TargetEntity                               => toAppID
-				(audit ? "" :"|")           				+ //TargetServiceName							=> NA 
-				"|"	+ this.getSs()					 		+ //StatusCode/success							=> NA 
-				"|"	+ this.getEc()					 		+ //Response Code, is our error code			=> NA 
-				"|"	+ this.getEt()						 	+ // Response Description, is our error text 	=> NA 
-				"|"                          				+ // instanceUUID          					=> NA
-				"|" + this.getLevel()        				+ // category               					=> loglevel 
-				"|"                          				+ // severity               					=> NA
-				"|" + hostAddress	         				+ // Server IP address      					=> hostAddress 
-				"|" + timeTaken           	 				+ // Timer                  					=> tt
-				"|" + hostName				 				+ // Server                 					=> hostName 
-				"|" 					     				+ // IP Address 								=> NA 
-				"|" + className			     				+ // className              					=> className
-				"|"						 	 				+ //Unused 									=> NA 
-				"|"							 				+ //ProcessKey									=> NA 
-				(audit ? "": "|")			 				+ //TargetVirtualEntity 						=> NA 
-				"|"							 				+ //CustomField1 								=> NA 
-				"|"							 				+ //CustomField2 								=> NA 
-				"|"							 				+ //CustomField3 								=> NA 
-				"|"							 				+ //CustomField4 								=> NA 
-				"|co=" + this.getCo()        				+ // DetailMessage component                    => component		
-				    ":" + this.getUserContributed() 		+ "|";
 	
-
+	return result;
+	}
+	
+	/**
+	 * Finds the class that called the AAILogger by walking the stack.  AAILogger works this
+	 * out once when it is created, so this is only for lines asked for directly.
+	 *
+	 * @return the simple class name, or an empty string if the AAILogger isn't on the stack
+	 */
+	static String findCallingClass() {
+		String className = "";
+		StackTraceElement[] stackTraceArray = new Exception().getStackTrace();
+		
+		//Find the class in the stack trace that calls the AAILogger.
+		for (int i = 0; i < stackTraceArray.length; i++) {
+			String fullClassName = stackTraceArray[i].getClassName();
+			if (fullClassName.contains("AAILogger")) {
+				int next = i + 1;
+				while (next < stackTraceArray.length - 1 && stackTraceArray[next].getClassName().contains("AAILogger")) {
+					next++;
+				}
+				if (next < stackTraceArray.length) {
+					fullClassName = stackTraceArray[next].getClassName();
+					className = fullClassName.substring(fullClassName.lastIndexOf('.') + 1);
+				}
+				break;
+			}
+		}
+		
+		return className;
 	}
-			
 	
 	/**
 	 *  Return the finished log line, including success and elapsed time. 
@@ -268,10 +292,21 @@ public class LogLine {
 	 * @return the string
 	 */
 	public String finish(boolean success) {
+		return finish(success, findCallingClass());
+	}
+	
+	/**
+	 *  Return the finished log line, including success and elapsed time. 
+	 *
+	 * @param success the success
+	 * @param className the simple name of the class doing the logging
+	 * @return the string
+	 */
+	String finish(boolean success, String className) {
 		endTime = System.currentTimeMillis();
 		setSs((success ? "COMPLETE" : "ERROR"));
 		setTt(String.valueOf(endTime - startTime)); // tt is "time taken" or "elapsed time" 
-		return getLine(false);
+		return getLine(false, className);
 	}
 
 	/**
@@ -30,14 +30,15 @@ import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.introspection.Introspector;
 import org.openecomp.aai.introspection.Loader;
 import org.openecomp.aai.logging.LogLineBuilder;
-import org.openecomp.aai.parsers.uri.Parsable;
 import org.openecomp.aai.parsers.uri.URIParser;
+import org.openecomp.aai.parsers.uri.URIPathNode;
+import org.openecomp.aai.parsers.uri.URIPathParsable;
 import org.openecomp.aai.query.builder.QueryBuilder;
 
 /**
  * The Class LegacyQueryParser.
  */
-public class LegacyQueryParser extends QueryParser implements Parsable {
+public class LegacyQueryParser extends QueryParser implements URIPathParsable {
 
 	private Introspector previous = null;
 
@@ -86,7 +87,8 @@ public class LegacyQueryParser extends QueryParser implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processObject(Introspector obj, Map<String, String> uriKeys) {
+	public void processObject(URIPathNode node, Map<String, String> uriKeys) {
+		Introspector obj = loader.introspectorFromName(node.getName());
 		if (previous != null) {
 			this.parentResourceType = previous.getDbName();
 			queryBuilder.createEdgeTraversal(previous, obj);
@@ -107,8 +109,9 @@ public class LegacyQueryParser extends QueryParser implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processContainer(Introspector obj, Map<String, String> uriKeys, boolean isFinalContainer) throws AAIException {
+	public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) throws AAIException {
 		if (isFinalContainer) {
+			Introspector obj = loader.introspectorFromName(node.getName());
 			if (previous != null) {
 				this.parentResourceType = previous.getDbName();
 				queryBuilder.createEdgeTraversal(previous, obj);
@@ -141,18 +144,10 @@ public class LegacyQueryParser extends QueryParser implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processNamespace(Introspector obj) {
+	public void processNamespace(URIPathNode node) {
 	
 	}
 	
-	/**
-	 * @{inheritDoc}
-	 */
-	@Override
-	public String getCloudRegionTransform() {
-		return "add";
-	}
-	
 	/**
 	 * @{inheritDoc}
 	 */
@@ -124,6 +124,17 @@ public class URIParser {
 	 * @throws AAIException the AAI exception
 	 */
 	public void parse(Parsable p) throws UnsupportedEncodingException, AAIException {
+		this.parse(new IntrospectorParsable(p));
+	}
+	
+	/**
+	 * Parses the.
+	 *
+	 * @param p the p
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 */
+	public void parse(URIPathParsable p) throws UnsupportedEncodingException, AAIException {
 		try {
 			uri = this.trimURI(uri);
 //			uri = handleCloudRegion(p.getCloudRegionTransform(), uri);
@@ -132,90 +143,86 @@ public class URIParser {
 			}
 			this.originalURI  = UriBuilder.fromPath(uri.getRawPath()).build();
 			String[] parts = uri.getRawPath().split("/");
-			Introspector validNamespaces = loader.introspectorFromName("inventory");
+			URIPathTrie trie = URIPathTrie.forVersion(loader.getVersion());
 			List<String> keys = null;
 			String part = "";
-			Introspector previousObj = null;
+			URIPathNode previous = null;
 
 			for (int i = 0; i < parts.length;) {
 				part = parts[i];
-				Introspector introspector = null;
-				introspector = loader.introspectorFromName(part);
-				if (introspector != null) {
-					
-					//previous has current as property
-					if (previousObj != null && !previousObj.hasChild(introspector)) {
+				URIPathNode node = null;
+				if (previous == null) {
+					node = trie.start(part);
+				} else {
+					node = trie.next(previous, part);
+				}
+				if (node == null) {
+					if (trie.getType(part) == null) {
+						//invalid item found should log
+						//original said bad path
+						throw new AAIException("AAI_3001", "invalid item found in path: " + part);
+					} else if (previous != null) {
+						//previous does not have current as property
 						throw new AAIException("AAI_3001", uri + " not a valid path. " + part + " not valid");
-					} else if (previousObj == null) {
-						String abstractType = introspector.getMetadata("abstract");
-						if (abstractType == null) {
-							abstractType = "";
+					} else {
+						//first time through, it has to start from a namespace
+						throw new AAIException("AAI_3000", uri + " not a valid path. It does not start from a valid namespace");
+					}
+				}
+				
+				keys = node.getKeys();
+				if (node.getRole() == URIPathNode.Role.OBJECT) {
+					Map<String, String> uriKeys = new LinkedHashMap<>();
+					i++;
+					if (i == parts.length && queryParams != null) {
+						Set<String> queryKeys = queryParams.keySet();
+						for (String key : queryKeys) {
+							queryParams.get(key);
+							for (String value : queryParams.get(key)) {
+								value =  UriUtils.decode(value, "UTF-8");
+								
+								uriKeys.put(key, value);
+								
+							}
 						}
-						//first time through, make sure it starts from a namespace
-						//ignore abstract types
-						if (!abstractType.equals("true") && !validNamespaces.hasChild(introspector)) {
-							throw new AAIException("AAI_3000", uri + " not a valid path. It does not start from a valid namespace");
+					} else {
+						for (String key : keys) {
+							part =  UriUtils.decode(parts[i], "UTF-8");
+							
+							uriKeys.put(key, part);
+							
+							//skip this for further processing
+							i++;
 						}
 					}
 					
-					keys = introspector.getKeys();
-					if (keys.size() > 0) {
-						Map<String, String> uriKeys = new LinkedHashMap<>();
-						i++;
-						if (i == parts.length && queryParams != null) {
-							Set<String> queryKeys = queryParams.keySet();
-							for (String key : queryKeys) {
-								queryParams.get(key);
-								for (String value : queryParams.get(key)) {
-									value =  UriUtils.decode(value, "UTF-8");
-									
-									uriKeys.put(key, value);
-									
-								}
-							}
-						} else {
-							for (String key : keys) {
-								part =  UriUtils.decode(parts[i], "UTF-8");
+					p.processObject(node, uriKeys);
+
+				} else if (node.isContainer()) {
+					boolean isFinalContainer = i == parts.length-1;
+					Map<String, String> uriKeys = new LinkedHashMap<>();
+					
+					if (isFinalContainer && queryParams != null) {
+						Set<String> queryKeys = queryParams.keySet();
+						for (String key : queryKeys) {
+							queryParams.get(key);
+							for (String value : queryParams.get(key)) {
+								value =  UriUtils.decode(value, "UTF-8");
 								
-								uriKeys.put(key, part);
+								uriKeys.put(key, value);
 								
-								//skip this for further processing
-								i++;
-							}
-						}
-						
-						p.processObject(introspector, uriKeys);
-	
-					} else if (introspector.isContainer()) {
-						boolean isFinalContainer = i == parts.length-1;
-						Map<String, String> uriKeys = new LinkedHashMap<>();
-						
-						if (isFinalContainer && queryParams != null) {
-							Set<String> queryKeys = queryParams.keySet();
-							for (String key : queryKeys) {
-								queryParams.get(key);
-								for (String value : queryParams.get(key)) {
-									value =  UriUtils.decode(value, "UTF-8");
-									
-									uriKeys.put(key, value);
-									
-								}
 							}
 						}
-						p.processContainer(introspector, uriKeys, isFinalContainer);
-						
-						i++; 
-					} else {
-						p.processNamespace(introspector);
-						//namespace case
-						i++;
 					}
-					previousObj = introspector;
+					p.processContainer(node, uriKeys, isFinalContainer);
+					
+					i++; 
 				} else {
-					//invalid item found should log
-					//original said bad path
-					throw new AAIException("AAI_3001", "invalid item found in path: " + part);
+					p.processNamespace(node);
+					//namespace case
+					i++;
 				}
+				previous = node;
 			}
 		} catch (AAIException e) {
 			throw new AAIException("AAI_" + e.getErrorObject().getErrorCode(), e.getErrorObject().getDetails());
@@ -227,6 +234,59 @@ public class URIParser {
 		}
 	}
 	
+	/**
+	 * Creates the introspector for a segment of the path.
+	 *
+	 * @param node the node
+	 * @return the introspector
+	 * @throws AAIException the AAI exception
+	 */
+	private Introspector introspectorFor(URIPathNode node) throws AAIException {
+		Introspector result = loader.introspectorFromName(node.getName());
+		if (result == null) {
+			throw new AAIException("AAI_3001", "invalid item found in path: " + node.getName());
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Hands a Parsable that works on introspectors one for every segment.
+	 */
+	private class IntrospectorParsable implements URIPathParsable {
+		
+		private final Parsable p;
+		
+		/**
+		 * Instantiates a new introspector parsable.
+		 *
+		 * @param p the p
+		 */
+		private IntrospectorParsable(Parsable p) {
+			this.p = p;
+		}
+		
+		@Override
+		public void processObject(URIPathNode node, Map<String, String> uriKeys) throws AAIException {
+			p.processObject(introspectorFor(node), uriKeys);
+		}
+		
+		@Override
+		public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) throws AAIException {
+			p.processContainer(introspectorFor(node), uriKeys, isFinalContainer);
+		}
+		
+		@Override
+		public void processNamespace(URIPathNode node) throws AAIException {
+			p.processNamespace(introspectorFor(node));
+		}
+		
+		@Override
+		public boolean useOriginalLoader() {
+			return p.useOriginalLoader();
+		}
+	}
+	
 	//public abstract Object getResult();
 	
 	/**
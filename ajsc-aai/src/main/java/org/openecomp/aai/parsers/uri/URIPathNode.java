@@ -0,0 +1,166 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.parsers.uri;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One type in a URIPathTrie: what it is called, what keys follow it in a URI and which
+ * segments may come after it.
+ * 
+ * A type appears once however many paths lead to it, so the trie is really a graph of
+ * shared nodes.  Nodes are immutable once the trie that owns them has been built.
+ */
+public final class URIPathNode {
+
+	/**
+	 * The part a segment plays in a URI.
+	 */
+	public enum Role {
+		
+		/** A grouping with no keys of its own, e.g. network. */
+		NAMESPACE,
+		
+		/** A list of objects, e.g. generic-vnfs. */
+		CONTAINER,
+		
+		/** An object, followed in the URI by its key values, e.g. generic-vnf. */
+		OBJECT
+	}
+	
+	private final String name;
+	private final String dbName;
+	private final Role role;
+	private final List<String> keys;
+	private final boolean abstractType;
+	private final Map<String, URIPathNode> children = new HashMap<>();
+	private final Map<String, URIPathNode> readOnlyChildren = Collections.unmodifiableMap(children);
+	
+	/**
+	 * Instantiates a new URI path node.
+	 *
+	 * @param name the name
+	 * @param dbName the db name
+	 * @param role the role
+	 * @param keys the keys
+	 * @param abstractType whether the type is abstract
+	 */
+	URIPathNode(String name, String dbName, Role role, List<String> keys, boolean abstractType) {
+		this.name = name;
+		this.dbName = dbName;
+		this.role = role;
+		this.keys = keys;
+		this.abstractType = abstractType;
+	}
+	
+	/**
+	 * Adds a segment that may follow this one.  Only used while the trie is being built.
+	 *
+	 * @param child the child
+	 */
+	void addChild(URIPathNode child) {
+		children.put(child.getName(), child);
+	}
+	
+	/**
+	 * Gets the child node for a segment name that has already been normalized.
+	 *
+	 * @param name the name
+	 * @return the child, or null if the segment may not follow this one
+	 */
+	URIPathNode getChild(String name) {
+		return children.get(name);
+	}
+	
+	/**
+	 * Gets the lower hyphen name of the type.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the name the type is stored under in the database.
+	 *
+	 * @return the db name
+	 */
+	public String getDbName() {
+		return dbName;
+	}
+	
+	/**
+	 * Gets the role.
+	 *
+	 * @return the role
+	 */
+	public Role getRole() {
+		return role;
+	}
+	
+	/**
+	 * Gets the key names, in the order their values appear in a URI.
+	 *
+	 * @return the keys
+	 */
+	public List<String> getKeys() {
+		return keys;
+	}
+	
+	/**
+	 * Checks if the type is abstract.
+	 *
+	 * @return true, if is abstract
+	 */
+	public boolean isAbstract() {
+		return abstractType;
+	}
+	
+	/**
+	 * Checks if the type is a container.
+	 *
+	 * @return true, if is container
+	 */
+	public boolean isContainer() {
+		return role == Role.CONTAINER;
+	}
+	
+	/**
+	 * Gets the segments that may follow this one, by name.
+	 *
+	 * @return the children
+	 */
+	public Map<String, URIPathNode> getChildren() {
+		return readOnlyChildren;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,66 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.parsers.uri;
+
+import java.util.Map;
+
+import org.openecomp.aai.exceptions.AAIException;
+
+/**
+ * A Parsable that is handed the URIPathTrie node of each segment instead of an introspector,
+ * so it only creates model objects for the segments it actually needs.
+ */
+public interface URIPathParsable {
+
+	/**
+	 * Process object.
+	 *
+	 * @param node the node
+	 * @param uriKeys the uri keys
+	 * @throws AAIException the AAI exception
+	 */
+	public void processObject(URIPathNode node, Map<String, String> uriKeys) throws AAIException;
+	
+	/**
+	 * Process container.
+	 *
+	 * @param node the node
+	 * @param uriKeys the uri keys
+	 * @param isFinalContainer the is final container
+	 * @throws AAIException the AAI exception
+	 */
+	public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) throws AAIException;
+	
+	/**
+	 * Process namespace.
+	 *
+	 * @param node the node
+	 * @throws AAIException the AAI exception
+	 */
+	public void processNamespace(URIPathNode node) throws AAIException;
+	
+	/**
+	 * Use original loader.
+	 *
+	 * @return true, if successful
+	 */
+	public boolean useOriginalLoader();
+}
@@ -0,0 +1,252 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.parsers.uri;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openecomp.aai.introspection.ModelInjestor;
+import org.openecomp.aai.introspection.MoxyTypeMetadata;
+import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.workarounds.NamingExceptions;
+
+import com.google.common.base.CaseFormat;
+
+/**
+ * Every valid URI path of one version of the schema, worked out from the OXM when the
+ * models are loaded.
+ * 
+ * URIParser walks it a segment at a time to find out what each segment is, which keys
+ * follow it and whether it is allowed where it is - without creating any model objects.
+ * The rules are the ones the parser used to check against introspectors: a path starts
+ * from one of the namespaces under inventory (or from an abstract type) and each segment
+ * after that must be a property of the one before it, or of one of its inheritors if that
+ * one is abstract.
+ */
+public final class URIPathTrie {
+
+	private static final String ROOT = "inventory";
+	
+	private final Version version;
+	private final URIPathNode root;
+	private final Map<String, URIPathNode> types;
+	private final Map<String, URIPathNode> typesByClassName;
+	
+	/**
+	 * Instantiates a new URI path trie.
+	 *
+	 * @param version the version
+	 * @param root the root
+	 * @param types the types
+	 * @param typesByClassName the types by class name
+	 */
+	private URIPathTrie(Version version, URIPathNode root, Map<String, URIPathNode> types, Map<String, URIPathNode> typesByClassName) {
+		this.version = version;
+		this.root = root;
+		this.types = types;
+		this.typesByClassName = typesByClassName;
+	}
+	
+	/**
+	 * Gets the trie for a version.
+	 *
+	 * @param version the version
+	 * @return the trie, or null if the version was never loaded
+	 */
+	public static URIPathTrie forVersion(Version version) {
+		return ModelInjestor.getInstance().getURIPathTrie(version);
+	}
+	
+	/**
+	 * Builds the trie for a version from the metadata of its types.
+	 *
+	 * @param version the version
+	 * @param metadata the metadata of every type in the version
+	 * @return the URI path trie
+	 */
+	public static URIPathTrie build(Version version, Collection<MoxyTypeMetadata> metadata) {
+		NamingExceptions exceptions = NamingExceptions.getInstance();
+		Map<String, MoxyTypeMetadata> metadataByName = new HashMap<>();
+		Map<String, URIPathNode> types = new HashMap<>();
+		Map<String, URIPathNode> typesByClassName = new HashMap<>();
+		
+		for (MoxyTypeMetadata type : metadata) {
+			String name = type.getName();
+			URIPathNode.Role role;
+			if (!type.getKeys().isEmpty()) {
+				role = URIPathNode.Role.OBJECT;
+			} else if (type.isContainer()) {
+				role = URIPathNode.Role.CONTAINER;
+			} else {
+				role = URIPathNode.Role.NAMESPACE;
+			}
+			URIPathNode node = new URIPathNode(name, exceptions.getDBName(name), role, type.getKeys(), 
+					"true".equals(type.getDescriptor().getProperty("abstract")));
+			metadataByName.put(name, type);
+			types.put(name, node);
+			typesByClassName.put(type.getDynamicType().getJavaClass().getSimpleName(), node);
+		}
+		
+		for (URIPathNode node : types.values()) {
+			for (MoxyTypeMetadata source : propertySources(node, metadataByName)) {
+				for (String property : source.getProperties()) {
+					URIPathNode child = types.get(property);
+					if (child != null) {
+						node.addChild(child);
+					}
+				}
+			}
+		}
+		
+		URIPathNode root = types.get(ROOT);
+		if (root == null) {
+			root = new URIPathNode(ROOT, ROOT, URIPathNode.Role.NAMESPACE, Collections.<String>emptyList(), false);
+		}
+		
+		return new URIPathTrie(version, root, Collections.unmodifiableMap(types), Collections.unmodifiableMap(typesByClassName));
+	}
+	
+	/**
+	 * Gets the types whose properties are the children of a node - the type itself or, for
+	 * an abstract type, everything that inherits from it.
+	 *
+	 * @param node the node
+	 * @param metadataByName the metadata by name
+	 * @return the property sources
+	 */
+	private static List<MoxyTypeMetadata> propertySources(URIPathNode node, Map<String, MoxyTypeMetadata> metadataByName) {
+		List<MoxyTypeMetadata> result = new ArrayList<>();
+		MoxyTypeMetadata type = metadataByName.get(node.getName());
+		if (node.isAbstract()) {
+			String inheritors = (String)type.getDescriptor().getProperty("inheritors");
+			if (inheritors != null) {
+				for (String inheritor : inheritors.split(",")) {
+					MoxyTypeMetadata temp = metadataByName.get(inheritor.trim());
+					if (temp != null) {
+						result.add(temp);
+					}
+				}
+			}
+		} else {
+			result.add(type);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Gets the version.
+	 *
+	 * @return the version
+	 */
+	public Version getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the root, whose children are the namespaces a path may start from.
+	 *
+	 * @return the root
+	 */
+	public URIPathNode getRoot() {
+		return root;
+	}
+	
+	/**
+	 * Finds the node for the first segment of a path.
+	 *
+	 * @param segment the segment
+	 * @return the node, or null if a path can't start with the segment
+	 */
+	public URIPathNode start(String segment) {
+		URIPathNode result = this.next(root, segment);
+		if (result == null) {
+			URIPathNode type = this.getType(segment);
+			if (type != null && type.isAbstract()) {
+				result = type;
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Finds the node for a segment that follows another.
+	 *
+	 * @param previous the node of the previous segment
+	 * @param segment the segment
+	 * @return the node, or null if the segment can't follow the previous one
+	 */
+	public URIPathNode next(URIPathNode previous, String segment) {
+		String name = NamingExceptions.getInstance().getObjectName(segment);
+		URIPathNode result = previous.getChild(name);
+		if (result == null) {
+			//not spelt the way the schema names it, e.g. a class name
+			URIPathNode type = this.getType(segment);
+			if (type != null && previous.getChild(type.getName()) == type) {
+				result = type;
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Finds a type by name, wherever it may appear in a path.
+	 *
+	 * @param segment the segment
+	 * @return the type, or null if there is no such type in this version
+	 */
+	public URIPathNode getType(String segment) {
+		String name = NamingExceptions.getInstance().getObjectName(segment);
+		URIPathNode result = null;
+		if (hasUpperCase(name)) {
+			result = typesByClassName.get(name);
+		} else {
+			result = types.get(name);
+			if (result == null) {
+				result = typesByClassName.get(CaseFormat.LOWER_HYPHEN.to(CaseFormat.UPPER_CAMEL, name));
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Checks whether a segment is in upper camel case, which the loaders take to be a class name.
+	 *
+	 * @param name the name
+	 * @return true, if it has an upper case letter
+	 */
+	private static boolean hasUpperCase(String name) {
+		for (int i = 0; i < name.length(); i++) {
+			if (Character.isUpperCase(name.charAt(i))) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
@@ -27,7 +27,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.openecomp.aai.exceptions.AAIException;
-import org.openecomp.aai.introspection.Introspector;
 import org.openecomp.aai.introspection.Loader;
 
 import com.google.common.base.Joiner;
@@ -37,7 +36,7 @@ import com.google.common.base.Joiner;
  * 
  * The key is of the form node-type/key(s).
  */
-public class URIToDBKey implements Parsable {
+public class URIToDBKey implements URIPathParsable {
 
 	
 	private List<String> dbKeys = new ArrayList<>();
@@ -75,9 +74,9 @@ public class URIToDBKey implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processObject (Introspector obj, Map<String, String> uriKeys) {
+	public void processObject (URIPathNode node, Map<String, String> uriKeys) {
 		
-		dbKeys.add(obj.getDbName());
+		dbKeys.add(node.getDbName());
 
 		for (String key : uriKeys.keySet()) {
 			dbKeys.add(uriKeys.get(key).toString());
@@ -88,7 +87,7 @@ public class URIToDBKey implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processContainer (Introspector obj, Map<String, String> uriKeys, boolean isFinalContainer) {
+	public void processContainer (URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) {
 		
 	}
 	
@@ -96,18 +95,10 @@ public class URIToDBKey implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processNamespace(Introspector obj) {
+	public void processNamespace(URIPathNode node) {
 	
 	}
 	
-	/**
-	 * @{inheritDoc}
-	 */
-	@Override
-	public String getCloudRegionTransform() {
-		return "add";
-	}
-	
 	/**
 	 * Gets the result.
 	 *
@@ -30,6 +30,7 @@ import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.introspection.Introspector;
 import org.openecomp.aai.introspection.Loader;
 import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.serialization.db.RequestMemo;
 
 /**
  * Given a URI this class returns an object, or series of nested objects
@@ -40,7 +41,7 @@ import org.openecomp.aai.introspection.Version;
  
  *
  */
-public class URIToObject implements Parsable {
+public class URIToObject implements URIPathParsable {
 
 	
 	private Introspector topEntity = null;
@@ -58,6 +59,7 @@ public class URIToObject implements Parsable {
 	private Version version = null;
 	private Loader loader = null;
 	private final HashMap<String, Introspector> relatedObjects;
+	private final RequestMemo memo;
 	
 	/**
 	 * Instantiates a new URI to object.
@@ -69,18 +71,29 @@ public class URIToObject implements Parsable {
 	 * @throws UnsupportedEncodingException the unsupported encoding exception
 	 */
 	public URIToObject(Loader loader, URI uri) throws IllegalArgumentException, AAIException, UnsupportedEncodingException {
-		
-		URIParser parser = new URIParser(loader, uri);
-		this.relatedObjects = new HashMap<>();
-		
-		parser.parse(this);
-		this.loader = parser.getLoader();
-		this.version = loader.getVersion();
+		this(loader, uri, new HashMap<>(), RequestMemo.unscoped());
 	}
 	public URIToObject(Loader loader, URI uri, HashMap<String, Introspector> relatedObjects) throws IllegalArgumentException, AAIException, UnsupportedEncodingException {
+		this(loader, uri, relatedObjects, RequestMemo.unscoped());
+	}
+	
+	/**
+	 * Instantiates a new URI to object.
+	 *
+	 * @param loader the loader
+	 * @param uri the uri
+	 * @param relatedObjects the related objects
+	 * @param memo the memo of the request this is part of
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	public URIToObject(Loader loader, URI uri, HashMap<String, Introspector> relatedObjects, RequestMemo memo) throws IllegalArgumentException, AAIException, UnsupportedEncodingException {
 		
 		URIParser parser = new URIParser(loader, uri);
 		this.relatedObjects = relatedObjects;
+		this.loader = loader;
+		this.memo = memo;
 
 		parser.parse(this);
 		this.loader = parser.getLoader();
@@ -92,8 +105,9 @@ public class URIToObject implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processObject(Introspector obj, Map<String, String> uriKeys) {
+	public void processObject(URIPathNode node, Map<String, String> uriKeys) {
 		
+		Introspector obj = memo.introspectorFromName(loader, node.getName());
 		if (this.entityName == null) {
 			this.topEntityName = obj.getDbName();
 			this.topEntity = obj;
@@ -130,8 +144,9 @@ public class URIToObject implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processContainer(Introspector  obj, Map<String, String> uriKeys, boolean isFinalContainer) {
+	public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) {
 		
+		Introspector obj = memo.introspectorFromName(loader, node.getName());
 		this.previous = obj;
 
 		if (this.entity != null) {
@@ -144,18 +159,10 @@ public class URIToObject implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processNamespace(Introspector obj) {
+	public void processNamespace(URIPathNode node) {
 	
 	}
 	
-	/**
-	 * @{inheritDoc}
-	 */
-	@Override
-	public String getCloudRegionTransform() {
-		return "add";
-	}
-	
 	/**
 	 * @{inheritDoc}
 	 */
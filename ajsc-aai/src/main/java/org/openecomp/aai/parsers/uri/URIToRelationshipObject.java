@@ -35,6 +35,7 @@ import org.openecomp.aai.introspection.Version;
 import org.openecomp.aai.logging.AAILogger;
 import org.openecomp.aai.logging.LogLineBuilder;
 import org.openecomp.aai.rest.LegacyMoxyConsumer;
+import org.openecomp.aai.serialization.db.RequestMemo;
 import org.openecomp.aai.util.AAIApiServerURLBase;
 import org.openecomp.aai.util.AAIConfig;
 import org.openecomp.aai.workarounds.LegacyURLTransformer;
@@ -48,7 +49,7 @@ import org.openecomp.aai.workarounds.NamingExceptions;
  
  *
  */
-public class URIToRelationshipObject implements Parsable {
+public class URIToRelationshipObject implements URIPathParsable {
 
 	private final String className = URIToRelationshipObject.class.getSimpleName();
 	
@@ -68,6 +69,8 @@ public class URIToRelationshipObject implements Parsable {
 	
 	private Loader loader = null;
 	
+	private RequestMemo memo = null;
+	
 	/**
 	 * Instantiates a new URI to relationship object.
 	 *
@@ -79,12 +82,28 @@ public class URIToRelationshipObject implements Parsable {
 	 * @throws MalformedURLException the malformed URL exception
 	 */
 	public URIToRelationshipObject(Loader loader, URI uri) throws IllegalArgumentException, AAIException, UnsupportedEncodingException, MalformedURLException {
+		this(loader, uri, RequestMemo.unscoped());
+	}
+	
+	/**
+	 * Instantiates a new URI to relationship object.
+	 *
+	 * @param loader the loader
+	 * @param uri the uri
+	 * @param memo the memo of the request this is part of
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws MalformedURLException the malformed URL exception
+	 */
+	public URIToRelationshipObject(Loader loader, URI uri, RequestMemo memo) throws IllegalArgumentException, AAIException, UnsupportedEncodingException, MalformedURLException {
 		
 		this.loader = loader;
+		this.memo = memo;
 		exceptions = NamingExceptions.getInstance();
 		urlTransformer = LegacyURLTransformer.getInstance();
 		originalVersion = loader.getVersion();
-		relationship = loader.introspectorFromName("relationship");
+		relationship = memo.introspectorFromName(loader, "relationship");
 		URIParser parser = new URIParser(loader, uri);
 		parser.parse(this);
 		URI originalUri = parser.getOriginalURI();
@@ -108,34 +127,26 @@ public class URIToRelationshipObject implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public String getCloudRegionTransform(){
-		return "remove";
-	}
-	
-	/**
-	 * @{inheritDoc}
-	 */
-	@Override
-	public void processObject(Introspector obj, Map<String, String> uriKeys) {
+	public void processObject(URIPathNode node, Map<String, String> uriKeys) {
 		
 
 		for (String key : uriKeys.keySet()) {
 			
-			Introspector data = loader.introspectorFromName("relationship-data");
-			data.setValue("relationship-key", obj.getDbName() + "." + key);
+			Introspector data = memo.introspectorFromName(loader, "relationship-data");
+			data.setValue("relationship-key", node.getDbName() + "." + key);
 			data.setValue("relationship-value", uriKeys.get(key));
 			
 			((List<Object>)relationship.getValue("relationship-data")).add(data.getUnderlyingObject());
 		
 		}
-		relationship.setValue("related-to", obj.getDbName());
+		relationship.setValue("related-to", node.getDbName());
 	}
 	
 	/**
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processContainer(Introspector obj, Map<String, String> uriKeys, boolean isFinalContainer) {
+	public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) {
 		
 	}
 
@@ -143,7 +154,7 @@ public class URIToRelationshipObject implements Parsable {
 	 * @{inheritDoc}
 	 */
 	@Override
-	public void processNamespace(Introspector obj) {
+	public void processNamespace(URIPathNode node) {
 	
 	}
 	
@@ -162,6 +162,7 @@ public class BulkAddConsumer extends RESTAPI {
 					allResponses.add(responses);
 					if (results.getValue0()) { //everything was processed without error
 						g.commit();
+						httpEntry.publishURIs();
 					} else { //something failed
 						g.rollback();
 					}
@@ -127,6 +127,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 		Loader loader = null;
 		TransactionalGraphEngine dbEngine = null;
 		TitanTransaction g = null;
+		HttpEntry httpEntry = null;
 		boolean success = true;
 		LogLineBuilder llBuilder = new LogLineBuilder(transId, sourceOfTruth);
 		LogLine logline = llBuilder.build(COMPONENT,  HttpMethod.PUT_EDGE.toString());
@@ -135,7 +136,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
    			this.validateRequest(uri, headers, req, Action.PUT, info, logline);
    			Version version = Version.valueOf(versionParam);
    			version = Version.valueOf(versionParam);
-			HttpEntry httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
+			httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
 			loader = httpEntry.getLoader();
 			dbEngine = httpEntry.getDbEngine();
    			
@@ -166,6 +167,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 			if (g != null) {
 				if (success) {
 					g.commit();
+					httpEntry.publishURIs();
 					aaiLogger.info(logline, true, "0");
 				} else {
 					g.rollback();
@@ -225,13 +227,14 @@ public class LegacyMoxyConsumer extends RESTAPI {
 		Response response = null;
 		TransactionalGraphEngine dbEngine = null;
 		TitanTransaction g = null;
+		HttpEntry httpEntry = null;
 		LogLineBuilder llBuilder = new LogLineBuilder(transId, sourceOfTruth);
 		LogLine logline = llBuilder.build(COMPONENT,  HttpMethod.GET.toString());
 
 		try {
 			this.validateRequest(uri, headers, req, Action.GET, info, logline);
 			Version version = Version.valueOf(versionParam);
-			HttpEntry httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
+			httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
 			dbEngine = httpEntry.getDbEngine();
 			
 			
@@ -272,6 +275,8 @@ public class LegacyMoxyConsumer extends RESTAPI {
 				} else {
 					g.rollback();
 				}
+				// a read without cleanup only saw committed data
+				httpEntry.publishURIs();
 				aaiLogger.info(logline, true, "0");
 			}
 		}
@@ -305,6 +310,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 				.type(outputMediaType).build();
 				
 		TitanTransaction g = null;
+		HttpEntry httpEntry = null;
 		boolean success = true;
 		LogLineBuilder llBuilder = new LogLineBuilder(transId, sourceOfTruth);
 		LogLine logline = llBuilder.build(COMPONENT,  HttpMethod.DELETE.toString());
@@ -313,7 +319,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 
 			this.validateRequest(uri, headers, req, Action.DELETE, info, logline);
 			Version version = Version.valueOf(versionParam);
-			HttpEntry httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
+			httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
 			dbEngine = httpEntry.getDbEngine();
 			
 			g = dbEngine.getGraph().newTransaction();
@@ -341,6 +347,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 			if (g != null) {
 				if (success) {
 					g.commit();
+					httpEntry.publishURIs();
 					aaiLogger.info(logline, true, "0");
 				} else {
 					g.rollback();
@@ -380,6 +387,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 				.type(outputMediaType).build();
 	
 		TitanTransaction g = null;
+		HttpEntry httpEntry = null;
 		boolean success = true;
 		LogLineBuilder llBuilder = new LogLineBuilder(transId, sourceOfTruth);
 		LogLine logline = llBuilder.build(COMPONENT,  HttpMethod.DELETE_EDGE.toString());
@@ -387,7 +395,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 		try {
 			this.validateRequest(uri, headers, req, Action.DELETE, info, logline);
 			Version version = Version.valueOf(versionParam);
-			HttpEntry httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
+			httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
 			loader = httpEntry.getLoader();
 			dbEngine = httpEntry.getDbEngine();
 			
@@ -420,6 +428,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 			if (g != null) {
 				if (success) {
 					g.commit();
+					httpEntry.publishURIs();
 					aaiLogger.info(logline, true, "0");
 				} else {
 					g.rollback();
@@ -514,6 +523,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 		String transId = headers.getRequestHeaders().getFirst("X-TransactionId");
 
 		TitanTransaction g = null;
+		HttpEntry httpEntry = null;
 
 		Boolean success = true;
 		LogLineBuilder llBuilder = new LogLineBuilder(transId, sourceOfTruth);
@@ -524,7 +534,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 			this.validateRequest(uri, headers, req, Action.PUT, info, logline);
 
 			version = Version.valueOf(versionParam);
-			HttpEntry httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
+			httpEntry = new HttpEntry(version, introspectorFactoryType, queryStyle, llBuilder);
 			loader = httpEntry.getLoader();
 			dbEngine = httpEntry.getDbEngine();
 			
@@ -567,6 +577,7 @@ public class LegacyMoxyConsumer extends RESTAPI {
 			if (g != null) {
 				if (success) {
 					g.commit();
+					httpEntry.publishURIs();
 					aaiLogger.info(logline, true, "0");
 				} else {
 					g.rollback();
@@ -102,6 +102,7 @@ public class URLFromVertexIdConsumer extends RESTAPI {
 				throw new AAIException("AAI_6114", "no node at that vertex id");
 			}
 			URI uri = serializer.getURIForVertex(thisVertex.next());
+			serializer.publishURIs();
 
 			result.append(uri.getRawPath());
 			result.insert(0, version);
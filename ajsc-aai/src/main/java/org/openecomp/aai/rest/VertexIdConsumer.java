@@ -120,6 +120,7 @@ public class VertexIdConsumer extends RESTAPI {
 			vertexListWrapper.add(thisVertex);
 			String cleanUp = "false";
 			obj = serializer.dbToObject(vertexListWrapper, obj, depth, cleanUp);
+			serializer.publishURIs();
 			if (obj != null) {
 				status = Status.OK;
 				//this tells it to include the xml root in the marshalled object
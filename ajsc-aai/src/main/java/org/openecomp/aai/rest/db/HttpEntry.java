@@ -20,7 +20,6 @@
 
 package org.openecomp.aai.rest.db;
 
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
@@ -37,7 +36,6 @@ import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriBuilder;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.javatuples.Pair;
 import org.openecomp.aai.domain.responseMessage.AAIResponseMessage;
@@ -47,7 +45,6 @@ import org.openecomp.aai.extensions.AAIExtensionMap;
 import org.openecomp.aai.extensions.ExtensionController;
 import org.openecomp.aai.introspection.Introspector;
 import org.openecomp.aai.introspection.Loader;
-import org.openecomp.aai.introspection.LoaderFactory;
 import org.openecomp.aai.introspection.MarshallerProperties;
 import org.openecomp.aai.introspection.ModelInjestor;
 import org.openecomp.aai.introspection.ModelType;
@@ -59,16 +56,17 @@ import org.openecomp.aai.logging.LogLineBuilder;
 import org.openecomp.aai.parsers.query.QueryParser;
 import org.openecomp.aai.parsers.uri.URIToExtensionInformation;
 import org.openecomp.aai.rest.HttpMethod;
+import org.openecomp.aai.rest.ueb.NotificationBuildMetrics;
+import org.openecomp.aai.rest.ueb.NotificationBuildMetrics.Mode;
 import org.openecomp.aai.rest.ueb.UEBNotification;
+import org.openecomp.aai.serialization.db.ChangeSet;
 import org.openecomp.aai.serialization.db.DBSerializer;
+import org.openecomp.aai.serialization.engines.EngineRegistry;
 import org.openecomp.aai.serialization.engines.QueryStyle;
-import org.openecomp.aai.serialization.engines.TitanDBEngine;
 import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+import org.openecomp.aai.util.AAIConfig;
+import org.openecomp.aai.util.AAIConstants;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.fge.jsonpatch.JsonPatchException;
-import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
 import com.thinkaurelius.titan.core.TitanTransaction;
 
 /**
@@ -90,6 +88,10 @@ public class HttpEntry {
 	
 	private boolean processSingle = true;
 	
+	private final boolean fullNotificationReread;
+	
+	private DBSerializer lastSerializer = null;
+	
 	protected static AAILogger aaiLogger = new AAILogger(HttpEntry.class.getName());
 	
 	/**
@@ -105,11 +107,10 @@ public class HttpEntry {
 		this.queryStyle = queryStyle;
 		this.version = version;
 		this.llBuilder = llBuilder;
-		this.loader = LoaderFactory.createLoaderForVersion(introspectorFactoryType, version, llBuilder);
-		this.dbEngine = new TitanDBEngine(
-				queryStyle,
-				loader);
-		
+		EngineRegistry registry = EngineRegistry.getInstance();
+		this.loader = registry.getLoader(introspectorFactoryType, version, llBuilder);
+		this.dbEngine = registry.getEngine(queryStyle, loader);
+		this.fullNotificationReread = "true".equals(AAIConfig.get(AAIConstants.AAI_NOTIFICATION_FULL_REREAD, "false"));
 		
 	}
 	
@@ -157,6 +158,16 @@ public class HttpEntry {
 	public TransactionalGraphEngine getDbEngine() {
 		return dbEngine;
 	}
+	
+	/**
+	 * Shares the uris the last process call resolved, moved or removed with other requests.
+	 * Only call this once its transaction has been committed.
+	 */
+	public void publishURIs() {
+		if (lastSerializer != null) {
+			lastSerializer.publishURIs();
+		}
+	}
 
 	/**
 	 * Process.
@@ -169,12 +180,13 @@ public class HttpEntry {
 	 */
 	public Pair<Boolean, List<Pair<URI, Response>>> process (TitanTransaction g, List<DBRequest> requests, String sourceOfTruth) throws AAIException {
 		DBSerializer serializer = new DBSerializer(version, dbEngine, g, introspectorFactoryType, sourceOfTruth, llBuilder);
+		lastSerializer = serializer;
 		Response response = null;
 		Status status = Status.NOT_FOUND;
 		Introspector obj = null;
 		QueryParser query = null;
 		URI uri = null;
-		UEBNotification	notification = new UEBNotification(loader);
+		UEBNotification	notification = new UEBNotification(loader, serializer.getRequestMemo());
 		int depth = Integer.MAX_VALUE;
 		List<Pair<URI,Response>> responses = new ArrayList<>();
 		MultivaluedMap<String, String> params = null;
@@ -188,10 +200,11 @@ public class HttpEntry {
 				query = request.getParser();
 				uriTemp = request.getUri().getRawPath().replaceFirst("^v\\d+/", "");
 				uri = UriBuilder.fromPath(uriTemp).build();
-				List<Vertex> vertices = dbEngine.getQueryEngine().executeQuery(g, query.getQueryBuilder());
+				ResolvedQuery resolved = new ResolvedQuery(dbEngine.getQueryEngine(), g, query, serializer.getRequestMemo());
+				List<Vertex> vertices = resolved.getVertices();
 				boolean isNewVertex = false;
 				String outputMediaType = getMediaType(request.getHeaders().getAcceptableMediaTypes());
-				String result = null;
+				Object result = null;
 				params = request.getInfo().getQueryParameters(false);
 				depth = setDepth(params.getFirst("depth"));
 				String cleanUp = params.getFirst("cleanup");
@@ -234,7 +247,12 @@ public class HttpEntry {
 				HashMap<String, Introspector> relatedObjects = new HashMap<>();
 				switch (method) {
 					case GET:
-						obj = this.getObjectFromDb(serializer, g, query, obj, request.getUri(), depth, cleanUp);
+						if (this.isStreamable(outputMediaType, depth, cleanUp)) {
+							result = new VertexStreamingOutput(dbEngine, loader, vertices, this.getObjectType(query), depth, sourceOfTruth, llBuilder);
+							status = Status.OK;
+							break;
+						}
+						obj = this.getObjectFromDb(serializer, resolved, obj, request.getUri(), depth, cleanUp);
 						if (obj != null) {
 							status = Status.OK;
 							MarshallerProperties properties = 
@@ -245,17 +263,19 @@ public class HttpEntry {
 						break;
 					case PUT:
 						response = this.invokeExtension(dbEngine, g, method, request.getTransactionId(), sourceOfTruth, version, loader, obj, uri, request.getHeaders(), true);
-						serializer.serializeToDb(obj, v, query, uri.getRawPath());
+						ChangeSet changes = serializer.serializeToDb(obj, v, query, uri.getRawPath());
+						resolved.matched(v);
 						this.invokeExtension(dbEngine, g, HttpMethod.PUT, request.getTransactionId(), sourceOfTruth, version, loader, obj, uri, request.getHeaders(), false);
 						status = Status.OK;
 						if (isNewVertex) {
 							status = Status.CREATED;
+						} else if (changes.isEmpty()) {
+							//nothing changed, so there's nothing to stamp or announce
+							break;
+						} else {
+							serializer.touchStandardVertexProperties(v, false);
 						}
-						obj = serializer.getLatestVersionView(v);
-						if (query.isDependent()) {
-							relatedObjects = this.getRelatedObjects(serializer, v);
-						}
-						notification.createNotificationEvent(sourceOfTruth, status, uri, obj, relatedObjects);
+						this.notifyWrite(serializer, notification, sourceOfTruth, status, uri, query, obj, v);
 						
 						break;
 					case PUT_EDGE:
@@ -263,28 +283,14 @@ public class HttpEntry {
 						status = Status.OK;
 						break;
 					case MERGE_PATCH:
-						Introspector existingObj = (Introspector) obj.clone();
-						existingObj = this.getObjectFromDb(serializer, g, query, existingObj, request.getUri(), depth, cleanUp);
-						String existingJson = existingObj.marshal(false);
-						String newJson = request.getRawContent();
-						ObjectMapper mapper = new ObjectMapper();
-						try {
-							JsonNode existingNode = mapper.readTree(existingJson);
-							JsonNode newNode = mapper.readTree(newJson);
-							JsonMergePatch patch = JsonMergePatch.fromJson(newNode);
-							JsonNode completed = patch.apply(existingNode);
-							String patched = mapper.writeValueAsString(completed);
-							Introspector patchedObj = loader.unmarshal(existingObj.getName(), patched);
-							serializer.serializeToDb(patchedObj, v, query, uri.getRawPath());
-							status = Status.OK;
-							patchedObj = serializer.getLatestVersionView(v);
-							if (query.isDependent()) {
-								relatedObjects = this.getRelatedObjects(serializer, v);
-							}
-							notification.createNotificationEvent(sourceOfTruth, status, uri, patchedObj, relatedObjects);
-						} catch (IOException | JsonPatchException e) {
-							throw new AAIException("AAI_3000", "could not perform patch operation");
+						if (isNewVertex) {
+							String msg = createNotFoundMessage(query.getResultType(), request.getUri());
+							throw new AAIException("AAI_6114", msg);
 						}
+						Introspector patchedObj = serializer.getRequestMemo().introspectorFromName(loader, query.getResultType());
+						serializer.mergePatch(patchedObj, v, request.getRawContent());
+						status = Status.OK;
+						this.notifyWrite(serializer, notification, sourceOfTruth, status, uri, query, patchedObj, v);
 						break;
 					case DELETE:
 						String resourceVersion = params.getFirst("resource-version");
@@ -312,7 +318,7 @@ public class HttpEntry {
 				 * since we presently have no other way of generating those id urls
 				*/
 				if (response == null && (method.equals(HttpMethod.PUT) || method.equals(HttpMethod.GET))) {
-					List<Vertex> results = dbEngine.getQueryEngine().executeQuery(g, query.getQueryBuilder());
+					List<Vertex> results = resolved.getVertices();
 					Vertex myvert = results.get(0);
 					String myvertid = myvert.id().toString();
 					response = Response.status(status)
@@ -359,6 +365,11 @@ public class HttpEntry {
 		}
 		
 		notification.triggerEvents();
+		if (aaiLogger.isDebugEnabled()) {
+			LogLine line = llBuilder.build(HttpEntry.class.getSimpleName(), "process");
+			serializer.getRequestMemo().addTo(line);
+			aaiLogger.debug(line, "request memo");
+		}
 		Pair<Boolean, List<Pair<URI, Response>>> tuple = Pair.with(success, responses);
 		return tuple;
 	}
@@ -383,8 +394,7 @@ public class HttpEntry {
 	 * Gets the object from db.
 	 *
 	 * @param serializer the serializer
-	 * @param g the g
-	 * @param query the query
+	 * @param resolved the resolved query
 	 * @param obj the obj
 	 * @param uri the uri
 	 * @param depth the depth
@@ -400,16 +410,11 @@ public class HttpEntry {
 	 * @throws UnsupportedEncodingException the unsupported encoding exception
 	 * @throws MalformedURLException the malformed URL exception
 	 */
-	private Introspector getObjectFromDb(DBSerializer serializer, Graph g, QueryParser query, Introspector obj, URI uri, int depth, String cleanUp) throws AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException, UnsupportedEncodingException, MalformedURLException {
-        String objType = "";
-        if (!query.getContainerType().equals("")) {
-        	objType = query.getContainerType();
-        } else {
-        	objType = query.getResultType();
-        }
+	private Introspector getObjectFromDb(DBSerializer serializer, ResolvedQuery resolved, Introspector obj, URI uri, int depth, String cleanUp) throws AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException, UnsupportedEncodingException, MalformedURLException {
         
-        obj = loader.introspectorFromName(objType);
-        List<Vertex> results = dbEngine.getQueryEngine().executeQuery(g, query.getQueryBuilder());
+        QueryParser query = resolved.getQuery();
+        obj = serializer.getRequestMemo().introspectorFromName(loader, this.getObjectType(query));
+        List<Vertex> results = resolved.getVertices();
         //nothing found
         if (results.size() == 0) {
         	String msg = createNotFoundMessage(query.getResultType(), uri);
@@ -420,6 +425,42 @@ public class HttpEntry {
         return obj;
 	}
 	
+	/**
+	 * Gets the type of object a query returns.
+	 *
+	 * @param query the query
+	 * @return the object type
+	 */
+	private String getObjectType(QueryParser query) {
+        String objType = "";
+        if (!query.getContainerType().equals("")) {
+        	objType = query.getContainerType();
+        } else {
+        	objType = query.getResultType();
+        }
+        
+        return objType;
+	}
+	
+	/**
+	 * Checks if a GET can be streamed straight from the graph.
+	 * 
+	 * Only full depth json reads without cleanup are streamed, those are the ones
+	 * that build the largest object trees.
+	 *
+	 * @param outputMediaType the output media type
+	 * @param depth the depth
+	 * @param cleanUp the clean up
+	 * @return true, if is streamable
+	 */
+	private boolean isStreamable(String outputMediaType, int depth, String cleanUp) {
+		
+		return "true".equals(AAIConfig.get(AAIConstants.AAI_REST_GET_STREAMING, "false"))
+				&& MediaType.APPLICATION_JSON.equals(outputMediaType)
+				&& depth == Integer.MAX_VALUE
+				&& !"true".equals(cleanUp);
+	}
+	
 	/**
 	 * Invoke extension.
 	 *
@@ -560,7 +601,7 @@ public class HttpEntry {
 	private boolean isModificationMethod(HttpMethod method) {
 		boolean result = false;
 		
-		if (method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PUT_EDGE) || method.equals(HttpMethod.DELETE_EDGE)) {
+		if (method.equals(HttpMethod.PUT_EDGE) || method.equals(HttpMethod.DELETE_EDGE)) {
 			result = true;
 		}
 		
@@ -568,6 +609,50 @@ public class HttpEntry {
 		
 	}
 	
+	/**
+	 * Raises the notification event for an object that was just written.
+	 * 
+	 * The event carries the object as it was written, with any relationship-list or child
+	 * container the payload left out read back from the graph, unless aai.notification.fullreread
+	 * asks for the whole object to be read back.
+	 *
+	 * @param serializer the serializer that wrote it
+	 * @param notification the notification
+	 * @param sourceOfTruth the source of truth
+	 * @param status the status
+	 * @param uri the uri
+	 * @param query the query
+	 * @param written the object that was written
+	 * @param v the vertex it was written to
+	 * @throws AAIException the AAI exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws SecurityException the security exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws MalformedURLException the malformed URL exception
+	 */
+	private void notifyWrite(DBSerializer serializer, UEBNotification notification, String sourceOfTruth, Status status, URI uri, QueryParser query, Introspector written, Vertex v) throws AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException, UnsupportedEncodingException, MalformedURLException {
+		long start = System.nanoTime();
+		Introspector obj = null;
+		Mode mode = null;
+		if (fullNotificationReread) {
+			obj = serializer.getLatestVersionView(v);
+			mode = Mode.FULL_REREAD;
+		} else {
+			obj = serializer.getWrittenView(written);
+			mode = Mode.INCREMENTAL;
+		}
+		HashMap<String, Introspector> relatedObjects = new HashMap<>();
+		if (query.isDependent()) {
+			relatedObjects = this.getRelatedObjects(serializer, v);
+		}
+		notification.createNotificationEvent(sourceOfTruth, status, uri, obj, relatedObjects);
+		NotificationBuildMetrics.getInstance().record(mode, System.nanoTime() - start);
+	}
+	
 	private HashMap<String, Introspector> getRelatedObjects(DBSerializer serializer, Vertex v) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException, UnsupportedEncodingException, MalformedURLException, AAIException {
 		HashMap<String, Introspector> relatedVertices = new HashMap<>();
 		List<Vertex> vertexChain = dbEngine.getQueryEngine().findParents(v);
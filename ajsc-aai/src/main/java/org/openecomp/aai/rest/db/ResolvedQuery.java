@@ -0,0 +1,99 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.rest.db;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.serialization.db.RequestMemo;
+import org.openecomp.aai.serialization.engines.query.QueryEngine;
+
+/**
+ * The vertices a request's uri matches, found once and carried through the request.
+ * 
+ * The traversal only runs again if the request changed what it would match and said
+ * so with {@link #invalidate()}.  A write that knows the vertex it created or updated
+ * can hand it over with {@link #matched(Vertex)} instead.
+ */
+public class ResolvedQuery {
+
+	private final QueryEngine queryEngine;
+	private final Graph g;
+	private final QueryParser query;
+	private final RequestMemo memo;
+	private List<Vertex> vertices = null;
+	
+	/**
+	 * Instantiates a new resolved query.
+	 *
+	 * @param queryEngine the query engine
+	 * @param g the g
+	 * @param query the query
+	 * @param memo the memo that counts the traversals
+	 */
+	public ResolvedQuery(QueryEngine queryEngine, Graph g, QueryParser query, RequestMemo memo) {
+		this.queryEngine = queryEngine;
+		this.g = g;
+		this.query = query;
+		this.memo = memo;
+	}
+	
+	/**
+	 * Gets the vertices, running the traversal if they aren't known yet.
+	 *
+	 * @return the vertices
+	 */
+	public List<Vertex> getVertices() {
+		if (vertices == null) {
+			vertices = queryEngine.executeQuery(g, query.getQueryBuilder());
+			memo.recordTraversal();
+		}
+		
+		return vertices;
+	}
+	
+	/**
+	 * Records the vertex the uri now matches, after a write created or updated it.
+	 *
+	 * @param v the v
+	 */
+	public void matched(Vertex v) {
+		vertices = Collections.singletonList(v);
+	}
+	
+	/**
+	 * Forgets the vertices so the next call runs the traversal again.
+	 */
+	public void invalidate() {
+		vertices = null;
+	}
+	
+	/**
+	 * Gets the query.
+	 *
+	 * @return the query
+	 */
+	public QueryParser getQuery() {
+		return query;
+	}
+}
@@ -0,0 +1,254 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.rest.db;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.ErrorLogHelper;
+import org.openecomp.aai.logging.LogLine;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.serialization.db.DBSerializer;
+import org.openecomp.aai.serialization.db.JsonVertexWriter;
+import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+import org.openecomp.aai.util.AAIConfig;
+import org.openecomp.aai.util.AAIConstants;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.thinkaurelius.titan.core.TitanTransaction;
+
+/**
+ * Response entity that writes a GET result straight from the graph.
+ * 
+ * The request's transaction is closed by the time the entity is written, so the
+ * matched vertices are carried by id and read again in a transaction of its own.
+ * A vertex that is gone by then fails the request with a 404.
+ * 
+ * The response is held back until aai.rest.get.streaming.buffer.kb has been written,
+ * so a failure before then still gets an error status and body. After that the
+ * status is on the wire; a failure aborts the write so the client sees a broken
+ * response rather than a 200 with truncated json.
+ */
+public class VertexStreamingOutput implements StreamingOutput {
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+	private static AAILogger aaiLogger = new AAILogger(VertexStreamingOutput.class.getName());
+	private final String className = VertexStreamingOutput.class.getSimpleName();
+	private final TransactionalGraphEngine dbEngine;
+	private final Loader loader;
+	private final List<Object> vertexIds;
+	private final String objType;
+	private final int depth;
+	private final String sourceOfTruth;
+	private final LogLineBuilder llBuilder;
+	
+	/**
+	 * Instantiates a new vertex streaming output.
+	 *
+	 * @param dbEngine the db engine
+	 * @param loader the loader
+	 * @param vertices the vertices
+	 * @param objType the obj type
+	 * @param depth the depth
+	 * @param sourceOfTruth the source of truth
+	 * @param llBuilder the ll builder
+	 */
+	public VertexStreamingOutput(TransactionalGraphEngine dbEngine, Loader loader, List<Vertex> vertices, String objType, int depth, String sourceOfTruth, LogLineBuilder llBuilder) {
+		this.dbEngine = dbEngine;
+		this.loader = loader;
+		this.objType = objType;
+		this.depth = depth;
+		this.sourceOfTruth = sourceOfTruth;
+		this.llBuilder = llBuilder;
+		this.vertexIds = new ArrayList<>();
+		for (Vertex v : vertices) {
+			vertexIds.add(v.id());
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(OutputStream output) throws IOException, WebApplicationException {
+		HoldBackOutputStream held = new HoldBackOutputStream(output, getBufferBytes());
+		TitanTransaction g = dbEngine.getGraph().newTransaction();
+		try {
+			List<Vertex> vertices = new ArrayList<>();
+			for (Object id : vertexIds) {
+				Iterator<Vertex> iterator = g.vertices(id);
+				if (!iterator.hasNext()) {
+					throw new AAIException("AAI_6114", "No Node of type " + objType + " found for vertex id " + id);
+				}
+				vertices.add(iterator.next());
+			}
+			DBSerializer serializer = new DBSerializer(loader.getVersion(), dbEngine, g, loader.getModelType(), sourceOfTruth, llBuilder);
+			Introspector obj = loader.introspectorFromName(objType);
+			JsonGenerator gen = jsonFactory.createGenerator(held, JsonEncoding.UTF8);
+			JsonVertexWriter writer = new JsonVertexWriter(serializer, dbEngine, gen, llBuilder);
+			writer.write(vertices, obj, depth, "false");
+			serializer.publishURIs();
+			gen.flush();
+			held.release();
+		} catch (Exception e) {
+			AAIException ex = e instanceof AAIException ? (AAIException)e : new AAIException("AAI_4000", e);
+			aaiLogger.error(ex.getErrorObject(), llBuilder.build(className, "stream response"), e);
+			if (held.isReleased()) {
+				//the generator is never closed, so the json is left unterminated
+				throw new IOException("response failed after " + held.getCount() + " bytes were sent", e);
+			}
+			throw new WebApplicationException(e, this.errorResponse(ex));
+		} finally {
+			g.rollback();
+		}
+	}
+	
+	/**
+	 * Builds the error response for a failure before anything was sent.
+	 *
+	 * @param ex the ex
+	 * @return the response
+	 */
+	private Response errorResponse(AAIException ex) {
+		ArrayList<String> templateVars = new ArrayList<String>();
+		templateVars.add("GET");
+		templateVars.add(objType);
+		templateVars.addAll(ex.getTemplateVars());
+		
+		return Response
+				.status(ex.getErrorObject().getHTTPResponseCode())
+				.entity(ErrorLogHelper.getRESTAPIErrorResponse(Collections.singletonList(MediaType.APPLICATION_JSON_TYPE), ex, templateVars, new LogLine()))
+				.type(MediaType.APPLICATION_JSON_TYPE)
+				.build();
+	}
+	
+	/**
+	 * Gets how much of the response is held back.
+	 *
+	 * @return the buffer size in bytes
+	 */
+	private static int getBufferBytes() {
+		int kb = AAIConstants.AAI_REST_GET_STREAMING_DEFAULT_BUFFER_KB;
+		try {
+			kb = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_REST_GET_STREAMING_BUFFER_KB, Integer.toString(kb)));
+		} catch (NumberFormatException e) {
+			// Don't worry, we'll just use the default that we got from AAIConstants
+		}
+		
+		return Math.max(0, kb) * 1024;
+	}
+	
+	/**
+	 * Keeps what is written in memory until it outgrows the limit or is released,
+	 * then passes everything through to the real output.
+	 */
+	static class HoldBackOutputStream extends OutputStream {
+		
+		private final OutputStream output;
+		private final int limit;
+		private ByteArrayOutputStream held;
+		private long count = 0;
+		
+		/**
+		 * Instantiates a new hold back output stream.
+		 *
+		 * @param output the output
+		 * @param limit the most bytes held back
+		 */
+		HoldBackOutputStream(OutputStream output, int limit) {
+			this.output = output;
+			this.limit = limit;
+			this.held = new ByteArrayOutputStream(Math.min(limit, 8192));
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			this.write(new byte[] { (byte)b }, 0, 1);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			count += len;
+			if (held != null && held.size() + len <= limit) {
+				held.write(b, off, len);
+				return;
+			}
+			this.release();
+			output.write(b, off, len);
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			if (held == null) {
+				output.flush();
+			}
+		}
+		
+		/**
+		 * Sends what was held back and stops holding anything back.
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		void release() throws IOException {
+			if (held != null) {
+				ByteArrayOutputStream pending = held;
+				held = null;
+				pending.writeTo(output);
+			}
+		}
+		
+		/**
+		 * Checks if anything has been sent.
+		 *
+		 * @return true, if released
+		 */
+		boolean isReleased() {
+			return held == null;
+		}
+		
+		/**
+		 * Gets the number of bytes written.
+		 *
+		 * @return the count
+		 */
+		long getCount() {
+			return count;
+		}
+	}
+
+}
@@ -135,6 +135,8 @@ public class TransLogRestProvider extends RESTAPI  {
 	 * @param putFilter the put filter
 	 * @param resourceFilter the resource filter
 	 * @param fromAppIdFilter the from app id filter
+	 * @param pageSize the most entries to return, the configured page size if not given
+	 * @param continuationToken the token returned with the previous page
 	 * @return the response
 	 */
 	@GET
@@ -148,7 +150,9 @@ public class TransLogRestProvider extends RESTAPI  {
 			@QueryParam("getFilter") String getFilter,
 			@QueryParam("putFilter") String putFilter,
 			@QueryParam("resourceFilter") String resourceFilter,
-			@QueryParam("fromAppIdFilter") String fromAppIdFilter
+			@QueryParam("fromAppIdFilter") String fromAppIdFilter,
+			@QueryParam("pageSize") int pageSize,
+			@QueryParam("continuationToken") String continuationToken
 			) { 
 		String sb = new String();
 		TransactionLogEntries txs = null;
@@ -204,7 +208,7 @@ public class TransLogRestProvider extends RESTAPI  {
 				methodList.add("PUT");
 			}
 			txn = new AAITxnLog(transId, fromAppId);
-			txs = txn.scanFiltered(startMillis, endMillis, methodList, putFilter, getFilter, resourceFilter, fromAppIdFilter);
+			txs = txn.scanFiltered(startMillis, endMillis, methodList, putFilter, getFilter, resourceFilter, fromAppIdFilter, pageSize, continuationToken);
 		
 		if (txs == null) 
 			throw new AAIException("AAI_3001", sb); 
@@ -0,0 +1,125 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.rest.ueb;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How long it takes to build the notification event for a write, kept separately for
+ * events built from the object as written and events built by reading it back.
+ */
+public class NotificationBuildMetrics {
+
+	/**
+	 * Where the entity in the event came from.
+	 */
+	public enum Mode {
+		
+		/** The object as it was written, with the values the graph filled in. */
+		INCREMENTAL,
+		
+		/** The object read back from the graph at full depth. */
+		FULL_REREAD
+	}
+	
+	private final Map<Mode, Timer> timers = new EnumMap<>(Mode.class);
+	
+	private static class Helper {
+		private static final NotificationBuildMetrics INSTANCE = new NotificationBuildMetrics();
+	}
+	
+	/**
+	 * Gets the single instance of NotificationBuildMetrics.
+	 *
+	 * @return single instance of NotificationBuildMetrics
+	 */
+	public static NotificationBuildMetrics getInstance() {
+		return Helper.INSTANCE;
+	}
+	
+	/**
+	 * Instantiates a new notification build metrics.
+	 */
+	NotificationBuildMetrics() {
+		for (Mode mode : Mode.values()) {
+			timers.put(mode, new Timer());
+		}
+	}
+	
+	/**
+	 * Records the time one event took to build.
+	 *
+	 * @param mode the mode
+	 * @param nanos the nanos
+	 */
+	public void record(Mode mode, long nanos) {
+		Timer timer = timers.get(mode);
+		timer.count.incrementAndGet();
+		timer.totalNanos.addAndGet(nanos);
+		long max = timer.maxNanos.get();
+		while (nanos > max && !timer.maxNanos.compareAndSet(max, nanos)) {
+			max = timer.maxNanos.get();
+		}
+	}
+	
+	/**
+	 * Gets the number of events built.
+	 *
+	 * @param mode the mode
+	 * @return the count
+	 */
+	public long getCount(Mode mode) {
+		return timers.get(mode).count.get();
+	}
+	
+	/**
+	 * Gets the average time an event took to build.
+	 *
+	 * @param mode the mode
+	 * @return the average micros
+	 */
+	public double getAverageMicros(Mode mode) {
+		Timer timer = timers.get(mode);
+		long count = timer.count.get();
+		return count == 0 ? 0 : (double)TimeUnit.NANOSECONDS.toMicros(timer.totalNanos.get()) / count;
+	}
+	
+	/**
+	 * Gets the longest an event took to build.
+	 *
+	 * @param mode the mode
+	 * @return the max micros
+	 */
+	public long getMaxMicros(Mode mode) {
+		return TimeUnit.NANOSECONDS.toMicros(timers.get(mode).maxNanos.get());
+	}
+	
+	/**
+	 * The running totals for one mode.
+	 */
+	private static class Timer {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+	}
+}
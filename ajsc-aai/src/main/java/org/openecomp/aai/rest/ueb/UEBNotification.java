@@ -31,10 +31,12 @@ import javax.ws.rs.core.Response.Status;
 import org.openecomp.aai.db.AAIProperties;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.IntrospectorConverter;
 import org.openecomp.aai.introspection.Loader;
 import org.openecomp.aai.introspection.LoaderFactory;
 import org.openecomp.aai.introspection.Version;
 import org.openecomp.aai.parsers.uri.URIToObject;
+import org.openecomp.aai.serialization.db.RequestMemo;
 import org.openecomp.aai.util.AAIConfig;
 
 /**
@@ -53,16 +55,31 @@ public class UEBNotification {
 	
 	private Version notificationVersion = null;
 	
+	private final IntrospectorConverter converter = IntrospectorConverter.getInstance();
+	
+	private final RequestMemo memo;
+	
 	/**
 	 * Instantiates a new UEB notification.
 	 *
 	 * @param loader the loader
 	 */
 	public UEBNotification(Loader loader) {
+		this(loader, RequestMemo.unscoped());
+	}
+	
+	/**
+	 * Instantiates a new UEB notification.
+	 *
+	 * @param loader the loader
+	 * @param memo the memo of the request the events belong to
+	 */
+	public UEBNotification(Loader loader, RequestMemo memo) {
 	
+		this.memo = memo;
 		events = new ArrayList<>();
 		this.loader = loader;
-		this.currentVersionLoader = LoaderFactory.createLoaderForVersion(loader.getModelType(), AAIProperties.LATEST, loader.getLogLineBuilder());
+		this.currentVersionLoader = LoaderFactory.getLoader(loader.getModelType(), AAIProperties.LATEST, loader.getLogLineBuilder());
 		urlBase = AAIConfig.get("aai.server.url.base","");
 		notificationVersion = Version.valueOf(AAIConfig.get("aai.notification.current.version","v8"));
 	}
@@ -93,9 +110,9 @@ public class UEBNotification {
 //		if (cloudRegionWorkaround.isAffected(uri)) {
 //			uri = cloudRegionWorkaround.addToUri(uri);
 //		}
-		Introspector eventHeader = currentVersionLoader.introspectorFromName("notification-event-header");
+		Introspector eventHeader = memo.introspectorFromName(currentVersionLoader, "notification-event-header");
 		
-		URIToObject parser = new URIToObject(currentVersionLoader, uri, relatedObjects);
+		URIToObject parser = new URIToObject(currentVersionLoader, uri, relatedObjects, memo);
 
 		String entityLink = urlBase + notificationVersion + "/" + uri;
 		
@@ -117,9 +134,8 @@ public class UEBNotification {
 		if (!parser.getTopEntity().equals(parser.getEntity())) {
 			Introspector child = obj;
 			if (!parser.getLoader().getVersion().equals(obj.getVersion())) {
-			String json = obj.marshal(false);
-				child = parser.getLoader().unmarshal(parser.getEntity().getName(), json);
-		} 
+				child = this.convert(obj, parser.getEntity().getName(), parser.getLoader());
+			}
 
 			//wrap the child object in its parents
 			parentList.add(child.getUnderlyingObject());
@@ -127,15 +143,12 @@ public class UEBNotification {
 		
 		//convert to most resent version
 		if (!parser.getLoader().getVersion().equals(currentVersionLoader.getVersion())) {
-			String json = "";
 			if (parser.getTopEntity().equals(parser.getEntity())) {
 				//convert the parent object passed in
-				json = obj.marshal(false);
-				eventObject = currentVersionLoader.unmarshal(obj.getName(), json);
+				eventObject = this.convert(obj, obj.getName(), currentVersionLoader);
 			} else {
 				//convert the object created in the parser
-				json = parser.getTopEntity().marshal(false);
-				eventObject = currentVersionLoader.unmarshal(parser.getTopEntity().getName(), json);
+				eventObject = this.convert(parser.getTopEntity(), parser.getTopEntity().getName(), currentVersionLoader);
 			}
 		} else {
 			if (parser.getTopEntity().equals(parser.getEntity())) {
@@ -152,6 +165,24 @@ public class UEBNotification {
 
 	}
 	
+	/**
+	 * Converts an object to the named type in the version of the target loader.
+	 *
+	 * @param obj the obj
+	 * @param targetName the name of the target type
+	 * @param targetLoader the target loader
+	 * @return the converted object
+	 * @throws AAIException if the target version doesn't have the type
+	 */
+	private Introspector convert(Introspector obj, String targetName, Loader targetLoader) throws AAIException {
+		Introspector result = converter.convert(obj, targetName, targetLoader);
+		if (result == null) {
+			throw new AAIException("AAI_6115", "Cannot build a notification for " + obj.getDbName() 
+					+ ": " + targetName + " does not exist in version " + targetLoader.getVersion());
+		}
+		return result;
+	}
+	
 	/**
 	 * Trigger events.
 	 *
@@ -0,0 +1,198 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.javatuples.Pair;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.logging.LogLine;
+
+/**
+ * The writes one call to serializeToDb actually made to the graph.
+ * 
+ * Properties that already hold the incoming value, children that are already there and
+ * edges that already exist are not written and do not show up here, so an empty change
+ * set means the request left the graph as it found it.
+ * 
+ * It also remembers which vertex each object in the payload went to, whether or not
+ * anything on that vertex changed.
+ */
+public class ChangeSet {
+
+	private int propertiesSet = 0;
+	private int propertiesRemoved = 0;
+	private int verticesCreated = 0;
+	private int verticesRemoved = 0;
+	private int edgesAdded = 0;
+	private int edgesRemoved = 0;
+	private final List<Pair<Introspector, Vertex>> objects = new ArrayList<>();
+	
+	/**
+	 * Records the vertex an object was serialized to.
+	 *
+	 * @param obj the obj
+	 * @param v the v
+	 */
+	void serialized(Introspector obj, Vertex v) {
+		objects.add(Pair.with(obj, v));
+	}
+	
+	/**
+	 * Records a property written to a vertex.
+	 */
+	void propertySet() {
+		propertiesSet++;
+	}
+	
+	/**
+	 * Records a property removed from a vertex.
+	 */
+	void propertyRemoved() {
+		propertiesRemoved++;
+	}
+	
+	/**
+	 * Records a vertex created.
+	 */
+	void vertexCreated() {
+		verticesCreated++;
+	}
+	
+	/**
+	 * Records vertices removed, along with whatever was under them.
+	 *
+	 * @param count the count
+	 */
+	void verticesRemoved(int count) {
+		verticesRemoved += count;
+	}
+	
+	/**
+	 * Records an edge added.
+	 */
+	void edgeAdded() {
+		edgesAdded++;
+	}
+	
+	/**
+	 * Records an edge removed.
+	 */
+	void edgeRemoved() {
+		edgesRemoved++;
+	}
+	
+	/**
+	 * Gets the properties set.
+	 *
+	 * @return the properties set
+	 */
+	public int getPropertiesSet() {
+		return propertiesSet;
+	}
+	
+	/**
+	 * Gets the properties removed.
+	 *
+	 * @return the properties removed
+	 */
+	public int getPropertiesRemoved() {
+		return propertiesRemoved;
+	}
+	
+	/**
+	 * Gets the vertices created.
+	 *
+	 * @return the vertices created
+	 */
+	public int getVerticesCreated() {
+		return verticesCreated;
+	}
+	
+	/**
+	 * Gets the vertices removed.
+	 *
+	 * @return the vertices removed
+	 */
+	public int getVerticesRemoved() {
+		return verticesRemoved;
+	}
+	
+	/**
+	 * Gets the edges added.
+	 *
+	 * @return the edges added
+	 */
+	public int getEdgesAdded() {
+		return edgesAdded;
+	}
+	
+	/**
+	 * Gets the edges removed.
+	 *
+	 * @return the edges removed
+	 */
+	public int getEdgesRemoved() {
+		return edgesRemoved;
+	}
+	
+	/**
+	 * Gets the objects serialized and the vertices they went to, parents before children.
+	 *
+	 * @return the objects
+	 */
+	public List<Pair<Introspector, Vertex>> getObjects() {
+		return objects;
+	}
+	
+	/**
+	 * Gets the number of changes.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return propertiesSet + propertiesRemoved + verticesCreated + verticesRemoved + edgesAdded + edgesRemoved;
+	}
+	
+	/**
+	 * Checks if nothing was written.
+	 *
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+	
+	/**
+	 * Adds the counts to a log line.
+	 *
+	 * @param line the line
+	 */
+	public void addTo(LogLine line) {
+		line.add("properties set", propertiesSet);
+		line.add("properties removed", propertiesRemoved);
+		line.add("vertices created", verticesCreated);
+		line.add("vertices removed", verticesRemoved);
+		line.add("edges added", edgesAdded);
+		line.add("edges removed", edgesRemoved);
+	}
+}
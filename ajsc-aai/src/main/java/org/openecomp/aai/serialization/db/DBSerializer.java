@@ -21,6 +21,7 @@
 package org.openecomp.aai.serialization.db;
 
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
@@ -28,9 +29,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
@@ -48,7 +52,6 @@ import org.javatuples.Pair;
 import org.openecomp.aai.db.AAIProperties;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.introspection.Introspector;
-import org.openecomp.aai.introspection.IntrospectorFactory;
 import org.openecomp.aai.introspection.Loader;
 import org.openecomp.aai.introspection.LoaderFactory;
 import org.openecomp.aai.introspection.ModelType;
@@ -64,6 +67,8 @@ import org.openecomp.aai.util.AAIConfig;
 import org.openecomp.aai.util.AAIConstants;
 
 import com.att.aft.dme2.internal.javaxwsrs.core.UriBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Joiner;
 import com.thinkaurelius.titan.core.SchemaViolationException;
 import com.thinkaurelius.titan.core.TitanException;
@@ -90,6 +95,14 @@ public class DBSerializer {
 	private EdgeRules edgeRules = EdgeRules.getInstance();
 	private Loader loader = null;
 	private final LogLineBuilder llBuilder;
+	private final Map<Object, String> uriMemo = new HashMap<>();
+	private final VertexURICache uriCache = VertexURICache.getInstance();
+	private final long uriCacheGeneration = uriCache.getGeneration();
+	private final Map<Object, String> resolvedURIs = new HashMap<>();
+	private final Set<Object> forgottenURIs = new HashSet<>();
+	private final Set<Object> damagedVertices = new HashSet<>();
+	private final RequestMemo memo = new RequestMemo();
+	private ChangeSet changes = new ChangeSet();
 
 	/**
 	 * Instantiates a new DB serializer.
@@ -104,7 +117,7 @@ public class DBSerializer {
 	public DBSerializer(Version version, TransactionalGraphEngine engine, Graph g, ModelType introspectionType, String sourceOfTruth, LogLineBuilder llBuilder) {
 		this(engine, g, introspectionType, sourceOfTruth, llBuilder);
 		this.version = version;
-		this.loader = LoaderFactory.createLoaderForVersion(introspectionType, version, llBuilder);
+		this.loader = LoaderFactory.getLoader(introspectionType, version, llBuilder);
 
 	}
 	
@@ -124,8 +137,17 @@ public class DBSerializer {
 		this.totalCount = engine.getCount();
 		this.sourceOfTruth = sourceOfTruth;
 		this.introspectionType = introspectionType;
-		this.loader = LoaderFactory.createLoaderForVersion(introspectionType, version, llBuilder);
-		this.latestLoader = LoaderFactory.createLoaderForVersion(introspectionType, AAIProperties.LATEST, llBuilder);
+		this.loader = LoaderFactory.getLoader(introspectionType, version, llBuilder);
+		this.latestLoader = LoaderFactory.getLoader(introspectionType, AAIProperties.LATEST, llBuilder);
+	}
+	
+	/**
+	 * Gets the memo of the lookups made by this serializer, which lasts as long as the request.
+	 *
+	 * @return the request memo
+	 */
+	public RequestMemo getRequestMemo() {
+		return memo;
 	}
 	
 	/**
@@ -173,6 +195,7 @@ public class DBSerializer {
 		Vertex v = graph.addVertex();
 		v.property(AAIProperties.NODE_TYPE, wrappedObject.getDbName());
 		touchStandardVertexProperties(v, true);
+		changes.vertexCreated();
 		return v;
 	}
 	
@@ -216,6 +239,7 @@ public class DBSerializer {
 	 * @param v the v
 	 * @param uriQuery the uri query
 	 * @param identifier the identifier
+	 * @return the changes written, empty if the object already matched the graph
 	 * @throws SecurityException the security exception
 	 * @throws IllegalAccessException the illegal access exception
 	 * @throws IllegalArgumentException the illegal argument exception
@@ -226,13 +250,14 @@ public class DBSerializer {
 	 * @throws AAIException the AAI exception
 	 * @throws UnsupportedEncodingException the unsupported encoding exception
 	 */
-	public void serializeToDb(Introspector obj, Vertex v, QueryParser uriQuery, String identifier) throws SecurityException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, InterruptedException, NoSuchMethodException, AAIException, UnsupportedEncodingException {
+	public ChangeSet serializeToDb(Introspector obj, Vertex v, QueryParser uriQuery, String identifier) throws SecurityException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, InterruptedException, NoSuchMethodException, AAIException, UnsupportedEncodingException {
 
 		int maxRetries = 10;
 		int objectCount = 1;
 		int retry = 0;
 		for (retry = 0; retry < maxRetries; ++retry) {
 			 try {
+				changes = new ChangeSet();
 				if (uriQuery.isDependent()) {
 					//try to find the parent
 					List<Vertex> vertices = engine.getQueryEngine().executeParentQuery(graph, uriQuery.getQueryBuilder());
@@ -251,6 +276,7 @@ public class DBSerializer {
 				 throw new AAIException("AAI_6117", e);
 			 } catch (TitanException e) {
 				graph.tx().rollback();
+				this.discardURIs();
 				AAIException ex = new AAIException("AAI_6142", e);
 				aaiLogger.error(ex.getErrorObject(), llBuilder.build(className, "serialize to db"), e);
 				Thread.sleep((retry + 1) * 20);
@@ -263,7 +289,181 @@ public class DBSerializer {
 		}
 		
 		totalCount.getAndAdd(objectCount);
+		if (aaiLogger.isDebugEnabled()) {
+			LogLine line = llBuilder.build(className, "serialize to db");
+			changes.addTo(line);
+			aaiLogger.debug(line, "change set of " + changes.size() + " for " + identifier);
+		}
+		
+		return changes;
+	}
+	
+	/**
+	 * Applies a JSON merge patch straight to a vertex and the children it names.
+	 * 
+	 * Only the properties in the patch are written.  A null removes a simple property; an
+	 * object merges into the single child it names, unless it gives that child different
+	 * keys; anything else, such as a container or a child with new keys, replaces what's
+	 * there the way a PUT of it would.  Nothing else under the vertex is read.
+	 *
+	 * @param view an empty object of the vertex's type, recorded as what was written
+	 * @param v the v
+	 * @param patch the merge patch
+	 * @return the changes written
+	 * @throws AAIException the AAI exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws InterruptedException the interrupted exception
+	 */
+	public ChangeSet mergePatch(Introspector view, Vertex v, String patch) throws AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, InterruptedException {
+		JsonNode node = null;
+		try {
+			node = new ObjectMapper().readTree(patch);
+		} catch (IOException e) {
+			throw new AAIException("AAI_3000", "could not perform patch operation");
+		}
+		if (node == null || !node.isObject()) {
+			throw new AAIException("AAI_3000", "could not perform patch operation");
+		}
+		Introspector partial = this.loader.unmarshal(view.getName(), patch);
+		if (partial == null) {
+			throw new AAIException("AAI_3000", "could not perform patch operation");
+		}
+		int maxRetries = 10;
+		int retry = 0;
+		for (retry = 0; retry < maxRetries; ++retry) {
+			try {
+				changes = new ChangeSet();
+				this.applyPatch(partial, v, node);
+				
+				break;
+			} catch (SchemaViolationException e) {
+				throw new AAIException("AAI_6117", e);
+			} catch (TitanException e) {
+				graph.tx().rollback();
+				this.discardURIs();
+				AAIException ex = new AAIException("AAI_6142", e);
+				aaiLogger.error(ex.getErrorObject(), llBuilder.build(className, "merge patch"), e);
+				Thread.sleep((retry + 1) * 20);
+				graph = engine.getGraph().newTransaction();
+			}
+		}
+		
+		if (retry == maxRetries) {
+			throw new AAIException("AAI_6134");
+		}
+		changes.serialized(view, v);
+		
+		return changes;
+	}
+	
+	/**
+	 * Applies the properties named in a patch to a vertex.
+	 *
+	 * @param partial the patch, as an object of the vertex's type
+	 * @param v the v
+	 * @param patch the patch
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	private void applyPatch(Introspector partial, Vertex v, JsonNode patch) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, NoSuchMethodException, SecurityException, AAIException, UnsupportedEncodingException {
+		List<Vertex> dependentVertexes = new ArrayList<>();
+		List<Vertex> processedVertexes = new ArrayList<>();
+		Map<String, String> defaults = this.getDefaults(partial);
+		//the patch needn't repeat the keys, but the uris of any children need them
+		for (String key : partial.getKeys()) {
+			if (partial.getValue(key) == null) {
+				this.copySimpleProperty(key, partial, v);
+			}
+		}
+		
+		Iterator<String> names = patch.fieldNames();
+		String property = null;
+		JsonNode value = null;
+		while (names.hasNext()) {
+			property = names.next();
+			value = patch.get(property);
+			if (!partial.hasProperty(property) || property.equals(AAIProperties.RESOURCE_VERSION)) {
+				continue;
+			}
+			if (value.isObject() && partial.isComplexType(property) && !property.equals("relationship-list")) {
+				Introspector child = memo.wrap(this.introspectionType, partial.getValue(property), llBuilder);
+				if (!child.isContainer()) {
+					Vertex target = this.mergeTarget(child, this.getDependentVertexesOfType(v, child.getDbName()));
+					if (target != null) {
+						child.setURIChain(partial.getURI());
+						this.applyPatch(child, target, value);
+						continue;
+					}
+				}
+			}
+			this.processProperty(partial, v, property, defaults, dependentVertexes, processedVertexes);
+		}
 		
+		for (Vertex toBeRemoved : processedVertexes) {
+			dependentVertexes.remove(toBeRemoved);
+		}
+		if (!dependentVertexes.isEmpty()) {
+			this.deleteItemsWithTraversal(dependentVertexes);
+			changes.verticesRemoved(dependentVertexes.size());
+		}
+	}
+	
+	/**
+	 * Picks the existing child a patched child object merges into.
+	 *
+	 * @param child the child, as patched
+	 * @param existing the vertices of the child's type under the patched vertex
+	 * @return the vertex to merge into, or null if the patch replaces what's there
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 */
+	Vertex mergeTarget(Introspector child, List<Vertex> existing) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		//new keys make it a different child, which replaces the old one
+		if (existing.size() == 1 && this.hasSameKeys(child, existing.get(0))) {
+			return existing.get(0);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Checks that the keys a patch gives for a child are the ones the child already has.
+	 *
+	 * @param child the child, as patched
+	 * @param v the child's vertex
+	 * @return true, if the patch leaves the keys out or repeats them
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 */
+	private boolean hasSameKeys(Introspector child, Vertex v) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		for (String key : child.getKeys()) {
+			Object patched = child.getValue(key);
+			if (patched != null && !patched.equals(this.getSimplePropertyValue(key, child, v))) {
+				return false;
+			}
+		}
+		
+		return true;
 	}
 	
 	/**
@@ -287,88 +487,114 @@ public class DBSerializer {
 	 * Handles all the property setting
 	 */
 	private <T> List<Vertex> processObject (Introspector obj, Vertex v) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, NoSuchMethodException, SecurityException, AAIException, UnsupportedEncodingException {
-		Object value = null;
 		int objectCount = 0;
-		String propertyType = "";
 		List<String> properties = obj.getProperties();
 		properties.remove(AAIProperties.RESOURCE_VERSION);
 		List<Vertex> dependentVertexes = new ArrayList<>();
 		List<Vertex> processedVertexes = new ArrayList<>();
-		boolean isComplexType = false;
-		boolean isListType = false;
+		Map<String, String> defaults = this.getDefaults(obj);
+		if (!obj.isContainer()) {
+			changes.serialized(obj, v);
+		}
 		
 		for (String property : properties) {
-			propertyType = obj.getType(property);
-			isComplexType = obj.isComplexType(property);
-			isListType = obj.isListType(property);
-			value = obj.getValue(property);
+			this.processProperty(obj, v, property, defaults, dependentVertexes, processedVertexes);
+		}
+		this.writeThroughDefaults(v, defaults);
+		/* handle those vertexes not touched */
+		for (Vertex toBeRemoved : processedVertexes) {
+			dependentVertexes.remove(toBeRemoved);
+		}
+		if (!dependentVertexes.isEmpty()) {
+			this.deleteItemsWithTraversal(dependentVertexes);
+			changes.verticesRemoved(dependentVertexes.size());
+		}
+		
+		this.totalCount.getAndAdd(objectCount);
+		return processedVertexes;
+	}
+	
+	/**
+	 * Writes one property of an object to its vertex.
+	 *
+	 * @param obj the obj
+	 * @param v the v
+	 * @param property the property
+	 * @param defaults the defaults of the object's required properties
+	 * @param dependentVertexes the children already under the vertex, which are removed unless processed
+	 * @param processedVertexes the children written
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	private void processProperty(Introspector obj, Vertex v, String property, Map<String, String> defaults, List<Vertex> dependentVertexes, List<Vertex> processedVertexes) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, NoSuchMethodException, SecurityException, AAIException, UnsupportedEncodingException {
+		String propertyType = obj.getType(property);
+		boolean isComplexType = obj.isComplexType(property);
+		boolean isListType = obj.isListType(property);
+		Object value = obj.getValue(property);
 
-			if (!(isComplexType || isListType)) {
-				if (value != null) {
-					if (propertyType.toLowerCase().contains(".long")) {
-						v.property(property, new Integer(((Long)value).toString()));
-					} else {
-						v.property(property, value);
-					}
+		if (!(isComplexType || isListType)) {
+			if (value != null) {
+				if (propertyType.toLowerCase().contains(".long")) {
+					this.setProperty(v, property, new Integer(((Long)value).toString()));
 				} else {
-					v.property(property).remove();
+					this.setProperty(v, property, value);
 				}
-			} else if (isListType) {
-				List list = (List)value;
-				if (obj.isComplexGenericType(property)) {
-					if (list != null) {
-						for (Object o : list) {
-							Introspector child = IntrospectorFactory.newInstance(this.introspectionType, o, llBuilder);
-							child.setURIChain(obj.getURI());
-							processedVertexes.add(reflectDependentVertex(v, child));
-						}
+			} else {
+				//removing a property that has a default would only have it written back
+				this.setProperty(v, property, defaults.get(property));
+			}
+		} else if (isListType) {
+			List list = (List)value;
+			if (obj.isComplexGenericType(property)) {
+				if (list != null) {
+					for (Object o : list) {
+						Introspector child = memo.wrap(this.introspectionType, o, llBuilder);
+						child.setURIChain(obj.getURI());
+						processedVertexes.add(reflectDependentVertex(v, child));
 					}
-				} else {
-					//simple list case
-					engine.setListProperty(v, property, list);
 				}
 			} else {
-				//method.getReturnType() is not 'simple' then create a vertex and edge recursively returning an edge back to this method
-				if (value != null) { //effectively ignore complex properties not included in the object we're processing
-					if (value.getClass().isArray()) {
-						
-						int length = Array.getLength(value);
-					    for (int i = 0; i < length; i ++) {
-					        Object arrayElement = Array.get(value, i);
-					        Introspector child = IntrospectorFactory.newInstance(this.introspectionType, arrayElement, llBuilder);
-							child.setURIChain(obj.getURI());
-							processedVertexes.add(reflectDependentVertex(v, child));
+				//simple list case
+				this.setListProperty(v, property, list);
+			}
+		} else {
+			//method.getReturnType() is not 'simple' then create a vertex and edge recursively returning an edge back to this method
+			if (value != null) { //effectively ignore complex properties not included in the object we're processing
+				if (value.getClass().isArray()) {
+					
+					int length = Array.getLength(value);
+				    for (int i = 0; i < length; i ++) {
+				        Object arrayElement = Array.get(value, i);
+				        Introspector child = memo.wrap(this.introspectionType, arrayElement, llBuilder);
+						child.setURIChain(obj.getURI());
+						processedVertexes.add(reflectDependentVertex(v, child));
 
-					    }
-					} else if (!property.equals("relationship-list")) {
-						// container case
-						Introspector introspector = IntrospectorFactory.newInstance(this.introspectionType, value, llBuilder);
-						if (introspector.isContainer()) {
-							dependentVertexes.addAll(this.getDependentVertexesOfType(v, introspector.getChildDBName()));
-							introspector.setURIChain(obj.getURI());
-							
-							processedVertexes.addAll(processObject(introspector, v));
+				    }
+				} else if (!property.equals("relationship-list")) {
+					// container case
+					Introspector introspector = memo.wrap(this.introspectionType, value, llBuilder);
+					if (introspector.isContainer()) {
+						dependentVertexes.addAll(this.getDependentVertexesOfType(v, introspector.getChildDBName()));
+						introspector.setURIChain(obj.getURI());
+						
+						processedVertexes.addAll(processObject(introspector, v));
 
-						} else {
-							dependentVertexes.addAll(this.getDependentVertexesOfType(v, introspector.getDbName()));
-							processedVertexes.add(reflectDependentVertex(v, introspector));
+					} else {
+						dependentVertexes.addAll(this.getDependentVertexesOfType(v, introspector.getDbName()));
+						processedVertexes.add(reflectDependentVertex(v, introspector));
 
-						}
-					} else if (property.equals("relationship-list")) {
-						handleRelationships(obj, v);
 					}
+				} else if (property.equals("relationship-list")) {
+					handleRelationships(obj, v);
 				}
 			}
 		}
-		this.writeThroughDefaults(v, obj);
-		/* handle those vertexes not touched */
-		for (Vertex toBeRemoved : processedVertexes) {
-			dependentVertexes.remove(toBeRemoved);
-		}
-		this.deleteItemsWithTraversal(dependentVertexes);
-		
-		this.totalCount.getAndAdd(objectCount);
-		return processedVertexes;
 	}
 	
 	/**
@@ -392,7 +618,7 @@ public class DBSerializer {
 		Object rl = null;
 	
 		rl = obj.getValue("relationship-list");
-		Introspector wrappedRl = IntrospectorFactory.newInstance(this.introspectionType, rl, llBuilder);
+		Introspector wrappedRl = memo.wrap(this.introspectionType, rl, llBuilder);
 		processRelationshipList(wrappedRl, vertex);
 		
 	
@@ -410,70 +636,128 @@ public class DBSerializer {
 	private void processRelationshipList(Introspector wrapped, Vertex v) throws UnsupportedEncodingException, AAIException {
 				
 		List<Object> relationships = (List<Object>)wrapped.getValue("relationship");
-	
-		Vertex cousinVertex = null;
-		Edge e = null;
-		List<Edge> existingEdges = new ArrayList<>();
-		GraphTraversal<Vertex, Edge> pipeline = graph.traversal().V(v).bothE().has("isParent", false).dedup();
-		
-		existingEdges = pipeline.toList();
+		if (relationships == null) {
+			relationships = new ArrayList<>();
+		}
+		List<Introspector> wrappedRels = new ArrayList<>(relationships.size());
 		for (Object relationship : relationships) {
-			Introspector wrappedRel = IntrospectorFactory.newInstance(this.introspectionType, relationship, llBuilder);
-			QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(wrappedRel);
-			
-			List<Vertex> results = engine.getQueryEngine().executeQuery(graph, parser.getQueryBuilder());
-			if (results.size() == 0) {
-				AAIException ex = new AAIException("AAI_6129", "Node of type " + parser.getResultType() + ". Could not find object at: " + parser.getUri());
-				List<String> templateVars = new ArrayList<>();
-				templateVars.add(parser.getResultType());
-				templateVars.add(parser.getUri().toString());
-				ex.setTemplateVars(templateVars);
-				throw ex;
-			} else { 
-				//still an issue if there's more than one
-				cousinVertex = results.get(0);
+			wrappedRels.add(memo.wrap(this.introspectionType, relationship, llBuilder));
+		}
+		List<Vertex> cousins = new RelationshipResolver(engine, graph, loader, memo).resolve(wrappedRels);
+	
+		//index the existing edges by label and the vertex on the other end
+		Map<Pair<String, Object>, Edge> existingEdges = new HashMap<>();
+		List<Edge> staleEdges = new ArrayList<>();
+		List<Edge> edges = graph.traversal().V(v).bothE().has("isParent", false).dedup().toList();
+		for (Edge edge : edges) {
+			Vertex other = edge.outVertex().id().equals(v.id()) ? edge.inVertex() : edge.outVertex();
+			if (existingEdges.putIfAbsent(new Pair<>(edge.label(), other.id()), edge) != null) {
+				staleEdges.add(edge);
 			}
-			
-			if (cousinVertex != null) {
-				e = this.getEdgeBetween(v, cousinVertex);
-				
-				if (e == null) {
-					edgeRules.addEdge(v, cousinVertex);
-				} else { 
-					existingEdges.remove(e);
-				}
+		}
+		
+		Set<Pair<String, Object>> kept = new HashSet<>();
+		List<Vertex> toAdd = new ArrayList<>();
+		for (Vertex cousinVertex : cousins) {
+			Pair<String, Object> key = new Pair<>(memo.getEdgeRule(v, cousinVertex).getLabel(), cousinVertex.id());
+			if (kept.add(key) && existingEdges.remove(key) == null) {
+				toAdd.add(cousinVertex);
 			}
 		}
 		
-		for (Edge edge : existingEdges) {
+		staleEdges.addAll(existingEdges.values());
+		for (Edge edge : staleEdges) {
 			edge.remove();
+			changes.edgeRemoved();
+		}
+		for (Vertex cousinVertex : toAdd) {
+			edgeRules.addEdge(v, cousinVertex);
+			changes.edgeAdded();
 		}
 
 	}
 	
 	/**
-	 * Write through defaults.
+	 * Sets a property, unless the vertex already has that value.
+	 *
+	 * @param v the v
+	 * @param property the property
+	 * @param value the value, or null to remove it
+	 */
+	private void setProperty(Vertex v, String property, Object value) {
+		Object current = v.<Object>property(property).orElse(null);
+		if (value == null) {
+			if (current != null) {
+				v.property(property).remove();
+				changes.propertyRemoved();
+			}
+		} else if (!value.equals(current)) {
+			v.property(property, value);
+			changes.propertySet();
+		}
+	}
+	
+	/**
+	 * Sets a list property, unless the vertex already has the same items in the same order.
 	 *
 	 * @param v the v
+	 * @param property the property
+	 * @param list the list
+	 */
+	private void setListProperty(Vertex v, String property, List<?> list) {
+		List<?> current = engine.getListProperty(v, property);
+		if (current == null) {
+			current = Collections.emptyList();
+		}
+		List<?> incoming = list;
+		if (incoming == null) {
+			incoming = Collections.emptyList();
+		}
+		if (!current.equals(incoming)) {
+			engine.setListProperty(v, property, list);
+			changes.propertySet();
+		}
+	}
+	
+	/**
+	 * Gets the default values of the required properties of an object.
+	 *
 	 * @param obj the obj
+	 * @return the defaults by property name
 	 */
-	private void writeThroughDefaults(Vertex v, Introspector obj) {
-		Introspector latest = this.latestLoader.introspectorFromName(obj.getName());
+	private Map<String, String> getDefaults(Introspector obj) {
+		Map<String, String> defaults = new HashMap<>();
+		Introspector latest = memo.introspectorFromName(this.latestLoader, obj.getName());
 		if (latest != null) {
 			List<String> required  = latest.getRequiredProperties();
 			String defaultValue = null;
-			Object vertexProp = null;
 			for (String field : required) {
 				defaultValue = latest.getPropertyMetadata(field).get("defaultValue");
 				if (defaultValue != null) {
-					vertexProp = v.<Object>property(field).orElse(null);
-					if (vertexProp == null) {
-						v.property(field, defaultValue);
-					}
+					defaults.put(field, defaultValue);
 				}
 			}
 		}
 		
+		return defaults;
+	}
+	
+	/**
+	 * Write through defaults.
+	 *
+	 * @param v the v
+	 * @param defaults the defaults
+	 */
+	private void writeThroughDefaults(Vertex v, Map<String, String> defaults) {
+		Object vertexProp = null;
+		for (Map.Entry<String, String> entry : defaults.entrySet()) {
+			vertexProp = v.<Object>property(entry.getKey()).orElse(null);
+			if (vertexProp == null) {
+				v.property(entry.getKey(), entry.getValue());
+				changes.propertySet();
+			}
+		}
+		
 	}
 
 	
@@ -539,6 +823,11 @@ public class DBSerializer {
 		Edge e = this.getEdgeBetween(parent, child);
 		if (e == null) {
 			edgeRules.addTreeEdge(parent, child);
+			changes.edgeAdded();
+			//the child and anything under it may have moved
+			for (Vertex moved : this.engine.getQueryEngine().findChildren(child)) {
+				this.forgetURI(moved.id());
+			}
 		}
 		
 		//e.setProperty("property-name", obj.getDbName());
@@ -583,7 +872,7 @@ public class DBSerializer {
 
 			for (Vertex v : vertices) {
 				Set<Vertex> seen = new HashSet<>();
-				Introspector childObject = obj.newIntrospectorInstanceOfNestedProperty(listProperty);
+				Introspector childObject = memo.newIntrospectorInstanceOfNestedProperty(obj, listProperty);
 				dbToObject(childObject, v, seen, depth, cleanUp);
 				getList.add(childObject.getUnderlyingObject());
 			}
@@ -647,7 +936,7 @@ public class DBSerializer {
 				/* container case */
 	
 					if (!property.equals("relationship-list") && depth >= 0) {
-						Introspector argumentObject = obj.newIntrospectorInstanceOfProperty(property);
+						Introspector argumentObject = memo.newIntrospectorInstanceOfProperty(obj, property);
 						Object result  = dbToObject(argumentObject, v, seen, depth+1, cleanUp);
 						if (result != null) {
 							obj.setValue(property, argumentObject.getUnderlyingObject());
@@ -674,7 +963,7 @@ public class DBSerializer {
 					if (obj.isComplexGenericType(property) && depth >= 0) {
 						childDbName = convertFromCamelCase(genericType);
 						String vType = v.<String>property(AAIProperties.NODE_TYPE).orElse(null);
-						EdgeRule rule = edgeRules.getEdgeRule(vType, childDbName);
+						EdgeRule rule = memo.getEdgeRule(vType, childDbName);
 						if (rule.getDirection().equals(Direction.OUT)) {
 							vertices = this.engine.getQueryEngine().findRelatedVertices(v, Direction.OUT, rule.getLabel(), childDbName);
 							
@@ -684,7 +973,7 @@ public class DBSerializer {
 							int removed = 0;
 							for (Vertex childVertex : vertices) {
 								if (!seen.contains(childVertex)) {
-									Introspector argumentObject = obj.newIntrospectorInstanceOfNestedProperty(property);
+									Introspector argumentObject = memo.newIntrospectorInstanceOfNestedProperty(obj, property);
 									
 									Object result = dbToObject(argumentObject, childVertex, seen, depth, cleanUp);
 									if (result != null) { 
@@ -727,12 +1016,89 @@ public class DBSerializer {
 		return obj;
 		
 	}
+	/**
+	 * Gets an object as the last call to serializeToDb wrote it.
+	 * 
+	 * The values the graph filled in, such as resource-version and defaults, are copied
+	 * from each vertex written onto the object that was written to it.  A relationship-list
+	 * or child container the payload left out is still in the graph, so it is read back
+	 * from there; what the payload did carry is not read again.
+	 *
+	 * @param obj the obj that was serialized
+	 * @return the obj
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 * @throws MalformedURLException the malformed URL exception
+	 */
+	public Introspector getWrittenView(Introspector obj) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
+		Introspector written = null;
+		Vertex v = null;
+		for (Pair<Introspector, Vertex> pair : changes.getObjects()) {
+			written = pair.getValue0();
+			v = pair.getValue1();
+			for (String property : written.getProperties()) {
+				if (written.isComplexType(property)) {
+					if (written.getValue(property) == null) {
+						this.copyLeftOut(property, written, v);
+					}
+					continue;
+				}
+				if (written.isListType(property)) {
+					continue;
+				}
+				if (property.equals(AAIProperties.RESOURCE_VERSION) || written.getValue(property) == null) {
+					this.copySimpleProperty(property, written, v);
+				}
+			}
+		}
+		
+		return obj;
+	}
+	
+	/**
+	 * Reads a relationship-list or child container that a payload left out back from the graph.
+	 *
+	 * @param property the property
+	 * @param obj the obj that was written
+	 * @param v the vertex it was written to
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 * @throws MalformedURLException the malformed URL exception
+	 */
+	private void copyLeftOut(String property, Introspector obj, Vertex v) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
+		if (property.equals("relationship-list")) {
+			Object relationshipList = createRelationshipList(v, obj.newInstanceOfProperty(property), "false");
+			if (relationshipList != null) {
+				obj.setValue(property, relationshipList);
+			}
+		} else {
+			Introspector container = memo.newIntrospectorInstanceOfProperty(obj, property);
+			Set<Vertex> seen = new HashSet<>();
+			seen.add(v);
+			if (dbToObject(container, v, seen, Integer.MAX_VALUE, "false") != null) {
+				obj.setValue(property, container.getUnderlyingObject());
+			}
+		}
+	}
+	
 	public Introspector getVertexProperties(Vertex v) throws AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException, UnsupportedEncodingException, MalformedURLException {
 		String nodeType = v.<String>property(AAIProperties.NODE_TYPE).orElse(null);
 		if (nodeType == null) {
 			throw new AAIException("AAI_6143");
 		}
-		Introspector obj = this.latestLoader.introspectorFromName(nodeType);
+		Introspector obj = memo.introspectorFromName(this.latestLoader, nodeType);
 		Set<Vertex> seen = new HashSet<>();
 		int depth = 0;
 		String cleanUp = "false";
@@ -746,7 +1112,7 @@ public class DBSerializer {
 		if (nodeType == null) {
 			throw new AAIException("AAI_6143");
 		}
-		Introspector obj = this.latestLoader.introspectorFromName(nodeType);
+		Introspector obj = memo.introspectorFromName(this.latestLoader, nodeType);
 		Set<Vertex> seen = new HashSet<>();
 		int depth = Integer.MAX_VALUE;
 		String cleanUp = "false";
@@ -768,6 +1134,27 @@ public class DBSerializer {
 	 * @throws SecurityException the security exception
 	 */
 	private void copySimpleProperty(String property, Introspector obj, Vertex v) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		Object temp = this.getSimplePropertyValue(property, obj, v);
+		if (temp != null) {
+			obj.setValue(property, temp);
+		}
+	}
+	
+	/**
+	 * Gets the value of a simple property from the vertex as the type the model expects.
+	 *
+	 * @param property the property
+	 * @param obj the obj
+	 * @param v the v
+	 * @return the value, or null if the vertex does not have the property
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 */
+	Object getSimplePropertyValue(String property, Introspector obj, Vertex v) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 		Object temp = v.<Object>property(property).orElse(null);
 		if (temp != null) {
 			/* this whole section is because of a disconnect between the types told to titan
@@ -782,8 +1169,8 @@ public class DBSerializer {
 				}
 				temp = argumentClass.getConstructor(String.class).newInstance(temp.toString());
 			}
-			obj.setValue(property, temp);
 		}
+		return temp;
 	}
 	
 	/**
@@ -825,26 +1212,21 @@ public class DBSerializer {
 	 * @throws AAIException the AAI exception
 	 * @throws MalformedURLException the malformed URL exception
 	 */
-	private Object createRelationshipList(Vertex v, Object obj, String cleanUp) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
+	Object createRelationshipList(Vertex v, Object obj, String cleanUp) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
 		
 		Iterator<Edge> inEdges = v.edges(Direction.IN);
 		Iterator<Edge> outEdges = v.edges(Direction.OUT);
 
-		Introspector wrappedRelationshipList = IntrospectorFactory.newInstance(introspectionType, obj, llBuilder);
+		Introspector wrappedRelationshipList = memo.wrap(this.introspectionType, obj, llBuilder);
 		List<Object> relationshipObjList = (List<Object>)wrappedRelationshipList.getValue("relationship");
-		Object temp = null;
+		List<Vertex> cousins = new ArrayList<>();
 		Object isParent = null;
 		Edge edge = null;
 		while (inEdges.hasNext()) {
 			edge = inEdges.next();
 			isParent = edge.<Boolean>property("isParent").orElse(null);
 			if (isParent == null || isParent.equals(Boolean.FALSE)) {
-				temp = wrappedRelationshipList.newInstanceOfNestedProperty("relationship");
-				Introspector relationshipObj = IntrospectorFactory.newInstance(introspectionType, temp, llBuilder);
-				Object result = processEdgeRelationship(relationshipObj, edge, Direction.OUT, cleanUp);
-				if (result != null) {
-					relationshipObjList.add(result);
-				}
+				cousins.add(edge.outVertex());
 			}
 		}
 		
@@ -852,12 +1234,18 @@ public class DBSerializer {
 			edge = outEdges.next();
 			isParent = edge.<Boolean>property("isParent").orElse(null);
 			if (isParent == null || isParent.equals(Boolean.FALSE)) {
-				temp = wrappedRelationshipList.newInstanceOfNestedProperty("relationship");
-				Introspector relationshipObj = IntrospectorFactory.newInstance(introspectionType, temp, llBuilder);
-				Object result = processEdgeRelationship(relationshipObj, edge, Direction.IN, cleanUp);
-				if (result != null) {
-					relationshipObjList.add(result);
-				}
+				cousins.add(edge.inVertex());
+			}
+		}
+		
+		Map<Object, List<Vertex>> chains = this.findParentChains(cousins);
+		Object temp = null;
+		for (Vertex cousin : cousins) {
+			temp = wrappedRelationshipList.newInstanceOfNestedProperty("relationship");
+			Introspector relationshipObj = memo.wrap(this.introspectionType, temp, llBuilder);
+			Object result = processEdgeRelationship(relationshipObj, chains.get(cousin.id()), cleanUp);
+			if (result != null) {
+				relationshipObjList.add(result);
 			}
 		}
 		
@@ -867,12 +1255,29 @@ public class DBSerializer {
 		return obj;
 	}
 	
+	/**
+	 * Finds the parent chains of all the cousins in one traversal.
+	 *
+	 * @param cousins the cousins
+	 * @return the parent chains keyed by vertex id
+	 */
+	private Map<Object, List<Vertex>> findParentChains(List<Vertex> cousins) {
+		List<Vertex> starts = new ArrayList<>();
+		Set<Object> ids = new HashSet<>();
+		for (Vertex cousin : cousins) {
+			if (ids.add(cousin.id())) {
+				starts.add(cousin);
+			}
+		}
+		
+		return this.engine.getQueryEngine().findParents(starts);
+	}
+	
 	/**
 	 * Process edge relationship.
 	 *
 	 * @param relationshipObj the relationship obj
-	 * @param edge the edge
-	 * @param direction the direction
+	 * @param chain the parent chain of the vertex on the other side of the edge
 	 * @param cleanUp the clean up
 	 * @return the object
 	 * @throws InstantiationException the instantiation exception
@@ -885,41 +1290,166 @@ public class DBSerializer {
 	 * @throws AAIException the AAI exception
 	 * @throws MalformedURLException the malformed URL exception
 	 */
-	private Object processEdgeRelationship(Introspector relationshipObj, Edge edge, Direction direction, String cleanUp) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
-		Vertex cousin = null;
+	private Object processEdgeRelationship(Introspector relationshipObj, List<Vertex> chain, String cleanUp) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException, AAIException, MalformedURLException {
 
-		if (direction.equals(Direction.IN)) {
-			cousin = edge.inVertex();
-		} else if (direction.equals(Direction.OUT)) {
-			cousin = edge.outVertex();
-		}
-		Pair<Vertex, List<Introspector>> tuple = this.getParents(cousin, true);
-		//damaged vertex found, ignore
-		if (tuple == null) {
+		//cousin vanished or is damaged, ignore
+		if (chain == null) {
 			return null;
 		}
-		List<Introspector> list = tuple.getValue1();
-		URI uri = this.getURIFromList(list);
+		String path = this.resolveURI(chain, true);
+		if (path == null) {
+			return null;
+		}
+		URI uri = UriBuilder.fromPath(path).build();
 		
 		URIToRelationshipObject uriParser = null;
 		try {
-			uriParser = new URIToRelationshipObject(this.loader, uri);
+			uriParser = new URIToRelationshipObject(this.loader, uri, memo);
 		} catch (AAIException e) {
+			Vertex top = chain.get(chain.size()-1);
 			LogLine line = llBuilder.build("seralizer", "processing edge relationship");
-			line.add("bad vertex id", tuple.getValue0().id().toString());
+			line.add("bad vertex id", top.id().toString());
 			aaiLogger.error(e.getErrorObject(), line, e);
 			if ("true".equals(cleanUp)) {
-				this.deleteWithTraversal(tuple.getValue0());
+				damagedVertices.add(top.id());
+				this.deleteWithTraversal(top);
 			}
 			return null;
 		}
 		Introspector result = uriParser.getResult();
-		if (list.size() > 0) {
-			this.addRelatedToProperty(result, list.get(0));
+		for (Vertex v : chain) {
+			Introspector child = memo.introspectorFromName(this.loader, v.<String>property(AAIProperties.NODE_TYPE).value());
+			if (child != null) {
+				this.simpleDbToObject(child, v);
+				this.addRelatedToProperty(result, child);
+				break;
+			}
 		}
 		return result.getUnderlyingObject();
 	}
 	
+	/**
+	 * Resolves the uri of the first vertex of a parent chain. The uri of every vertex
+	 * on the chain is remembered for the rest of the request, so cousins that share
+	 * ancestors only build the part of their uri below the closest known ancestor.
+	 *
+	 * @param chain the parent chain, starting with the vertex to resolve
+	 * @param removeDamaged the remove damaged
+	 * @return the uri, or null if the chain is damaged
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	private String resolveURI(List<Vertex> chain, boolean removeDamaged) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException {
+		
+		int known = chain.size();
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			Object id = chain.get(i).id();
+			//part of this chain was already removed
+			if (damagedVertices.contains(id)) {
+				return null;
+			}
+			if (this.knownURI(id) != null) {
+				known = i;
+			}
+		}
+		for (int i = 0; i < known; i++) {
+			Vertex v = chain.get(i);
+			//vertex on the other end of this edge is bad
+			if (v.<String>property(AAIProperties.NODE_TYPE).orElse(null) == null) {
+				//log something here about what was found and that it was removed
+				LogLine line = llBuilder.build(className, "getParents");
+				line.add("vertexid", v.id().toString());
+				AAIException e = new AAIException("AAI_6143");
+				aaiLogger.error(e.getErrorObject(), line, e);
+				damagedVertices.add(v.id());
+				if (removeDamaged) {
+					this.deleteWithTraversal(v);
+				}
+				return null;
+			}
+		}
+		
+		String uri = "";
+		if (known < chain.size()) {
+			uri = uriMemo.get(chain.get(known).id());
+		}
+		for (int i = known - 1; i >= 0; i--) {
+			Vertex v = chain.get(i);
+			Introspector obj = memo.introspectorFromName(this.loader, v.<String>property(AAIProperties.NODE_TYPE).value());
+			if (obj != null) {
+				this.simpleDbToObject(obj, v);
+				uri = uri + obj.getURI();
+			}
+			uriMemo.put(v.id(), uri);
+			resolvedURIs.put(v.id(), uri);
+		}
+		
+		return uri;
+	}
+	
+	/**
+	 * Gets the uri of a vertex if this request or an earlier one already resolved it.
+	 *
+	 * @param id the vertex id
+	 * @return the uri, or null if it still has to be resolved
+	 */
+	private String knownURI(Object id) {
+		String uri = uriMemo.get(id);
+		if (uri == null) {
+			uri = uriCache.get(id);
+			if (uri != null) {
+				uriMemo.put(id, uri);
+			}
+		}
+		
+		return uri;
+	}
+	
+	/**
+	 * Forgets the uri of a vertex that was removed or moved.
+	 *
+	 * @param id the vertex id
+	 */
+	private void forgetURI(Object id) {
+		uriMemo.remove(id);
+		resolvedURIs.remove(id);
+		forgottenURIs.add(id);
+		uriCache.invalidate(id);
+	}
+	
+	/**
+	 * Shares the uris this serializer resolved, moved or removed with other requests.
+	 * 
+	 * Until this is called they are only known to this request, so a rolled back transaction
+	 * never reaches the cache.  Call it once the transaction has been committed, or after a read.
+	 * Moved and removed vertices are dropped from the cache again, in case a request that
+	 * started before the commit put their old uri back.  Resolved uris are only cached when
+	 * nothing moved, here or in another request, while this serializer was in use.
+	 */
+	public void publishURIs() {
+		for (Object id : forgottenURIs) {
+			uriCache.invalidate(id);
+		}
+		if (forgottenURIs.isEmpty()) {
+			uriCache.putAll(resolvedURIs, uriCacheGeneration);
+		}
+		resolvedURIs.clear();
+		forgottenURIs.clear();
+	}
+	
+	/**
+	 * Drops the uris resolved in a transaction that was rolled back.
+	 */
+	private void discardURIs() {
+		uriMemo.clear();
+		resolvedURIs.clear();
+	}
+	
 	/**
 	 * Gets the URI for vertex.
 	 *
@@ -934,29 +1464,32 @@ public class DBSerializer {
 	 * @throws UnsupportedEncodingException the unsupported encoding exception
 	 */
 	public URI getURIForVertex(Vertex v) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, UnsupportedEncodingException {
+		String uri = this.knownURI(v.id());
+		if (uri != null) {
+			return UriBuilder.fromPath(uri).build();
+		}
 		Pair<Vertex, List<Introspector>> tuple = this.getParents(v, false);
-		List<Introspector> list = tuple.getValue1();
+		uri = this.getPathFromList(tuple.getValue1());
+		uriMemo.put(v.id(), uri);
+		resolvedURIs.put(v.id(), uri);
 		
-		return this.getURIFromList(list);
+		return UriBuilder.fromPath(uri).build();
 	}
 	
 	/**
-	 * Gets the URI from list.
+	 * Gets the path from list.
 	 *
 	 * @param list the list
-	 * @return the URI from list
+	 * @return the path from list
 	 * @throws UnsupportedEncodingException the unsupported encoding exception
 	 */
-	private URI getURIFromList(List<Introspector> list) throws UnsupportedEncodingException {
-		String uri = "";
+	private String getPathFromList(List<Introspector> list) throws UnsupportedEncodingException {
 		StringBuilder sb = new StringBuilder();
 		for (Introspector i : list) {
 			sb.insert(0, i.getURI());
 		}
 		
-		uri = sb.toString();
-		URI result = UriBuilder.fromPath(uri).build();
-		return result;
+		return sb.toString();
 	}
 	
 	/**
@@ -992,7 +1525,7 @@ public class DBSerializer {
 				}
 				shortCircuit = true;
 			} else {
-				Introspector obj = this.loader.introspectorFromName(nodeType);
+				Introspector obj = memo.introspectorFromName(this.loader, nodeType);
 				if (obj != null) {
 					this.simpleDbToObject(obj, v);
 					objs.add(obj);
@@ -1023,7 +1556,7 @@ public class DBSerializer {
 		if (nameProps != null) {
 			String[] props = nameProps.split(",");
 			for (String prop : props) {
-				Introspector relatedTo = this.loader.introspectorFromName("related-to-property");
+				Introspector relatedTo = memo.introspectorFromName(this.loader, "related-to-property");
 				relatedTo.setValue("property-key", child.getDbName() + "." + prop);
 				relatedTo.setValue("property-value", child.getValue(prop));
 				relatedToProperties.add(relatedTo);
@@ -1096,7 +1629,7 @@ public class DBSerializer {
 		List<Edge> result = new ArrayList<>();
 		
 		if (inVertex != null) {
-				EdgeRule rule = edgeRules.getEdgeRule(outVertex, inVertex);
+				EdgeRule rule = memo.getEdgeRule(outVertex, inVertex);
 				GraphTraversal<Vertex, Edge> findEdgesBetween = null;
 				findEdgesBetween = graph.traversal().V(outVertex).bothE().filter(__.otherV().hasId(inVertex.id()));
 				List<Edge> edges = findEdgesBetween.toList();
@@ -1203,6 +1736,7 @@ public class DBSerializer {
 		List<Vertex> results = this.engine.getQueryEngine().findDeletable(startVertex);
 		
 		for (Vertex v : results) {
+			this.forgetURI(v.id());
 			v.remove();
 		}
 		
@@ -1234,6 +1768,7 @@ public class DBSerializer {
 					}
 				} catch (TitanException e) {
 					graph.tx().rollback();
+					this.discardURIs();
 					AAIException ex = new AAIException("AAI_6142", e);
 					aaiLogger.error(ex.getErrorObject(), llBuilder.build(className, "delete vertex"), e);
 					Thread.sleep((retry + 1) * 20);
@@ -1385,7 +1920,7 @@ public class DBSerializer {
 	 * @param name the name
 	 * @return the string
 	 */
-	private String convertFromCamelCase (String name) {
+	String convertFromCamelCase (String name) {
 		
 		Pattern p = Pattern.compile("(?:[A-Z][a-z0-9]+)|(?:[A-Z]+(?=[A-Z]))");
 		Matcher m = p.matcher(name);
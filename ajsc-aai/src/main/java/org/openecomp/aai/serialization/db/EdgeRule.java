@@ -20,27 +20,76 @@
 
 package org.openecomp.aai.serialization.db;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
 public class EdgeRule {
 
-	private String label = "";
-	private MultiplicityRule multiplicityRule = null;
-	private Direction direction = null;
-	private Map<String, String> edgeProperties = null;
-	private final String IS_PARENT = "isParent";
-	private final String USES_RESOURCE  = "usesResource";
-	private final String HAS_DEL_TARGET = "hasDelTarget";
-	private final String SVC_INFRA = "SVC-INFRA";
+	private static final String IS_PARENT = "isParent";
+	private static final String USES_RESOURCE  = "usesResource";
+	private static final String HAS_DEL_TARGET = "hasDelTarget";
+	private static final String SVC_INFRA = "SVC-INFRA";
+	
+	private final String label;
+	private final MultiplicityRule multiplicityRule;
+	private final Direction direction;
+	private final Map<String, String> edgeProperties;
+	private final Object[] propertyKeyValues;
+	private final String edgeOutType;
+	private final String edgeInType;
+	private final String multiplicityViolation;
 	
 	/**
 	 * Instantiates a new edge rule.
-	 */
-	public EdgeRule() {
-		edgeProperties = new HashMap<>();
+	 *
+	 * @param outType the out type it was looked up with
+	 * @param inType the in type it was looked up with
+	 * @param label the label
+	 * @param direction the direction
+	 * @param multiplicityRule the multiplicity rule
+	 * @param isParent the is parent
+	 * @param usesResource the uses resource
+	 * @param hasDelTarget the has del target
+	 * @param serviceInfrastructure the service infrastructure
+	 */
+	EdgeRule(String outType, String inType, String label, Direction direction, MultiplicityRule multiplicityRule, String isParent, String usesResource, String hasDelTarget, String serviceInfrastructure) {
+		this.label = label;
+		this.direction = direction;
+		this.multiplicityRule = multiplicityRule;
+		
+		Map<String, String> props = new HashMap<>();
+		props.put(IS_PARENT, isParent);
+		props.put(USES_RESOURCE, usesResource);
+		props.put(HAS_DEL_TARGET, hasDelTarget);
+		props.put(SVC_INFRA, serviceInfrastructure);
+		this.edgeProperties = Collections.unmodifiableMap(props);
+		
+		// Every tag is written along with its "-REV" twin, "reverse" sets the twin instead
+		List<Object> keyValues = new ArrayList<>();
+		for (Map.Entry<String, String> entry : props.entrySet()) {
+			String value = entry.getValue();
+			if ("true".equals(value) || "false".equals(value) || "reverse".equals(value)) {
+				keyValues.add(entry.getKey());
+				keyValues.add("true".equals(value));
+				keyValues.add(entry.getKey() + "-REV");
+				keyValues.add("reverse".equals(value));
+			}
+		}
+		this.propertyKeyValues = keyValues.toArray();
+		
+		if (Direction.IN.equals(direction)) {
+			this.edgeOutType = inType;
+			this.edgeInType = outType;
+		} else {
+			this.edgeOutType = outType;
+			this.edgeInType = inType;
+		}
+		this.multiplicityViolation = "multiplicity rule violated: only one edge can exist with label: " + label + " between " + edgeOutType + " and " + edgeInType;
 	}
 	
 	/**
@@ -52,15 +101,6 @@ public class EdgeRule {
 		return label;
 	}
 	
-	/**
-	 * Sets the label.
-	 *
-	 * @param label the new label
-	 */
-	public void setLabel(String label) {
-		this.label = label;
-	}
-	
 	/**
 	 * Gets the multiplicity rule.
 	 *
@@ -70,15 +110,6 @@ public class EdgeRule {
 		return multiplicityRule;
 	}
 	
-	/**
-	 * Sets the multiplicity rule.
-	 *
-	 * @param multiplicityRule the new multiplicity rule
-	 */
-	public void setMultiplicityRule(MultiplicityRule multiplicityRule) {
-		this.multiplicityRule = multiplicityRule;
-	}
-	
 	/**
 	 * Gets the direction.
 	 *
@@ -88,31 +119,13 @@ public class EdgeRule {
 		return direction;
 	}
 	
-	/**
-	 * Sets the direction.
-	 *
-	 * @param direction the new direction
-	 */
-	public void setDirection(Direction direction) {
-		this.direction = direction;
-	}
-	
 	/**
 	 * Gets the checks if is parent.
 	 *
 	 * @return the checks if is parent
 	 */
 	public String getIsParent() {
-		return this.getProp(this.IS_PARENT);
-	}
-	
-	/**
-	 * Sets the checks if is parent.
-	 *
-	 * @param isParent the new checks if is parent
-	 */
-	public void setIsParent(String isParent) {
-		this.setProp(this.IS_PARENT, isParent);
+		return this.edgeProperties.get(IS_PARENT);
 	}
 	
 	/**
@@ -121,16 +134,7 @@ public class EdgeRule {
 	 * @return the uses resource
 	 */
 	public String getUsesResource() {
-		return this.getProp(this.USES_RESOURCE);
-	}
-	
-	/**
-	 * Sets the uses resource.
-	 *
-	 * @param usesResource the new uses resource
-	 */
-	public void setUsesResource(String usesResource) {
-		this.setProp(this.USES_RESOURCE, usesResource);
+		return this.edgeProperties.get(USES_RESOURCE);
 	}
 	
 	/**
@@ -139,64 +143,60 @@ public class EdgeRule {
 	 * @return the checks for del target
 	 */
 	public String getHasDelTarget() {
-		return this.getProp(this.HAS_DEL_TARGET);
+		return this.edgeProperties.get(HAS_DEL_TARGET);
 	}
 	
 	/**
-	 * Sets the checks for del target.
+	 * Gets the service infrastructure.
 	 *
-	 * @param hasDelTarget the new checks for del target
+	 * @return the service infrastructure
 	 */
-	public void setHasDelTarget(String hasDelTarget) {
-		this.setProp(this.HAS_DEL_TARGET, hasDelTarget);
+	public String getServiceInfrastructure() {
+		return this.edgeProperties.get(SVC_INFRA);
 	}
 	
 	/**
-	 * Gets the service infrastructure.
+	 * Gets the edge properties.
 	 *
-	 * @return the service infrastructure
+	 * @return the edge properties
 	 */
-	public String getServiceInfrastructure() {
-		return this.getProp(this.SVC_INFRA);
+	public Map<String, String> getEdgeProperties() {
+		return this.edgeProperties;
 	}
 	
 	/**
-	 * Sets the service infrastructure.
+	 * Gets the edge properties as alternating keys and boolean values, ready to be set on an edge.
 	 *
-	 * @param serviceInfrastructure the new service infrastructure
+	 * @return the property key values
 	 */
-	public void setServiceInfrastructure(String serviceInfrastructure) {
-		this.setProp(this.SVC_INFRA, serviceInfrastructure);
+	Object[] getPropertyKeyValues() {
+		return this.propertyKeyValues;
 	}
 	
 	/**
-	 * Gets the edge properties.
+	 * Gets the node type at the out end of the edge this rule creates.
 	 *
-	 * @return the edge properties
+	 * @return the edge out type
 	 */
-	public Map<String, String> getEdgeProperties() {
-		return this.edgeProperties;
+	String getEdgeOutType() {
+		return this.edgeOutType;
 	}
 	
 	/**
-	 * Sets the prop.
+	 * Gets the node type at the in end of the edge this rule creates.
 	 *
-	 * @param key the key
-	 * @param value the value
+	 * @return the edge in type
 	 */
-	private void setProp(String key, String value) {
-		this.edgeProperties.put(key, value);
+	String getEdgeInType() {
+		return this.edgeInType;
 	}
 	
 	/**
-	 * Gets the prop.
+	 * Gets the detail reported when the multiplicity rule is violated.
 	 *
-	 * @param key the key
-	 * @return the prop
+	 * @return the multiplicity violation
 	 */
-	private String getProp(String key) {
-		return this.edgeProperties.get(key);
+	String getMultiplicityViolation() {
+		return this.multiplicityViolation;
 	}
-	
-	
 }
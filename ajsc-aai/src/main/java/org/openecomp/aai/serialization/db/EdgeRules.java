@@ -21,10 +21,9 @@
 package org.openecomp.aai.serialization.db;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -45,13 +44,64 @@ public class EdgeRules {
 	private final int USES_RESOURCE = 4;
 	private final int HAS_DEL_TARGET = 5;
 	private final int SVC_INFRA = 6;
+	private final Map<String, Integer> nodeTypeIndex = new HashMap<>();
+	private final EdgeRule[][] ruleTable;
 	
 	/**
 	 * Instantiates a new edge rules.
+	 * 
+	 * Every rule is parsed once, in both directions, into a table indexed by the
+	 * position of the two node types.
 	 */
 	private EdgeRules() {
+		for (String key : rules.keySet()) {
+			for (String nodeType : key.split("\\|")) {
+				if (!nodeTypeIndex.containsKey(nodeType)) {
+					nodeTypeIndex.put(nodeType, nodeTypeIndex.size());
+				}
+			}
+		}
+		ruleTable = new EdgeRule[nodeTypeIndex.size()][nodeTypeIndex.size()];
+		for (String key : rules.keySet()) {
+			String[] types = key.split("\\|");
+			int out = nodeTypeIndex.get(types[0]);
+			int in = nodeTypeIndex.get(types[1]);
+			String[] info = rules.get(key).iterator().next().split(",");
+			ruleTable[out][in] = this.parseRule(types[0], types[1], info, false);
+		}
+		for (String key : rules.keySet()) {
+			String[] types = key.split("\\|");
+			int out = nodeTypeIndex.get(types[0]);
+			int in = nodeTypeIndex.get(types[1]);
+			if (ruleTable[in][out] == null) {
+				String[] info = rules.get(key).iterator().next().split(",");
+				ruleTable[in][out] = this.parseRule(types[1], types[0], info, true);
+			}
+		}
+	}
 	
+	/**
+	 * Parses one edge rule from DbEdgeRules.
+	 *
+	 * @param outType the out type
+	 * @param inType the in type
+	 * @param info the comma delimited rule, split
+	 * @param isFlipped whether the rule was defined for inType|outType
+	 * @return the edge rule
+	 */
+	private EdgeRule parseRule(String outType, String inType, String[] info, boolean isFlipped) {
+		Direction direction = Direction.valueOf(info[this.DIRECTION]);
+		if (isFlipped && direction.equals(Direction.OUT)) {
+			direction = Direction.IN;
+		} else if (isFlipped && direction.equals(Direction.IN)){
+			direction = Direction.OUT;
+		}
+		
+		return new EdgeRule(outType, inType, info[this.EDGE_NAME], direction,
+				MultiplicityRule.valueOf(info[this.MULTIPLICITY_RULE].toUpperCase()),
+				info[this.IS_PARENT], info[this.USES_RESOURCE], info[this.HAS_DEL_TARGET], info[this.SVC_INFRA]);
 	}
+	
 	private static class Helper {
 		private static final EdgeRules INSTANCE = new EdgeRules();
 		
@@ -133,54 +183,13 @@ public class EdgeRules {
 		// Items starting at "firstTagIndex" and up are all assumed to be booleans that map according to 
 		// tags as defined in EdgeInfoMap.
 		// Note - if they are tagged as 'reverse', that means they get the tag name with "-REV" on it
-		Map<String, String> propMap = rule.getEdgeProperties();
+		Object[] keyValues = rule.getPropertyKeyValues();
 		
-		for (String key : propMap.keySet()) {
-			String revKeyname = key + "-REV";
-			String triple = propMap.get(key);
-			if(triple.equals("true")){
-				edge.property(key, true);
-				edge.property(revKeyname,false);
-			} else if (triple.equals("false")) {
-				edge.property(key, false);
-				edge.property(revKeyname,false);
-			} else if (triple.equals("reverse")) {
-				edge.property(key, false);
-				edge.property(revKeyname,true);
-			}
+		for (int i = 0; i < keyValues.length; i += 2) {
+			edge.property((String)keyValues[i], keyValues[i + 1]);
 		}
 	}
 	
-	/**
-	 * Checks for edge rule.
-	 *
-	 * @param outType the out type
-	 * @param inType the in type
-	 * @return true, if successful
-	 */
-	private boolean hasEdgeRule(String outType, String inType) {
-		
-		Collection<String> collection = rules.get(outType + "|" + inType);
-
-		return !collection.isEmpty();
-		
-	}
-	
-	/**
-	 * Checks for edge rule.
-	 *
-	 * @param outVertex the out vertex
-	 * @param inVertex the in vertex
-	 * @return true, if successful
-	 */
-	private boolean hasEdgeRule(Vertex outVertex, Vertex inVertex) {
-		String outType = (String)outVertex.<String>property("aai-node-type").orElse(null);
-		String inType = (String)inVertex.<String>property("aai-node-type").orElse(null);
-		
-		return this.hasEdgeRule(outType, inType);
-		
-	}
-	
 	/**
 	 * Gets the edge rule.
 	 *
@@ -190,38 +199,16 @@ public class EdgeRules {
 	 * @throws AAIException the AAI exception
 	 */
 	public EdgeRule getEdgeRule(String outType, String inType) throws AAIException {
-		EdgeRule rule = new EdgeRule();
-		Collection<String> collection = null;
-		boolean isFlipped = false;
-		if (this.hasEdgeRule(outType, inType)) {
-			
-		} else if (this.hasEdgeRule(inType, outType)) {
-			//flip values
-			String tempType = inType;
-			inType = outType;
-			outType = tempType;
-			isFlipped = true;
-		} else {
+		Integer out = nodeTypeIndex.get(outType);
+		Integer in = nodeTypeIndex.get(inType);
+		EdgeRule rule = null;
+		if (out != null && in != null) {
+			rule = ruleTable[out][in];
+		}
+		if (rule == null) {
 			String detail = "No EdgeRule found for passed nodeTypes: " + outType + ", " + inType + ".";
 			throw new AAIException("AAI_6120", detail); 
 		}
-		collection = rules.get(outType + "|" + inType);
-		
-		String[] info = collection.iterator().next().split(",");
-		rule.setLabel(info[this.EDGE_NAME]);
-		rule.setMultiplicityRule(MultiplicityRule.valueOf(info[this.MULTIPLICITY_RULE].toUpperCase()));
-		rule.setHasDelTarget(info[this.HAS_DEL_TARGET]);
-		rule.setUsesResource(info[this.USES_RESOURCE]);
-		rule.setIsParent(info[this.IS_PARENT]);
-		rule.setServiceInfrastructure(info[this.SVC_INFRA]);
-		Direction direction = Direction.valueOf(info[this.DIRECTION]);
-		if (isFlipped && direction.equals(Direction.OUT)) {
-			rule.setDirection(Direction.IN);
-		} else if (isFlipped && direction.equals(Direction.IN)){
-			rule.setDirection(Direction.OUT);
-		} else {
-			rule.setDirection(direction);
-		}
 
 		return rule;
 	}
@@ -276,31 +263,18 @@ public class EdgeRules {
 			outVertex = tempV;
 		}
 				
-		String outVertexType = outVertex.<String>property(AAIProperties.NODE_TYPE).orElse(null);
-		String inVertexType =  inVertex.<String>property(AAIProperties.NODE_TYPE).orElse(null);
 		String label = rule.getLabel();
 		MultiplicityRule multiplicityRule = rule.getMultiplicityRule();
-		List<Object> outEdges = outVertex.graph().traversal().V(outVertex).outE(label).as("outEdges").inV().has(AAIProperties.NODE_TYPE, inVertexType).select("outEdges").toList();
-		List<Object> inEdges = inVertex.graph().traversal().V(inVertex).inE(label).as("inEdges").outV().has(AAIProperties.NODE_TYPE, outVertexType).select("inEdges").toList();
-		String detail = "";
-		if (multiplicityRule.equals(MultiplicityRule.ONE2ONE)) {
-			if (inEdges.size() >= 1 || outEdges.size() >= 1 ) {
-				detail = "multiplicity rule violated: only one edge can exist with label: " + label + " between " + outVertexType + " and " + inVertexType;
-			}
-		} else if (multiplicityRule.equals(MultiplicityRule.ONE2MANY)) {
-			if (inEdges.size() >= 1) {
-				detail = "multiplicity rule violated: only one edge can exist with label: " + label + " between " + outVertexType + " and " + inVertexType;
-			}
-		} else if (multiplicityRule.equals(MultiplicityRule.MANY2ONE)) {
-			if (outEdges.size() >= 1) {
-				detail = "multiplicity rule violated: only one edge can exist with label: " + label + " between " + outVertexType + " and " + inVertexType;
-			}
-		} else {
-			
+		boolean violated = false;
+		if (multiplicityRule.equals(MultiplicityRule.ONE2ONE) || multiplicityRule.equals(MultiplicityRule.MANY2ONE)) {
+			violated = outVertex.graph().traversal().V(outVertex).outE(label).inV().has(AAIProperties.NODE_TYPE, rule.getEdgeInType()).hasNext();
+		}
+		if (!violated && (multiplicityRule.equals(MultiplicityRule.ONE2ONE) || multiplicityRule.equals(MultiplicityRule.ONE2MANY))) {
+			violated = inVertex.graph().traversal().V(inVertex).inE(label).outV().has(AAIProperties.NODE_TYPE, rule.getEdgeOutType()).hasNext();
 		}
 		
-		if (!detail.equals("")) {
-			throw new AAIException("AAI_6140", detail);
+		if (violated) {
+			throw new AAIException("AAI_6140", rule.getMultiplicityViolation());
 		}
 		
 		return true;
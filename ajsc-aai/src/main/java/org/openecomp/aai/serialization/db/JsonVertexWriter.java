@@ -0,0 +1,334 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.IntrospectorFactory;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.LogLine;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a vertex tree straight to a json stream.
+ * 
+ * Walks the graph the same way DBSerializer.dbToObject does but emits tokens as it goes
+ * instead of building the whole object tree, so memory use does not grow with the size
+ * of the subtree. The output matches what marshalling the result of dbToObject produces
+ * (no root element, lists named after their wrapper, unformatted).
+ */
+public class JsonVertexWriter {
+
+	private AAILogger aaiLogger = new AAILogger(JsonVertexWriter.class.getName());
+	private final DBSerializer serializer;
+	private final TransactionalGraphEngine engine;
+	private final LogLineBuilder llBuilder;
+	private final EdgeRules edgeRules = EdgeRules.getInstance();
+	private final JsonGenerator gen;
+	
+	/* objects that have been entered but not written yet, only written once they have content */
+	private final List<String> pending = new ArrayList<>();
+	
+	/**
+	 * Instantiates a new json vertex writer.
+	 *
+	 * @param serializer the serializer
+	 * @param engine the engine
+	 * @param gen the generator to write to
+	 * @param llBuilder the ll builder
+	 */
+	public JsonVertexWriter(DBSerializer serializer, TransactionalGraphEngine engine, JsonGenerator gen, LogLineBuilder llBuilder) {
+		this.serializer = serializer;
+		this.engine = engine;
+		this.gen = gen;
+		this.llBuilder = llBuilder;
+	}
+	
+	/**
+	 * Writes the vertices as the passed in object.
+	 *
+	 * @param vertices the vertices
+	 * @param obj the obj
+	 * @param depth the depth
+	 * @param cleanUp the clean up
+	 * @throws AAIException the AAI exception
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws SecurityException the security exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 */
+	public void write(List<Vertex> vertices, Introspector obj, int depth, String cleanUp) throws AAIException, IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException {
+		
+		if (vertices.size() > 1 && !obj.isContainer()) {
+			throw new AAIException("AAI_6136", "query object mismatch: this object cannot hold multiple items." + obj.getDbName());
+		} else if (obj.isContainer()) {
+			String listProperty = "";
+			for (String property : obj.getProperties()) {
+				if (obj.isListType(property) && obj.isComplexGenericType(property)) {
+					listProperty = property;
+					break;
+				}
+			}
+			gen.writeStartObject();
+			gen.writeArrayFieldStart(listProperty);
+			for (Vertex v : vertices) {
+				Set<Vertex> seen = new HashSet<>();
+				Introspector childObject = obj.newIntrospectorInstanceOfNestedProperty(listProperty);
+				this.open(null);
+				this.writeObject(childObject, v, seen, depth, cleanUp);
+				//an empty child is still part of the list
+				this.flush();
+				this.close();
+			}
+			gen.writeEndArray();
+			gen.writeEndObject();
+		} else if (vertices.size() == 1) {
+			Set<Vertex> seen = new HashSet<>();
+			this.open(null);
+			this.writeObject(obj, vertices.get(0), seen, depth, cleanUp);
+			this.close();
+		}
+		
+		gen.flush();
+	}
+	
+	/**
+	 * Writes the object for a vertex.
+	 *
+	 * @param obj the obj
+	 * @param v the v
+	 * @param seen the seen
+	 * @param depth the depth
+	 * @param cleanUp the clean up
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws AAIException the AAI exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws SecurityException the security exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 */
+	private void writeObject(Introspector obj, Vertex v, Set<Vertex> seen, int depth, String cleanUp) throws IOException, AAIException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException {
+		
+		if (depth < 0) {
+			return;
+		}
+		depth--;
+		seen.add(v);
+		for (String property : obj.getProperties()) {
+			
+			if (!(obj.isComplexType(property) || obj.isListType(property))) {
+				//dbToObject keeps any object that has a simple property, even if it is not set
+				this.flush();
+				Object value = serializer.getSimplePropertyValue(property, obj, v);
+				if (value != null) {
+					gen.writeFieldName(property);
+					this.writeValue(value);
+				}
+			} else if (obj.isComplexType(property)) {
+				/* container case */
+				if (!property.equals("relationship-list") && depth >= 0) {
+					Introspector argumentObject = obj.newIntrospectorInstanceOfProperty(property);
+					this.open(property);
+					this.writeObject(argumentObject, v, seen, depth+1, cleanUp);
+					this.close();
+				} else if (property.equals("relationship-list")) {
+					this.writeRelationshipList(obj, property, v, cleanUp);
+				}
+			} else if (obj.isListType(property)) {
+				
+				if (property.equals("any")) {
+					continue;
+				}
+				if (obj.isComplexGenericType(property) && depth >= 0) {
+					this.writeChildren(obj, property, v, seen, depth, cleanUp);
+				} else if (obj.isSimpleGenericType(property)) {
+					List temp = this.engine.getListProperty(v, property);
+					if (temp != null) {
+						this.flush();
+						gen.writeArrayFieldStart(property);
+						for (Object item : temp) {
+							this.writeValue(item);
+						}
+						gen.writeEndArray();
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Writes the child vertices connected by the property's edge rule.
+	 *
+	 * @param obj the obj
+	 * @param property the property
+	 * @param v the v
+	 * @param seen the seen
+	 * @param depth the depth
+	 * @param cleanUp the clean up
+	 * @throws AAIException the AAI exception
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws SecurityException the security exception
+	 * @throws InstantiationException the instantiation exception
+	 * @throws NoSuchMethodException the no such method exception
+	 */
+	private void writeChildren(Introspector obj, String property, Vertex v, Set<Vertex> seen, int depth, String cleanUp) throws AAIException, IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException, InstantiationException, NoSuchMethodException {
+		String childDbName = serializer.convertFromCamelCase(obj.getGenericType(property));
+		String vType = v.<String>property(AAIProperties.NODE_TYPE).orElse(null);
+		EdgeRule rule = edgeRules.getEdgeRule(vType, childDbName);
+		if (!rule.getDirection().equals(Direction.OUT)) {
+			return;
+		}
+		List<Vertex> vertices = this.engine.getQueryEngine().findRelatedVertices(v, Direction.OUT, rule.getLabel(), childDbName);
+		List<Vertex> children = new ArrayList<>();
+		for (Vertex childVertex : vertices) {
+			if (!seen.contains(childVertex)) {
+				children.add(childVertex);
+			} else {
+				LogLine line = llBuilder.build("db to object", "cycle has been found");
+				line.add("vertex id", childVertex.id().toString());
+				aaiLogger.info(line, true, "AAI_6144");
+			}
+		}
+		if (children.isEmpty()) {
+			return;
+		}
+		this.flush();
+		gen.writeArrayFieldStart(property);
+		for (Vertex childVertex : children) {
+			Introspector argumentObject = obj.newIntrospectorInstanceOfNestedProperty(property);
+			this.open(null);
+			this.writeObject(argumentObject, childVertex, seen, depth, cleanUp);
+			this.close();
+		}
+		gen.writeEndArray();
+	}
+	
+	/**
+	 * Writes the relationship list.
+	 * 
+	 * Relationship lists stay small, so they are built with the serializer and marshalled as is.
+	 *
+	 * @param obj the obj
+	 * @param property the property
+	 * @param v the v
+	 * @param cleanUp the clean up
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InstantiationException the instantiation exception
+	 * @throws IllegalAccessException the illegal access exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws InvocationTargetException the invocation target exception
+	 * @throws NoSuchMethodException the no such method exception
+	 * @throws SecurityException the security exception
+	 * @throws AAIException the AAI exception
+	 */
+	private void writeRelationshipList(Introspector obj, String property, Vertex v, String cleanUp) throws IOException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, AAIException {
+		Object relationshipList = obj.newInstanceOfProperty(property);
+		try {
+			relationshipList = serializer.createRelationshipList(v, relationshipList, cleanUp);
+		} catch (UnsupportedEncodingException | MalformedURLException e) {
+			throw new AAIException("AAI_4000", e);
+		}
+		if (relationshipList != null) {
+			this.flush();
+			Introspector wrapped = IntrospectorFactory.newInstance(obj.getModelType(), relationshipList, llBuilder);
+			gen.writeFieldName(property);
+			gen.writeRawValue(wrapped.marshal(false));
+		}
+	}
+	
+	/**
+	 * Writes a simple value.
+	 *
+	 * @param value the value
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writeValue(Object value) throws IOException {
+		if (value instanceof Boolean) {
+			gen.writeBoolean((Boolean)value);
+		} else if (value instanceof Long) {
+			gen.writeNumber((Long)value);
+		} else if (value instanceof Integer) {
+			gen.writeNumber((Integer)value);
+		} else {
+			gen.writeString(value.toString());
+		}
+	}
+	
+	/**
+	 * Enters an object without writing it.
+	 *
+	 * @param fieldName the field name, or null for array elements and the root
+	 */
+	private void open(String fieldName) {
+		pending.add(fieldName);
+	}
+	
+	/**
+	 * Writes out every entered object that has not been written yet.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void flush() throws IOException {
+		for (String fieldName : pending) {
+			if (fieldName != null) {
+				gen.writeFieldName(fieldName);
+			}
+			gen.writeStartObject();
+		}
+		pending.clear();
+	}
+	
+	/**
+	 * Leaves the current object, closing it if it was written.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void close() throws IOException {
+		if (pending.isEmpty()) {
+			gen.writeEndObject();
+		} else {
+			pending.remove(pending.size() - 1);
+		}
+	}
+}
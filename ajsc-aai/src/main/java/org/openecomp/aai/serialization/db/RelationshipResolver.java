@@ -0,0 +1,352 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.parsers.relationship.RelationshipToURI;
+import org.openecomp.aai.parsers.uri.URIParser;
+import org.openecomp.aai.parsers.uri.URIPathNode;
+import org.openecomp.aai.parsers.uri.URIPathParsable;
+import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+
+/**
+ * Finds the vertices a list of relationships points at.
+ * 
+ * Rather than run each relationship's query on its own, the targets are grouped by node
+ * type and key names and each group is fetched with one index lookup on its first key.
+ * Targets under a parent are then checked against their parent chains, which are also
+ * fetched in one traversal.  A relationship that can't be settled this way, because it
+ * doesn't parse or nothing matched, falls back to its own query, so the errors are the
+ * same as before.
+ */
+public class RelationshipResolver {
+
+	private final TransactionalGraphEngine engine;
+	private final Graph graph;
+	private final Loader loader;
+	private final RequestMemo memo;
+	private int traversals = 0;
+	
+	/**
+	 * Instantiates a new relationship resolver.
+	 *
+	 * @param engine the engine
+	 * @param graph the graph
+	 * @param loader the loader
+	 * @param memo the memo the traversals are recorded on
+	 */
+	public RelationshipResolver(TransactionalGraphEngine engine, Graph graph, Loader loader, RequestMemo memo) {
+		this.engine = engine;
+		this.graph = graph;
+		this.loader = loader;
+		this.memo = memo;
+	}
+	
+	/**
+	 * Finds the vertex each relationship points at.
+	 *
+	 * @param relationships the relationships
+	 * @return the vertices, in the same order as the relationships
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException if a relationship points at nothing
+	 */
+	public List<Vertex> resolve(List<Introspector> relationships) throws UnsupportedEncodingException, AAIException {
+		List<Target> targets = new ArrayList<>(relationships.size());
+		Map<String, List<Target>> groups = new LinkedHashMap<>();
+		for (Introspector relationship : relationships) {
+			Target target = this.parse(relationship);
+			targets.add(target);
+			if (target != null) {
+				String group = target.type + "|" + target.keys.keySet();
+				List<Target> members = groups.get(group);
+				if (members == null) {
+					members = new ArrayList<>();
+					groups.put(group, members);
+				}
+				members.add(target);
+			}
+		}
+		
+		Set<Vertex> dependents = new LinkedHashSet<>();
+		for (List<Target> members : groups.values()) {
+			this.lookup(members);
+			for (Target target : members) {
+				if (!target.parents.isEmpty()) {
+					dependents.addAll(target.candidates);
+				}
+			}
+		}
+		Map<Object, List<Vertex>> chains = Collections.emptyMap();
+		if (!dependents.isEmpty()) {
+			chains = engine.getQueryEngine().findParents(new ArrayList<>(dependents));
+			this.recordTraversal();
+		}
+		
+		List<Vertex> result = new ArrayList<>(relationships.size());
+		for (int i = 0; i < relationships.size(); i++) {
+			Vertex found = null;
+			if (targets.get(i) != null) {
+				found = targets.get(i).match(chains);
+			}
+			if (found == null) {
+				found = this.resolveOne(relationships.get(i));
+			}
+			result.add(found);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Finds the vertex one relationship points at with its own query.
+	 *
+	 * @param relationship the relationship
+	 * @return the vertex
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException if the relationship points at nothing
+	 */
+	public Vertex resolveOne(Introspector relationship) throws UnsupportedEncodingException, AAIException {
+		QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(relationship);
+		List<Vertex> results = engine.getQueryEngine().executeQuery(graph, parser.getQueryBuilder());
+		this.recordTraversal();
+		if (results.size() == 0) {
+			AAIException ex = new AAIException("AAI_6129", "Node of type " + parser.getResultType() + ". Could not find object at: " + parser.getUri());
+			List<String> templateVars = new ArrayList<>();
+			templateVars.add(parser.getResultType());
+			templateVars.add(parser.getUri().toString());
+			ex.setTemplateVars(templateVars);
+			throw ex;
+		}
+		
+		//still an issue if there's more than one
+		return results.get(0);
+	}
+	
+	/**
+	 * Gets the number of traversals run so far.
+	 *
+	 * @return the traversals
+	 */
+	public int getTraversals() {
+		return traversals;
+	}
+	
+	/**
+	 * Counts a traversal here and on the memo.
+	 */
+	private void recordTraversal() {
+		traversals++;
+		memo.recordTraversal();
+	}
+	
+	/**
+	 * Works out the type and keys of a relationship's target and its parents.
+	 *
+	 * @param relationship the relationship
+	 * @return the target, or null if it should be left to its own query
+	 */
+	private Target parse(Introspector relationship) {
+		KeyChain chain = new KeyChain();
+		try {
+			URI uri = new RelationshipToURI(loader, relationship).getUri();
+			new URIParser(loader, uri).parse(chain);
+		} catch (AAIException | UnsupportedEncodingException | IllegalArgumentException e) {
+			return null;
+		}
+		if (chain.segments.isEmpty() || chain.endsInContainer || chain.hasAbstract) {
+			return null;
+		}
+		int last = chain.segments.size() - 1;
+		Target target = new Target(chain.types.get(last), chain.segments.get(last));
+		for (int i = 0; i < last; i++) {
+			target.parents.put(chain.types.get(i), chain.segments.get(i));
+		}
+		
+		return target;
+	}
+	
+	/**
+	 * Fetches the candidates for a group of targets of the same type and key names.
+	 *
+	 * @param members the members
+	 */
+	private void lookup(List<Target> members) {
+		String type = members.get(0).type;
+		List<String> keyNames = new ArrayList<>(members.get(0).keys.keySet());
+		String first = keyNames.get(0);
+		Set<String> values = new LinkedHashSet<>();
+		for (Target target : members) {
+			values.add(target.keys.get(first));
+		}
+		
+		List<Vertex> found = graph.traversal().V().has(AAIProperties.NODE_TYPE, type).has(first, P.within(values)).toList();
+		this.recordTraversal();
+		Map<List<String>, List<Vertex>> byKeys = new HashMap<>();
+		for (Vertex v : found) {
+			List<String> keyValues = new ArrayList<>(keyNames.size());
+			for (String name : keyNames) {
+				keyValues.add(String.valueOf(v.<Object>property(name).orElse(null)));
+			}
+			List<Vertex> same = byKeys.get(keyValues);
+			if (same == null) {
+				same = new ArrayList<>();
+				byKeys.put(keyValues, same);
+			}
+			same.add(v);
+		}
+		for (Target target : members) {
+			List<Vertex> candidates = byKeys.get(new ArrayList<>(target.keys.values()));
+			if (candidates != null) {
+				target.candidates = candidates;
+			}
+		}
+	}
+	
+	/**
+	 * The type and keys of a relationship's target, with those of the parents above it.
+	 */
+	private static class Target {
+		private final String type;
+		private final Map<String, String> keys;
+		private final Map<String, Map<String, String>> parents = new HashMap<>();
+		private List<Vertex> candidates = Collections.emptyList();
+		
+		/**
+		 * Instantiates a new target.
+		 *
+		 * @param type the type
+		 * @param keys the keys
+		 */
+		private Target(String type, Map<String, String> keys) {
+			this.type = type;
+			this.keys = keys;
+		}
+		
+		/**
+		 * Picks the first candidate whose parents match.
+		 *
+		 * @param chains the parent chains of the candidates, by vertex id
+		 * @return the vertex, or null if none matched
+		 */
+		private Vertex match(Map<Object, List<Vertex>> chains) {
+			for (Vertex candidate : candidates) {
+				if (parents.isEmpty() || this.parentsMatch(chains.get(candidate.id()))) {
+					return candidate;
+				}
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * Checks that every parent in the uri is in the chain above the candidate.
+		 *
+		 * @param chain the chain, starting with the candidate
+		 * @return true, if they all are
+		 */
+		private boolean parentsMatch(List<Vertex> chain) {
+			if (chain == null) {
+				return false;
+			}
+			for (Map.Entry<String, Map<String, String>> parent : parents.entrySet()) {
+				boolean found = false;
+				for (int i = 1; i < chain.size() && !found; i++) {
+					Vertex v = chain.get(i);
+					if (parent.getKey().equals(v.<String>property(AAIProperties.NODE_TYPE).orElse(null))) {
+						found = true;
+						for (Map.Entry<String, String> key : parent.getValue().entrySet()) {
+							if (!key.getValue().equals(String.valueOf(v.<Object>property(key.getKey()).orElse(null)))) {
+								found = false;
+							}
+						}
+					}
+				}
+				if (!found) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Collects the type and keys of each object along a uri.
+	 */
+	private static class KeyChain implements URIPathParsable {
+		private final List<String> types = new ArrayList<>();
+		private final List<Map<String, String>> segments = new ArrayList<>();
+		private boolean endsInContainer = false;
+		private boolean hasAbstract = false;
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void processObject(URIPathNode node, Map<String, String> uriKeys) {
+			hasAbstract |= node.isAbstract();
+			types.add(node.getDbName());
+			segments.add(uriKeys);
+			endsInContainer = false;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void processContainer(URIPathNode node, Map<String, String> uriKeys, boolean isFinalContainer) {
+			endsInContainer = isFinalContainer;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void processNamespace(URIPathNode node) {
+			
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean useOriginalLoader() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,317 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.IntrospectorFactory;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.logging.LogLine;
+import org.openecomp.aai.logging.LogLineBuilder;
+
+/**
+ * Remembers the edge rules and model types one request has already looked up.
+ * 
+ * A request asks for the same handful of node types over and over: once per vertex when
+ * reading an object back, per cousin when building a relationship list, per parent when
+ * resolving a uri, and again for the notification.  The first introspector of each type
+ * becomes a prototype.  Later ones are copied from it, which skips resolving the type by
+ * name.  Only the type is taken from the prototype, never its values, so handing the
+ * prototype itself out is safe.
+ * 
+ * The counters show how much was reused and can be logged with the request.  A memo
+ * belongs to one request and is not thread safe; use {@link #unscoped()} where there is
+ * no request to tie it to.
+ */
+public class RequestMemo {
+
+	private static final RequestMemo UNSCOPED = new RequestMemo(false);
+	
+	private final boolean scoped;
+	private final EdgeRules edgeRules = EdgeRules.getInstance();
+	private final Map<String, Map<String, EdgeRule>> rules = new HashMap<>();
+	private final Map<Loader, Map<String, Introspector>> byName = new HashMap<>();
+	private final Map<String, Introspector> byType = new HashMap<>();
+	private final Map<Class<?>, Introspector> byClass = new HashMap<>();
+	
+	private long edgeRuleLookups = 0;
+	private long edgeRuleHits = 0;
+	private long introspectorLookups = 0;
+	private long introspectorHits = 0;
+	private long traversals = 0;
+	
+	/**
+	 * Instantiates a new request memo.
+	 */
+	public RequestMemo() {
+		this(true);
+	}
+	
+	/**
+	 * Instantiates a new request memo.
+	 *
+	 * @param scoped whether to remember anything
+	 */
+	private RequestMemo(boolean scoped) {
+		this.scoped = scoped;
+	}
+	
+	/**
+	 * Gets a memo that remembers nothing and counts nothing, for callers outside a request.
+	 *
+	 * @return the unscoped memo
+	 */
+	public static RequestMemo unscoped() {
+		return UNSCOPED;
+	}
+	
+	/**
+	 * Gets the edge rule.
+	 *
+	 * @param outType the out type
+	 * @param inType the in type
+	 * @return the edge rule
+	 * @throws AAIException the AAI exception
+	 */
+	public EdgeRule getEdgeRule(String outType, String inType) throws AAIException {
+		if (!scoped) {
+			return edgeRules.getEdgeRule(outType, inType);
+		}
+		edgeRuleLookups++;
+		Map<String, EdgeRule> inRules = rules.get(outType);
+		if (inRules == null) {
+			inRules = new HashMap<>();
+			rules.put(outType, inRules);
+		}
+		EdgeRule rule = inRules.get(inType);
+		if (rule == null) {
+			rule = edgeRules.getEdgeRule(outType, inType);
+			inRules.put(inType, rule);
+		} else {
+			edgeRuleHits++;
+		}
+		
+		return rule;
+	}
+	
+	/**
+	 * Gets the edge rule.
+	 *
+	 * @param outVertex the out vertex
+	 * @param inVertex the in vertex
+	 * @return the edge rule
+	 * @throws AAIException the AAI exception
+	 */
+	public EdgeRule getEdgeRule(Vertex outVertex, Vertex inVertex) throws AAIException {
+		String outType = outVertex.<String>property(AAIProperties.NODE_TYPE).orElse(null);
+		String inType = inVertex.<String>property(AAIProperties.NODE_TYPE).orElse(null);
+		
+		return this.getEdgeRule(outType, inType);
+	}
+	
+	/**
+	 * Creates an introspector for a type, as Loader.introspectorFromName does.
+	 *
+	 * @param loader the loader
+	 * @param name the name
+	 * @return the introspector, or null if the loader doesn't know the type
+	 */
+	public Introspector introspectorFromName(Loader loader, String name) {
+		if (!scoped) {
+			return loader.introspectorFromName(name);
+		}
+		introspectorLookups++;
+		Map<String, Introspector> prototypes = byName.get(loader);
+		if (prototypes == null) {
+			prototypes = new HashMap<>();
+			byName.put(loader, prototypes);
+		}
+		Introspector prototype = prototypes.get(name);
+		Introspector result = null;
+		if (prototype == null) {
+			result = loader.introspectorFromName(name);
+			if (result != null) {
+				prototypes.put(name, result);
+			}
+		} else {
+			introspectorHits++;
+			result = prototype.newEmptyInstance();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Creates an introspector for a property, as Introspector.newIntrospectorInstanceOfProperty does.
+	 *
+	 * @param obj the obj
+	 * @param property the property
+	 * @return the introspector
+	 */
+	public Introspector newIntrospectorInstanceOfProperty(Introspector obj, String property) {
+		if (!scoped) {
+			return obj.newIntrospectorInstanceOfProperty(property);
+		}
+		
+		return this.fromType(obj.getType(property), obj, property, false);
+	}
+	
+	/**
+	 * Creates an introspector for an item of a list property, as 
+	 * Introspector.newIntrospectorInstanceOfNestedProperty does.
+	 *
+	 * @param obj the obj
+	 * @param property the property
+	 * @return the introspector
+	 */
+	public Introspector newIntrospectorInstanceOfNestedProperty(Introspector obj, String property) {
+		if (!scoped) {
+			return obj.newIntrospectorInstanceOfNestedProperty(property);
+		}
+		
+		return this.fromType(obj.getGenericType(property), obj, property, true);
+	}
+	
+	/**
+	 * Creates an introspector for a property from the prototype of its type.
+	 *
+	 * @param type the java type of the property
+	 * @param obj the obj
+	 * @param property the property
+	 * @param nested whether it's an item of a list property
+	 * @return the introspector
+	 */
+	private Introspector fromType(String type, Introspector obj, String property, boolean nested) {
+		introspectorLookups++;
+		Introspector prototype = byType.get(type);
+		Introspector result = null;
+		if (prototype == null) {
+			if (nested) {
+				result = obj.newIntrospectorInstanceOfNestedProperty(property);
+			} else {
+				result = obj.newIntrospectorInstanceOfProperty(property);
+			}
+			byType.put(type, result);
+		} else {
+			introspectorHits++;
+			result = prototype.newEmptyInstance();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Wraps an object, as IntrospectorFactory.newInstance does.
+	 *
+	 * @param type the type
+	 * @param obj the obj
+	 * @param llBuilder the ll builder
+	 * @return the introspector
+	 */
+	public Introspector wrap(ModelType type, Object obj, LogLineBuilder llBuilder) {
+		if (!scoped || obj == null) {
+			return IntrospectorFactory.newInstance(type, obj, llBuilder);
+		}
+		introspectorLookups++;
+		Introspector prototype = byClass.get(obj.getClass());
+		Introspector result = null;
+		if (prototype == null || !prototype.getModelType().equals(type)) {
+			result = IntrospectorFactory.newInstance(type, obj, llBuilder);
+			byClass.put(obj.getClass(), result);
+		} else {
+			introspectorHits++;
+			result = prototype.newIntrospectorFor(obj);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Records that a uri query was run against the graph.
+	 */
+	public void recordTraversal() {
+		traversals++;
+	}
+	
+	/**
+	 * Gets the edge rule lookups.
+	 *
+	 * @return the edge rule lookups
+	 */
+	public long getEdgeRuleLookups() {
+		return edgeRuleLookups;
+	}
+	
+	/**
+	 * Gets the edge rule lookups answered from the memo.
+	 *
+	 * @return the edge rule hits
+	 */
+	public long getEdgeRuleHits() {
+		return edgeRuleHits;
+	}
+	
+	/**
+	 * Gets the introspector lookups.
+	 *
+	 * @return the introspector lookups
+	 */
+	public long getIntrospectorLookups() {
+		return introspectorLookups;
+	}
+	
+	/**
+	 * Gets the introspectors copied from a prototype.
+	 *
+	 * @return the introspector hits
+	 */
+	public long getIntrospectorHits() {
+		return introspectorHits;
+	}
+	
+	/**
+	 * Gets the uri queries run against the graph.
+	 *
+	 * @return the traversals
+	 */
+	public long getTraversals() {
+		return traversals;
+	}
+	
+	/**
+	 * Adds the counters to a log line.
+	 *
+	 * @param line the line
+	 */
+	public void addTo(LogLine line) {
+		line.add("edge rule lookups", edgeRuleLookups);
+		line.add("edge rule hits", edgeRuleHits);
+		line.add("introspector lookups", introspectorLookups);
+		line.add("introspector hits", introspectorHits);
+		line.add("traversals", traversals);
+	}
+}
@@ -0,0 +1,172 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openecomp.aai.util.AAIConfig;
+import org.openecomp.aai.util.AAIConstants;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers the canonical uri of a vertex between requests.
+ * 
+ * A uri only changes when the tree edges above the vertex change, so entries
+ * live until they are evicted for size or invalidated by the serializer when
+ * a vertex is deleted or gets a new parent.  Every invalidation moves the cache
+ * on a generation, whether or not the vertex was cached, so uris resolved before
+ * it can be turned away.
+ */
+public class VertexURICache {
+
+	private static final long DEFAULT_SIZE = 100000;
+	
+	private final Cache<Object, String> cache;
+	
+	private final AtomicLong generation = new AtomicLong();
+	
+	/**
+	 * Instantiates a new vertex URI cache sized from aaiconfig.
+	 */
+	private VertexURICache() {
+		this(getConfiguredSize());
+	}
+	
+	/**
+	 * Instantiates a new vertex URI cache.
+	 *
+	 * @param maxSize the max size
+	 */
+	VertexURICache(long maxSize) {
+		cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+	}
+	
+	private static class Helper {
+		private static final VertexURICache INSTANCE = new VertexURICache();
+	}
+	
+	/**
+	 * Gets the single instance of VertexURICache.
+	 *
+	 * @return single instance of VertexURICache
+	 */
+	public static VertexURICache getInstance() {
+		return Helper.INSTANCE;
+	}
+	
+	/**
+	 * Gets the uri of a vertex.
+	 *
+	 * @param id the vertex id
+	 * @return the uri, or null if it is not cached
+	 */
+	public String get(Object id) {
+		return cache.getIfPresent(id);
+	}
+	
+	/**
+	 * Caches the uri of a vertex.
+	 *
+	 * @param id the vertex id
+	 * @param uri the uri
+	 */
+	public void put(Object id, String uri) {
+		cache.put(id, uri);
+	}
+	
+	/**
+	 * Caches uris, unless an entry was invalidated after they were resolved.
+	 *
+	 * @param uris the uris by vertex id
+	 * @param since the generation from before they were resolved
+	 * @return true if they were cached
+	 */
+	public synchronized boolean putAll(Map<Object, String> uris, long since) {
+		if (generation.get() != since) {
+			return false;
+		}
+		cache.putAll(uris);
+		
+		return true;
+	}
+	
+	/**
+	 * Drops the uri of a vertex.
+	 *
+	 * @param id the vertex id
+	 */
+	public synchronized void invalidate(Object id) {
+		cache.invalidate(id);
+		generation.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the generation, which moves on whenever a uri is invalidated.
+	 *
+	 * @return the generation
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+	
+	/**
+	 * Gets the hit ratio.
+	 *
+	 * @return the hit ratio, 1.0 when nothing has been looked up yet
+	 */
+	public double getHitRatio() {
+		return cache.stats().hitRate();
+	}
+	
+	/**
+	 * Gets the number of entries evicted for size.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictionCount() {
+		return cache.stats().evictionCount();
+	}
+	
+	/**
+	 * Gets the number of cached uris.
+	 *
+	 * @return the size
+	 */
+	public long size() {
+		return cache.size();
+	}
+	
+	/**
+	 * Gets the configured size.
+	 *
+	 * @return the configured size
+	 */
+	private static long getConfiguredSize() {
+		try {
+			return Long.parseLong(AAIConfig.get(AAIConstants.AAI_URI_CACHE_SIZE, Long.toString(DEFAULT_SIZE)));
+		} catch (NumberFormatException e) {
+			return DEFAULT_SIZE;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.engines;
+
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.logging.LogLineBuilder;
+
+/**
+ * Hands out the loaders and graph engines used by the REST layer.
+ * 
+ * The version's jaxb context and type metadata are built once and shared by every
+ * loader handed out here; each request gets a thin loader bound to its own log line
+ * builder, and an engine around that loader over the shared graph.
+ */
+public class EngineRegistry {
+
+	/**
+	 * Instantiates a new engine registry.
+	 */
+	private EngineRegistry() {
+		
+	}
+	
+	private static class Helper {
+		private static final EngineRegistry INSTANCE = new EngineRegistry();
+	}
+	
+	/**
+	 * Gets the single instance of EngineRegistry.
+	 *
+	 * @return single instance of EngineRegistry
+	 */
+	public static EngineRegistry getInstance() {
+		return Helper.INSTANCE;
+	}
+	
+	/**
+	 * Gets the loader.
+	 *
+	 * @param type the type
+	 * @param version the version
+	 * @param llBuilder the ll builder
+	 * @return the loader
+	 */
+	public Loader getLoader(ModelType type, Version version, LogLineBuilder llBuilder) {
+		return LoaderFactory.getLoader(type, version, llBuilder);
+	}
+	
+	/**
+	 * Gets the engine.
+	 *
+	 * @param type the type
+	 * @param version the version
+	 * @param style the style
+	 * @param loader the loader of the request
+	 * @return the engine
+	 */
+	public TransactionalGraphEngine getEngine(QueryStyle style, Loader loader) {
+		return new TitanDBEngine(style, loader);
+	}
+}
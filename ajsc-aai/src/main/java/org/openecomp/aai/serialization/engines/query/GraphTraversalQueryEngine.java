@@ -20,8 +20,12 @@
 
 package org.openecomp.aai.serialization.engines.query;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
@@ -105,6 +109,37 @@ public class GraphTraversalQueryEngine extends QueryEngine {
 		return results;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Object, List<Vertex>> findParents(List<Vertex> starts) {
+		Map<Object, List<Vertex>> results = new LinkedHashMap<>();
+		if (starts.isEmpty()) {
+			return results;
+		}
+		Object[] ids = new Object[starts.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = starts.get(i).id();
+		}
+		GraphTraversal<Vertex, Path> pipe = starts.get(0).graph().traversal().V(ids)
+				.until(__.not(__.inE().has("isParent", true)))
+				.repeat(__.inE().has("isParent", true).outV()).path();
+		
+		while (pipe.hasNext()) {
+			List<Vertex> chain = new ArrayList<>();
+			for (Object step : pipe.next().objects()) {
+				if (step instanceof Vertex) {
+					chain.add((Vertex)step);
+				}
+			}
+			//a vertex with more than one parent is damaged, keep the first chain found
+			results.putIfAbsent(chain.get(0).id(), chain);
+		}
+		
+		return results;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
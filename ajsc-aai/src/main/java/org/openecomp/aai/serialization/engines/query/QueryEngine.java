@@ -21,6 +21,7 @@
 package org.openecomp.aai.serialization.engines.query;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -67,6 +68,14 @@ public abstract class QueryEngine {
 	 */
 	public abstract List<Vertex> findParents(Vertex start);
 	
+	/**
+	 * Find parents of several start vertices in a single traversal.
+	 *
+	 * @param starts the starts
+	 * @return the parent chain of each start, keyed by the start vertex id
+	 */
+	public abstract Map<Object, List<Vertex>> findParents(List<Vertex> starts);
+	
 	/**
 	 * Find children.
 	 *
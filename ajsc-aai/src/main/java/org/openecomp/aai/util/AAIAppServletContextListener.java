@@ -27,6 +27,7 @@ import javax.servlet.ServletContextListener;
 
 import org.apache.activemq.broker.BrokerService;
 import org.openecomp.aai.dbmap.AAIGraph;
+import org.openecomp.aai.dmaap.NotificationPipeline;
 import org.openecomp.aai.exceptions.AAIException;
 import org.openecomp.aai.introspection.ModelInjestor;
 import org.openecomp.aai.logging.AAILogger;
@@ -50,6 +51,10 @@ public class AAIAppServletContextListener implements ServletContextListener {
 		aaiLogger.debug(logline, "AAI graph shutdown");
 		System.out.println("Shutting down graph database");
 		AAIGraph.getInstance().graphShutdown();
+		System.out.println("Flushing transaction log");
+		TxnLogWriter.shutdownInstance(10000);
+		System.out.println("Publishing queued notification events");
+		NotificationPipeline.getInstance().shutdown(10000);
 		System.out.println("AAI Server stopped");
 		aaiLogger.info(logline, true, "0");
 	}
@@ -80,6 +80,13 @@ public final class AAIConstants {
     public static final String AAI_CONFIG_CHECKINGTIME = "aai.config.checktime";
     public static final String AAI_DBMODEL_FILENAME = "aai.dbmodel.filename";
     public static final String AAI_RESVERSION_ENABLEFLAG = "aai.resourceversion.enableflag";
+    public static final String AAI_REST_GET_STREAMING = "aai.rest.get.streaming";
+    public static final String AAI_REST_GET_STREAMING_BUFFER_KB = "aai.rest.get.streaming.buffer.kb";
+    public static final int AAI_REST_GET_STREAMING_DEFAULT_BUFFER_KB = 1024;
+    public static final String AAI_URI_CACHE_SIZE = "aai.uri.cache.size";
+    public static final String AAI_DATASNAPSHOT_THREADS = "aai.datasnapshot.threads";
+    public static final String AAI_DATASNAPSHOT_CHUNK_SIZE = "aai.datasnapshot.chunk.size";
+    public static final String AAI_DATASNAPSHOT_RELOAD_BATCH_SIZE = "aai.datasnapshot.reload.batch.size";
 
 	public static final String HBASE_TABLE_NAME = "hbase.table.name";
 	public static final String HBASE_TABLE_TIMESTAMP_FORMAT = "hbase.table.timestamp.format";
@@ -88,11 +95,58 @@ public final class AAIConstants {
 	public static final String HBASE_ZOOKEEPER_ZNODE_PARENT = "hbase.zookeeper.znode.parent";
 	public static final String ZOOKEEPER_ZNODE_PARENT = "zookeeper.znode.parent";
 	
+	public static final int AAI_TXNLOG_DEFAULT_QUEUE_CAPACITY = 10000;
+	public static final int AAI_TXNLOG_DEFAULT_BATCH_SIZE = 100;
+	public static final long AAI_TXNLOG_DEFAULT_FLUSH_INTERVAL_MS = 1000;
+	public static final String AAI_TXNLOG_DEFAULT_OVERFLOW_POLICY = "drop";
+	public static final String AAI_TXNLOG_DEFAULT_SPILL_DIR = AAI_HOME + AAI_FILESEP + "logs" + AAI_FILESEP + "txnlog-spill";
+    public static final String AAI_TXNLOG_QUEUE_CAPACITY = "aai.txnlog.queue.capacity";
+    public static final String AAI_TXNLOG_BATCH_SIZE = "aai.txnlog.batch.size";
+    public static final String AAI_TXNLOG_FLUSH_INTERVAL_MS = "aai.txnlog.flush.interval.ms";
+    public static final String AAI_TXNLOG_OVERFLOW_POLICY = "aai.txnlog.overflow.policy";
+    public static final String AAI_TXNLOG_SPILL_DIR = "aai.txnlog.spill.dir";
+	
+	public static final String AAI_TXNLOG_DEFAULT_STORE = "hbase";
+	public static final long AAI_TXNLOG_DEFAULT_SEGMENT_SIZE_MB = 64;
+	public static final long AAI_TXNLOG_DEFAULT_PARTITION_MINUTES = 60;
+	public static final long AAI_TXNLOG_DEFAULT_RETENTION_HOURS = 168;
+	public static final String AAI_TXNLOG_DEFAULT_SEGMENT_DIR = AAI_HOME + AAI_FILESEP + "logs" + AAI_FILESEP + "txnlog-segments";
+    public static final String AAI_TXNLOG_STORE = "aai.txnlog.store";
+    public static final String AAI_TXNLOG_SEGMENT_DIR = "aai.txnlog.segment.dir";
+    public static final String AAI_TXNLOG_SEGMENT_SIZE_MB = "aai.txnlog.segment.size.mb";
+    public static final String AAI_TXNLOG_PARTITION_MINUTES = "aai.txnlog.partition.minutes";
+    public static final String AAI_TXNLOG_RETENTION_HOURS = "aai.txnlog.retention.hours";
+	
+	public static final int AAI_TXNLOG_DEFAULT_SCAN_PAGE_SIZE = 500;
+	public static final int AAI_TXNLOG_MAX_SCAN_PAGE_SIZE = 5000;
+    public static final String AAI_TXNLOG_SCAN_PAGE_SIZE = "aai.txnlog.scan.page.size";
+    public static final String AAI_TXNLOG_INDEX_SINCE = "aai.txnlog.index.since";
+	
+	public static final int AAI_NOTIFICATION_DEFAULT_LANES = 2;
+	public static final int AAI_NOTIFICATION_DEFAULT_QUEUE_CAPACITY = 10000;
+	public static final int AAI_NOTIFICATION_DEFAULT_BATCH_SIZE = 50;
+	public static final long AAI_NOTIFICATION_DEFAULT_LINGER_MS = 100;
+    public static final String AAI_NOTIFICATION_LANES = "aai.notification.pipeline.lanes";
+    public static final String AAI_NOTIFICATION_QUEUE_CAPACITY = "aai.notification.pipeline.queue.capacity";
+    public static final String AAI_NOTIFICATION_BATCH_SIZE = "aai.notification.pipeline.batch.size";
+    public static final String AAI_NOTIFICATION_LINGER_MS = "aai.notification.pipeline.linger.ms";
+    public static final String AAI_NOTIFICATION_FULL_REREAD = "aai.notification.fullreread";
+	
+	public static final int AAI_WORKLOAD_DEFAULT_WORKERS = 4;
+	public static final int AAI_WORKLOAD_DEFAULT_MAX_IN_FLIGHT = 100;
+	public static final long AAI_WORKLOAD_SHUTDOWN_WAIT_MS = 30000;
+    public static final String AAI_WORKLOAD_WORKERS = "aai.dmaap.workload.workers";
+    public static final String AAI_WORKLOAD_MAX_IN_FLIGHT = "aai.dmaap.workload.max.in.flight";
+	
 	public static final int AAI_MAX_TRANS_RETRIES = 5;
 	public static final long AAI_TRANS_RETRY_SLEEP_MSEC = 500;
 	
 	public static final int AAI_GROOMING_DEFAULT_MAX_FIX = 150;
 	public static final int AAI_GROOMING_DEFAULT_SLEEP_MINUTES = 7;
+	public static final int AAI_GROOMING_DEFAULT_THREADS = 1;
+	public static final int AAI_GROOMING_DEFAULT_SHARD_SIZE = 5000;
+    public static final String AAI_GROOMING_THREADS = "aai.grooming.threads";
+    public static final String AAI_GROOMING_SHARD_SIZE = "aai.grooming.shard.size";
 	
 	public static final String LOGGING_MAX_STACK_TRACE_ENTRIES = "aai.logging.maxStackTraceEntries";
 	
@@ -0,0 +1,93 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Where a paged transaction log scan stopped: which of the store's ranges it was in and
+ * the last position it returned there. Handed to clients as an opaque URL safe string.
+ */
+final class ContinuationToken {
+
+	private final int range;
+	private final String position;
+	
+	/**
+	 * Instantiates a new continuation token.
+	 *
+	 * @param range the range
+	 * @param position the position, null for the start of the range
+	 */
+	ContinuationToken(int range, String position) {
+		this.range = range;
+		this.position = position;
+	}
+	
+	/**
+	 * Gets the range.
+	 *
+	 * @return the range
+	 */
+	int getRange() {
+		return range;
+	}
+	
+	/**
+	 * Gets the position.
+	 *
+	 * @return the position
+	 */
+	String getPosition() {
+		return position;
+	}
+	
+	/**
+	 * Encodes the token.
+	 *
+	 * @return the string
+	 */
+	String encode() {
+		String value = range + ":" + (position == null ? "" : position);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Decodes a token, anything missing or unreadable starts from the beginning.
+	 *
+	 * @param token the token
+	 * @return the continuation token
+	 */
+	static ContinuationToken decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return new ContinuationToken(0, null);
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int split = value.indexOf(':');
+			String position = value.substring(split + 1);
+			return new ContinuationToken(Math.max(0, Integer.parseInt(value.substring(0, split))), position.isEmpty() ? null : position);
+		} catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+			return new ContinuationToken(0, null);
+		}
+	}
+}
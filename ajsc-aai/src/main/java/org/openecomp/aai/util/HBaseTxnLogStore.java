@@ -0,0 +1,665 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.RegexStringComparator;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openecomp.aai.domain.translog.TransactionLogEntries;
+import org.openecomp.aai.domain.translog.TransactionLogEntry;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.LogLine;
+
+/**
+ * The transaction log kept in HBase. Puts go through the TxnLogWriter, reads go straight to the table.
+ */
+public class HBaseTxnLogStore implements TxnLogStore {
+
+	private static final String COMPONENT = "aaitxnlog";
+	protected static AAILogger aaiLogger = new AAILogger(HBaseTxnLogStore.class.getName());
+	
+	/* index rows sort after the transaction rows of the same salt, which start with salt- */
+	private static final String TYPE_INDEX = "~t~";
+	private static final String APP_INDEX = "~a~";
+	private static final String INDEX_SEPARATOR = "~";
+	private static final int INDEX_SALT_BUCKETS = 3;
+	private static final long INDEX_BUCKET_MILLIS = 60000;
+
+	private org.apache.hadoop.conf.Configuration config = null;
+	
+	/* rows older than this were written without index rows */
+	private long indexSince = Long.MAX_VALUE;
+	
+	/**
+	 * Instantiates a new HBase txn log store.
+	 */
+	public HBaseTxnLogStore() {
+		LogLine logline = new LogLine();
+		logline.init(COMPONENT, "HBaseTxnLogStore", "aaiInternal", "HBaseTxnLogStore() constructor");
+		try {
+			/* When you create a HBaseConfiguration, it reads in whatever you've set
+	  		into your hbase-site.xml and in hbase-default.xml, as long as these can
+	  		be found on the CLASSPATH */
+			config = HBaseConfiguration.create();
+
+			if (config == null) {
+				aaiLogger.debug(logline, "HBaseTxnLogStore: can't create HBase configuration");
+				return;
+			}		 
+
+			config.set(AAIConstants.ZOOKEEPER_ZNODE_PARENT, AAIConfig.get(AAIConstants.HBASE_ZOOKEEPER_ZNODE_PARENT));
+			config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM, AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM));
+			config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT, AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT));
+			indexSince = Long.parseLong(AAIConfig.get(AAIConstants.AAI_TXNLOG_INDEX_SINCE, Long.toString(Long.MAX_VALUE)));
+		} catch (Exception e) {
+			aaiLogger.debug(logline, "HBaseTxnLogStore: constructor: Exception=" + e.toString());
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(String key, TransactionLogEntry entry) {
+		LogLine logline = new LogLine();
+		logline.init(COMPONENT, key, entry.getSourceId(), "put()");
+		Put p = new Put(Bytes.toBytes(key));
+
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("tid"),Bytes.toBytes(entry.getTransactionLogEntryId()));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("status"),Bytes.toBytes(entry.getStatus()));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("rqstDate"),Bytes.toBytes(entry.getRqstDate()));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("respDate"),Bytes.toBytes(entry.getRespDate()));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("sourceId"),Bytes.toBytes(entry.getSourceId()));
+
+		p.add(Bytes.toBytes("resource"),Bytes.toBytes("resourceId"),Bytes.toBytes(entry.getResourceId()));
+		p.add(Bytes.toBytes("resource"),Bytes.toBytes("resourceType"),Bytes.toBytes(entry.getResourceType()));
+
+		p.add(Bytes.toBytes("payload"),Bytes.toBytes("rqstBuf"),Bytes.toBytes(entry.getRqstBuf()));
+		p.add(Bytes.toBytes("payload"),Bytes.toBytes("respBuf"),Bytes.toBytes(entry.getrespBuf()));
+
+		/* the writer batches puts on a shared table handle, off the request thread */
+		/* the row and its index rows are queued together so scans never miss a row that was written */
+		long now = System.currentTimeMillis();
+		List<Put> puts = Arrays.asList(p,
+				indexPut(typeIndexRow(now, entry.getResourceType(), key), key, entry),
+				indexPut(appIndexRow(now, entry.getSourceId(), key), key, entry));
+		if (!TxnLogWriter.getInstance().submit(puts)) {
+			aaiLogger.debug(logline, "HBaseTxnLogStore: put: transaction log queue is full, dropped " + key);
+		}
+	}
+	
+	/**
+	 * Builds an index row. It points at the transaction row and copies the short columns
+	 * scans filter on, never the payloads.
+	 *
+	 * @param row the row
+	 * @param key the key
+	 * @param entry the entry
+	 * @return the put
+	 */
+	private Put indexPut(String row, String key, TransactionLogEntry entry) {
+		Put p = new Put(Bytes.toBytes(row));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("indexOf"),Bytes.toBytes(key));
+		p.add(Bytes.toBytes("transaction"),Bytes.toBytes("sourceId"),Bytes.toBytes(entry.getSourceId()));
+		p.add(Bytes.toBytes("resource"),Bytes.toBytes("resourceId"),Bytes.toBytes(entry.getResourceId()));
+		return p;
+	}
+
+	/**
+	 * Gets the.
+	 *
+	 * @param htid the htid
+	 * @return the transaction log entry
+	 * @throws AAIException the AAI exception
+	 */
+	@Override
+	public TransactionLogEntry get(String htid) throws AAIException {
+
+		LogLine logline = new LogLine();
+		logline.init(COMPONENT, htid, "aaiInternal", "get()");
+		aaiLogger.debug(logline, "In get: searching hbase config file...");
+		String tidStr = "";
+		TransactionLogEntry txObj = new TransactionLogEntry();
+
+		try {
+			HTable table = new HTable(config, AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
+
+			Get g = new Get(Bytes.toBytes(htid));
+
+			Result r = table.get(g);
+			byte [] tid = r.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("tid"));
+			byte [] status = r.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("status"));
+			byte [] rqstDate = r.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("rqstDate"));
+			byte [] respDate = r.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("respDate"));
+			byte [] sourceId = r.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("sourceId"));
+
+			byte [] resourceId = r.getValue(Bytes.toBytes("resource"),Bytes.toBytes("resourceId"));
+			byte [] resourceType = r.getValue(Bytes.toBytes("resource"),Bytes.toBytes("resourceType"));
+
+			byte [] rqstBuf = r.getValue(Bytes.toBytes("payload"),Bytes.toBytes("rqstBuf"));
+			byte [] respBuf = r.getValue(Bytes.toBytes("payload"),Bytes.toBytes("respBuf"));
+
+			byte [] notificationPayload = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationPayload"));
+			byte [] notificationStatus = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationStatus"));
+			byte [] notificationId = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationId"));
+			byte [] notificationTopic = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationTopic"));
+			byte [] notificationEntityLink = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationEntityLink"));
+			byte [] notificationAction = r.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationAction"));
+			// TODO: if tx logging in on, we're going to duplicate this, do we want to?
+//			aaiLogger.debug(logline, "AAITxnLog: got row=" +
+//					tidStr + "|" +
+//					Bytes.toString(status) + "|" +
+//					Bytes.toString(rqstDate) + "|" +
+//					Bytes.toString(respDate) + "|" +
+//					Bytes.toString(sourceId) + "|" +
+//					Bytes.toString(resourceId) + "|" +
+//					Bytes.toString(resourceType) + "|" +
+//					Bytes.toString(rqstBuf) + "|" +
+//					Bytes.toString(respBuf));
+
+			table.close();
+			
+			tidStr = Bytes.toString(tid);
+			txObj.setTransactionLogEntryId(tidStr);
+			txObj.setStatus(Bytes.toString(status));
+			txObj.setRqstDate(Bytes.toString(rqstDate));
+			txObj.setRespDate(Bytes.toString(respDate));
+			txObj.setSourceId(Bytes.toString(sourceId));
+			txObj.setResourceId(Bytes.toString(resourceId));
+			txObj.setResourceType(Bytes.toString(resourceType));
+			txObj.setRqstBuf(Bytes.toString(rqstBuf));
+			txObj.setrespBuf(Bytes.toString(respBuf));
+			txObj.setNotificationPayload(Bytes.toString(notificationPayload));
+			txObj.setNotificationStatus(Bytes.toString(notificationStatus));
+			txObj.setNotificationId(Bytes.toString(notificationId));
+			txObj.setNotificationTopic(Bytes.toString(notificationTopic));
+			txObj.setNotificationEntityLink(Bytes.toString(notificationEntityLink));
+			txObj.setNotificationAction(Bytes.toString(notificationAction));
+		} catch (IOException e) {
+			aaiLogger.debug(logline,  "IOException on hbase call", e);
+			throw new AAIException("AAI_4000");
+		}
+		
+		return txObj;
+	}
+
+	
+	/**
+	 * Scan filtered.
+	 * 
+	 * When methods are given the scan walks the resource type index, otherwise the
+	 * from app id index when there is an app id, and only falls back to scanning the
+	 * transaction rows themselves when there is neither. Scans that start before
+	 * aai.txnlog.index.since also read the transaction rows, since older rows have
+	 * no index rows.
+	 *
+	 * @param startMillis the start millis
+	 * @param endMillis the end millis
+	 * @param methodList the method list
+	 * @param putFilter the put filter
+	 * @param getFilter the get filter
+	 * @param resourceFilter the resource filter
+	 * @param fromAppIdFilter the from app id filter
+	 * @param pageSize the page size
+	 * @param continuationToken the continuation token
+	 * @return the transaction log entries
+	 */
+	@Override
+	public TransactionLogEntries scanFiltered(long startMillis, long endMillis, List<String> methodList, 
+			String putFilter, String getFilter, String resourceFilter, String fromAppIdFilter,
+			int pageSize, String continuationToken) {
+
+		LogLine logline = new LogLine();
+		logline.init(COMPONENT, "scanFiltered", "aaiInternal", "scanFiltered()");
+		aaiLogger.debug(logline, "Starting scanFiltered()");
+		
+		//		we should have the config ready from the constructor
+		
+		TransactionLogEntries txs = new TransactionLogEntries();
+			
+		if (config == null) {
+			aaiLogger.debug(logline, "in scan: can't create HBase configuration");
+			return txs;
+		}
+		
+		ContinuationToken token = ContinuationToken.decode(continuationToken);
+		List<String> prefixes = startMillis < indexSince ? new ArrayList<String>() : indexPrefixes(methodList, fromAppIdFilter);
+		try {
+			HTable table = new HTable(config, AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
+			try {
+				if (prefixes.isEmpty()) {
+					scanRows(table, startMillis, endMillis, methodList, putFilter, getFilter, resourceFilter, fromAppIdFilter, pageSize, token, txs);
+				} else {
+					scanIndex(table, prefixes, startMillis, endMillis, putFilter, getFilter, resourceFilter, fromAppIdFilter, pageSize, token, txs);
+				}
+			} finally {
+				table.close();
+			}
+		} catch (Exception e) {
+			aaiLogger.debug(logline, "AAITxnLog: scan: Exception=" + e.toString());
+		}
+		
+		return txs;
+	}
+	
+	/**
+	 * Walks index rows in key order, one bounded range per prefix, and fetches the
+	 * transaction rows they point to a page at a time.  A prefix that ends with the
+	 * separator is bounded by time; one that doesn't covers every key that starts with
+	 * it, and its rows are checked against the times one by one.
+	 *
+	 * @param table the table
+	 * @param prefixes the index prefixes
+	 * @param startMillis the start millis
+	 * @param endMillis the end millis
+	 * @param putFilter the put filter
+	 * @param getFilter the get filter
+	 * @param resourceFilter the resource filter
+	 * @param fromAppIdFilter the from app id filter
+	 * @param pageSize the page size
+	 * @param token the token
+	 * @param txs the page being filled
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void scanIndex(HTable table, List<String> prefixes, long startMillis, long endMillis,
+			String putFilter, String getFilter, String resourceFilter, String fromAppIdFilter,
+			int pageSize, ContinuationToken token, TransactionLogEntries txs) throws IOException {
+		Pattern putPattern = putFilter == null ? null : Pattern.compile(putFilter);
+		Pattern getPattern = getFilter == null ? null : Pattern.compile(getFilter);
+		Pattern resourcePattern = resourceFilter == null ? null : Pattern.compile(resourceFilter);
+		List<String> indexRows = new ArrayList<>();
+		List<Get> gets = new ArrayList<>();
+		
+		for (int r = token.getRange(); r < prefixes.size(); r++) {
+			String prefix = prefixes.get(r);
+			boolean timeBounded = prefix.endsWith(INDEX_SEPARATOR);
+			byte[] startRow = Bytes.toBytes(timeBounded ? prefix + pad(startMillis) : prefix);
+			if (r == token.getRange() && token.getPosition() != null) {
+				//just past the last row the previous page returned
+				startRow = Bytes.add(Bytes.toBytes(token.getPosition()), new byte[] { 0 });
+			}
+			Scan s = new Scan(startRow, Bytes.toBytes(timeBounded ? prefix + pad(endMillis) : nextPrefix(prefix)));
+			s.setCaching(Math.min(pageSize, 1000));
+			ResultScanner scanner = table.getScanner(s);
+			try {
+				for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+					if (!timeBounded) {
+						long time = indexTime(Bytes.toString(rr.getRow()));
+						if (time < startMillis || time >= endMillis) {
+							continue;
+						}
+					}
+					//the index row carries the short columns so these filters never touch the payloads
+					String sourceId = Bytes.toString(rr.getValue(Bytes.toBytes("transaction"), Bytes.toBytes("sourceId")));
+					String resourceId = Bytes.toString(rr.getValue(Bytes.toBytes("resource"), Bytes.toBytes("resourceId")));
+					if (fromAppIdFilter != null && (sourceId == null || !sourceId.startsWith(fromAppIdFilter))) {
+						continue;
+					}
+					if (resourcePattern != null && (resourceId == null || !resourcePattern.matcher(resourceId).find())) {
+						continue;
+					}
+					indexRows.add(Bytes.toString(rr.getRow()));
+					gets.add(new Get(rr.getValue(Bytes.toBytes("transaction"), Bytes.toBytes("indexOf"))));
+					if (gets.size() == pageSize - txs.getTransactionLogEntries().size()
+							&& fillPage(table, r, indexRows, gets, putPattern, getPattern, pageSize, txs)) {
+						return;
+					}
+				}
+				if (fillPage(table, r, indexRows, gets, putPattern, getPattern, pageSize, txs)) {
+					return;
+				}
+			} finally {
+				scanner.close();
+			}
+		}
+	}
+	
+	/**
+	 * Fetches the transaction rows for a run of index rows and adds the ones that pass the payload filters.
+	 *
+	 * @param table the table
+	 * @param range the range
+	 * @param indexRows the index rows
+	 * @param gets the gets
+	 * @param putPattern the put pattern
+	 * @param getPattern the get pattern
+	 * @param pageSize the page size
+	 * @param txs the txs
+	 * @return true, if the page is full
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean fillPage(HTable table, int range, List<String> indexRows, List<Get> gets,
+			Pattern putPattern, Pattern getPattern, int pageSize, TransactionLogEntries txs) throws IOException {
+		if (gets.isEmpty()) {
+			return false;
+		}
+		Result[] results = table.get(gets);
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] == null || results[i].isEmpty()) {
+				continue;
+			}
+			TransactionLogEntry txObj = toEntry(results[i]);
+			if (find(putPattern, txObj.getRqstBuf()) && find(getPattern, txObj.getrespBuf())) {
+				txs.getTransactionLogEntries().add(txObj);
+				if (txs.getTransactionLogEntries().size() == pageSize) {
+					txs.setContinuationToken(new ContinuationToken(range, indexRows.get(i)).encode());
+					return true;
+				}
+			}
+		}
+		indexRows.clear();
+		gets.clear();
+		
+		return false;
+	}
+	
+	/**
+	 * Scans the transaction rows themselves, for scans the indexes can't bound.
+	 *
+	 * @param table the table
+	 * @param startMillis the start millis
+	 * @param endMillis the end millis
+	 * @param methodList the method list
+	 * @param putFilter the put filter
+	 * @param getFilter the get filter
+	 * @param resourceFilter the resource filter
+	 * @param fromAppIdFilter the from app id filter
+	 * @param pageSize the page size
+	 * @param token the token
+	 * @param txs the txs
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void scanRows(HTable table, long startMillis, long endMillis, List<String> methodList,
+			String putFilter, String getFilter, String resourceFilter, String fromAppIdFilter,
+			int pageSize, ContinuationToken token, TransactionLogEntries txs) throws IOException {
+		Scan s = new Scan();
+		if (token.getPosition() != null) {
+			s = new Scan(Bytes.add(Bytes.toBytes(token.getPosition()), new byte[] { 0 }));
+		}
+		FilterList flMaster = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+		if (methodList != null && !methodList.isEmpty()) { 
+			FilterList methodflMaster = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+			for (String method : methodList) { 
+				Filter filt = new SingleColumnValueFilter(Bytes.toBytes("resource"),
+						Bytes.toBytes("resourceType"), CompareOp.EQUAL, Bytes.toBytes(method));
+				methodflMaster.addFilter(filt);
+			}
+			flMaster.addFilter(methodflMaster);
+		}
+		
+		if (getFilter != null) { 
+			Filter filt = new SingleColumnValueFilter(Bytes.toBytes("payload"),
+					Bytes.toBytes("respBuf"), CompareOp.EQUAL, new RegexStringComparator(getFilter));
+			flMaster.addFilter(filt);
+		}
+		if (putFilter != null) { 
+			Filter filt = new SingleColumnValueFilter(Bytes.toBytes("payload"),
+					Bytes.toBytes("rqstBuf"), CompareOp.EQUAL, new RegexStringComparator(putFilter));
+			flMaster.addFilter(filt);
+		}
+		if (resourceFilter != null) { 
+			Filter filt = new SingleColumnValueFilter(Bytes.toBytes("resource"),
+					Bytes.toBytes("resourceId"), CompareOp.EQUAL, new RegexStringComparator(resourceFilter));
+			flMaster.addFilter(filt);
+		}
+		if (fromAppIdFilter != null) { 
+			Filter filt = new SingleColumnValueFilter(Bytes.toBytes("transaction"),
+					Bytes.toBytes("sourceId"), CompareOp.EQUAL, new RegexStringComparator("^" + fromAppIdFilter));
+			flMaster.addFilter(filt);
+		}
+		
+		if (flMaster.hasFilterRow()) { 
+			s.setFilter(flMaster);
+		}
+		
+		s.setTimeRange(startMillis, endMillis);
+		s.setCaching(Math.min(pageSize, 1000));
+		ResultScanner scanner = table.getScanner(s);
+
+		try {		
+			for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+				if (rr.getValue(Bytes.toBytes("transaction"), Bytes.toBytes("tid")) == null) {
+					//index rows
+					continue;
+				}
+				txs.getTransactionLogEntries().add(toEntry(rr));
+				if (txs.getTransactionLogEntries().size() == pageSize) {
+					txs.setContinuationToken(new ContinuationToken(0, Bytes.toString(rr.getRow())).encode());
+					return;
+				}
+			}
+		} finally {
+			// Make sure you close your scanners when you are done!
+			scanner.close();
+		}
+	}
+	
+	/**
+	 * Reads a transaction row.
+	 *
+	 * @param rr the row
+	 * @return the transaction log entry
+	 */
+	private TransactionLogEntry toEntry(Result rr) {
+		byte [] tid = rr.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("tid"));
+		byte [] status = rr.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("status"));
+		byte [] rqstDate = rr.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("rqstDate"));
+		byte [] respDate = rr.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("respDate"));
+		byte [] sourceId = rr.getValue(Bytes.toBytes("transaction"),Bytes.toBytes("sourceId"));
+
+		byte [] resourceId = rr.getValue(Bytes.toBytes("resource"),Bytes.toBytes("resourceId"));
+		byte [] resourceType = rr.getValue(Bytes.toBytes("resource"),Bytes.toBytes("resourceType"));
+
+		byte [] rqstBuf = rr.getValue(Bytes.toBytes("payload"),Bytes.toBytes("rqstBuf"));
+		byte [] respBuf = rr.getValue(Bytes.toBytes("payload"),Bytes.toBytes("respBuf"));
+		
+		byte [] notificationPayload = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationPayload"));
+		byte [] notificationStatus = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationStatus"));
+		byte [] notificationId = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationId"));
+		byte [] notificationTopic = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationTopic"));
+		byte [] notificationEntityLink = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationEntityLink"));
+		byte [] notificationAction = rr.getValue(Bytes.toBytes("notification"),Bytes.toBytes("notificationAction"));
+		TransactionLogEntry txObj = new TransactionLogEntry();
+		String tidStr = Bytes.toString(tid);
+		txObj.setTransactionLogEntryId(tidStr);
+		txObj.setStatus(Bytes.toString(status));
+		txObj.setRqstDate(Bytes.toString(rqstDate));
+		txObj.setRespDate(Bytes.toString(respDate));
+		txObj.setSourceId(Bytes.toString(sourceId));
+		txObj.setResourceId(Bytes.toString(resourceId));
+		txObj.setResourceType(Bytes.toString(resourceType));
+		txObj.setRqstBuf(Bytes.toString(rqstBuf));
+		txObj.setrespBuf(Bytes.toString(respBuf));
+		txObj.setNotificationPayload(Bytes.toString(notificationPayload));
+		txObj.setNotificationStatus(Bytes.toString(notificationStatus));
+		txObj.setNotificationId(Bytes.toString(notificationId));
+		txObj.setNotificationTopic(Bytes.toString(notificationTopic));
+		txObj.setNotificationEntityLink(Bytes.toString(notificationEntityLink));
+		txObj.setNotificationAction(Bytes.toString(notificationAction));
+		
+		return txObj;
+	}
+	
+	private static boolean find(Pattern pattern, String value) {
+		return pattern == null || (value != null && pattern.matcher(value).find());
+	}
+	
+	/**
+	 * The key of a resource type index row. The salt comes from the time bucket so
+	 * consecutive minutes land on different regions.
+	 *
+	 * @param time the time
+	 * @param resourceType the resource type
+	 * @param key the key of the transaction row
+	 * @return the row key
+	 */
+	static String typeIndexRow(long time, String resourceType, String key) {
+		return salt(time) + TYPE_INDEX + resourceType + INDEX_SEPARATOR + pad(time) + INDEX_SEPARATOR + key;
+	}
+	
+	/**
+	 * The key of a from app id index row.
+	 *
+	 * @param time the time
+	 * @param sourceId the source id, the app id is the part before the colon
+	 * @param key the key of the transaction row
+	 * @return the row key
+	 */
+	static String appIndexRow(long time, String sourceId, String key) {
+		String appId = sourceId == null ? "" : sourceId;
+		if (appId.indexOf(':') >= 0) {
+			appId = appId.substring(0, appId.indexOf(':'));
+		}
+		return salt(time) + APP_INDEX + appId + INDEX_SEPARATOR + pad(time) + INDEX_SEPARATOR + key;
+	}
+	
+	/**
+	 * The index ranges a scan has to read, one per salt for each method, or for the
+	 * app id when there are no methods. Empty when neither can bound the scan.
+	 * 
+	 * The from app id filter matches source ids that start with it.  Without a colon it
+	 * may stop part way through an app id, so its prefix covers every app id starting
+	 * with it; with one, the app id is the part before the colon and only that app's
+	 * rows are read.
+	 *
+	 * @param methodList the method list
+	 * @param fromAppIdFilter the from app id filter
+	 * @return the prefixes
+	 */
+	static List<String> indexPrefixes(List<String> methodList, String fromAppIdFilter) {
+		List<String> prefixes = new ArrayList<>();
+		if (methodList != null && !methodList.isEmpty()) {
+			for (String method : methodList) {
+				for (int salt = 0; salt < INDEX_SALT_BUCKETS; salt++) {
+					prefixes.add(salt + TYPE_INDEX + method + INDEX_SEPARATOR);
+				}
+			}
+		} else if (fromAppIdFilter != null && !fromAppIdFilter.isEmpty()) {
+			int colon = fromAppIdFilter.indexOf(':');
+			for (int salt = 0; salt < INDEX_SALT_BUCKETS; salt++) {
+				if (colon < 0) {
+					prefixes.add(salt + APP_INDEX + fromAppIdFilter);
+				} else {
+					prefixes.add(salt + APP_INDEX + fromAppIdFilter.substring(0, colon) + INDEX_SEPARATOR);
+				}
+			}
+		}
+		
+		return prefixes;
+	}
+	
+	/**
+	 * The first row key after every key that starts with the prefix.
+	 *
+	 * @param prefix the prefix
+	 * @return the row key
+	 */
+	static String nextPrefix(String prefix) {
+		char last = prefix.charAt(prefix.length() - 1);
+		return prefix.substring(0, prefix.length() - 1) + (char)(last + 1);
+	}
+	
+	/**
+	 * The time of an index row, which follows the resource type or app id.
+	 *
+	 * @param row the row key
+	 * @return the time
+	 */
+	static long indexTime(String row) {
+		int start = row.indexOf(INDEX_SEPARATOR, row.indexOf(INDEX_SEPARATOR, row.indexOf(INDEX_SEPARATOR) + 1) + 1) + 1;
+		return Long.parseLong(row.substring(start, start + 13));
+	}
+	
+	private static long salt(long time) {
+		return (time / INDEX_BUCKET_MILLIS) % INDEX_SALT_BUCKETS;
+	}
+	
+	private static String pad(long time) {
+		return String.format("%013d", time);
+	}
+
+	/**
+	 * Scan.
+	 *
+	 * @param htid the htid
+	 * @return the list
+	 */
+	@Override
+	public List<String> scan(String htid) {
+
+		List<String> list = new ArrayList<String>();
+		LogLine logline = new LogLine();
+		logline.init(COMPONENT, htid, "aaiInternal", "scan()");
+		aaiLogger.debug(logline, "In scan: searching hbase config file...");
+		//		we should have the config ready from the constructor
+		if (config == null) {
+			aaiLogger.debug(logline, "in scan: can't create HBase configuration");
+			return list;
+		}
+
+		try {
+			HTable table = new HTable(config, AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
+			//Scan s = new Scan();
+			//s.addColumn(Bytes.toBytes("transaction"), Bytes.toBytes("tid"));
+			//s.addColumn(Bytes.toBytes("payload"), Bytes.toBytes("rqstBuf"));
+			Scan s = new Scan(Bytes.toBytes(htid));
+			ResultScanner scanner = table.getScanner(s);
+
+			try {		
+				for (Result rr = scanner.next(); rr != null; rr = scanner.next()) {
+					if (rr.getValue(Bytes.toBytes("transaction"), Bytes.toBytes("tid")) == null) {
+						//index rows
+						continue;
+					}
+					list.add(rr.toString());
+					aaiLogger.debug(logline, "in scan: Found row : " + rr);
+
+				}
+			} finally {
+				// Make sure you close your scanners when you are done!
+				scanner.close();
+			}
+			table.close();
+		} catch (Exception e) {
+
+			aaiLogger.debug(logline, "AAITxnLog: scan: Exception=" + e.toString());
+		}
+		return list;
+	}
+
+}
@@ -0,0 +1,119 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Put;
+import org.openecomp.aai.exceptions.AAIException;
+
+/**
+ * The transaction log table backed by HBase.
+ * 
+ * Opening an HConnection costs about a second, so one connection and one table handle
+ * are opened the first time a batch is written and kept for the life of the writer.
+ */
+public class HBaseTxnLogTable implements TxnLogTable {
+
+	private HConnection connection = null;
+	private HTableInterface table = null;
+	
+	/**
+	 * Instantiates a new HBase txn log table.
+	 */
+	public HBaseTxnLogTable() {
+		
+	}
+	
+	/**
+	 * Opens the shared connection and table handle if they are not open yet.
+	 *
+	 * @return the table
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws AAIException the AAI exception
+	 */
+	private HTableInterface getTable() throws IOException, AAIException {
+		if (table == null) {
+			if (connection == null || connection.isClosed()) {
+				Configuration config = HBaseConfiguration.create();
+				config.set(AAIConstants.ZOOKEEPER_ZNODE_PARENT, AAIConfig.get(AAIConstants.HBASE_ZOOKEEPER_ZNODE_PARENT));
+				config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM, AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_QUORUM));
+				config.set(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT, AAIConfig.get(AAIConstants.HBASE_CONFIGURATION_ZOOKEEPER_CLIENTPORT));
+				connection = HConnectionManager.createConnection(config);
+			}
+			table = connection.getTable(AAIConfig.get(AAIConstants.HBASE_TABLE_NAME));
+			//the writer decides when to flush
+			table.setAutoFlush(false, true);
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(List<Put> puts) throws IOException {
+		HTableInterface t = null;
+		try {
+			t = getTable();
+		} catch (AAIException e) {
+			throw new IOException("transaction log table is not configured", e);
+		}
+		try {
+			t.put(puts);
+			t.flushCommits();
+		} catch (IOException e) {
+			//drop the handle so the next batch starts from a clean one
+			table = null;
+			try {
+				t.close();
+			} catch (IOException e1) {
+				//already failing
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (table != null) {
+				table.close();
+			}
+		} finally {
+			table = null;
+			if (connection != null) {
+				connection.close();
+				connection = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,600 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.openecomp.aai.domain.translog.TransactionLogEntries;
+import org.openecomp.aai.domain.translog.TransactionLogEntry;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.LogLine;
+
+/**
+ * A transaction log kept in local, append only segment files.
+ * 
+ * Every segment belongs to one time partition and is memory mapped at its full size when it
+ * is created, so a put is a copy into the mapping. Records are a length, the time they were
+ * stored and then each field as a varint length and its UTF-8 bytes. The fields that scans
+ * filter on come first so a record can be rejected without reading its payloads.
+ * 
+ * The sparse index is kept in memory and rebuilt from the files on startup. It holds the
+ * time range and resource types of each segment and of each block of BLOCK_RECORDS records,
+ * so scans skip whole segments and blocks that can't match.
+ * 
+ * Once a segment is no longer the one being written it is mapped again read only, over just
+ * the part that holds records.  Segments whose newest record is older than the retention
+ * are dropped and their files deleted; the mappings go once nothing is reading them.
+ */
+public class SegmentTxnLogStore implements TxnLogStore {
+
+	private static final String COMPONENT = "aaitxnlog";
+	private static final String SEGMENT_PREFIX = "txnlog-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final int BLOCK_RECORDS = 64;
+	private static AAILogger aaiLogger = new AAILogger(SegmentTxnLogStore.class.getName());
+	
+	private final File dir;
+	private final long segmentBytes;
+	private final long partitionMillis;
+	private final long retentionMillis;
+	private final List<Segment> segments = new ArrayList<>();
+	private Segment active = null;
+	private int sequence = 0;
+	
+	/**
+	 * A range of records in a segment and what they contain.
+	 */
+	private static class Block {
+		private final int start;
+		private int end;
+		private int count = 0;
+		private long minTime = Long.MAX_VALUE;
+		private long maxTime = Long.MIN_VALUE;
+		private final Set<String> types = new HashSet<>();
+		
+		private Block(int start) {
+			this.start = start;
+			this.end = start;
+		}
+		
+		private void add(long time, String type, int recordEnd) {
+			end = recordEnd;
+			count++;
+			minTime = Math.min(minTime, time);
+			maxTime = Math.max(maxTime, time);
+			types.add(type == null ? "" : type);
+		}
+		
+		private Block copy() {
+			Block result = new Block(start);
+			result.end = end;
+			result.count = count;
+			result.minTime = minTime;
+			result.maxTime = maxTime;
+			result.types.addAll(types);
+			return result;
+		}
+		
+		private boolean matches(long startMillis, long endMillis, Set<String> methods) {
+			if (count == 0 || maxTime < startMillis || minTime >= endMillis) {
+				return false;
+			}
+			if (methods == null) {
+				return true;
+			}
+			for (String type : types) {
+				if (methods.contains(type)) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+	
+	/**
+	 * One mapped segment file and its index.
+	 */
+	private static class Segment {
+		private final File file;
+		private final long partition;
+		private final int sequence;
+		private MappedByteBuffer buffer;
+		private final List<Block> blocks = new ArrayList<>();
+		private final Block summary = new Block(0);
+		private int end = 0;
+		
+		private Segment(File file, long partition, int sequence, long size) throws IOException {
+			this.file = file;
+			this.partition = partition;
+			this.sequence = sequence;
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				if (raf.length() < size) {
+					raf.setLength(size);
+				}
+				buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+			}
+			//pick up whatever is already in the file, a zero length marks the end
+			while (end + 4 <= buffer.capacity()) {
+				int length = buffer.getInt(end);
+				if (length <= 0 || end + 4 + length > buffer.capacity()) {
+					break;
+				}
+				ByteBuffer record = slice(buffer, end + 4, length);
+				long time = record.getLong();
+				index(time, readString(record), end + 4 + length);
+			}
+		}
+		
+		private boolean hasRoom(int length) {
+			return end + 4 + length <= buffer.capacity();
+		}
+		
+		private void append(long time, String type, byte[] record) {
+			ByteBuffer b = buffer.duplicate();
+			b.position(end + 4);
+			b.put(record);
+			//the length goes in last so a torn write reads as the end of the segment
+			buffer.putInt(end, record.length);
+			index(time, type, end + 4 + record.length);
+		}
+		
+		/**
+		 * Maps the records again read only, letting go of the writable mapping of the whole file.
+		 */
+		private void seal() throws IOException {
+			buffer.force();
+			try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+				buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, end);
+			}
+		}
+		
+		private void index(long time, String type, int recordEnd) {
+			Block current = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+			if (current == null || current.count == BLOCK_RECORDS) {
+				current = new Block(end);
+				blocks.add(current);
+			}
+			current.add(time, type, recordEnd);
+			summary.add(time, type, recordEnd);
+			end = recordEnd;
+		}
+	}
+	
+	/**
+	 * What a scan needs from a segment, taken under the store lock.
+	 */
+	private static class SegmentView {
+		private final int sequence;
+		private final ByteBuffer buffer;
+		private final Block summary;
+		private final List<Block> blocks;
+		
+		private SegmentView(Segment segment) {
+			sequence = segment.sequence;
+			buffer = segment.buffer.duplicate();
+			summary = segment.summary.copy();
+			blocks = new ArrayList<>(segment.blocks);
+			if (!blocks.isEmpty()) {
+				//the last block can still grow
+				blocks.set(blocks.size() - 1, blocks.get(blocks.size() - 1).copy());
+			}
+		}
+	}
+	
+	/**
+	 * Instantiates a new segment txn log store that keeps its segments forever.
+	 *
+	 * @param dir the dir
+	 * @param segmentBytes the size of each segment file
+	 * @param partitionMillis the length of a time partition
+	 */
+	public SegmentTxnLogStore(File dir, long segmentBytes, long partitionMillis) {
+		this(dir, segmentBytes, partitionMillis, 0);
+	}
+	
+	/**
+	 * Instantiates a new segment txn log store, loading any segments already in the directory.
+	 *
+	 * @param dir the dir
+	 * @param segmentBytes the size of each segment file
+	 * @param partitionMillis the length of a time partition
+	 * @param retentionMillis how long records are kept, 0 to keep them forever
+	 */
+	public SegmentTxnLogStore(File dir, long segmentBytes, long partitionMillis, long retentionMillis) {
+		this.dir = dir;
+		this.segmentBytes = Math.min(Integer.MAX_VALUE, Math.max(1024, segmentBytes));
+		this.partitionMillis = Math.max(1, partitionMillis);
+		this.retentionMillis = Math.max(0, retentionMillis);
+		dir.mkdirs();
+		File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				String[] parts = file.getName().substring(SEGMENT_PREFIX.length(), file.getName().length() - SEGMENT_SUFFIX.length()).split("-");
+				try {
+					Segment segment = new Segment(file, Long.parseLong(parts[0]), Integer.parseInt(parts[1]), 0);
+					segments.add(segment);
+					sequence = Math.max(sequence, segment.sequence + 1);
+				} catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+					LogLine logline = new LogLine();
+					logline.init(COMPONENT, file.getName(), "aaiInternal", "SegmentTxnLogStore() constructor");
+					aaiLogger.debug(logline, "SegmentTxnLogStore: skipping segment: Exception=" + e.toString());
+				}
+			}
+		}
+		if (!segments.isEmpty()) {
+			active = segments.get(segments.size() - 1);
+		}
+		for (Segment segment : segments) {
+			if (segment != active) {
+				this.seal(segment);
+			}
+		}
+		this.dropExpired(System.currentTimeMillis());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void put(String key, TransactionLogEntry entry) {
+		long now = System.currentTimeMillis();
+		long partition = now - (now % partitionMillis);
+		byte[] record = encode(now, key, entry);
+		try {
+			if (active == null || active.partition != partition || !active.hasRoom(record.length)) {
+				String name = String.format("%s%013d-%06d%s", SEGMENT_PREFIX, partition, sequence, SEGMENT_SUFFIX);
+				Segment previous = active;
+				active = new Segment(new File(dir, name), partition, sequence++, Math.max(segmentBytes, 4L + record.length));
+				segments.add(active);
+				if (previous != null) {
+					this.seal(previous);
+				}
+				this.dropExpired(now);
+			}
+			active.append(now, entry.getResourceType(), record);
+		} catch (IOException e) {
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, key, entry.getSourceId(), "put()");
+			aaiLogger.debug(logline, "SegmentTxnLogStore: put: Exception=" + e.toString());
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TransactionLogEntry get(String key) throws AAIException {
+		List<SegmentView> views = snapshot();
+		for (int i = views.size() - 1; i >= 0; i--) {
+			ByteBuffer buffer = views.get(i).buffer;
+			TransactionLogEntry found = null;
+			for (Block block : views.get(i).blocks) {
+				int pos = block.start;
+				while (pos < block.end) {
+					int length = buffer.getInt(pos);
+					ByteBuffer record = slice(buffer, pos + 4, length);
+					pos += 4 + length;
+					record.getLong();
+					String type = readString(record);
+					String sourceId = readString(record);
+					String resourceId = readString(record);
+					if (key.equals(readString(record))) {
+						found = decode(record, type, sourceId, resourceId);
+					}
+				}
+			}
+			if (found != null) {
+				return found;
+			}
+		}
+		
+		return new TransactionLogEntry();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> scan(String key) {
+		Map<String, String> rows = new TreeMap<>();
+		for (SegmentView view : snapshot()) {
+			for (Block block : view.blocks) {
+				int pos = block.start;
+				while (pos < block.end) {
+					int length = view.buffer.getInt(pos);
+					ByteBuffer record = slice(view.buffer, pos + 4, length);
+					pos += 4 + length;
+					long time = record.getLong();
+					String type = readString(record);
+					String sourceId = readString(record);
+					String resourceId = readString(record);
+					String rowKey = readString(record);
+					if (rowKey != null && rowKey.compareTo(key) >= 0) {
+						rows.put(rowKey, "keyvalues={" + rowKey + "/" + time + "/" + type + "/" + sourceId + "/" + resourceId + "}");
+					}
+				}
+			}
+		}
+		
+		return new ArrayList<>(rows.values());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TransactionLogEntries scanFiltered(long startMillis, long endMillis, List<String> methodList,
+			String putFilter, String getFilter, String resourceFilter, String fromAppIdFilter,
+			int pageSize, String continuationToken) {
+		TransactionLogEntries txs = new TransactionLogEntries();
+		ContinuationToken token = ContinuationToken.decode(continuationToken);
+		int resumeAt = 0;
+		try {
+			resumeAt = token.getPosition() == null ? 0 : Integer.parseInt(token.getPosition());
+		} catch (NumberFormatException e) {
+			//start the segment over
+		}
+		Set<String> methods = methodList == null ? null : new HashSet<>(methodList);
+		Pattern putPattern = putFilter == null ? null : Pattern.compile(putFilter);
+		Pattern getPattern = getFilter == null ? null : Pattern.compile(getFilter);
+		Pattern resourcePattern = resourceFilter == null ? null : Pattern.compile(resourceFilter);
+		
+		//the token names the segment by its sequence, which stays put when older segments are dropped
+		for (SegmentView view : snapshot()) {
+			if (view.sequence < token.getRange()) {
+				continue;
+			}
+			int from = view.sequence == token.getRange() ? resumeAt : 0;
+			if (!view.summary.matches(startMillis, endMillis, methods)) {
+				continue;
+			}
+			for (Block block : view.blocks) {
+				if (block.end <= from || !block.matches(startMillis, endMillis, methods)) {
+					continue;
+				}
+				int pos = Math.max(block.start, from);
+				while (pos < block.end) {
+					int length = view.buffer.getInt(pos);
+					ByteBuffer record = slice(view.buffer, pos + 4, length);
+					pos += 4 + length;
+					long time = record.getLong();
+					if (time < startMillis || time >= endMillis) {
+						continue;
+					}
+					String type = readString(record);
+					if (methods != null && !methods.contains(type)) {
+						continue;
+					}
+					String sourceId = readString(record);
+					if (fromAppIdFilter != null && (sourceId == null || !sourceId.startsWith(fromAppIdFilter))) {
+						continue;
+					}
+					String resourceId = readString(record);
+					if (!find(resourcePattern, resourceId)) {
+						continue;
+					}
+					readString(record);
+					TransactionLogEntry entry = decode(record, type, sourceId, resourceId);
+					if (find(putPattern, entry.getRqstBuf()) && find(getPattern, entry.getrespBuf())) {
+						txs.getTransactionLogEntries().add(entry);
+						if (txs.getTransactionLogEntries().size() == pageSize) {
+							txs.setContinuationToken(new ContinuationToken(view.sequence, Integer.toString(pos)).encode());
+							return txs;
+						}
+					}
+				}
+			}
+		}
+		
+		return txs;
+	}
+	
+	/**
+	 * Maps a segment that is no longer written read only.
+	 *
+	 * @param segment the segment
+	 */
+	private void seal(Segment segment) {
+		try {
+			segment.seal();
+		} catch (IOException e) {
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, segment.file.getName(), "aaiInternal", "seal()");
+			aaiLogger.debug(logline, "SegmentTxnLogStore: could not seal segment: Exception=" + e.toString());
+		}
+	}
+	
+	/**
+	 * Drops the segments whose newest record is older than the retention, and deletes their files.
+	 * Scans already running keep reading the mappings they have.
+	 *
+	 * @param now the now
+	 */
+	private void dropExpired(long now) {
+		if (retentionMillis == 0) {
+			return;
+		}
+		Iterator<Segment> iter = segments.iterator();
+		while (iter.hasNext()) {
+			Segment segment = iter.next();
+			if (segment != active && segment.summary.maxTime < now - retentionMillis) {
+				iter.remove();
+				if (!segment.file.delete()) {
+					LogLine logline = new LogLine();
+					logline.init(COMPONENT, segment.file.getName(), "aaiInternal", "dropExpired()");
+					aaiLogger.debug(logline, "SegmentTxnLogStore: could not delete expired segment");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Copies the index so scans can read the mappings without holding the lock.
+	 *
+	 * @return the segment views
+	 */
+	private synchronized List<SegmentView> snapshot() {
+		List<SegmentView> views = new ArrayList<>(segments.size());
+		for (Segment segment : segments) {
+			views.add(new SegmentView(segment));
+		}
+		
+		return views;
+	}
+	
+	private static boolean find(Pattern pattern, String value) {
+		return pattern == null || pattern.matcher(value == null ? "" : value).find();
+	}
+	
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+		ByteBuffer result = buffer.duplicate();
+		result.position(position);
+		result.limit(position + length);
+		return result.slice();
+	}
+	
+	/**
+	 * Encodes an entry, the filtered fields first.
+	 *
+	 * @param time the time
+	 * @param key the key
+	 * @param entry the entry
+	 * @return the record
+	 */
+	static byte[] encode(long time, String key, TransactionLogEntry entry) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			out.write((int)(time >>> shift));
+		}
+		writeString(out, entry.getResourceType());
+		writeString(out, entry.getSourceId());
+		writeString(out, entry.getResourceId());
+		writeString(out, key);
+		writeString(out, entry.getTransactionLogEntryId());
+		writeString(out, entry.getStatus());
+		writeString(out, entry.getRqstDate());
+		writeString(out, entry.getRespDate());
+		writeString(out, entry.getRqstBuf());
+		writeString(out, entry.getrespBuf());
+		writeString(out, entry.getNotificationPayload());
+		writeString(out, entry.getNotificationStatus());
+		writeString(out, entry.getNotificationId());
+		writeString(out, entry.getNotificationTopic());
+		writeString(out, entry.getNotificationEntityLink());
+		writeString(out, entry.getNotificationAction());
+		
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Decodes the rest of a record once the filtered fields and the key have been read.
+	 *
+	 * @param record the record
+	 * @param type the type
+	 * @param sourceId the source id
+	 * @param resourceId the resource id
+	 * @return the transaction log entry
+	 */
+	private static TransactionLogEntry decode(ByteBuffer record, String type, String sourceId, String resourceId) {
+		TransactionLogEntry entry = new TransactionLogEntry();
+		entry.setResourceType(type);
+		entry.setSourceId(sourceId);
+		entry.setResourceId(resourceId);
+		entry.setTransactionLogEntryId(readString(record));
+		entry.setStatus(readString(record));
+		entry.setRqstDate(readString(record));
+		entry.setRespDate(readString(record));
+		entry.setRqstBuf(readString(record));
+		entry.setrespBuf(readString(record));
+		entry.setNotificationPayload(readString(record));
+		entry.setNotificationStatus(readString(record));
+		entry.setNotificationId(readString(record));
+		entry.setNotificationTopic(readString(record));
+		entry.setNotificationEntityLink(readString(record));
+		entry.setNotificationAction(readString(record));
+		
+		return entry;
+	}
+	
+	/**
+	 * Writes a string as a varint of its length plus one, zero for null, and its UTF-8 bytes.
+	 *
+	 * @param out the out
+	 * @param value the value
+	 */
+	private static void writeString(ByteArrayOutputStream out, String value) {
+		if (value == null) {
+			out.write(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = bytes.length + 1;
+		while ((length & ~0x7F) != 0) {
+			out.write((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		out.write(length);
+		out.write(bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * Reads a string written by writeString.
+	 *
+	 * @param in the in
+	 * @return the string
+	 */
+	private static String readString(ByteBuffer in) {
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = in.get();
+			length |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length - 1];
+		in.get(bytes);
+		
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
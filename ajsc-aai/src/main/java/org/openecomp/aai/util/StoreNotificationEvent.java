@@ -22,7 +22,9 @@ package org.openecomp.aai.util;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import org.apache.cxf.message.Exchange;
@@ -181,6 +183,14 @@ public class StoreNotificationEvent {
 			message.put("NOTIFICATION_EVENT", notificationEvent);
 			message.put("NOTIFICATION_EVENT_TYPE", "dynamic");
 			message.put("NOTIFICATION_JAXB_CONTEXT", notificationJaxbContext);
+			// a request can raise more than one event, keep them all in the order they happened
+			@SuppressWarnings("unchecked")
+			List<DynamicEntity> events = (List<DynamicEntity>)message.get("NOTIFICATION_EVENTS");
+			if (events == null) {
+				events = new ArrayList<>();
+				message.put("NOTIFICATION_EVENTS", events);
+			}
+			events.add(notificationEvent);
 		} catch (Exception e) {
 			throw new AAIException("AAI_7350", e);
 		}
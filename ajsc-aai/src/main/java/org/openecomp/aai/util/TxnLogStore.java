@@ -0,0 +1,77 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.util.List;
+
+import org.openecomp.aai.domain.translog.TransactionLogEntries;
+import org.openecomp.aai.domain.translog.TransactionLogEntry;
+import org.openecomp.aai.exceptions.AAIException;
+
+/**
+ * Where transaction log entries are kept. AAITxnLog picks the implementation
+ * named by aai.txnlog.store and hands every call to it.
+ */
+public interface TxnLogStore {
+
+	/**
+	 * Stores an entry under the given key.
+	 *
+	 * @param key the key
+	 * @param entry the entry
+	 */
+	public void put(String key, TransactionLogEntry entry);
+	
+	/**
+	 * Gets the entry stored under the key.
+	 *
+	 * @param key the key
+	 * @return the transaction log entry, with no fields set when nothing was found
+	 * @throws AAIException the AAI exception
+	 */
+	public TransactionLogEntry get(String key) throws AAIException;
+	
+	/**
+	 * Lists the entries starting at the key, one string per entry.
+	 *
+	 * @param key the key
+	 * @return the list
+	 */
+	public List<String> scan(String key);
+	
+	/**
+	 * Finds the entries stored between two times that pass every filter given.
+	 *
+	 * @param startMillis the start millis, inclusive
+	 * @param endMillis the end millis, exclusive
+	 * @param methodList the resource types to keep, all of them if null
+	 * @param putFilter regex the request payload has to match
+	 * @param getFilter regex the response payload has to match
+	 * @param resourceFilter regex the resource id has to match
+	 * @param fromAppIdFilter prefix of the source id
+	 * @param pageSize the most entries to return
+	 * @param continuationToken the token from the previous page, null for the first page
+	 * @return the transaction log entries, with a continuation token when there may be more
+	 */
+	public TransactionLogEntries scanFiltered(long startMillis, long endMillis, List<String> methodList,
+			String putFilter, String getFilter, String resourceFilter, String fromAppIdFilter,
+			int pageSize, String continuationToken);
+}
@@ -0,0 +1,49 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.hbase.client.Put;
+
+/**
+ * The table the transaction log writer sends its batches to.
+ * 
+ * Kept this small on purpose so the writer can be exercised against an in process fake.
+ */
+public interface TxnLogTable {
+
+	/**
+	 * Writes a batch of puts and makes sure they have been sent before returning.
+	 *
+	 * @param puts the puts
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void put(List<Put> puts) throws IOException;
+	
+	/**
+	 * Releases the table handle.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void close() throws IOException;
+}
@@ -0,0 +1,616 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.openecomp.aai.logging.AAILogger;
+import org.openecomp.aai.logging.LogLine;
+
+/**
+ * Writes transaction log puts to HBase off the request thread.
+ * 
+ * Callers hand their put to a bounded queue and return straight away. A single background
+ * thread takes puts off the queue and sends them to the table once a batch is full or the
+ * oldest put in the batch has waited for the flush interval. What happens when the queue
+ * is full is decided by the overflow policy.
+ */
+public class TxnLogWriter {
+
+	/**
+	 * What submit does when the queue is full.
+	 */
+	public enum OverflowPolicy {
+		
+		/** Throw the put away and count it. */
+		DROP,
+		
+		/** Wait for the writer to make room. */
+		BLOCK,
+		
+		/** Append the put to a file in the spill directory, it is replayed once the writer is idle. */
+		SPILL;
+		
+		/**
+		 * Parses the configured value, anything unknown falls back to DROP.
+		 *
+		 * @param value the value
+		 * @return the overflow policy
+		 */
+		public static OverflowPolicy fromString(String value) {
+			for (OverflowPolicy policy : values()) {
+				if (policy.name().equalsIgnoreCase(value)) {
+					return policy;
+				}
+			}
+			
+			return DROP;
+		}
+	}
+	
+	private static final String COMPONENT = "aaitxnlog";
+	private static final String SPILL_FILE = "txnlog.spill";
+	private static final String REPLAY_SUFFIX = ".replay";
+	private static AAILogger aaiLogger = new AAILogger(TxnLogWriter.class.getName());
+	
+	private final TxnLogTable table;
+	private final BlockingQueue<Put> queue;
+	private final int batchSize;
+	private final long flushIntervalMillis;
+	private final OverflowPolicy overflowPolicy;
+	private final File spillDir;
+	private final Object spillLock = new Object();
+	private final Object submitLock = new Object();
+	private final Thread writerThread;
+	private volatile boolean running = true;
+	
+	private final AtomicLong submittedCount = new AtomicLong();
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong spilledCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong totalWriteMillis = new AtomicLong();
+	private volatile int lastBatchSize = 0;
+	private volatile int maxBatchSize = 0;
+	private volatile long lastWriteMillis = 0;
+	private volatile long maxWriteMillis = 0;
+	
+	private static volatile TxnLogWriter instance = null;
+	
+	/**
+	 * Gets the single instance of TxnLogWriter, backed by HBase.
+	 *
+	 * @return single instance of TxnLogWriter
+	 */
+	public static TxnLogWriter getInstance() {
+		TxnLogWriter result = instance;
+		if (result == null) {
+			synchronized (TxnLogWriter.class) {
+				result = instance;
+				if (result == null) {
+					result = createFromConfig();
+					instance = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Shuts the single instance down if anything ever created it. Nothing is
+	 * created, and no HBase connection is opened, when it was never used.
+	 *
+	 * @param timeoutMillis how long to wait for the queue to drain
+	 */
+	public static void shutdownInstance(long timeoutMillis) {
+		TxnLogWriter result = instance;
+		if (result != null) {
+			result.shutdown(timeoutMillis);
+		}
+	}
+	
+	/**
+	 * Instantiates a new txn log writer and starts its writer thread.
+	 *
+	 * @param table the table
+	 * @param capacity the queue capacity
+	 * @param batchSize the most puts sent in one batch
+	 * @param flushIntervalMillis the longest a put waits for its batch to fill
+	 * @param overflowPolicy the overflow policy
+	 * @param spillDir the spill dir, only used by SPILL
+	 */
+	public TxnLogWriter(TxnLogTable table, int capacity, int batchSize, long flushIntervalMillis, OverflowPolicy overflowPolicy, File spillDir) {
+		this.table = table;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.batchSize = Math.max(1, batchSize);
+		this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+		this.overflowPolicy = overflowPolicy;
+		this.spillDir = spillDir;
+		if (overflowPolicy == OverflowPolicy.SPILL) {
+			spillDir.mkdirs();
+		}
+		writerThread = new Thread(this::run, "aai-txnlog-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	/**
+	 * Builds the writer from aaiconfig.properties.
+	 *
+	 * @return the txn log writer
+	 */
+	private static TxnLogWriter createFromConfig() {
+		int capacity = AAIConstants.AAI_TXNLOG_DEFAULT_QUEUE_CAPACITY;
+		int batchSize = AAIConstants.AAI_TXNLOG_DEFAULT_BATCH_SIZE;
+		long flushInterval = AAIConstants.AAI_TXNLOG_DEFAULT_FLUSH_INTERVAL_MS;
+		try {
+			capacity = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_TXNLOG_QUEUE_CAPACITY, Integer.toString(capacity)));
+			batchSize = Integer.parseInt(AAIConfig.get(AAIConstants.AAI_TXNLOG_BATCH_SIZE, Integer.toString(batchSize)));
+			flushInterval = Long.parseLong(AAIConfig.get(AAIConstants.AAI_TXNLOG_FLUSH_INTERVAL_MS, Long.toString(flushInterval)));
+		} catch (NumberFormatException e) {
+			// Don't worry, we'll just use the defaults that we got from AAIConstants
+		}
+		OverflowPolicy policy = OverflowPolicy.fromString(AAIConfig.get(AAIConstants.AAI_TXNLOG_OVERFLOW_POLICY, AAIConstants.AAI_TXNLOG_DEFAULT_OVERFLOW_POLICY));
+		File spillDir = new File(AAIConfig.get(AAIConstants.AAI_TXNLOG_SPILL_DIR, AAIConstants.AAI_TXNLOG_DEFAULT_SPILL_DIR));
+		
+		return new TxnLogWriter(new HBaseTxnLogTable(), capacity, batchSize, flushInterval, policy, spillDir);
+	}
+	
+	/**
+	 * Queues a put for the writer thread.
+	 *
+	 * @param put the put
+	 * @return true if the put was queued or spilled, false if it was dropped
+	 */
+	public boolean submit(Put put) {
+		return this.submit(Collections.singletonList(put));
+	}
+	
+	/**
+	 * Queues puts that belong together, such as a transaction row and its index rows.
+	 * Either all of them are queued or spilled, or all of them are dropped.
+	 * 
+	 * Only submit adds to the queue, under the submit lock, so room seen there stays
+	 * free until the puts are added. Once BLOCK has queued the first put it queues
+	 * the rest even if interrupted, and restores the interrupt afterwards.
+	 *
+	 * @param puts the puts
+	 * @return true if the puts were queued or spilled, false if they were dropped
+	 */
+	public boolean submit(List<Put> puts) {
+		submittedCount.addAndGet(puts.size());
+		if (running) {
+			synchronized (submitLock) {
+				if (queue.remainingCapacity() >= puts.size()) {
+					queue.addAll(puts);
+					return true;
+				}
+				if (overflowPolicy == OverflowPolicy.BLOCK && !Thread.currentThread().isInterrupted()) {
+					boolean interrupted = false;
+					for (Put put : puts) {
+						while (true) {
+							try {
+								queue.put(put);
+								break;
+							} catch (InterruptedException e) {
+								interrupted = true;
+							}
+						}
+					}
+					if (interrupted) {
+						Thread.currentThread().interrupt();
+					}
+					return true;
+				}
+			}
+		}
+		if (overflowPolicy == OverflowPolicy.SPILL && spill(puts)) {
+			return true;
+		}
+		droppedCount.addAndGet(puts.size());
+		
+		return false;
+	}
+	
+	/**
+	 * Stops accepting puts, writes whatever is still queued and closes the table.
+	 * A writer still busy after the timeout is interrupted and given the same time
+	 * again. If it is still writing after that the table is left open, since closing
+	 * it under a running batch would fail that batch.
+	 *
+	 * @param timeoutMillis how long to wait for the queue to drain
+	 */
+	public void shutdown(long timeoutMillis) {
+		running = false;
+		try {
+			writerThread.join(timeoutMillis);
+			if (writerThread.isAlive()) {
+				writerThread.interrupt();
+				writerThread.join(timeoutMillis);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (writerThread.isAlive()) {
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, "shutdown", "aaiInternal", "shutdown()");
+			aaiLogger.debug(logline, "TxnLogWriter: writer still running after shutdown timeout, leaving table open with " + queue.size() + " puts queued");
+			return;
+		}
+		try {
+			table.close();
+		} catch (IOException e) {
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, "shutdown", "aaiInternal", "shutdown()");
+			aaiLogger.debug(logline, "TxnLogWriter: close: Exception=" + e.toString());
+		}
+	}
+	
+	/**
+	 * The writer thread. Blocks for the first put of a batch, then keeps adding puts until
+	 * the batch is full or the first put has waited for the flush interval.
+	 */
+	private void run() {
+		List<Put> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Put first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					if (running) {
+						replaySpilled();
+					}
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.currentTimeMillis() + flushIntervalMillis;
+				while (batch.size() < batchSize) {
+					if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+						continue;
+					}
+					long wait = deadline - System.currentTimeMillis();
+					if (wait <= 0) {
+						break;
+					}
+					Put next = queue.poll(wait, TimeUnit.MILLISECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				running = false;
+			}
+			if (!batch.isEmpty()) {
+				if (!write(batch) && overflowPolicy == OverflowPolicy.SPILL) {
+					spill(batch);
+				}
+				batch.clear();
+			}
+		}
+	}
+	
+	/**
+	 * Sends one batch to the table and records how it went.
+	 *
+	 * @param batch the batch
+	 * @return true, if successful
+	 */
+	private boolean write(List<Put> batch) {
+		long start = System.currentTimeMillis();
+		try {
+			table.put(batch);
+			long elapsed = System.currentTimeMillis() - start;
+			writtenCount.addAndGet(batch.size());
+			batchCount.incrementAndGet();
+			totalWriteMillis.addAndGet(elapsed);
+			lastBatchSize = batch.size();
+			lastWriteMillis = elapsed;
+			maxBatchSize = Math.max(maxBatchSize, batch.size());
+			maxWriteMillis = Math.max(maxWriteMillis, elapsed);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			failedCount.addAndGet(batch.size());
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, "write", "aaiInternal", "write()");
+			aaiLogger.debug(logline, "TxnLogWriter: write of " + batch.size() + " puts failed: Exception=" + e.toString());
+			return false;
+		}
+	}
+	
+	/**
+	 * Appends puts to the spill file.
+	 *
+	 * @param puts the puts
+	 * @return true, if successful
+	 */
+	private boolean spill(List<Put> puts) {
+		synchronized (spillLock) {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(spillDir, SPILL_FILE), true)))) {
+				for (Put put : puts) {
+					writePut(out, put);
+				}
+			} catch (IOException e) {
+				LogLine logline = new LogLine();
+				logline.init(COMPONENT, "spill", "aaiInternal", "spill()");
+				aaiLogger.debug(logline, "TxnLogWriter: spill: Exception=" + e.toString());
+				return false;
+			}
+			spilledCount.addAndGet(puts.size());
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Sends spilled puts to the table. The current spill file is renamed first so new
+	 * overflow goes to a fresh file, and a replay file is only deleted once all of it
+	 * was written. Rows are keyed by transaction id so writing a file twice is harmless.
+	 */
+	private void replaySpilled() {
+		if (overflowPolicy != OverflowPolicy.SPILL) {
+			return;
+		}
+		synchronized (spillLock) {
+			File current = new File(spillDir, SPILL_FILE);
+			if (current.exists()) {
+				current.renameTo(new File(spillDir, SPILL_FILE + "." + System.currentTimeMillis() + REPLAY_SUFFIX));
+			}
+		}
+		File[] files = spillDir.listFiles((dir, name) -> name.endsWith(REPLAY_SUFFIX));
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			if (!running || !queue.isEmpty() || !replay(file)) {
+				return;
+			}
+			file.delete();
+		}
+	}
+	
+	/**
+	 * Writes the puts in one replay file in batches.
+	 *
+	 * @param file the file
+	 * @return true, if every batch was written
+	 */
+	private boolean replay(File file) {
+		List<Put> batch = new ArrayList<>(batchSize);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			Put put = null;
+			while ((put = readPut(in)) != null) {
+				batch.add(put);
+				if (batch.size() == batchSize) {
+					if (!write(batch)) {
+						return false;
+					}
+					batch.clear();
+				}
+			}
+		} catch (IOException e) {
+			LogLine logline = new LogLine();
+			logline.init(COMPONENT, "replay", "aaiInternal", "replay()");
+			aaiLogger.debug(logline, "TxnLogWriter: replay of " + file.getName() + ": Exception=" + e.toString());
+			return false;
+		}
+		
+		return batch.isEmpty() || write(batch);
+	}
+	
+	/**
+	 * Writes a put as its row followed by each cell.
+	 *
+	 * @param out the out
+	 * @param put the put
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static void writePut(DataOutputStream out, Put put) throws IOException {
+		List<Cell> cells = new ArrayList<>();
+		for (List<Cell> familyCells : put.getFamilyCellMap().values()) {
+			cells.addAll(familyCells);
+		}
+		writeBytes(out, put.getRow());
+		out.writeInt(cells.size());
+		for (Cell cell : cells) {
+			writeBytes(out, CellUtil.cloneFamily(cell));
+			writeBytes(out, CellUtil.cloneQualifier(cell));
+			out.writeLong(cell.getTimestamp());
+			writeBytes(out, CellUtil.cloneValue(cell));
+		}
+	}
+	
+	/**
+	 * Reads a put written by writePut.
+	 *
+	 * @param in the in
+	 * @return the put, or null at the end of the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static Put readPut(DataInputStream in) throws IOException {
+		byte[] row = null;
+		try {
+			row = readBytes(in);
+		} catch (EOFException e) {
+			return null;
+		}
+		Put put = new Put(row);
+		int cellCount = in.readInt();
+		for (int i = 0; i < cellCount; i++) {
+			byte[] family = readBytes(in);
+			byte[] qualifier = readBytes(in);
+			long timestamp = in.readLong();
+			put.add(family, qualifier, timestamp, readBytes(in));
+		}
+		
+		return put;
+	}
+	
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+	
+	/**
+	 * Gets the number of puts waiting in the queue.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+	
+	/**
+	 * Gets the submitted count.
+	 *
+	 * @return the submitted count
+	 */
+	public long getSubmittedCount() {
+		return submittedCount.get();
+	}
+	
+	/**
+	 * Gets the written count.
+	 *
+	 * @return the written count
+	 */
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+	
+	/**
+	 * Gets the dropped count.
+	 *
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+	
+	/**
+	 * Gets the spilled count.
+	 *
+	 * @return the spilled count
+	 */
+	public long getSpilledCount() {
+		return spilledCount.get();
+	}
+	
+	/**
+	 * Gets the number of puts in batches the table rejected.
+	 *
+	 * @return the failed count
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * Gets the batch count.
+	 *
+	 * @return the batch count
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+	
+	/**
+	 * Gets the last batch size.
+	 *
+	 * @return the last batch size
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+	
+	/**
+	 * Gets the max batch size.
+	 *
+	 * @return the max batch size
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+	
+	/**
+	 * Gets the average batch size.
+	 *
+	 * @return the average batch size
+	 */
+	public double getAverageBatchSize() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double)writtenCount.get() / batches;
+	}
+	
+	/**
+	 * Gets the write latency of the last batch.
+	 *
+	 * @return the last write millis
+	 */
+	public long getLastWriteMillis() {
+		return lastWriteMillis;
+	}
+	
+	/**
+	 * Gets the max write latency.
+	 *
+	 * @return the max write millis
+	 */
+	public long getMaxWriteMillis() {
+		return maxWriteMillis;
+	}
+	
+	/**
+	 * Gets the average write latency per batch.
+	 *
+	 * @return the average write millis
+	 */
+	public double getAverageWriteMillis() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : (double)totalWriteMillis.get() / batches;
+	}
+}
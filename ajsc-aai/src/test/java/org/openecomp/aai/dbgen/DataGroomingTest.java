@@ -0,0 +1,160 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.dbgen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.ingestModel.DbMaps;
+import org.openecomp.aai.ingestModel.IngestModelMoxyOxm;
+import org.openecomp.aai.logging.LogLine;
+import org.openecomp.aai.serialization.db.EdgeRules;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+import org.openecomp.aai.util.AAIConfig;
+import org.openecomp.aai.util.AAIConstants;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class DataGroomingTest {
+
+	private static DbMaps dbMaps;
+	
+	private final List<String> nodeTypes = Arrays.asList("pserver", "p-interface");
+	private TitanGraph graph;
+	private List<DataGrooming.GroomWorker> workers = new ArrayList<>();
+	private String orphanVid;
+	
+	/**
+	 * Loads the db maps of the default version.
+	 *
+	 * @throws Exception the exception
+	 */
+	@BeforeClass
+	public static void configure() throws Exception {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+		String version = AAIConfig.get(AAIConstants.AAI_DEFAULT_API_VERSION_PROP);
+		new IngestModelMoxyOxm().init(new ArrayList<>(Arrays.asList(version)), false);
+		dbMaps = IngestModelMoxyOxm.dbMapsContainer.get(version);
+	}
+	
+	/**
+	 * Seeds a graph with good pservers and interfaces, one pair of duplicate pservers
+	 * and two interfaces without a pserver.
+	 */
+	@Before
+	public void setup() {
+		graph = TitanFactory.open(InMemoryDBEngine.CONFIG);
+		EdgeRules rules = EdgeRules.getInstance();
+		for (int i = 0; i < 10; i++) {
+			Vertex pserver = graph.addVertex("aai-node-type", "pserver", "hostname", "host" + i);
+			Vertex pInterface = graph.addVertex("aai-node-type", "p-interface", "interface-name", "eth" + i);
+			rules.addTreeEdge(pserver, pInterface);
+		}
+		graph.addVertex("aai-node-type", "pserver", "hostname", "dupe");
+		graph.addVertex("aai-node-type", "pserver", "hostname", "dupe");
+		orphanVid = graph.addVertex("aai-node-type", "p-interface", "interface-name", "orphan1").id().toString();
+		graph.addVertex("aai-node-type", "p-interface", "interface-name", "orphan2");
+		graph.tx().commit();
+	}
+	
+	/**
+	 * Rolls back the workers and closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		for (DataGrooming.GroomWorker worker : workers) {
+			worker.rollback();
+		}
+		graph.close();
+	}
+	
+	/**
+	 * Sharding the work over several threads finds the same problems as one thread does.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void shardedMatchesSingleThreaded() throws Exception {
+		DataGrooming.GroomingResults single = this.groom(1, 1000, new ArrayList<String>());
+		DataGrooming.GroomingResults sharded = this.groom(4, 3, new ArrayList<String>());
+		
+		assertEquals(24, single.totalNodeCount.get());
+		assertEquals(1, single.dupeGroups.size());
+		assertEquals(2, single.orphanNodeHash.size() + single.missingDepNodeHash.size());
+		assertEquals(single.totalNodeCount.get(), sharded.totalNodeCount.get());
+		assertEquals(single.dupeGroups.size(), sharded.dupeGroups.size());
+		assertEquals(single.orphanNodeHash.keySet(), sharded.orphanNodeHash.keySet());
+		assertEquals(single.missingDepNodeHash.keySet(), sharded.missingDepNodeHash.keySet());
+		assertEquals(single.oneArmedEdgeHash.keySet(), sharded.oneArmedEdgeHash.keySet());
+		assertEquals(single.ghostNodeHash.keySet(), sharded.ghostNodeHash.keySet());
+		assertEquals(single.misMatchedHash.keySet(), sharded.misMatchedHash.keySet());
+	}
+	
+	/**
+	 * A delete candidate is removed by whichever worker finds it, and counted once it is committed.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void countsCommittedDeletes() throws Exception {
+		DataGrooming.GroomingResults results = this.groom(4, 3, new ArrayList<String>(Arrays.asList(orphanVid)));
+		
+		assertEquals(1, results.deleteCount.get());
+		assertEquals("", DataGrooming.commitWorkers(workers, new LogLine()));
+		int committed = 0;
+		for (DataGrooming.GroomWorker worker : workers) {
+			committed += worker.getCommittedDeletes();
+		}
+		assertEquals(1, committed);
+		assertEquals(23L, (long)graph.traversal().V().count().next());
+	}
+	
+	/**
+	 * Runs the node and edge checks with a fresh set of workers.
+	 *
+	 * @param threads the threads
+	 * @param shardSize the shard size
+	 * @param fixList the delete candidates
+	 * @return the grooming results
+	 * @throws Exception the exception
+	 */
+	private DataGrooming.GroomingResults groom(int threads, int shardSize, ArrayList<String> fixList) throws Exception {
+		List<DataGrooming.GroomWorker> run = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			run.add(new DataGrooming.GroomWorker(graph));
+		}
+		workers.addAll(run);
+		LogLine logline = new LogLine();
+		logline.init("aaidbgen", "test", "test", "groom");
+		
+		return DataGrooming.groom(run, graph, dbMaps, nodeTypes, fixList, "version", false, 
+				false, false, false, true, false, shardSize, logline);
+	}
+}
@@ -0,0 +1,79 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class KeySignatureIndexTest {
+
+	/**
+	 * Unique signatures don't produce any groups.
+	 */
+	@Test
+	public void noDuplicates() {
+		KeySignatureIndex index = new KeySignatureIndex(4);
+		index.add("hostname=ps1", 1L);
+		index.add("hostname=ps2", 2L);
+		
+		assertEquals(2, index.size());
+		assertTrue(index.getDuplicateGroups().isEmpty());
+	}
+	
+	/**
+	 * Vertices with the same signature end up in one group, in the order they were added.
+	 */
+	@Test
+	public void groupsDuplicates() {
+		KeySignatureIndex index = new KeySignatureIndex(4);
+		index.add("hostname=ps1", 1L);
+		index.add("hostname=ps2", 2L);
+		index.add("hostname=ps1", 3L);
+		index.add("hostname=ps1", 4L);
+		index.add("hostname=ps2", 5L);
+		
+		List<long[]> groups = index.getDuplicateGroups();
+		assertEquals(2, groups.size());
+		assertArrayEquals(new long[] { 1L, 3L, 4L }, groups.get(0));
+		assertArrayEquals(new long[] { 2L, 5L }, groups.get(1));
+	}
+	
+	/**
+	 * The table grows past its expected size without losing anything.
+	 */
+	@Test
+	public void grows() {
+		KeySignatureIndex index = new KeySignatureIndex(1);
+		for (long i = 0; i < 10000; i++) {
+			index.add("vnf-id=" + i, i);
+		}
+		index.add("vnf-id=9999", 10000L);
+		
+		assertEquals(10000, index.size());
+		assertEquals(1, index.getDuplicateGroups().size());
+		assertArrayEquals(new long[] { 9999L, 10000L }, index.getDuplicateGroups().get(0));
+	}
+}
@@ -0,0 +1,139 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class SnapshotExporterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private TitanGraph graph;
+	
+	/**
+	 * Opens an in memory graph with a few pservers and their interfaces.
+	 */
+	@Before
+	public void setup() {
+		graph = TitanFactory.build().set("storage.backend", "inmemory").open();
+		for (int i = 0; i < 5; i++) {
+			Vertex pserver = graph.addVertex("aai-node-type", "pserver", "hostname", "host" + i);
+			Vertex pInterface = graph.addVertex("aai-node-type", "p-interface", "interface-name", "eth" + i);
+			pserver.addEdge("hasPinterface", pInterface, "isParent", true);
+		}
+		graph.tx().commit();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		graph.close();
+	}
+	
+	/**
+	 * Every vertex lands on exactly one line of one chunk.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void exportsEveryVertexOnce() throws Exception {
+		File dir = folder.getRoot();
+		SnapshotExporter exporter = new SnapshotExporter(graph, 2, 3, new PrintStream(new NullOutputStream()));
+		
+		SnapshotManifest manifest = exporter.export(dir, "test");
+		
+		assertEquals(4, manifest.getChunkFiles().size());
+		assertEquals(10, manifest.getVertexCount());
+		long lines = 0;
+		for (int i = 0; i < manifest.getChunkFiles().size(); i++) {
+			long chunkLines = this.countLines(new File(dir, manifest.getChunkFiles().get(i)));
+			assertEquals(manifest.getChunkVertexCount(i), chunkLines);
+			lines += chunkLines;
+		}
+		assertEquals(10, lines);
+		
+		SnapshotManifest read = SnapshotManifest.read(new File(dir, "test.manifest"));
+		assertEquals(manifest.getChunkFiles(), read.getChunkFiles());
+		assertEquals(10, read.getVertexCount());
+		assertFalse(read.isPointInTime());
+		for (File file : dir.listFiles()) {
+			assertFalse(file.getName().endsWith(".ids"));
+		}
+	}
+	
+	/**
+	 * An empty graph gives an empty manifest.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void exportsEmptyGraph() throws Exception {
+		graph.traversal().V().drop().iterate();
+		graph.tx().commit();
+		SnapshotExporter exporter = new SnapshotExporter(graph, 2, 3, new PrintStream(new NullOutputStream()));
+		
+		SnapshotManifest manifest = exporter.export(folder.getRoot(), "empty");
+		
+		assertTrue(manifest.getChunkFiles().isEmpty());
+		assertTrue(new File(folder.getRoot(), "empty.manifest").exists());
+	}
+	
+	/**
+	 * Count lines.
+	 *
+	 * @param file the file
+	 * @return the line count
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private long countLines(File file) throws IOException {
+		long count = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), "UTF-8"))) {
+			while (reader.readLine() != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
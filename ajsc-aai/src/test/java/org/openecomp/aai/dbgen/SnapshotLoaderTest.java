@@ -0,0 +1,235 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dbgen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class SnapshotLoaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private final PrintStream quiet = new PrintStream(new NullOutputStream());
+	private TitanGraph source;
+	private TitanGraph target;
+	
+	/**
+	 * Exports a small graph to reload.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		source = TitanFactory.build().set("storage.backend", "inmemory").open();
+		target = TitanFactory.build().set("storage.backend", "inmemory").open();
+		for (int i = 0; i < 5; i++) {
+			Vertex pserver = source.addVertex("aai-node-type", "pserver", "hostname", "host" + i, "number-of-cpus", i);
+			Vertex pInterface = source.addVertex("aai-node-type", "p-interface", "interface-name", "eth" + i);
+			pserver.addEdge("hasPinterface", pInterface, "isParent", true);
+		}
+		source.tx().commit();
+		new SnapshotExporter(source, 2, 3, quiet).export(folder.getRoot(), "test");
+	}
+	
+	/**
+	 * Closes the graphs.
+	 */
+	@After
+	public void tearDown() {
+		source.close();
+		target.close();
+	}
+	
+	/**
+	 * Vertices, properties and edges all come back.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void reloadsSnapshot() throws Exception {
+		SnapshotLoader loader = new SnapshotLoader(target, 2, 2, quiet);
+		loader.load(new File(folder.getRoot(), "test.manifest"));
+		
+		assertEquals(10, loader.getVerticesLoaded());
+		assertEquals(5, loader.getEdgesLoaded());
+		assertEquals(10L, (long)target.traversal().V().count().next());
+		Vertex pserver = target.traversal().V().has("hostname", "host3").next();
+		assertEquals(3, pserver.<Integer>value("number-of-cpus").intValue());
+		assertEquals("eth3", target.traversal().V(pserver).outE("hasPinterface").has("isParent", true).inV().values("interface-name").next());
+	}
+	
+	/**
+	 * Running the same reload again finds everything already done.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void resumesWithoutDuplicates() throws Exception {
+		File manifest = new File(folder.getRoot(), "test.manifest");
+		new SnapshotLoader(target, 2, 2, quiet).load(manifest);
+		
+		SnapshotLoader again = new SnapshotLoader(target, 2, 2, quiet);
+		again.load(manifest);
+		
+		assertEquals(0, again.getVerticesLoaded());
+		assertEquals(0, again.getEdgesLoaded());
+		assertEquals(10L, (long)target.traversal().V().count().next());
+		assertEquals(5L, (long)target.traversal().E().count().next());
+	}
+	
+	/**
+	 * Edges to vertices that are missing from the snapshot are skipped and counted.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void skipsDanglingEdges() throws Exception {
+		File manifest = new File(folder.getRoot(), "test.manifest");
+		for (String chunk : SnapshotManifest.read(manifest).getChunkFiles()) {
+			List<String> kept = new ArrayList<>();
+			for (String line : this.readChunk(chunk)) {
+				if (!line.contains("\"eth0\"")) {
+					kept.add(line);
+				}
+			}
+			this.writeChunk(chunk, kept);
+		}
+		
+		SnapshotLoader loader = new SnapshotLoader(target, 2, 2, quiet);
+		loader.load(manifest);
+		
+		assertEquals(9, loader.getVerticesLoaded());
+		assertEquals(4, loader.getEdgesLoaded());
+		assertEquals(1, loader.getEdgesSkipped());
+	}
+	
+	/**
+	 * Ids written for a batch that was never committed are dropped on resume, and the
+	 * vertices are created once.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void resumeDropsUncommittedBatch() throws Exception {
+		File manifest = new File(folder.getRoot(), "test.manifest");
+		String chunk = SnapshotManifest.read(manifest).getChunkFiles().get(0);
+		String firstLine = this.readChunk(chunk).get(0);
+		String oldId = firstLine.substring(firstLine.indexOf(":") + 1, firstLine.indexOf(",")).trim();
+		File stateDir = new File(folder.getRoot(), "test.reload");
+		stateDir.mkdirs();
+		Files.write(new File(stateDir, "chunk-0.idmap").toPath(), 
+				Collections.singletonList(oldId + "\t123456789"), StandardCharsets.UTF_8);
+		
+		SnapshotLoader loader = new SnapshotLoader(target, 2, 2, quiet);
+		loader.load(manifest);
+		
+		assertEquals(10, loader.getVerticesLoaded());
+		assertEquals(10L, (long)target.traversal().V().count().next());
+		assertEquals(5L, (long)target.traversal().E().count().next());
+	}
+	
+	/**
+	 * Edges of a batch that was committed before the loader could record it are not
+	 * added a second time.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void resumeSkipsCommittedEdges() throws Exception {
+		File manifest = new File(folder.getRoot(), "test.manifest");
+		new SnapshotLoader(target, 2, 2, quiet).load(manifest);
+		List<String> chunks = SnapshotManifest.read(manifest).getChunkFiles();
+		File stateDir = new File(folder.getRoot(), "test.reload");
+		for (int i = 0; i < chunks.size(); i++) {
+			Files.write(new File(stateDir, "chunk-" + i + ".edges").toPath(), 
+					("0\t" + this.readChunk(chunks.get(i)).size()).getBytes(StandardCharsets.UTF_8));
+		}
+		
+		SnapshotLoader again = new SnapshotLoader(target, 2, 2, quiet);
+		again.load(manifest);
+		
+		assertEquals(0, again.getVerticesLoaded());
+		assertEquals(10L, (long)target.traversal().V().count().next());
+		assertEquals(5L, (long)target.traversal().E().count().next());
+	}
+	
+	/**
+	 * Reads the lines of a chunk.
+	 *
+	 * @param chunk the chunk file name
+	 * @return the lines
+	 * @throws Exception the exception
+	 */
+	private List<String> readChunk(String chunk) throws Exception {
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new FileInputStream(new File(folder.getRoot(), chunk))), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+	
+	/**
+	 * Writes the lines of a chunk.
+	 *
+	 * @param chunk the chunk file name
+	 * @param lines the lines
+	 * @throws Exception the exception
+	 */
+	private void writeChunk(String chunk, List<String> lines) throws Exception {
+		try (Writer writer = new OutputStreamWriter(
+				new GZIPOutputStream(new FileOutputStream(new File(folder.getRoot(), chunk))), StandardCharsets.UTF_8)) {
+			for (String line : lines) {
+				writer.write(line + "\n");
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Keeps published batches in memory so tests can look at what would have gone to DMaaP.
+ */
+public class InMemoryNotificationPublisher implements NotificationPublisher {
+
+	private final List<List<String>> batches = new ArrayList<>();
+	private volatile CountDownLatch gate = null;
+	private volatile boolean failing = false;
+	private volatile boolean closed = false;
+	
+	/**
+	 * Holds every publish until the gate is opened.
+	 *
+	 * @param gate the gate
+	 */
+	public void setGate(CountDownLatch gate) {
+		this.gate = gate;
+	}
+	
+	/**
+	 * Makes publishing fail, or work again.
+	 *
+	 * @param failing the new failing
+	 */
+	public void setFailing(boolean failing) {
+		this.failing = failing;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void publish(String partition, List<String> messages) throws IOException {
+		CountDownLatch latch = gate;
+		if (latch != null) {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (failing) {
+			throw new IOException("publisher unavailable");
+		}
+		synchronized (batches) {
+			batches.add(new ArrayList<>(messages));
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+	}
+	
+	/**
+	 * Gets the batches published so far.
+	 *
+	 * @return the batches
+	 */
+	public List<List<String>> getBatches() {
+		synchronized (batches) {
+			return new ArrayList<>(batches);
+		}
+	}
+	
+	/**
+	 * Gets every message published so far, in the order the batches arrived.
+	 *
+	 * @return the messages
+	 */
+	public List<String> getMessages() {
+		List<String> result = new ArrayList<>();
+		for (List<String> batch : getBatches()) {
+			result.addAll(batch);
+		}
+		return result;
+	}
+	
+	/**
+	 * Checks if it was closed.
+	 *
+	 * @return true, if closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+}
@@ -0,0 +1,229 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.persistence.dynamic.DynamicEntity;
+import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelInjestor;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+
+public class NotificationPipelineTest {
+
+	private NotificationPipeline pipeline = null;
+	
+	private final Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+	private final DynamicJAXBContext context = ModelInjestor.getInstance().getContextForVersion(Version.v8);
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Stops the pipeline.
+	 */
+	@After
+	public void tearDown() {
+		if (pipeline != null) {
+			pipeline.shutdown(5000);
+		}
+	}
+	
+	/**
+	 * Events for the same entity come out in the order they went in, whichever lane they use.
+	 *
+	 * @throws JSONException the JSON exception
+	 */
+	@Test
+	public void orderedPerEntityLink() throws JSONException {
+		InMemoryNotificationPublisher publisher = new InMemoryNotificationPublisher();
+		pipeline = new NotificationPipeline(publisher, 4, 1000, 7, 20);
+		for (int i = 0; i < 200; i++) {
+			assertTrue(pipeline.submit(event("/network/generic-vnfs/generic-vnf/vnf-" + (i % 5), i), context));
+		}
+		
+		waitFor(() -> pipeline.getPublishedCount() == 200);
+		Map<String, Integer> last = new HashMap<>();
+		for (String msg : publisher.getMessages()) {
+			JSONObject header = new JSONObject(msg).getJSONObject("event-header");
+			String link = header.getString("entity-link");
+			int sequence = Integer.parseInt(header.getString("sequence-number"));
+			if (last.containsKey(link)) {
+				assertTrue(link + " out of order", sequence > last.get(link));
+			}
+			last.put(link, sequence);
+		}
+		assertEquals(5, last.size());
+		assertEquals(0, pipeline.getRejectedCount());
+	}
+	
+	/**
+	 * A full batch goes out without waiting for the linger time.
+	 */
+	@Test
+	public void publishesFullBatches() {
+		InMemoryNotificationPublisher publisher = new InMemoryNotificationPublisher();
+		CountDownLatch gate = new CountDownLatch(1);
+		publisher.setGate(gate);
+		pipeline = new NotificationPipeline(publisher, 1, 100, 5, 60000);
+		pipeline.submit(event("/first", 0), context);
+		waitFor(() -> pipeline.getQueueDepth() == 0);
+		for (int i = 1; i < 15; i++) {
+			pipeline.submit(event("/link", i), context);
+		}
+		gate.countDown();
+		
+		waitFor(() -> pipeline.getPublishedCount() == 15);
+		assertEquals(3, pipeline.getBatchCount());
+		assertEquals(5, pipeline.getMaxBatchSize());
+		assertEquals(5, publisher.getBatches().get(2).size());
+	}
+	
+	/**
+	 * When a lane is full events are turned away instead of holding up the request.
+	 */
+	@Test
+	public void rejectsWhenFull() {
+		InMemoryNotificationPublisher publisher = new InMemoryNotificationPublisher();
+		CountDownLatch gate = new CountDownLatch(1);
+		publisher.setGate(gate);
+		pipeline = new NotificationPipeline(publisher, 1, 2, 1, 60000);
+		pipeline.submit(event("/link", 0), context);
+		waitFor(() -> pipeline.getQueueDepth() == 0);
+		assertTrue(pipeline.submit(event("/link", 1), context));
+		assertTrue(pipeline.submit(event("/link", 2), context));
+		assertFalse(pipeline.submit(event("/link", 3), context));
+		assertEquals(1, pipeline.getRejectedCount());
+		assertEquals(2, pipeline.getMaxQueueDepth());
+		
+		gate.countDown();
+		waitFor(() -> pipeline.getPublishedCount() == 3);
+	}
+	
+	/**
+	 * Batches the publisher can't take are counted as failed.
+	 */
+	@Test
+	public void countsFailures() {
+		InMemoryNotificationPublisher publisher = new InMemoryNotificationPublisher();
+		publisher.setFailing(true);
+		pipeline = new NotificationPipeline(publisher, 1, 100, 10, 10);
+		for (int i = 0; i < 3; i++) {
+			pipeline.submit(event("/link", i), context);
+		}
+		
+		waitFor(() -> pipeline.getFailedCount() == 3);
+		assertEquals(0, pipeline.getPublishedCount());
+		pipeline.shutdown(5000);
+		assertTrue(publisher.isClosed());
+		pipeline = null;
+	}
+	
+	/**
+	 * Each lane gets its own publisher, so a lane stuck publishing doesn't hold up the others.
+	 */
+	@Test
+	public void lanesPublishInParallel() {
+		List<InMemoryNotificationPublisher> publishers = new ArrayList<>();
+		CountDownLatch gate = new CountDownLatch(1);
+		pipeline = new NotificationPipeline(() -> {
+			InMemoryNotificationPublisher publisher = new InMemoryNotificationPublisher();
+			if (publishers.isEmpty()) {
+				publisher.setGate(gate);
+			}
+			publishers.add(publisher);
+			return publisher;
+		}, 2, 100, 1, 10);
+		String[] links = new String[2];
+		for (int i = 0; links[0] == null || links[1] == null; i++) {
+			String link = "/link-" + i;
+			links[(link.hashCode() & Integer.MAX_VALUE) % 2] = link;
+		}
+		
+		pipeline.submit(event(links[0], 0), context);
+		pipeline.submit(event(links[1], 1), context);
+		waitFor(() -> pipeline.getPublishedCount() == 1);
+		assertEquals(1, publishers.get(1).getMessages().size());
+		gate.countDown();
+		waitFor(() -> pipeline.getPublishedCount() == 2);
+		
+		assertEquals(2, publishers.size());
+		pipeline.shutdown(5000);
+		assertTrue(publishers.get(0).isClosed());
+		assertTrue(publishers.get(1).isClosed());
+		pipeline = null;
+	}
+	
+	/**
+	 * Builds a notification event.
+	 *
+	 * @param entityLink the entity link
+	 * @param sequence the sequence
+	 * @return the event
+	 */
+	private DynamicEntity event(String entityLink, int sequence) {
+		Introspector header = loader.introspectorFromName("notification-event-header");
+		header.setValue("entity-link", entityLink);
+		header.setValue("sequence-number", Integer.toString(sequence));
+		header.setValue("action", "UPDATE");
+		Introspector event = loader.introspectorFromName("notification-event");
+		event.setValue("cambria-partition", "AAI");
+		event.setValue("event-header", header.getUnderlyingObject());
+		
+		return (DynamicEntity)event.getUnderlyingObject();
+	}
+	
+	private void waitFor(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!condition.getAsBoolean()) {
+			assertTrue("timed out waiting for the pipeline", System.currentTimeMillis() < deadline);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
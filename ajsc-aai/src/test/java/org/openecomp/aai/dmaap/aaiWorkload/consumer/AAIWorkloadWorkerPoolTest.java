@@ -0,0 +1,175 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.dmaap.aaiWorkload.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class AAIWorkloadWorkerPoolTest {
+
+	private AAIWorkloadWorkerPool pool = null;
+	
+	/**
+	 * Stops the pool.
+	 */
+	@After
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown(5000);
+		}
+	}
+	
+	/**
+	 * The target entity comes from the header, or failing that the first operation.
+	 */
+	@Test
+	public void partitionKey() {
+		assertEquals("/network/generic-vnfs/generic-vnf/a", AAIWorkloadWorkerPool.partitionKey(
+				"{\"event-header\":{\"id\":\"1\",\"entity-link\":\"/network/generic-vnfs/generic-vnf/a\"},\"event-body\":{}}"));
+		assertEquals("/cloud-infrastructure/pservers/pserver/b", AAIWorkloadWorkerPool.partitionKey(
+				"{\"event-header\":{\"id\":\"1\"},\"event-body\":{\"transactions\":[{\"put\":[{\"uri\":\"/cloud-infrastructure/pservers/pserver/b\",\"body\":{}}]}]}}"));
+		assertNull(AAIWorkloadWorkerPool.partitionKey("{\"event-header\":{\"id\":\"1\"}}"));
+		assertNull(AAIWorkloadWorkerPool.partitionKey("not json"));
+	}
+	
+	/**
+	 * Children and full links are keyed on the top level object they sit under.
+	 */
+	@Test
+	public void topLevelKey() {
+		assertEquals("/network/generic-vnfs/generic-vnf/a", AAIWorkloadWorkerPool.topLevelKey(
+				"/network/generic-vnfs/generic-vnf/a/l-interfaces/l-interface/eth0"));
+		assertEquals("/cloud-infrastructure/pservers/pserver/b", AAIWorkloadWorkerPool.topLevelKey(
+				"https://aai.example.com:8443/aai/v8/cloud-infrastructure/pservers/pserver/b/p-interfaces/p-interface/p1?depth=all"));
+		assertEquals("/business/customers/customer/c1", AAIWorkloadWorkerPool.topLevelKey(
+				"/aai/v8/business/customers/customer/c1/service-subscriptions/service-subscription/s1"));
+		assertEquals("/network/generic-vnfs/generic-vnf/v3", AAIWorkloadWorkerPool.topLevelKey(
+				"/network/generic-vnfs/generic-vnf/v3"));
+		assertEquals(AAIWorkloadWorkerPool.partitionKey(
+				"{\"event-header\":{\"id\":\"1\",\"entity-link\":\"/aai/v8/network/generic-vnfs/generic-vnf/a\"},\"event-body\":{}}"), 
+				AAIWorkloadWorkerPool.partitionKey(
+				"{\"event-header\":{\"id\":\"2\",\"entity-link\":\"/aai/v8/network/generic-vnfs/generic-vnf/a/vf-modules/vf-module/m1\"},\"event-body\":{}}"));
+	}
+	
+	/**
+	 * Messages for one entity are handled in order, messages for different entities at the same time.
+	 *
+	 * @throws InterruptedException the interrupted exception
+	 */
+	@Test
+	public void orderedPerEntityAndConcurrent() throws InterruptedException {
+		Map<String, List<Integer>> seen = new HashMap<>();
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger mostRunning = new AtomicInteger();
+		pool = new AAIWorkloadWorkerPool(message -> {
+			int now = running.incrementAndGet();
+			mostRunning.accumulateAndGet(now, Math::max);
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			String link = AAIWorkloadWorkerPool.partitionKey(message);
+			int sequence = Integer.parseInt(message.substring(message.indexOf("\"id\":\"") + 6, message.indexOf("\",")));
+			synchronized (seen) {
+				seen.computeIfAbsent(link, k -> new ArrayList<>()).add(sequence);
+			}
+			running.decrementAndGet();
+			return AAIWorkloadEventStatus.SUCCESS;
+		}, 4, 50);
+		for (int i = 0; i < 200; i++) {
+			pool.dispatch(message(i, "/network/generic-vnfs/generic-vnf/vnf-" + (i % 8)));
+		}
+		
+		assertTrue(pool.awaitIdle(10000));
+		assertEquals(200, pool.getProcessedCount());
+		assertEquals(0, pool.getFailedCount());
+		assertEquals(8, seen.size());
+		for (List<Integer> sequences : seen.values()) {
+			for (int i = 1; i < sequences.size(); i++) {
+				assertTrue(sequences.get(i) > sequences.get(i - 1));
+			}
+		}
+		assertTrue(mostRunning.get() > 1);
+	}
+	
+	/**
+	 * Dispatch holds off once the in flight limit is reached.
+	 *
+	 * @throws InterruptedException the interrupted exception
+	 */
+	@Test
+	public void boundsInFlight() throws InterruptedException {
+		CountDownLatch gate = new CountDownLatch(1);
+		pool = new AAIWorkloadWorkerPool(message -> {
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return AAIWorkloadEventStatus.FAILUE;
+		}, 2, 3);
+		for (int i = 0; i < 3; i++) {
+			pool.dispatch(message(i, "/link/" + i));
+		}
+		assertEquals(3, pool.getInFlightCount());
+		
+		Thread dispatcher = new Thread(() -> {
+			try {
+				pool.dispatch(message(3, "/link/3"));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		dispatcher.start();
+		dispatcher.join(200);
+		assertTrue(dispatcher.isAlive());
+		assertEquals(3, pool.getDispatchedCount());
+		
+		gate.countDown();
+		dispatcher.join(5000);
+		assertTrue(pool.awaitIdle(5000));
+		assertEquals(4, pool.getFailedCount());
+		assertEquals(0, pool.getInFlightCount());
+	}
+	
+	/**
+	 * Builds a workload message.
+	 *
+	 * @param id the id
+	 * @param entityLink the entity link
+	 * @return the message
+	 */
+	private String message(int id, String entityLink) {
+		return "{\"event-header\":{\"id\":\"" + id + "\",\"entity-link\":\"" + entityLink + "\"},\"event-body\":{}}";
+	}
+}
@@ -0,0 +1,87 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.interceptors;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import org.apache.cxf.interceptor.LoggingMessage;
+import org.apache.cxf.io.CacheAndWriteOutputStream;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.junit.Test;
+
+public class AAILogJAXRSOutInterceptorTest {
+
+	/**
+	 * Notification events get the callback even with HBase and trace logging off,
+	 * and the callback hands the original stream back when it is closed.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void registersCallbackForNotifications() throws Exception {
+		OutputStream original = new ByteArrayOutputStream();
+		Message message = this.newOutMessage(original);
+		message.getExchange().put("NOTIFICATION_EVENT_TYPE", "dynamic");
+		
+		new AAILogJAXRSOutInterceptor().handleMessage(message);
+		OutputStream wrapped = message.getContent(OutputStream.class);
+		assertTrue(wrapped instanceof CacheAndWriteOutputStream);
+		
+		wrapped.close();
+		assertSame(original, message.getContent(OutputStream.class));
+	}
+	
+	/**
+	 * Without logging or notifications the response stream is left alone.
+	 */
+	@Test
+	public void skipsCallbackOtherwise() {
+		OutputStream original = new ByteArrayOutputStream();
+		Message message = this.newOutMessage(original);
+		
+		new AAILogJAXRSOutInterceptor().handleMessage(message);
+		assertSame(original, message.getContent(OutputStream.class));
+	}
+	
+	/**
+	 * Builds a successful out message writing to the stream.
+	 *
+	 * @param os the os
+	 * @return the message
+	 */
+	private Message newOutMessage(OutputStream os) {
+		Exchange exchange = new ExchangeImpl();
+		Message message = new MessageImpl();
+		message.setExchange(exchange);
+		message.setContent(OutputStream.class, os);
+		message.put(Message.RESPONSE_CODE, 200);
+		exchange.setOutMessage(message);
+		exchange.put(LoggingMessage.ID_KEY, "txn-1");
+		
+		return message;
+	}
+}
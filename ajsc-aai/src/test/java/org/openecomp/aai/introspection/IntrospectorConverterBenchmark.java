@@ -0,0 +1,120 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares converting a notification object to another version by marshalling it to
+ * JSON and back against the IntrospectorConverter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IntrospectorConverterBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int interfaces;
+	
+	private Loader loader = null;
+	private Introspector pserver = null;
+	
+	/**
+	 * Configure.
+	 */
+	@Setup
+	public void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+		
+		loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		pserver = loader.introspectorFromName("pserver");
+		pserver.setValue("hostname", "pserver-1");
+		pserver.setValue("equip-type", "server");
+		pserver.setValue("number-of-cpus", 8);
+		Introspector pInterfaces = loader.introspectorFromName("p-interfaces");
+		@SuppressWarnings("unchecked")
+		List<Object> list = (List<Object>)pInterfaces.getValue("p-interface");
+		for (int i = 0; i < interfaces; i++) {
+			Introspector pInterface = loader.introspectorFromName("p-interface");
+			pInterface.setValue("interface-name", "eth" + i);
+			pInterface.setValue("speed-value", "10");
+			list.add(pInterface.getUnderlyingObject());
+		}
+		pserver.setValue("p-interfaces", pInterfaces.getUnderlyingObject());
+		
+		//work out the plans before measuring
+		IntrospectorConverter.getInstance().convert(pserver, loader);
+	}
+	
+	/**
+	 * Through JSON, as UEBNotification used to do it.
+	 *
+	 * @return the converted object
+	 */
+	@Benchmark
+	public Introspector marshalUnmarshal() {
+		return loader.unmarshal(pserver.getName(), pserver.marshal(false));
+	}
+	
+	/**
+	 * Through the compiled plan.
+	 *
+	 * @return the converted object
+	 */
+	@Benchmark
+	public Introspector converter() {
+		return IntrospectorConverter.getInstance().convert(pserver, loader);
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(IntrospectorConverterBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
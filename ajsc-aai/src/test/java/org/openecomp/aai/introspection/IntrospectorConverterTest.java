@@ -0,0 +1,107 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IntrospectorConverterTest {
+
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Builds a pserver with a nested list of interfaces.
+	 *
+	 * @param loader the loader
+	 * @return the pserver
+	 */
+	private Introspector pserver(Loader loader) {
+		Introspector pserver = loader.introspectorFromName("pserver");
+		pserver.setValue("hostname", "pserver-1");
+		pserver.setValue("number-of-cpus", 8);
+		Introspector interfaces = loader.introspectorFromName("p-interfaces");
+		@SuppressWarnings("unchecked")
+		List<Object> list = (List<Object>)interfaces.getValue("p-interface");
+		for (int i = 0; i < 3; i++) {
+			Introspector pInterface = loader.introspectorFromName("p-interface");
+			pInterface.setValue("interface-name", "eth" + i);
+			list.add(pInterface.getUnderlyingObject());
+		}
+		pserver.setValue("p-interfaces", interfaces.getUnderlyingObject());
+		
+		return pserver;
+	}
+	
+	/**
+	 * The converted object marshals the same as one that went through JSON.
+	 */
+	@Test
+	public void matchesJsonRoundTrip() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		Introspector pserver = pserver(loader);
+		
+		Introspector viaJson = loader.unmarshal("pserver", pserver.marshal(false));
+		Introspector converted = IntrospectorConverter.getInstance().convert(pserver, loader);
+		
+		assertEquals(viaJson.marshal(false), converted.marshal(false));
+	}
+	
+	/**
+	 * Nested objects are copies, not shared with the source.
+	 */
+	@Test
+	public void nestedObjectsAreCopied() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		Introspector pserver = pserver(loader);
+		
+		Introspector converted = IntrospectorConverter.getInstance().convert(pserver, loader);
+		Object sourceInterfaces = pserver.getValue("p-interfaces");
+		Object convertedInterfaces = converted.getValue("p-interfaces");
+		
+		assertNotSame(pserver.getUnderlyingObject(), converted.getUnderlyingObject());
+		assertNotSame(sourceInterfaces, convertedInterfaces);
+		List<?> convertedList = (List<?>)IntrospectorFactory.newInstance(ModelType.MOXY, convertedInterfaces, loader.getLogLineBuilder()).getValue("p-interface");
+		assertEquals(3, convertedList.size());
+	}
+	
+	/**
+	 * Asking for a type the target doesn't have gives nothing back.
+	 */
+	@Test
+	public void unknownTarget() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		
+		assertNull(IntrospectorConverter.getInstance().convert(pserver(loader), "not-a-type", loader));
+	}
+}
@@ -0,0 +1,74 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.introspection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.logging.LogLineBuilder;
+
+public class LoaderFactoryTest {
+
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * A request's loader logs with the request's builder, and so does everything built from it.
+	 */
+	@Test
+	public void loaderKeepsRequestLogLineBuilder() {
+		Loader shared = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		LogLineBuilder first = new LogLineBuilder("first-txn", "first-app");
+		LogLineBuilder second = new LogLineBuilder("second-txn", "second-app");
+		Loader firstLoader = LoaderFactory.getLoader(ModelType.MOXY, Version.v8, first);
+		Loader secondLoader = LoaderFactory.getLoader(ModelType.MOXY, Version.v8, second);
+		
+		assertSame(first, firstLoader.getLogLineBuilder());
+		assertSame(second, secondLoader.getLogLineBuilder());
+		assertNotSame(first, shared.getLogLineBuilder());
+		assertEquals(Version.v8, firstLoader.getVersion());
+		assertEquals(ModelType.MOXY, firstLoader.getModelType());
+		
+		assertSame(first, firstLoader.introspectorFromName("pserver").llBuilder);
+		assertSame(second, secondLoader.unmarshal("pserver", "{\"hostname\":\"ps1\"}").llBuilder);
+		assertSame(first, firstLoader.introspectorFromName("pserver").loader.getLogLineBuilder());
+	}
+	
+	/**
+	 * Loaders for a request share the model of the version rather than building their own.
+	 */
+	@Test
+	public void loaderSharesModel() {
+		Loader first = LoaderFactory.getLoader(ModelType.MOXY, Version.v8, new LogLineBuilder("first-txn", "first-app"));
+		Loader second = LoaderFactory.getLoader(ModelType.MOXY, Version.v8, new LogLineBuilder("second-txn", "second-app"));
+		
+		assertSame(first.introspectorFromName("pserver").getUnderlyingObject().getClass(),
+				second.introspectorFromName("pserver").getUnderlyingObject().getClass());
+	}
+}
@@ -0,0 +1,87 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.rest.MediaType;
+
+public class MarshallerPoolTest {
+
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Reuses instances on the same thread.
+	 *
+	 * @throws JAXBException the JAXB exception
+	 */
+	@Test
+	public void reusesInstancesOnSameThread() throws JAXBException {
+		MarshallerPool pool = new MarshallerPool(ModelInjestor.getInstance().getContextForVersion(Version.v8));
+		
+		Unmarshaller first = pool.getUnmarshaller(MediaType.APPLICATION_JSON_TYPE);
+		Unmarshaller second = pool.getUnmarshaller(MediaType.APPLICATION_JSON_TYPE);
+		Unmarshaller xml = pool.getUnmarshaller(MediaType.APPLICATION_XML_TYPE);
+		
+		assertSame("same thread and media type share an unmarshaller", first, second);
+		assertNotSame("media types do not share an unmarshaller", first, xml);
+		assertEquals("hits", 1, pool.getHits());
+		assertEquals("misses", 2, pool.getMisses());
+	}
+	
+	/**
+	 * Does not share instances between threads.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void doesNotShareInstancesBetweenThreads() throws Exception {
+		MarshallerPool pool = new MarshallerPool(ModelInjestor.getInstance().getContextForVersion(Version.v8));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Unmarshaller local = pool.getUnmarshaller(MediaType.APPLICATION_JSON_TYPE);
+			Future<Unmarshaller> other = executor.submit(() -> pool.getUnmarshaller(MediaType.APPLICATION_JSON_TYPE));
+			
+			assertNotSame("each thread gets its own unmarshaller", local, other.get());
+			assertEquals("misses", 2, pool.getMisses());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
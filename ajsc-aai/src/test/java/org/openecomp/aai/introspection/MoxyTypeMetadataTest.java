@@ -0,0 +1,98 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.introspection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.persistence.dynamic.DynamicType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.CaseFormat;
+
+public class MoxyTypeMetadataTest {
+
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * The compiled answers match what the descriptor gives when asked directly.
+	 */
+	@Test
+	public void matchesDescriptorLookups() {
+		Introspector pserver = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8).introspectorFromName("pserver");
+		DynamicType type = ModelInjestor.getInstance().getDynamicTypeForClassName(pserver.getJavaClassName());
+		
+		for (String camel : type.getPropertiesNames()) {
+			String hyphen = CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_HYPHEN, camel);
+			assertTrue(pserver.getProperties().contains(hyphen));
+			assertEquals(MoxyTypeMetadata.resolveClass(type, type.getDescriptor(), camel), pserver.getClass(hyphen));
+			assertEquals(MoxyTypeMetadata.resolveGenericClass(type, type.getDescriptor(), camel), pserver.getGenericTypeClass(hyphen));
+		}
+		assertEquals("pserver", pserver.getName());
+		assertEquals("hostname", pserver.getKeys().get(0));
+		assertTrue(pserver.isListType("p-interfaces") || pserver.isComplexType("p-interfaces"));
+		assertFalse(pserver.isContainer());
+	}
+	
+	/**
+	 * Containers know the name of the thing they hold.
+	 */
+	@Test
+	public void container() {
+		Introspector pservers = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8).introspectorFromName("pservers");
+		
+		assertTrue(pservers.isContainer());
+		assertEquals("pserver", pservers.getChildName());
+	}
+	
+	/**
+	 * Every introspector on a type shares the same compiled metadata.
+	 */
+	@Test
+	public void sharedPerType() {
+		Introspector first = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8).introspectorFromName("pserver");
+		Introspector second = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8).introspectorFromName("pserver");
+		ModelInjestor injestor = ModelInjestor.getInstance();
+		
+		assertSame(injestor.getTypeMetadata(first.getJavaClassName()), injestor.getTypeMetadata(second.getJavaClassName()));
+	}
+	
+	/**
+	 * Callers are free to change the lists they get back.
+	 */
+	@Test
+	public void listsAreCopies() {
+		Introspector pserver = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8).introspectorFromName("pserver");
+		pserver.getKeys().add("not-a-key");
+		
+		assertEquals(1, pserver.getKeys().size());
+	}
+}
@@ -0,0 +1,118 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.logging;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Per line cost of rendering a log line.  Run through main to get the allocation rates
+ * from the GC profiler alongside the times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LogLineBenchmark {
+
+	private LogLine logline = null;
+	
+	/**
+	 * Configure.
+	 */
+	@Setup
+	public void configure() {
+		logline = new LogLine();
+		logline.init("bench", "trans-id", "from-app", "operation");
+		logline.add("key", "value");
+		logline.setLevel("DEBUG");
+	}
+	
+	/**
+	 * The work LogLine used to do for every line on top of assembling it: walk the
+	 * stack for the calling class and build a date format for the timestamps.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	public void previousPerLineLookups(Blackhole bh) {
+		bh.consume(new Exception().getStackTrace());
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		bh.consume(dateFormat.format(new Date()));
+		bh.consume(dateFormat.format(new Date()));
+	}
+	
+	/**
+	 * A line asked for directly, which still walks the stack.
+	 *
+	 * @return the line
+	 */
+	@Benchmark
+	public String withStackWalk() {
+		return logline.getLine(false);
+	}
+	
+	/**
+	 * A line written through an AAILogger, which knows its calling class.
+	 *
+	 * @return the line
+	 */
+	@Benchmark
+	public String throughLogger() {
+		return logline.getLine(false, "LogLineBenchmark");
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(LogLineBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,100 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.logging;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class LogLineTest {
+
+	/**
+	 * Builds a line with a value that needs escaping.
+	 *
+	 * @return the log line
+	 */
+	private LogLine logLine() {
+		LogLine logline = new LogLine();
+		logline.init("comp", "trans-id", "from-app", "operation");
+		logline.add("key", "a|b ");
+		
+		return logline;
+	}
+	
+	/**
+	 * Lines keep the same fields in the same places.
+	 */
+	@Test
+	public void fields() {
+		String[] fields = logLine().finish(true, "LogLineTest").split("\\|", -1);
+		
+		assertEquals(30, fields.length);
+		assertEquals("trans-id", fields[2]);
+		assertEquals("operation", fields[6]);
+		assertEquals("from-app", fields[7]);
+		assertEquals("AAI", fields[8]);
+		assertEquals("COMPLETE", fields[10]);
+		assertEquals("LogLineTest", fields[20]);
+		assertEquals("co=comp::key=a^b", fields[28]);
+		assertEquals("", fields[29]);
+	}
+	
+	/**
+	 * Audit lines leave out the target fields.
+	 */
+	@Test
+	public void auditFields() {
+		LogLine logline = logLine();
+		logline.setLevel("INFO");
+		String[] fields = logline.getLine(true, "LogLineTest").split("\\|", -1);
+		
+		assertEquals(27, fields.length);
+		assertEquals("from-app", fields[7]);
+		assertEquals("LogLineTest", fields[18]);
+	}
+	
+	/**
+	 * Timestamps are in UTC in the format SimpleDateFormat used to give.
+	 *
+	 * @throws ParseException the parse exception
+	 */
+	@Test
+	public void timestamps() throws ParseException {
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		String[] fields = logLine().finish(true, "LogLineTest").split("\\|", -1);
+		
+		assertEquals(fields[0], dateFormat.format(dateFormat.parse(fields[0])));
+		assertEquals(fields[1], dateFormat.format(dateFormat.parse(fields[1])));
+	}
+	
+	/**
+	 * Lines asked for without an AAILogger on the stack have no class name, as before.
+	 */
+	@Test
+	public void directFinish() {
+		assertEquals("", logLine().finish(true).split("\\|", -1)[20]);
+	}
+}
@@ -0,0 +1,177 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.parsers.uri;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.att.aft.dme2.internal.javaxwsrs.core.UriBuilder;
+
+/**
+ * Parses a set of typical inventory URIs, once walking the URIPathTrie alone and once
+ * creating an introspector for every segment along the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class URIParserBenchmark {
+
+	private static final String[] CORPUS = {
+		"cloud-infrastructure/pservers/pserver/pserver-1",
+		"cloud-infrastructure/pservers/pserver/pserver-1/p-interfaces/p-interface/eth0/l-interfaces/l-interface/eth0.100/l3-interface-ipv4-address-list/10.12.0.4",
+		"cloud-infrastructure/pservers/pserver/pserver-1/lag-interfaces/lag-interface/bond0/l-interfaces/l-interface/bond0.200",
+		"cloud-infrastructure/cloud-regions/cloud-region/att-aic/AAIAIC25",
+		"cloud-infrastructure/cloud-regions/cloud-region/att-aic/AAIAIC25/tenants/tenant/9a8f3b71/vservers/vserver/b2c5e6f0/l-interfaces/l-interface/eth0",
+		"cloud-infrastructure/cloud-regions/cloud-region/att-aic/AAIAIC25/volume-groups/volume-group/vg-0e6189fd",
+		"network/generic-vnfs/generic-vnf/vnf-8ae5aa76",
+		"network/generic-vnfs/generic-vnf/vnf-8ae5aa76/vf-modules/vf-module/vfm-9e141d03",
+		"network/generic-vnfs/generic-vnf/vnf-8ae5aa76/l-interfaces/l-interface/eth1/vlans/vlan/vlan-100",
+		"network/l3-networks/l3-network/net-8f19f0ea/subnets/subnet/subnet-1",
+		"network/logical-links/logical-link/link-1",
+		"business/customers/customer/customer-1/service-subscriptions/service-subscription/vFW/service-instances/service-instance/si-1"
+	};
+	
+	private Loader loader = null;
+	private URI[] uris = null;
+	
+	/**
+	 * Configure.
+	 */
+	@Setup
+	public void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+		
+		loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		uris = new URI[CORPUS.length];
+		for (int i = 0; i < CORPUS.length; i++) {
+			uris[i] = UriBuilder.fromPath("/aai/" + loader.getVersion() + "/" + CORPUS[i]).build();
+		}
+	}
+	
+	/**
+	 * Works out db keys, which only needs the trie.
+	 *
+	 * @param bh the black hole
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	@Benchmark
+	public void dbKeys(Blackhole bh) throws AAIException, UnsupportedEncodingException {
+		for (URI uri : uris) {
+			bh.consume(new URIToDBKey(loader, uri).getResult());
+		}
+	}
+	
+	/**
+	 * Hands out an introspector for every segment, as every parse used to.
+	 *
+	 * @param bh the black hole
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	@Benchmark
+	public void introspectorPerSegment(Blackhole bh) throws AAIException, UnsupportedEncodingException {
+		for (URI uri : uris) {
+			new URIParser(loader, uri).parse(new Parsable() {
+				
+				@Override
+				public void processObject(Introspector obj, Map<String, String> uriKeys) {
+					bh.consume(obj);
+				}
+				
+				@Override
+				public void processContainer(Introspector obj, Map<String, String> uriKeys, boolean isFinalContainer) {
+					bh.consume(obj);
+				}
+				
+				@Override
+				public void processNamespace(Introspector obj) {
+					bh.consume(obj);
+				}
+				
+				@Override
+				public String getCloudRegionTransform() {
+					return "add";
+				}
+				
+				@Override
+				public boolean useOriginalLoader() {
+					return false;
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Builds the nested objects for each uri.
+	 *
+	 * @param bh the black hole
+	 * @throws AAIException the AAI exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	@Benchmark
+	public void uriToObject(Blackhole bh) throws AAIException, UnsupportedEncodingException {
+		for (URI uri : uris) {
+			bh.consume(new URIToObject(loader, uri).getTopEntity());
+		}
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(URIParserBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
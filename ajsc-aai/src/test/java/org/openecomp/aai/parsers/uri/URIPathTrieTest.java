@@ -0,0 +1,138 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.parsers.uri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+
+public class URIPathTrieTest {
+
+	private Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+	
+	private URIPathTrie trie = URIPathTrie.forVersion(Version.v8);
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Each segment of a path resolves to its role and keys.
+	 */
+	@Test
+	public void resolvesPath() {
+		URIPathNode namespace = trie.start("cloud-infrastructure");
+		assertEquals(URIPathNode.Role.NAMESPACE, namespace.getRole());
+		
+		URIPathNode container = trie.next(namespace, "cloud-regions");
+		assertEquals(URIPathNode.Role.CONTAINER, container.getRole());
+		assertTrue(container.isContainer());
+		
+		URIPathNode cloudRegion = trie.next(container, "cloud-region");
+		assertEquals(URIPathNode.Role.OBJECT, cloudRegion.getRole());
+		assertEquals(Arrays.asList("cloud-owner", "cloud-region-id"), cloudRegion.getKeys());
+		assertEquals("cloud-region", cloudRegion.getDbName());
+		
+		URIPathNode tenant = trie.next(trie.next(cloudRegion, "tenants"), "tenant");
+		assertEquals(Arrays.asList("tenant-id"), tenant.getKeys());
+	}
+	
+	/**
+	 * Segments that can't appear where they are don't resolve, but are still known types.
+	 */
+	@Test
+	public void rejectsInvalidSegments() {
+		assertNull(trie.start("tenants"));
+		assertNotNull(trie.getType("tenants"));
+		
+		assertNull(trie.next(trie.start("network"), "tenants"));
+		
+		assertNull(trie.start("cloud"));
+		assertNull(trie.getType("cloud"));
+	}
+	
+	/**
+	 * A segment given as a class name resolves to the same node as its schema name.
+	 */
+	@Test
+	public void classNames() {
+		assertSame(trie.start("cloud-infrastructure"), trie.start("CloudInfrastructure"));
+		assertSame(trie.getType("pserver"), trie.getType("Pserver"));
+	}
+	
+	/**
+	 * Everything reachable in the trie agrees with what the introspectors say.
+	 */
+	@Test
+	public void matchesIntrospectors() {
+		Introspector inventory = loader.introspectorFromName("inventory");
+		Deque<URIPathNode> toVisit = new ArrayDeque<>();
+		Set<URIPathNode> seen = new HashSet<>();
+		for (URIPathNode namespace : trie.getRoot().getChildren().values()) {
+			assertTrue(inventory.hasChild(loader.introspectorFromName(namespace.getName())));
+			toVisit.add(namespace);
+		}
+		
+		while (!toVisit.isEmpty()) {
+			URIPathNode node = toVisit.poll();
+			if (!seen.add(node)) {
+				continue;
+			}
+			Introspector obj = loader.introspectorFromName(node.getName());
+			assertEquals(node.getName(), obj.getKeys(), node.getKeys());
+			assertEquals(node.getName(), obj.getDbName(), node.getDbName());
+			if (obj.getKeys().isEmpty()) {
+				assertEquals(node.getName(), obj.isContainer(), node.isContainer());
+			}
+			for (String property : obj.getProperties()) {
+				if (trie.getType(property) != null && property.equals(trie.getType(property).getName())) {
+					assertNotNull(node.getName() + " " + property, node.getChildren().get(property));
+				}
+			}
+			for (URIPathNode child : node.getChildren().values()) {
+				assertTrue(node.getName() + " " + child.getName(), obj.hasChild(loader.introspectorFromName(child.getName())));
+				toVisit.add(child);
+			}
+		}
+		assertTrue(seen.size() > 1);
+	}
+}
@@ -83,6 +83,25 @@ public class URIToDBKeyTest {
 		
 	}
 	
+	/**
+	 * Cloud region uri.
+	 *
+	 * @throws AAIException the AAI exception
+	 * @throws IllegalArgumentException the illegal argument exception
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 */
+	@Test
+    public void cloudRegionUri() throws AAIException, IllegalArgumentException, UnsupportedEncodingException {
+		URI uri = UriBuilder.fromPath("/aai/" + loader.getVersion() + "/cloud-infrastructure/cloud-regions/cloud-region/att-aic/AAIAIC25/tenants/tenant/key1/vservers/vserver/key2").build();
+		URIToDBKey parse = new URIToDBKey(loader, uri);
+		Object result = parse.getResult();
+
+		String expected = "cloud-region/att-aic/AAIAIC25/tenant/key1/vserver/key2";
+		
+		assertEquals("db key", expected, result);
+		
+	}
+	
 	/**
 	 * Uri no version.
 	 *
@@ -0,0 +1,118 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.rest.db;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.serialization.engines.EngineRegistry;
+import org.openecomp.aai.serialization.engines.QueryStyle;
+import org.openecomp.aai.serialization.engines.TitanDBEngine;
+import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the per request setup cost of building a loader and graph engine
+ * for every HttpEntry against getting them from the EngineRegistry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HttpEntrySetupBenchmark {
+
+	private final Version version = Version.v8;
+	private final ModelType modelType = ModelType.MOXY;
+	private final QueryStyle queryStyle = QueryStyle.TRAVERSAL;
+	
+	/**
+	 * Configure.
+	 */
+	@Setup
+	public void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+		
+		//build the shared model up front so only the per request setup is measured
+		LoaderFactory.getSharedLoader(modelType, version);
+	}
+	
+	/**
+	 * Per request setup, as HttpEntry used to do it.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	public void perRequest(Blackhole bh) {
+		LogLineBuilder llBuilder = new LogLineBuilder("TEST", "TEST");
+		Loader loader = LoaderFactory.createLoaderForVersion(modelType, version, llBuilder);
+		TransactionalGraphEngine engine = new TitanDBEngine(queryStyle, loader, false);
+		bh.consume(loader);
+		bh.consume(engine);
+	}
+	
+	/**
+	 * Per request setup through the registry, sharing the model.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	public void registry(Blackhole bh) {
+		LogLineBuilder llBuilder = new LogLineBuilder("TEST", "TEST");
+		EngineRegistry registry = EngineRegistry.getInstance();
+		Loader loader = registry.getLoader(modelType, version, llBuilder);
+		bh.consume(loader);
+		bh.consume(registry.getEngine(queryStyle, loader));
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(HttpEntrySetupBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,139 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.rest.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.util.List;
+
+import javax.ws.rs.core.UriBuilder;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.serialization.db.RequestMemo;
+import org.openecomp.aai.serialization.engines.QueryStyle;
+import org.openecomp.aai.serialization.engines.TitanDBEngine;
+import org.openecomp.aai.serialization.engines.TransactionalGraphEngine;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class ResolvedQueryTest {
+
+	private TransactionalGraphEngine dbEngine = 
+			new TitanDBEngine(QueryStyle.TRAVERSAL, 
+				LoaderFactory.createLoaderForVersion(ModelType.MOXY, Version.v8, new LogLineBuilder("TEST", "TEST")),
+				false);
+	
+	private TitanGraph graph;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Opens an in memory graph.
+	 */
+	@Before
+	public void setup() {
+		graph = TitanFactory.build().set("storage.backend", "inmemory").open();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		graph.close();
+	}
+	
+	/**
+	 * Runs the traversal once however often the vertices are asked for.
+	 *
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void traversesOnce() throws UnsupportedEncodingException, AAIException {
+		Vertex pserver = graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "key1");
+		RequestMemo memo = new RequestMemo();
+		ResolvedQuery resolved = new ResolvedQuery(dbEngine.getQueryEngine(), graph, this.parse("cloud-infrastructure/pservers/pserver/key1"), memo);
+		
+		List<Vertex> vertices = resolved.getVertices();
+		assertEquals(1, vertices.size());
+		assertEquals(pserver.id(), vertices.get(0).id());
+		assertSame(vertices, resolved.getVertices());
+		assertEquals(1, memo.getTraversals());
+	}
+	
+	/**
+	 * A write can hand over what the uri now matches, or ask for the traversal to run again.
+	 *
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void writesChangeTheMatch() throws UnsupportedEncodingException, AAIException {
+		RequestMemo memo = new RequestMemo();
+		ResolvedQuery resolved = new ResolvedQuery(dbEngine.getQueryEngine(), graph, this.parse("cloud-infrastructure/pservers/pserver/key1"), memo);
+		assertEquals(0, resolved.getVertices().size());
+		
+		Vertex pserver = graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "key1");
+		resolved.matched(pserver);
+		assertSame(pserver, resolved.getVertices().get(0));
+		assertEquals(1, memo.getTraversals());
+		
+		resolved.invalidate();
+		assertEquals(pserver.id(), resolved.getVertices().get(0).id());
+		assertEquals(2, memo.getTraversals());
+	}
+	
+	/**
+	 * Parses a uri into a query.
+	 *
+	 * @param path the path
+	 * @return the query parser
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 */
+	private QueryParser parse(String path) throws UnsupportedEncodingException, AAIException {
+		URI uri = UriBuilder.fromPath(path).build();
+		
+		return dbEngine.getQueryBuilder().createQueryFromURI(uri);
+	}
+}
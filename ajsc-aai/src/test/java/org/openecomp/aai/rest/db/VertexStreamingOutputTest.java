@@ -0,0 +1,231 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.rest.db;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.UriBuilder;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.serialization.db.DBSerializer;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class VertexStreamingOutputTest {
+
+	private static final String PSERVER = "{\"hostname\":\"%s\",\"number-of-cpus\":4,"
+			+ "\"p-interfaces\":{\"p-interface\":[{\"interface-name\":\"p1\",\"l-interfaces\":{\"l-interface\":[{\"interface-name\":\"l1\"}]}},"
+			+ "{\"interface-name\":\"p2\"}]},"
+			+ "\"relationship-list\":{\"relationship\":[{\"related-to\":\"cloud-region\",\"relationship-data\":["
+			+ "{\"relationship-key\":\"cloud-region.cloud-owner\",\"relationship-value\":\"owner1\"},"
+			+ "{\"relationship-key\":\"cloud-region.cloud-region-id\",\"relationship-value\":\"region1\"}]}]}}";
+	
+	private final Version version = AAIProperties.LATEST;
+	private final LogLineBuilder llBuilder = new LogLineBuilder("TEST", "TEST");
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private Loader loader;
+	private Vertex ps1;
+	private Vertex ps2;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Writes two pservers with children and a relationship to a cloud region, and commits them.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		loader = LoaderFactory.getSharedLoader(ModelType.MOXY, version);
+		engine = new InMemoryDBEngine(loader);
+		graph = engine.getGraph();
+		graph.addVertex(AAIProperties.NODE_TYPE, "cloud-region", "cloud-owner", "owner1", "cloud-region-id", "region1");
+		ps1 = this.put("ps1");
+		ps2 = this.put("ps2");
+		graph.tx().commit();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * A streamed object is byte for byte the json the introspector marshals.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void singleObject() throws Exception {
+		this.assertSameJson(Arrays.asList(ps1), "pserver");
+	}
+	
+	/**
+	 * A streamed container is byte for byte the json the introspector marshals.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void container() throws Exception {
+		this.assertSameJson(Arrays.asList(ps1, ps2), "pservers");
+	}
+	
+	/**
+	 * A vertex deleted before the response is written fails it with a 404 and sends nothing.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void deletedVertexIsNotFound() throws Exception {
+		VertexStreamingOutput streamed = new VertexStreamingOutput(engine, loader, Arrays.asList(ps1, ps2), "pservers", Integer.MAX_VALUE, "test", llBuilder);
+		graph.traversal().V(ps2.id()).next().remove();
+		graph.tx().commit();
+		
+		this.assertFailsBeforeSending(streamed, 404);
+	}
+	
+	/**
+	 * A failure while the response is held back gets its own status and sends nothing.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void failureBeforeReleaseSendsNothing() throws Exception {
+		VertexStreamingOutput streamed = new VertexStreamingOutput(engine, loader, Arrays.asList(ps1, ps2), "pserver", Integer.MAX_VALUE, "test", llBuilder);
+		
+		this.assertFailsBeforeSending(streamed, 400);
+	}
+	
+	/**
+	 * Held back bytes are only sent on release, or in order once they outgrow the limit.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void holdsBackUntilLimit() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		VertexStreamingOutput.HoldBackOutputStream held = new VertexStreamingOutput.HoldBackOutputStream(output, 4);
+		held.write(new byte[] { 1, 2, 3 }, 0, 3);
+		held.flush();
+		assertEquals(0, output.size());
+		
+		held.write(new byte[] { 4, 5 }, 0, 2);
+		assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, output.toByteArray());
+		held.write(6);
+		held.release();
+		assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6 }, output.toByteArray());
+		assertEquals(6, held.getCount());
+	}
+	
+	/**
+	 * Writes the response and checks it failed with the status before anything was sent.
+	 *
+	 * @param streamed the streamed response
+	 * @param status the expected status
+	 * @throws Exception the exception
+	 */
+	private void assertFailsBeforeSending(VertexStreamingOutput streamed, int status) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			streamed.write(output);
+			fail("expected the response to fail");
+		} catch (WebApplicationException e) {
+			assertEquals(status, e.getResponse().getStatus());
+		}
+		assertEquals(0, output.size());
+	}
+	
+	/**
+	 * Streams the vertices and checks they are byte for byte what dbToObject and marshal produce.
+	 *
+	 * @param vertices the vertices
+	 * @param objType the obj type
+	 * @throws Exception the exception
+	 */
+	private void assertSameJson(List<Vertex> vertices, String objType) throws Exception {
+		DBSerializer serializer = this.newSerializer();
+		Introspector obj = serializer.dbToObject(vertices, loader.introspectorFromName(objType), Integer.MAX_VALUE, "false");
+		String expected = obj.marshal(false);
+		graph.tx().rollback();
+		
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new VertexStreamingOutput(engine, loader, vertices, objType, Integer.MAX_VALUE, "test", llBuilder).write(output);
+		
+		assertArrayEquals(expected.getBytes("UTF-8"), output.toByteArray());
+	}
+	
+	/**
+	 * Puts a pserver.
+	 *
+	 * @param hostname the hostname
+	 * @return the vertex
+	 * @throws Exception the exception
+	 */
+	private Vertex put(String hostname) throws Exception {
+		String uri = "cloud-infrastructure/pservers/pserver/" + hostname;
+		DBSerializer serializer = this.newSerializer();
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, hostname));
+		Vertex v = serializer.createNewVertex(obj);
+		URI path = UriBuilder.fromPath(uri).build();
+		serializer.serializeToDb(obj, v, engine.getQueryBuilder().createQueryFromURI(path), uri);
+		
+		return v;
+	}
+	
+	/**
+	 * Creates a new serializer on the graph.
+	 *
+	 * @return the DB serializer
+	 */
+	private DBSerializer newSerializer() {
+		return new DBSerializer(version, engine, graph, ModelType.MOXY, "test", llBuilder);
+	}
+}
@@ -0,0 +1,187 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.openecomp.aai.serialization.engines.InMemoryDBEngine.PSERVER;
+import static org.openecomp.aai.serialization.engines.InMemoryDBEngine.PSERVER_URI;
+
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class ChangeSetTest {
+
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private Loader loader;
+	private DBSerializer serializer;
+	private QueryParser query;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		InMemoryDBEngine.configure();
+	}
+	
+	/**
+	 * Opens an in memory graph and a serializer on it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		serializer = engine.newSerializer();
+		query = engine.queryFromURI(PSERVER_URI);
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * Putting the same object twice writes nothing the second time.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void samePutIsEmpty() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		
+		ChangeSet created = serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		assertFalse(created.isEmpty());
+		assertEquals(1, created.getVerticesCreated());
+		assertEquals(1, created.getEdgesAdded());
+		
+		ChangeSet again = serializer.serializeToDb(loader.unmarshal("pserver", String.format(PSERVER, "equip1", this.childVersion())), v, query, PSERVER_URI);
+		assertTrue(again.isEmpty());
+	}
+	
+	/**
+	 * Only the property that changed is written.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void changedProperty() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		
+		ChangeSet changed = serializer.serializeToDb(loader.unmarshal("pserver", String.format(PSERVER, "equip2", this.childVersion())), v, query, PSERVER_URI);
+		assertEquals(1, changed.size());
+		assertEquals(1, changed.getPropertiesSet());
+		assertEquals("equip2", v.<String>property("ptnii-equip-name").orElse(null));
+	}
+	
+	/**
+	 * Children left out of a container are removed.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void removedChild() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		
+		ChangeSet removed = serializer.serializeToDb(loader.unmarshal("pserver", 
+				"{\"hostname\":\"ps1\",\"ptnii-equip-name\":\"equip1\",\"number-of-cpus\":4,\"p-interfaces\":{}}"), v, query, PSERVER_URI);
+		assertEquals(1, removed.size());
+		assertEquals(1, removed.getVerticesRemoved());
+	}
+	
+	/**
+	 * The written view has the values the graph filled in, on the objects that were written.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void writtenView() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		
+		Introspector view = serializer.getWrittenView(obj);
+		assertEquals(v.<String>property(AAIProperties.RESOURCE_VERSION).orElse(null), view.getValue(AAIProperties.RESOURCE_VERSION));
+		Introspector pInterfaces = serializer.getRequestMemo().wrap(ModelType.MOXY, view.getValue("p-interfaces"), null);
+		List<Object> children = (List<Object>)pInterfaces.getValue("p-interface");
+		Introspector child = serializer.getRequestMemo().wrap(ModelType.MOXY, children.get(0), null);
+		assertEquals(this.childVersion(), child.getValue(AAIProperties.RESOURCE_VERSION));
+	}
+	
+	/**
+	 * Children a put left out stay in the graph, so the written view reads them back.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void writtenViewKeepsLeftOutChildren() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		
+		Introspector update = loader.unmarshal("pserver", "{\"hostname\":\"ps1\",\"ptnii-equip-name\":\"equip2\"}");
+		serializer.serializeToDb(update, v, query, PSERVER_URI);
+		assertEquals(1L, (long)graph.traversal().V().has(AAIProperties.NODE_TYPE, "p-interface").count().next());
+		
+		Introspector view = serializer.getWrittenView(update);
+		assertEquals("equip2", view.getValue("ptnii-equip-name"));
+		Introspector pInterfaces = serializer.getRequestMemo().wrap(ModelType.MOXY, view.getValue("p-interfaces"), null);
+		List<Object> children = (List<Object>)pInterfaces.getValue("p-interface");
+		assertEquals(1, children.size());
+		Introspector child = serializer.getRequestMemo().wrap(ModelType.MOXY, children.get(0), null);
+		assertEquals("p1", child.getValue("interface-name"));
+		assertEquals(this.childVersion(), child.getValue(AAIProperties.RESOURCE_VERSION));
+	}
+	
+	/**
+	 * Gets the resource version of the p-interface.
+	 *
+	 * @return the resource version
+	 */
+	private String childVersion() {
+		return graph.traversal().V().has(AAIProperties.NODE_TYPE, "p-interface").next().<String>value(AAIProperties.RESOURCE_VERSION);
+	}
+}
@@ -0,0 +1,176 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.openecomp.aai.serialization.engines.InMemoryDBEngine.PSERVER;
+import static org.openecomp.aai.serialization.engines.InMemoryDBEngine.PSERVER_URI;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class DBSerializerMergePatchTest {
+
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private Loader loader;
+	private DBSerializer serializer;
+	private QueryParser query;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		InMemoryDBEngine.configure();
+	}
+	
+	/**
+	 * Opens an in memory graph and a serializer on it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		serializer = engine.newSerializer();
+		query = engine.queryFromURI(PSERVER_URI);
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * Only the properties in the patch are written, and nothing under the vertex is touched.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void simpleProperties() throws Exception {
+		Vertex v = this.put();
+		
+		ChangeSet changes = serializer.mergePatch(loader.introspectorFromName("pserver"), v, "{\"ptnii-equip-name\":\"equip2\",\"number-of-cpus\":8}");
+		assertEquals(2, changes.size());
+		assertEquals("equip2", v.<String>property("ptnii-equip-name").orElse(null));
+		assertEquals(8, v.<Integer>property("number-of-cpus").orElse(null).intValue());
+		assertEquals(1L, (long)graph.traversal().V().has(AAIProperties.NODE_TYPE, "p-interface").count().next());
+	}
+	
+	/**
+	 * A null in the patch removes the property.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void nullRemoves() throws Exception {
+		Vertex v = this.put();
+		
+		ChangeSet changes = serializer.mergePatch(loader.introspectorFromName("pserver"), v, "{\"ptnii-equip-name\":null}");
+		assertEquals(1, changes.getPropertiesRemoved());
+		assertNull(v.<String>property("ptnii-equip-name").orElse(null));
+		assertEquals("ps1", v.<String>property("hostname").orElse(null));
+	}
+	
+	/**
+	 * A container in the patch replaces the children that were there.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void containerReplaces() throws Exception {
+		Vertex v = this.put();
+		
+		ChangeSet changes = serializer.mergePatch(loader.introspectorFromName("pserver"), v, 
+				"{\"p-interfaces\":{\"p-interface\":[{\"interface-name\":\"p2\"}]}}");
+		assertEquals(1, changes.getVerticesCreated());
+		assertEquals(1, changes.getVerticesRemoved());
+		assertEquals("p2", graph.traversal().V().has(AAIProperties.NODE_TYPE, "p-interface").next().<String>value("interface-name"));
+	}
+	
+	/**
+	 * The written view of a patch is the patched vertex.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void writtenView() throws Exception {
+		Vertex v = this.put();
+		Introspector view = loader.introspectorFromName("pserver");
+		
+		serializer.mergePatch(view, v, "{\"ptnii-equip-name\":\"equip2\"}");
+		serializer.getWrittenView(view);
+		assertEquals("ps1", view.getValue("hostname"));
+		assertEquals("equip2", view.getValue("ptnii-equip-name"));
+	}
+	
+	/**
+	 * A patched child merges into the one child of its type when it leaves the keys out
+	 * or repeats them, and replaces it when it gives other keys or there is more than one.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void mergeTargetKeys() throws Exception {
+		Vertex v = this.put();
+		Vertex p1 = graph.traversal().V().has(AAIProperties.NODE_TYPE, "p-interface").next();
+		
+		assertSame(p1, serializer.mergeTarget(loader.unmarshal("p-interface", "{\"speed-value\":\"10\"}"), Arrays.asList(p1)));
+		assertSame(p1, serializer.mergeTarget(loader.unmarshal("p-interface", "{\"interface-name\":\"p1\",\"speed-value\":\"10\"}"), Arrays.asList(p1)));
+		assertNull(serializer.mergeTarget(loader.unmarshal("p-interface", "{\"interface-name\":\"p2\",\"speed-value\":\"10\"}"), Arrays.asList(p1)));
+		assertNull(serializer.mergeTarget(loader.unmarshal("p-interface", "{\"speed-value\":\"10\"}"), Arrays.asList(p1, v)));
+		assertNull(serializer.mergeTarget(loader.unmarshal("p-interface", "{\"speed-value\":\"10\"}"), Collections.<Vertex>emptyList()));
+	}
+	
+	/**
+	 * Puts the pserver.
+	 *
+	 * @return the vertex
+	 * @throws Exception the exception
+	 */
+	private Vertex put() throws Exception {
+		Introspector obj = loader.unmarshal("pserver", String.format(PSERVER, "equip1", ""));
+		Vertex v = serializer.createNewVertex(obj);
+		serializer.serializeToDb(obj, v, query, PSERVER_URI);
+		
+		return v;
+	}
+}
@@ -0,0 +1,231 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.openecomp.aai.serialization.engines.InMemoryDBEngine.PSERVER_URI;
+
+import java.util.Iterator;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class DBSerializerURICacheTest {
+
+	private static final String PS1 = "{\"hostname\":\"ps1\",\"p-interfaces\":{\"p-interface\":[{\"interface-name\":\"p1\","
+			+ "\"l-interfaces\":{\"l-interface\":[{\"interface-name\":\"l1\"}]}}]}}";
+	
+	private static final String PS2 = "{\"hostname\":\"ps2\"}";
+	
+	private final VertexURICache cache = VertexURICache.getInstance();
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private Loader loader;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		InMemoryDBEngine.configure();
+	}
+	
+	/**
+	 * Opens an in memory graph with two pservers, the first with a p-interface and an l-interface under it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		DBSerializer writer = engine.newSerializer();
+		this.put(writer, "pserver", PS1, PSERVER_URI);
+		this.put(writer, "pserver", PS2, "cloud-infrastructure/pservers/pserver/ps2");
+		writer.publishURIs();
+	}
+	
+	/**
+	 * Drops anything this graph left in the shared cache and closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		graph.traversal().V().forEachRemaining(v -> cache.invalidate(v.id()));
+		engine.close();
+	}
+	
+	/**
+	 * Moving a p-interface to another pserver drops the cached uris of it and the l-interface under it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void moveInvalidatesSubtree() throws Exception {
+		Vertex pInterface = this.vertex("p-interface");
+		Vertex lInterface = this.vertex("l-interface");
+		DBSerializer reader = engine.newSerializer();
+		String before = reader.getURIForVertex(lInterface).toString();
+		reader.publishURIs();
+		assertTrue(before, before.contains("/pserver/ps1/"));
+		assertEquals(before, cache.get(lInterface.id()));
+		assertTrue(cache.get(pInterface.id()).contains("/pserver/ps1/"));
+		
+		this.detach(pInterface);
+		DBSerializer mover = engine.newSerializer();
+		this.put(mover, pInterface, loader.unmarshal("p-interface", "{\"interface-name\":\"p1\"}"), 
+				"cloud-infrastructure/pservers/pserver/ps2/p-interfaces/p-interface/p1");
+		assertNull(cache.get(pInterface.id()));
+		assertNull(cache.get(lInterface.id()));
+		
+		mover.publishURIs();
+		assertNull(cache.get(pInterface.id()));
+		assertNull(cache.get(lInterface.id()));
+		String after = engine.newSerializer().getURIForVertex(lInterface).toString();
+		assertTrue(after, after.contains("/pserver/ps2/"));
+	}
+	
+	/**
+	 * Uris resolved by a serializer that never publishes, as when its transaction is rolled back, are not cached.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void unpublishedURIsAreNotCached() throws Exception {
+		Vertex lInterface = this.vertex("l-interface");
+		engine.newSerializer().getURIForVertex(lInterface);
+		
+		assertNull(cache.get(lInterface.id()));
+	}
+	
+	/**
+	 * Uris resolved before another request moved a vertex are turned away.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void staleURIsAreTurnedAway() throws Exception {
+		Vertex pserver = graph.traversal().V().has("hostname", "ps1").next();
+		Vertex lInterface = this.vertex("l-interface");
+		DBSerializer reader = engine.newSerializer();
+		reader.getURIForVertex(pserver);
+		reader.publishURIs();
+		
+		DBSerializer slowReader = engine.newSerializer();
+		slowReader.getURIForVertex(lInterface);
+		cache.invalidate(pserver.id());
+		slowReader.publishURIs();
+		
+		assertNull(cache.get(lInterface.id()));
+	}
+	
+	/**
+	 * A reader that resolved a uri before a writer moved the vertex cannot cache it,
+	 * even when the uri was not cached when the writer invalidated it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void uncachedURIsMovedWhileResolvingAreTurnedAway() throws Exception {
+		Vertex pInterface = this.vertex("p-interface");
+		Vertex lInterface = this.vertex("l-interface");
+		cache.invalidate(pInterface.id());
+		cache.invalidate(lInterface.id());
+		
+		DBSerializer reader = engine.newSerializer();
+		String stale = reader.getURIForVertex(lInterface).toString();
+		assertTrue(stale, stale.contains("/pserver/ps1/"));
+		
+		this.detach(pInterface);
+		DBSerializer mover = engine.newSerializer();
+		this.put(mover, pInterface, loader.unmarshal("p-interface", "{\"interface-name\":\"p1\"}"), 
+				"cloud-infrastructure/pservers/pserver/ps2/p-interfaces/p-interface/p1");
+		mover.publishURIs();
+		
+		reader.publishURIs();
+		assertNull(cache.get(pInterface.id()));
+		assertNull(cache.get(lInterface.id()));
+	}
+	
+	/**
+	 * Removes the tree edge to the parent of a vertex.
+	 *
+	 * @param v the v
+	 */
+	private void detach(Vertex v) {
+		Iterator<Edge> edges = v.edges(Direction.IN);
+		while (edges.hasNext()) {
+			Edge e = edges.next();
+			if (e.<Boolean>property("isParent").orElse(false)) {
+				e.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the only vertex of a node type.
+	 *
+	 * @param nodeType the node type
+	 * @return the vertex
+	 */
+	private Vertex vertex(String nodeType) {
+		return graph.traversal().V().has(AAIProperties.NODE_TYPE, nodeType).next();
+	}
+	
+	/**
+	 * Puts a new object.
+	 *
+	 * @param serializer the serializer
+	 * @param type the type
+	 * @param json the json
+	 * @param uri the uri
+	 * @throws Exception the exception
+	 */
+	private void put(DBSerializer serializer, String type, String json, String uri) throws Exception {
+		Introspector obj = loader.unmarshal(type, json);
+		this.put(serializer, serializer.createNewVertex(obj), obj, uri);
+	}
+	
+	/**
+	 * Puts an object onto a vertex.
+	 *
+	 * @param serializer the serializer
+	 * @param v the v
+	 * @param obj the obj
+	 * @param uri the uri
+	 * @throws Exception the exception
+	 */
+	private void put(DBSerializer serializer, Vertex v, Introspector obj, String uri) throws Exception {
+		serializer.serializeToDb(obj, v, engine.queryFromURI(uri), uri);
+	}
+}
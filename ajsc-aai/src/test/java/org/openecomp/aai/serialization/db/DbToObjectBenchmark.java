@@ -0,0 +1,154 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+/**
+ * Measures dbToObject on a full depth pserver tree, which wraps one introspector per
+ * object in the tree and asks each one about every one of its properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DbToObjectBenchmark {
+
+	@Param({"2", "10"})
+	private int interfaces;
+	
+	private Loader loader;
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private DBSerializer serializer;
+	private Vertex pserver;
+	
+	/**
+	 * Builds a pserver with p-interfaces, l-interfaces and addresses under it.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Setup
+	public void setup() throws AAIException {
+		InMemoryDBEngine.configure();
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		EdgeRules rules = EdgeRules.getInstance();
+		
+		pserver = graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "bench-ps", "ptnii-equip-name", "bench-equip");
+		for (int i = 0; i < interfaces; i++) {
+			Vertex pInterface = graph.addVertex(AAIProperties.NODE_TYPE, "p-interface", "interface-name", "p" + i);
+			rules.addTreeEdge(pserver, pInterface);
+			for (int j = 0; j < 4; j++) {
+				Vertex lInterface = graph.addVertex(AAIProperties.NODE_TYPE, "l-interface", "interface-name", "p" + i + "-l" + j);
+				rules.addTreeEdge(pInterface, lInterface);
+				for (int k = 0; k < 2; k++) {
+					Vertex address = graph.addVertex(AAIProperties.NODE_TYPE, "l3-interface-ipv4-address-list", 
+							"l3-interface-ipv4-address", "10." + i + "." + j + "." + k);
+					rules.addTreeEdge(lInterface, address);
+				}
+			}
+		}
+		
+		serializer = engine.newSerializer();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@TearDown
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * Reads the whole tree.
+	 *
+	 * @return the introspector
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public Introspector dbToObject() throws Exception {
+		Introspector obj = loader.introspectorFromName("pserver");
+		
+		return serializer.dbToObject(Collections.singletonList(pserver), obj, Integer.MAX_VALUE, "false");
+	}
+	
+	/**
+	 * Just wraps an object and walks its properties the way dbToObject does.
+	 *
+	 * @return the number of complex properties
+	 */
+	@Benchmark
+	public int wrapAndInspect() {
+		Introspector obj = loader.introspectorFromName("pserver");
+		int complex = 0;
+		for (String property : obj.getProperties()) {
+			if (obj.isComplexType(property) || obj.isListType(property)) {
+				complex++;
+			}
+		}
+		
+		return complex;
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(DbToObjectBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
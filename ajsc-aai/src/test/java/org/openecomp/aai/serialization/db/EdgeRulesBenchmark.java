@@ -0,0 +1,120 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.openecomp.aai.dbmodel.DbEdgeRules;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Multimap;
+
+/**
+ * Compares parsing the DbEdgeRules string on every lookup, as getEdgeRule used to,
+ * against the precomputed rule table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EdgeRulesBenchmark {
+
+	@Param({"cloud-region|tenant", "tenant|cloud-region"})
+	private String pair;
+	
+	private final Multimap<String, String> rules = DbEdgeRules.EdgeRules;
+	
+	/**
+	 * The lookup as it used to be done.
+	 *
+	 * @return the edge rule
+	 * @throws AAIException the AAI exception
+	 */
+	@Benchmark
+	public EdgeRule parsePerLookup() throws AAIException {
+		String[] types = pair.split("\\|");
+		String outType = types[0];
+		String inType = types[1];
+		boolean isFlipped = false;
+		if (!rules.get(outType + "|" + inType).isEmpty()) {
+			
+		} else if (!rules.get(inType + "|" + outType).isEmpty()) {
+			String tempType = inType;
+			inType = outType;
+			outType = tempType;
+			isFlipped = true;
+		} else {
+			throw new AAIException("AAI_6120");
+		}
+		Collection<String> collection = rules.get(outType + "|" + inType);
+		String[] info = collection.iterator().next().split(",");
+		Direction direction = Direction.valueOf(info[1]);
+		if (isFlipped) {
+			direction = direction.opposite();
+		}
+		
+		return new EdgeRule(types[0], types[1], info[0], direction, MultiplicityRule.valueOf(info[2].toUpperCase()), info[3], info[4], info[5], info[6]);
+	}
+	
+	/**
+	 * The lookup through the rule table.
+	 *
+	 * @return the edge rule
+	 * @throws AAIException the AAI exception
+	 */
+	@Benchmark
+	public EdgeRule table() throws AAIException {
+		String[] types = pair.split("\\|");
+		
+		return EdgeRules.getInstance().getEdgeRule(types[0], types[1]);
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(EdgeRulesBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
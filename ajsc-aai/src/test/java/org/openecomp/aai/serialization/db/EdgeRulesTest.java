@@ -0,0 +1,219 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class EdgeRulesTest {
+
+	private final EdgeRules rules = EdgeRules.getInstance();
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		InMemoryDBEngine.configure();
+	}
+	
+	/**
+	 * Opens an empty in memory graph.
+	 */
+	@Before
+	public void setup() {
+		engine = new InMemoryDBEngine();
+		graph = engine.getGraph();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * A pair defined in DbEdgeRules keeps its label, direction and multiplicity.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void forwardRule() throws AAIException {
+		EdgeRule rule = rules.getEdgeRule("pserver", "cloud-region");
+		assertEquals("locatedIn", rule.getLabel());
+		assertEquals(Direction.OUT, rule.getDirection());
+		assertEquals(MultiplicityRule.MANY2ONE, rule.getMultiplicityRule());
+		assertEquals("false", rule.getIsParent());
+		
+		EdgeRule tree = rules.getEdgeRule("pserver", "p-interface");
+		assertEquals("hasPinterface", tree.getLabel());
+		assertEquals(Direction.OUT, tree.getDirection());
+		assertEquals("true", tree.getIsParent());
+	}
+	
+	/**
+	 * A pair only defined the other way round gets the same rule with its direction flipped.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void flippedRule() throws AAIException {
+		EdgeRule rule = rules.getEdgeRule("cloud-region", "pserver");
+		assertEquals("locatedIn", rule.getLabel());
+		assertEquals(Direction.IN, rule.getDirection());
+		assertEquals(MultiplicityRule.MANY2ONE, rule.getMultiplicityRule());
+		
+		EdgeRule tree = rules.getEdgeRule("p-interface", "pserver");
+		assertEquals("hasPinterface", tree.getLabel());
+		assertEquals(Direction.IN, tree.getDirection());
+		assertEquals("true", tree.getIsParent());
+	}
+	
+	/**
+	 * Pairs with no rule, or with a node type the table does not know, are turned away.
+	 */
+	@Test
+	public void missingRule() {
+		this.assertNoRule("pserver", "vlan");
+		this.assertNoRule("vlan", "pserver");
+		this.assertNoRule("pserver", "not-a-node-type");
+		this.assertNoRule(null, "pserver");
+	}
+	
+	/**
+	 * A flipped rule adds the edge out of the vertex the rule was defined for.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void addFlippedEdge() throws AAIException {
+		Vertex pserver = this.vertex("pserver");
+		Vertex cloudRegion = this.vertex("cloud-region");
+		Edge e = rules.addEdge(cloudRegion, pserver);
+		assertEquals("locatedIn", e.label());
+		assertEquals(pserver, e.outVertex());
+		assertEquals(cloudRegion, e.inVertex());
+	}
+	
+	/**
+	 * A second many to one edge out of the same vertex is a multiplicity violation.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void manyToOneViolation() throws AAIException {
+		Vertex pserver = this.vertex("pserver");
+		Vertex cloudRegion = this.vertex("cloud-region");
+		rules.addEdge(pserver, cloudRegion);
+		rules.addEdge(this.vertex("pserver"), cloudRegion);
+		try {
+			rules.addEdge(this.vertex("cloud-region"), pserver);
+			fail("expected a multiplicity violation");
+		} catch (AAIException e) {
+			assertEquals("AAI_6140", e.getMessage());
+		}
+		assertEquals(1L, (long)graph.traversal().V(pserver).outE("locatedIn").count().next());
+	}
+	
+	/**
+	 * A second one to many edge into the same vertex is a multiplicity violation.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void oneToManyViolation() throws AAIException {
+		Vertex vnf = this.vertex("generic-vnf");
+		Vertex vserver = this.vertex("vserver");
+		rules.addEdge(vnf, vserver);
+		rules.addEdge(vnf, this.vertex("vserver"));
+		try {
+			rules.addEdge(this.vertex("generic-vnf"), vserver);
+			fail("expected a multiplicity violation");
+		} catch (AAIException e) {
+			assertEquals("AAI_6140", e.getMessage());
+		}
+		assertEquals(2L, (long)graph.traversal().V(vnf).outE("runsOnVserver").count().next());
+	}
+	
+	/**
+	 * A parent rule can only be used for a tree edge.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void treeRuleNeedsTreeEdge() throws AAIException {
+		Vertex pserver = this.vertex("pserver");
+		Vertex pInterface = this.vertex("p-interface");
+		try {
+			rules.addEdge(pserver, pInterface);
+			fail("expected a cousin edge to be refused");
+		} catch (AAIException e) {
+			assertEquals("AAI_6145", e.getMessage());
+		}
+		assertFalse(graph.traversal().V(pserver).bothE().hasNext());
+		Edge e = rules.addTreeEdge(pInterface, pserver);
+		assertEquals(pserver, e.outVertex());
+		assertTrue(graph.traversal().V(pInterface).inE("hasPinterface").hasNext());
+	}
+	
+	/**
+	 * Asserts that the table has no rule for the pair.
+	 *
+	 * @param outType the out type
+	 * @param inType the in type
+	 */
+	private void assertNoRule(String outType, String inType) {
+		try {
+			rules.getEdgeRule(outType, inType);
+			fail("expected no rule for " + outType + ", " + inType);
+		} catch (AAIException e) {
+			assertEquals("AAI_6120", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Adds a vertex of the node type.
+	 *
+	 * @param nodeType the node type
+	 * @return the vertex
+	 */
+	private Vertex vertex(String nodeType) {
+		return graph.addVertex(AAIProperties.NODE_TYPE, nodeType);
+	}
+}
@@ -0,0 +1,142 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+/**
+ * Measures resolving a generic-vnf's relationships to pservers, batched against one
+ * query per relationship.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RelationshipListBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int relationships;
+	
+	private Loader loader;
+	private TitanGraph graph;
+	private InMemoryDBEngine engine;
+	private List<Introspector> wrapped;
+	
+	/**
+	 * Builds the pservers and a relationship to each of them.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Setup
+	public void setup() throws AAIException {
+		InMemoryDBEngine.configure();
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		
+		wrapped = new ArrayList<>(relationships);
+		for (int i = 0; i < relationships; i++) {
+			graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "bench-ps" + i);
+			wrapped.add(loader.unmarshal("relationship", "{\"related-to\":\"pserver\",\"relationship-data\":["
+					+ "{\"relationship-key\":\"pserver.hostname\",\"relationship-value\":\"bench-ps" + i + "\"}]}"));
+		}
+		
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@TearDown
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * Resolves the whole list in batches.
+	 *
+	 * @return the vertices
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public List<Vertex> batched() throws Exception {
+		RelationshipResolver resolver = new RelationshipResolver(engine, graph, loader, new RequestMemo());
+		
+		return resolver.resolve(wrapped);
+	}
+	
+	/**
+	 * Resolves each relationship with its own query, the way processRelationshipList used to.
+	 *
+	 * @return the vertices
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public List<Vertex> perRelationship() throws Exception {
+		RelationshipResolver resolver = new RelationshipResolver(engine, graph, loader, new RequestMemo());
+		List<Vertex> result = new ArrayList<>(wrapped.size());
+		for (Introspector relationship : wrapped) {
+			result.add(resolver.resolveOne(relationship));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(RelationshipListBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,155 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.serialization.engines.InMemoryDBEngine;
+
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class RelationshipResolverTest {
+
+	private static final String TO_PSERVER = "{\"related-to\":\"pserver\",\"relationship-data\":["
+			+ "{\"relationship-key\":\"pserver.hostname\",\"relationship-value\":\"%s\"}]}";
+	
+	private static final String TO_P_INTERFACE = "{\"related-to\":\"p-interface\",\"relationship-data\":["
+			+ "{\"relationship-key\":\"pserver.hostname\",\"relationship-value\":\"%s\"},"
+			+ "{\"relationship-key\":\"p-interface.interface-name\",\"relationship-value\":\"%s\"}]}";
+	
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+	
+	private InMemoryDBEngine engine;
+	private TitanGraph graph;
+	private Loader loader;
+	private RelationshipResolver resolver;
+	private Vertex ps1;
+	private Vertex ps2;
+	private Vertex eth0OnPs1;
+	private Vertex eth0OnPs2;
+	
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		InMemoryDBEngine.configure();
+	}
+	
+	/**
+	 * Builds two pservers that each have a p-interface called eth0.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		engine = new InMemoryDBEngine();
+		loader = engine.getLoader();
+		graph = engine.getGraph();
+		EdgeRules rules = EdgeRules.getInstance();
+		ps1 = graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "ps1");
+		ps2 = graph.addVertex(AAIProperties.NODE_TYPE, "pserver", "hostname", "ps2");
+		eth0OnPs1 = graph.addVertex(AAIProperties.NODE_TYPE, "p-interface", "interface-name", "eth0");
+		eth0OnPs2 = graph.addVertex(AAIProperties.NODE_TYPE, "p-interface", "interface-name", "eth0");
+		rules.addTreeEdge(ps1, eth0OnPs1);
+		rules.addTreeEdge(ps2, eth0OnPs2);
+		
+		resolver = new RelationshipResolver(engine, graph, loader, new RequestMemo());
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		engine.close();
+	}
+	
+	/**
+	 * Relationships of the same type are found with one lookup, in the order given.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void sameTypeIsOneLookup() throws Exception {
+		List<Vertex> found = resolver.resolve(Arrays.asList(
+				this.relationship(String.format(TO_PSERVER, "ps2")),
+				this.relationship(String.format(TO_PSERVER, "ps1"))));
+		
+		assertEquals(Arrays.asList(ps2, ps1), found);
+		assertEquals(1, resolver.getTraversals());
+	}
+	
+	/**
+	 * A child is only matched under the parent named in the relationship.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void childUnderParent() throws Exception {
+		List<Vertex> found = resolver.resolve(Arrays.asList(
+				this.relationship(String.format(TO_P_INTERFACE, "ps2", "eth0")),
+				this.relationship(String.format(TO_P_INTERFACE, "ps1", "eth0"))));
+		
+		assertEquals(Arrays.asList(eth0OnPs2, eth0OnPs1), found);
+		assertEquals(2, resolver.getTraversals());
+	}
+	
+	/**
+	 * A relationship to nothing still fails the way it did.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void missingTarget() throws Exception {
+		thrown.expect(AAIException.class);
+		thrown.expectMessage(startsWith("AAI_6129"));
+		
+		resolver.resolve(Arrays.asList(
+				this.relationship(String.format(TO_PSERVER, "ps1")),
+				this.relationship(String.format(TO_PSERVER, "ps3"))));
+	}
+	
+	/**
+	 * Unmarshals a relationship.
+	 *
+	 * @param json the json
+	 * @return the introspector
+	 */
+	private Introspector relationship(String json) {
+		return loader.unmarshal("relationship", json);
+	}
+}
@@ -0,0 +1,118 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Introspector;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.introspection.Version;
+
+public class RequestMemoTest {
+
+	/**
+	 * Configure.
+	 */
+	@BeforeClass
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Copies of a prototype are new, empty objects of the same type.
+	 */
+	@Test
+	public void copiesArePristine() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		RequestMemo memo = new RequestMemo();
+		
+		Introspector first = memo.introspectorFromName(loader, "pserver");
+		first.setValue("hostname", "host1");
+		Introspector second = memo.introspectorFromName(loader, "pserver");
+		
+		assertNotSame(first.getUnderlyingObject(), second.getUnderlyingObject());
+		assertEquals(first.getJavaClassName(), second.getJavaClassName());
+		assertEquals("pserver", second.getDbName());
+		assertNull(second.getValue("hostname"));
+		assertEquals(2, memo.getIntrospectorLookups());
+		assertEquals(1, memo.getIntrospectorHits());
+	}
+	
+	/**
+	 * Nested properties and wrapped objects are copied from prototypes too.
+	 */
+	@Test
+	public void propertiesAndWrappers() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		RequestMemo memo = new RequestMemo();
+		Introspector pserver = loader.introspectorFromName("pserver");
+		
+		Introspector first = memo.newIntrospectorInstanceOfNestedProperty(pserver, "p-interfaces");
+		Introspector second = memo.newIntrospectorInstanceOfNestedProperty(pserver, "p-interfaces");
+		assertEquals(first.getJavaClassName(), second.getJavaClassName());
+		assertNotSame(first.getUnderlyingObject(), second.getUnderlyingObject());
+		
+		Object raw = loader.objectFromName("pserver");
+		memo.wrap(ModelType.MOXY, loader.objectFromName("pserver"), null);
+		Introspector wrapped = memo.wrap(ModelType.MOXY, raw, null);
+		assertSame(raw, wrapped.getUnderlyingObject());
+		assertEquals("pserver", wrapped.getDbName());
+		assertEquals(4, memo.getIntrospectorLookups());
+		assertEquals(2, memo.getIntrospectorHits());
+	}
+	
+	/**
+	 * Edge rules are looked up once per pair of types.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void edgeRules() throws AAIException {
+		RequestMemo memo = new RequestMemo();
+		
+		EdgeRule rule = memo.getEdgeRule("pserver", "p-interface");
+		assertSame(rule, memo.getEdgeRule("pserver", "p-interface"));
+		assertEquals(2, memo.getEdgeRuleLookups());
+		assertEquals(1, memo.getEdgeRuleHits());
+	}
+	
+	/**
+	 * The unscoped memo passes straight through.
+	 */
+	@Test
+	public void unscoped() {
+		Loader loader = LoaderFactory.getSharedLoader(ModelType.MOXY, Version.v8);
+		RequestMemo memo = RequestMemo.unscoped();
+		
+		memo.introspectorFromName(loader, "pserver");
+		memo.introspectorFromName(loader, "pserver");
+		assertEquals(0, memo.getIntrospectorLookups());
+		assertEquals(0, memo.getIntrospectorHits());
+	}
+}
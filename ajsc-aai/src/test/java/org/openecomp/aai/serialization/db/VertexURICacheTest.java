@@ -0,0 +1,93 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class VertexURICacheTest {
+
+	/**
+	 * Hits and misses are counted.
+	 */
+	@Test
+	public void hitRatio() {
+		VertexURICache cache = new VertexURICache(10);
+		cache.put(1L, "/cloud-infrastructure/pservers/pserver/ps1");
+		
+		assertEquals("/cloud-infrastructure/pservers/pserver/ps1", cache.get(1L));
+		assertNull(cache.get(2L));
+		assertEquals(0.5, cache.getHitRatio(), 0.0);
+	}
+	
+	/**
+	 * Invalidated entries are gone.
+	 */
+	@Test
+	public void invalidate() {
+		VertexURICache cache = new VertexURICache(10);
+		cache.put(1L, "/cloud-infrastructure/pservers/pserver/ps1");
+		cache.invalidate(1L);
+		
+		assertNull(cache.get(1L));
+		assertEquals(0, cache.getEvictionCount());
+	}
+	
+	/**
+	 * Uris resolved before any entry was invalidated, cached or not, are turned away.
+	 */
+	@Test
+	public void putAllSinceGeneration() {
+		VertexURICache cache = new VertexURICache(10);
+		cache.put(1L, "/cloud-infrastructure/pservers/pserver/ps1");
+		long since = cache.getGeneration();
+		assertTrue(cache.putAll(Collections.<Object, String>singletonMap(3L, "/network/generic-vnfs/generic-vnf/vnf3"), since));
+		
+		cache.invalidate(1L);
+		assertFalse(cache.putAll(Collections.<Object, String>singletonMap(4L, "/network/generic-vnfs/generic-vnf/vnf4"), since));
+		assertNull(cache.get(4L));
+		
+		since = cache.getGeneration();
+		cache.invalidate(2L);
+		assertFalse(cache.putAll(Collections.<Object, String>singletonMap(2L, "/network/generic-vnfs/generic-vnf/vnf2"), since));
+		assertNull(cache.get(2L));
+	}
+	
+	/**
+	 * The cache never grows past its size and counts what it evicted.
+	 */
+	@Test
+	public void evictsForSize() {
+		VertexURICache cache = new VertexURICache(2);
+		for (long i = 0; i < 10; i++) {
+			cache.put(i, "/network/generic-vnfs/generic-vnf/vnf" + i);
+		}
+		
+		assertTrue(cache.size() <= 2);
+		assertEquals(10 - cache.size(), cache.getEvictionCount());
+	}
+}
@@ -0,0 +1,135 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.serialization.engines;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.UriBuilder;
+
+import org.openecomp.aai.db.AAIProperties;
+import org.openecomp.aai.exceptions.AAIException;
+import org.openecomp.aai.introspection.Loader;
+import org.openecomp.aai.introspection.LoaderFactory;
+import org.openecomp.aai.introspection.ModelType;
+import org.openecomp.aai.logging.LogLineBuilder;
+import org.openecomp.aai.parsers.query.QueryParser;
+import org.openecomp.aai.serialization.db.DBSerializer;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+/**
+ * A traversal engine on its own in memory graph, opened from inmemory_titan.properties,
+ * for tests and benchmarks that need a real graph without the shared singleton.
+ */
+public class InMemoryDBEngine extends TitanDBEngine {
+
+	public static final String CONFIG = "src/test/resources/inmemory_titan.properties";
+	
+	/** The uri of the pserver the graph tests write. */
+	public static final String PSERVER_URI = "cloud-infrastructure/pservers/pserver/ps1";
+	
+	/** That pserver with one p-interface, formatted with its ptnii-equip-name and the p-interface's resource-version. */
+	public static final String PSERVER = "{\"hostname\":\"ps1\",\"ptnii-equip-name\":\"%s\",\"number-of-cpus\":4,"
+			+ "\"p-interfaces\":{\"p-interface\":[{\"interface-name\":\"p1\",\"resource-version\":\"%s\"}]}}";
+	
+	private final TitanGraph inMemoryGraph;
+	private final AtomicInteger count = new AtomicInteger();
+	
+	/**
+	 * Points the config lookups at bundleconfig-local. Call it from @BeforeClass.
+	 */
+	public static void configure() {
+		System.setProperty("AJSC_HOME", ".");
+		System.setProperty("BUNDLECONFIG_DIR", "bundleconfig-local");
+	}
+	
+	/**
+	 * Instantiates a new in memory DB engine with the latest moxy loader.
+	 */
+	public InMemoryDBEngine() {
+		this(LoaderFactory.getSharedLoader(ModelType.MOXY, AAIProperties.LATEST));
+	}
+	
+	/**
+	 * Instantiates a new in memory DB engine.
+	 *
+	 * @param loader the loader
+	 */
+	public InMemoryDBEngine(Loader loader) {
+		super(QueryStyle.TRAVERSAL, loader, false);
+		this.inMemoryGraph = TitanFactory.open(CONFIG);
+		this.graph = inMemoryGraph;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TitanGraph getGraph() {
+		return inMemoryGraph;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AtomicInteger getCount() {
+		return count;
+	}
+	
+	/**
+	 * Gets the loader.
+	 *
+	 * @return the loader
+	 */
+	public Loader getLoader() {
+		return loader;
+	}
+	
+	/**
+	 * Gets a new serializer on this graph at the latest version.
+	 *
+	 * @return the DB serializer
+	 */
+	public DBSerializer newSerializer() {
+		return new DBSerializer(AAIProperties.LATEST, this, inMemoryGraph, ModelType.MOXY, "test", new LogLineBuilder("TEST", "TEST"));
+	}
+	
+	/**
+	 * Parses a uri into a query on this graph.
+	 *
+	 * @param uri the uri
+	 * @return the query parser
+	 * @throws UnsupportedEncodingException the unsupported encoding exception
+	 * @throws AAIException the AAI exception
+	 */
+	public QueryParser queryFromURI(String uri) throws UnsupportedEncodingException, AAIException {
+		return this.getQueryBuilder().createQueryFromURI(UriBuilder.fromPath(uri).build());
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	public void close() {
+		inMemoryGraph.close();
+	}
+}
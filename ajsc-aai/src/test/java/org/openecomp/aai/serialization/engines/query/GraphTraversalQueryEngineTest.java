@@ -0,0 +1,81 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.serialization.engines.query;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openecomp.aai.db.AAIProperties;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import com.thinkaurelius.titan.core.TitanGraph;
+
+public class GraphTraversalQueryEngineTest {
+
+	private TitanGraph graph;
+	
+	/**
+	 * Opens an in memory graph.
+	 */
+	@Before
+	public void setup() {
+		graph = TitanFactory.build().set("storage.backend", "inmemory").open();
+	}
+	
+	/**
+	 * Closes the graph.
+	 */
+	@After
+	public void tearDown() {
+		graph.close();
+	}
+	
+	/**
+	 * Batched parent chains match the single vertex traversal.
+	 */
+	@Test
+	public void findParentsOfSeveralStarts() {
+		Vertex region = graph.addVertex(AAIProperties.NODE_TYPE, "cloud-region");
+		Vertex tenant = graph.addVertex(AAIProperties.NODE_TYPE, "tenant");
+		Vertex vserver1 = graph.addVertex(AAIProperties.NODE_TYPE, "vserver");
+		Vertex vserver2 = graph.addVertex(AAIProperties.NODE_TYPE, "vserver");
+		Vertex pserver = graph.addVertex(AAIProperties.NODE_TYPE, "pserver");
+		region.addEdge("has", tenant, "isParent", true);
+		tenant.addEdge("owns", vserver1, "isParent", true);
+		tenant.addEdge("owns", vserver2, "isParent", true);
+		vserver1.addEdge("runsOnPserver", pserver, "isParent", false);
+		
+		GraphTraversalQueryEngine engine = new GraphTraversalQueryEngine(null);
+		Map<Object, List<Vertex>> chains = engine.findParents(Arrays.asList(vserver1, vserver2, pserver));
+		
+		assertEquals(3, chains.size());
+		assertEquals(engine.findParents(vserver1), chains.get(vserver1.id()));
+		assertEquals(Arrays.asList(vserver2, tenant, region), chains.get(vserver2.id()));
+		assertEquals(Arrays.asList(pserver), chains.get(pserver.id()));
+	}
+}
@@ -61,7 +61,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 @PrepareForTest({HBaseConfiguration.class, Configuration.class, 
 	HTable.class, Result.class, ResultScanner.class, Scan.class, 
 	Get.class, NotificationEvent.class, 
-	NotificationEvent.EventHeader.class, PojoUtils.class, AAITxnLog.class}) 
+	NotificationEvent.EventHeader.class, PojoUtils.class, AAITxnLog.class, HBaseTxnLogStore.class}) 
 
 public class AAITxnLogTest {
 	
@@ -0,0 +1,65 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ContinuationTokenTest {
+
+	/**
+	 * A token reads back as the range and position it was made from.
+	 */
+	@Test
+	public void roundTrip() {
+		ContinuationToken token = ContinuationToken.decode(new ContinuationToken(4, "1~a~app1~0000000061000~1-tid2").encode());
+		assertEquals(4, token.getRange());
+		assertEquals("1~a~app1~0000000061000~1-tid2", token.getPosition());
+		
+		token = ContinuationToken.decode(new ContinuationToken(2, null).encode());
+		assertEquals(2, token.getRange());
+		assertNull(token.getPosition());
+	}
+	
+	/**
+	 * Positions with colons and characters that aren't URL safe survive the round trip.
+	 */
+	@Test
+	public void roundTripAwkwardPosition() {
+		String position = "0-app1:trans/1+2?x=ü";
+		ContinuationToken token = ContinuationToken.decode(new ContinuationToken(1, position).encode());
+		assertEquals(1, token.getRange());
+		assertEquals(position, token.getPosition());
+	}
+	
+	/**
+	 * A missing or unreadable token starts from the beginning.
+	 */
+	@Test
+	public void unreadable() {
+		for (String bad : new String[] { null, "", "not a token!", "bm9jb2xvbg" }) {
+			ContinuationToken token = ContinuationToken.decode(bad);
+			assertEquals(0, token.getRange());
+			assertNull(token.getPosition());
+		}
+	}
+}
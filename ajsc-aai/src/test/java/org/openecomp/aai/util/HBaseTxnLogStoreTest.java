@@ -0,0 +1,79 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.openecomp.aai.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class HBaseTxnLogStoreTest {
+
+	/**
+	 * Index rows are salted by the minute and sort by time within a resource type or app id.
+	 */
+	@Test
+	public void indexRows() {
+		assertEquals("0~t~PUT~0000000001000~0-tid1", HBaseTxnLogStore.typeIndexRow(1000, "PUT", "0-tid1"));
+		assertEquals("1~t~PUT~0000000061000~1-tid2", HBaseTxnLogStore.typeIndexRow(61000, "PUT", "1-tid2"));
+		assertEquals("2~a~app1~0000000121000~2-tid3", HBaseTxnLogStore.appIndexRow(121000, "app1:trans1", "2-tid3"));
+		assertEquals("0~a~~0000000000000~0-tid4", HBaseTxnLogStore.appIndexRow(0, null, "0-tid4"));
+		assertTrue(HBaseTxnLogStore.typeIndexRow(1000, "PUT", "b").compareTo(HBaseTxnLogStore.typeIndexRow(2000, "PUT", "a")) < 0);
+		assertEquals(61000, HBaseTxnLogStore.indexTime(HBaseTxnLogStore.typeIndexRow(61000, "PUT", "1-tid2")));
+		assertEquals(121000, HBaseTxnLogStore.indexTime(HBaseTxnLogStore.appIndexRow(121000, "app1:trans1", "2-tid3")));
+	}
+	
+	/**
+	 * Methods are read through the type index, one range per salt.
+	 */
+	@Test
+	public void methodPrefixes() {
+		assertEquals(Arrays.asList("0~t~PUT~", "1~t~PUT~", "2~t~PUT~", "0~t~GET~", "1~t~GET~", "2~t~GET~"), 
+				HBaseTxnLogStore.indexPrefixes(Arrays.asList("PUT", "GET"), "app1"));
+	}
+	
+	/**
+	 * An app id filter without a colon covers every app id starting with it, one with a colon only its own app.
+	 */
+	@Test
+	public void appPrefixes() {
+		List<String> prefixes = HBaseTxnLogStore.indexPrefixes(null, "app");
+		assertEquals(Arrays.asList("0~a~app", "1~a~app", "2~a~app"), prefixes);
+		String row = HBaseTxnLogStore.appIndexRow(1000, "app1:trans1", "0-tid1");
+		assertTrue(row.compareTo(prefixes.get(0)) >= 0);
+		assertTrue(row.compareTo(HBaseTxnLogStore.nextPrefix(prefixes.get(0))) < 0);
+		assertTrue(HBaseTxnLogStore.appIndexRow(1000, "apq", "0-tid1").compareTo(HBaseTxnLogStore.nextPrefix(prefixes.get(0))) >= 0);
+		
+		assertEquals(Arrays.asList("0~a~app1~", "1~a~app1~", "2~a~app1~"), HBaseTxnLogStore.indexPrefixes(Collections.<String>emptyList(), "app1:trans"));
+	}
+	
+	/**
+	 * Nothing to bound the scan means no prefixes.
+	 */
+	@Test
+	public void noPrefixes() {
+		assertTrue(HBaseTxnLogStore.indexPrefixes(null, null).isEmpty());
+		assertTrue(HBaseTxnLogStore.indexPrefixes(null, "").isEmpty());
+	}
+}
@@ -0,0 +1,213 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openecomp.aai.domain.translog.TransactionLogEntries;
+import org.openecomp.aai.domain.translog.TransactionLogEntry;
+import org.openecomp.aai.exceptions.AAIException;
+
+public class SegmentTxnLogStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private File dir = null;
+	
+	/**
+	 * Creates the segment directory.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Before
+	public void setup() throws IOException {
+		dir = folder.newFolder("segments");
+	}
+	
+	/**
+	 * An entry reads back with every field it was stored with.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void putThenGet() throws AAIException {
+		SegmentTxnLogStore store = new SegmentTxnLogStore(dir, 1024 * 1024, 3600000);
+		TransactionLogEntry entry = entry("tid1", "PUT", "app1:trans1", "{\"hostname\":\"ünïcode\"}");
+		entry.setNotificationTopic("AAI-EVENT");
+		store.put("0-tid1", entry);
+		
+		TransactionLogEntry result = store.get("0-tid1");
+		assertEquals("tid1", result.getTransactionLogEntryId());
+		assertEquals("PUT", result.getResourceType());
+		assertEquals("app1:trans1", result.getSourceId());
+		assertEquals("{\"hostname\":\"ünïcode\"}", result.getRqstBuf());
+		assertEquals("AAI-EVENT", result.getNotificationTopic());
+		assertNull(result.getNotificationPayload());
+		assertNull(store.get("missing").getTransactionLogEntryId());
+	}
+	
+	/**
+	 * Scans apply the time range, the methods, the app id prefix and the payload filters.
+	 */
+	@Test
+	public void scanFiltered() {
+		SegmentTxnLogStore store = new SegmentTxnLogStore(dir, 1024 * 1024, 3600000);
+		long start = System.currentTimeMillis();
+		store.put("k1", entry("t1", "PUT", "app1:a", "{\"vserver-id\":\"vs1\"}"));
+		store.put("k2", entry("t2", "GET", "app1:b", "{}"));
+		store.put("k3", entry("t3", "PUT", "app2:c", "{\"pserver\":\"ps1\"}"));
+		store.put("k4", entry("t4", "DELETE", "app1:d", "{}"));
+		long end = System.currentTimeMillis() + 1;
+		
+		assertEquals(2, store.scanFiltered(start, end, Arrays.asList("PUT"), null, null, null, null, 100, null).getTransactionLogEntries().size());
+		assertEquals(3, store.scanFiltered(start, end, null, null, null, null, "app1", 100, null).getTransactionLogEntries().size());
+		List<TransactionLogEntry> found = store.scanFiltered(start, end, Arrays.asList("PUT", "DELETE"), "vserver", null, null, null, 100, null).getTransactionLogEntries();
+		assertEquals(1, found.size());
+		assertEquals("t1", found.get(0).getTransactionLogEntryId());
+		assertEquals(0, store.scanFiltered(end, end + 1000, null, null, null, null, null, 100, null).getTransactionLogEntries().size());
+	}
+	
+	/**
+	 * Entries that span several segments are found again after the store is reopened.
+	 *
+	 * @throws AAIException the AAI exception
+	 */
+	@Test
+	public void rollsAndReloadsSegments() throws AAIException {
+		SegmentTxnLogStore store = new SegmentTxnLogStore(dir, 1024, 3600000);
+		char[] payload = new char[300];
+		Arrays.fill(payload, 'x');
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 200; i++) {
+			store.put("key" + i, entry("tid" + i, i % 2 == 0 ? "PUT" : "GET", "app:" + i, new String(payload)));
+		}
+		long end = System.currentTimeMillis() + 1;
+		
+		SegmentTxnLogStore reopened = new SegmentTxnLogStore(dir, 1024, 3600000);
+		assertEquals(100, reopened.scanFiltered(start, end, Arrays.asList("PUT"), null, null, null, null, 1000, null).getTransactionLogEntries().size());
+		assertEquals("tid150", reopened.get("key150").getTransactionLogEntryId());
+		
+		reopened.put("key200", entry("tid200", "PUT", "app:200", "{}"));
+		assertEquals(101, reopened.scanFiltered(start, System.currentTimeMillis() + 1, Arrays.asList("PUT"), null, null, null, null, 1000, null).getTransactionLogEntries().size());
+	}
+	
+	/**
+	 * Pages pick up where the previous one stopped and the last one has no token.
+	 */
+	@Test
+	public void pagesWithContinuationToken() {
+		SegmentTxnLogStore store = new SegmentTxnLogStore(dir, 2048, 3600000);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 25; i++) {
+			store.put("key" + i, entry("tid" + i, "PUT", "app:" + i, "{}"));
+		}
+		long end = System.currentTimeMillis() + 1;
+		
+		Set<String> seen = new HashSet<>();
+		String token = null;
+		int pages = 0;
+		do {
+			TransactionLogEntries page = store.scanFiltered(start, end, Arrays.asList("PUT"), null, null, null, null, 10, token);
+			for (TransactionLogEntry e : page.getTransactionLogEntries()) {
+				seen.add(e.getTransactionLogEntryId());
+			}
+			token = page.getContinuationToken();
+			pages++;
+		} while (token != null);
+		
+		assertEquals(3, pages);
+		assertEquals(25, seen.size());
+	}
+	
+	/**
+	 * Segments older than the retention are dropped with their files, and paging still works after.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void dropsExpiredSegments() throws Exception {
+		SegmentTxnLogStore store = new SegmentTxnLogStore(dir, 1024, 3600000, 500);
+		char[] payload = new char[300];
+		Arrays.fill(payload, 'x');
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 10; i++) {
+			store.put("old" + i, entry("old" + i, "PUT", "app:" + i, new String(payload)));
+		}
+		String[] oldFiles = dir.list();
+		Arrays.sort(oldFiles);
+		Thread.sleep(1000);
+		for (int i = 0; i < 10; i++) {
+			store.put("new" + i, entry("new" + i, "PUT", "app:" + i, new String(payload)));
+		}
+		long end = System.currentTimeMillis() + 1;
+		
+		assertTrue(oldFiles.length > 1);
+		assertFalse(new File(dir, oldFiles[0]).exists());
+		assertNull(store.get("old0").getTransactionLogEntryId());
+		assertEquals("new0", store.get("new0").getTransactionLogEntryId());
+		
+		Set<String> seen = new HashSet<>();
+		String token = null;
+		do {
+			TransactionLogEntries page = store.scanFiltered(start, end, Arrays.asList("PUT"), null, null, null, null, 3, token);
+			for (TransactionLogEntry e : page.getTransactionLogEntries()) {
+				seen.add(e.getTransactionLogEntryId());
+			}
+			token = page.getContinuationToken();
+		} while (token != null);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(seen.contains("new" + i));
+		}
+		assertFalse(seen.contains("old0"));
+		
+		SegmentTxnLogStore reopened = new SegmentTxnLogStore(dir, 1024, 3600000, 500);
+		assertEquals("new9", reopened.get("new9").getTransactionLogEntryId());
+	}
+	
+	private TransactionLogEntry entry(String tid, String method, String sourceId, String rqstBuf) {
+		TransactionLogEntry entry = new TransactionLogEntry();
+		entry.setTransactionLogEntryId(tid);
+		entry.setStatus("200");
+		entry.setRqstDate("20170101-00:00:00:000");
+		entry.setRespDate("20170101-00:00:00:001");
+		entry.setSourceId(sourceId);
+		entry.setResourceId("/aai/v8/cloud-infrastructure/pservers/pserver/ps1");
+		entry.setResourceType(method);
+		entry.setRqstBuf(rqstBuf);
+		entry.setrespBuf("{}");
+		return entry;
+	}
+}
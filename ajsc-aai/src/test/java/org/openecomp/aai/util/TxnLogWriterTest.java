@@ -0,0 +1,263 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * org.openecomp.aai
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.openecomp.aai.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openecomp.aai.util.TxnLogWriter.OverflowPolicy;
+
+public class TxnLogWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private TxnLogWriter writer = null;
+	
+	/**
+	 * In process stand in for the HBase table.
+	 */
+	private static class FakeTable implements TxnLogTable {
+		
+		private final List<List<Put>> batches = new ArrayList<>();
+		private volatile boolean failing = false;
+		private volatile CountDownLatch gate = null;
+		private volatile boolean ignoresInterrupts = false;
+		private volatile boolean closed = false;
+		
+		@Override
+		public void put(List<Put> puts) throws IOException {
+			while (gate != null && gate.getCount() > 0) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					if (!ignoresInterrupts) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			}
+			if (failing) {
+				throw new IOException("table unavailable");
+			}
+			synchronized (batches) {
+				batches.add(new ArrayList<>(puts));
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			closed = true;
+		}
+		
+		public Set<String> rows() {
+			Set<String> result = new HashSet<>();
+			synchronized (batches) {
+				for (List<Put> batch : batches) {
+					for (Put put : batch) {
+						result.add(Bytes.toString(put.getRow()));
+					}
+				}
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * Stops the writer.
+	 */
+	@After
+	public void tearDown() {
+		if (writer != null) {
+			writer.shutdown(5000);
+		}
+	}
+	
+	/**
+	 * A full batch is written without waiting for the interval.
+	 */
+	@Test
+	public void flushesWhenBatchIsFull() {
+		FakeTable table = new FakeTable();
+		writer = new TxnLogWriter(table, 100, 5, 60000, OverflowPolicy.DROP, null);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(writer.submit(put("row" + i)));
+		}
+		
+		waitFor(() -> writer.getWrittenCount() == 10);
+		assertEquals(2, writer.getBatchCount());
+		assertEquals(5, writer.getMaxBatchSize());
+		assertEquals(10, table.rows().size());
+	}
+	
+	/**
+	 * A partial batch is written once the interval passes.
+	 */
+	@Test
+	public void flushesOnInterval() {
+		FakeTable table = new FakeTable();
+		writer = new TxnLogWriter(table, 100, 100, 50, OverflowPolicy.DROP, null);
+		for (int i = 0; i < 3; i++) {
+			writer.submit(put("row" + i));
+		}
+		
+		waitFor(() -> writer.getWrittenCount() == 3);
+		assertEquals(1, writer.getBatchCount());
+		assertEquals(3, writer.getLastBatchSize());
+		assertEquals(0, writer.getQueueDepth());
+	}
+	
+	/**
+	 * Puts that don't fit are dropped and counted.
+	 */
+	@Test
+	public void dropsWhenQueueIsFull() {
+		FakeTable table = new FakeTable();
+		table.gate = new CountDownLatch(1);
+		writer = new TxnLogWriter(table, 2, 1, 60000, OverflowPolicy.DROP, null);
+		writer.submit(put("first"));
+		waitFor(() -> writer.getQueueDepth() == 0);
+		assertTrue(writer.submit(put("second")));
+		assertTrue(writer.submit(put("third")));
+		assertFalse(writer.submit(put("fourth")));
+		assertEquals(1, writer.getDroppedCount());
+		
+		table.gate.countDown();
+		waitFor(() -> writer.getWrittenCount() == 3);
+		assertFalse(table.rows().contains("fourth"));
+	}
+	
+	/**
+	 * Puts submitted together are dropped together when they don't all fit.
+	 */
+	@Test
+	public void dropsWholeUnitWhenQueueIsFull() {
+		FakeTable table = new FakeTable();
+		table.gate = new CountDownLatch(1);
+		writer = new TxnLogWriter(table, 4, 1, 60000, OverflowPolicy.DROP, null);
+		writer.submit(put("first"));
+		waitFor(() -> writer.getQueueDepth() == 0);
+		assertTrue(writer.submit(Arrays.asList(put("row1"), put("index1"))));
+		assertFalse(writer.submit(Arrays.asList(put("row2"), put("index2a"), put("index2b"))));
+		assertEquals(2, writer.getQueueDepth());
+		assertEquals(3, writer.getDroppedCount());
+		
+		table.gate.countDown();
+		waitFor(() -> writer.getWrittenCount() == 3);
+		assertTrue(table.rows().contains("index1"));
+		assertFalse(table.rows().contains("row2"));
+		assertFalse(table.rows().contains("index2a"));
+	}
+	
+	/**
+	 * A writer stuck past the timeout is interrupted, and the table is closed once it stops.
+	 */
+	@Test
+	public void shutdownInterruptsStuckWriter() {
+		FakeTable table = new FakeTable();
+		table.gate = new CountDownLatch(1);
+		writer = new TxnLogWriter(table, 10, 1, 60000, OverflowPolicy.DROP, null);
+		writer.submit(put("first"));
+		waitFor(() -> writer.getQueueDepth() == 0);
+		
+		writer.shutdown(50);
+		assertEquals(1, writer.getWrittenCount());
+		assertTrue(table.closed);
+	}
+	
+	/**
+	 * A writer that won't stop leaves the table open rather than failing its batch.
+	 */
+	@Test
+	public void shutdownLeavesTableOpenForRunningWriter() {
+		FakeTable table = new FakeTable();
+		table.gate = new CountDownLatch(1);
+		table.ignoresInterrupts = true;
+		writer = new TxnLogWriter(table, 10, 1, 60000, OverflowPolicy.DROP, null);
+		writer.submit(put("first"));
+		waitFor(() -> writer.getQueueDepth() == 0);
+		
+		writer.shutdown(50);
+		assertFalse(table.closed);
+		
+		table.gate.countDown();
+		waitFor(() -> writer.getWrittenCount() == 1);
+	}
+	
+	/**
+	 * Batches the table rejects go to disk and are written once it is back.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void spillsAndReplays() throws IOException {
+		FakeTable table = new FakeTable();
+		table.failing = true;
+		writer = new TxnLogWriter(table, 100, 10, 20, OverflowPolicy.SPILL, folder.newFolder("spill"));
+		for (int i = 0; i < 4; i++) {
+			writer.submit(put("row" + i));
+		}
+		
+		waitFor(() -> writer.getSpilledCount() == 4);
+		assertEquals(0, writer.getWrittenCount());
+		
+		table.failing = false;
+		waitFor(() -> writer.getWrittenCount() == 4);
+		assertEquals(4, table.rows().size());
+		assertTrue(table.rows().contains("row3"));
+		assertEquals(0, writer.getDroppedCount());
+	}
+	
+	private Put put(String row) {
+		Put p = new Put(Bytes.toBytes(row));
+		p.add(Bytes.toBytes("transaction"), Bytes.toBytes("tid"), Bytes.toBytes(row));
+		p.add(Bytes.toBytes("payload"), Bytes.toBytes("rqstBuf"), Bytes.toBytes("{}"));
+		return p;
+	}
+	
+	private void waitFor(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!condition.getAsBoolean()) {
+			assertTrue("timed out waiting for the writer", System.currentTimeMillis() < deadline);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}